@@ -0,0 +1,93 @@
+package ru.gx.core.data.save;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Накопительный буфер под конкурентной нагрузкой: четыре производителя добавляют элементы,
+ * один потребитель (поток сохранения) забирает накопленное.
+ * <ul>
+ *     <li>{@code MpscRingBuffer} - текущий буфер {@link DbSavingDescriptor}-а ({@link MpscRingBuffer});</li>
+ *     <li>{@code SynchronizedList} - прежняя схема: {@link ArrayList} под монитором Descriptor-а,
+ *     потребитель под тем же монитором переносит накопленное в свой список.</li>
+ * </ul>
+ * Результат группы {@code producers} - пропускная способность добавления; отказы при заполненном буфере
+ * учитываются как операции (в обоих вариантах одинаково).
+ */
+@SuppressWarnings("unused")
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccumulateBufferBenchmark {
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Parameters">
+    @Param({"MpscRingBuffer", "SynchronizedList"})
+    public String bufferType;
+
+    @Param({"1024", "16384"})
+    public int bufferLimit;
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Fields">
+    private MpscRingBuffer<Object> ring;
+
+    private List<Object> list;
+
+    private final Object monitor = new Object();
+
+    private final Object item = new Object();
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Lifecycle">
+    @Setup(Level.Trial)
+    public void setup() {
+        this.ring = new MpscRingBuffer<>(this.bufferLimit);
+        this.list = new ArrayList<>(this.bufferLimit);
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Benchmarks">
+    @Benchmark
+    @Group("accumulate")
+    @GroupThreads(4)
+    public boolean producers() {
+        if ("MpscRingBuffer".equals(this.bufferType)) {
+            return this.ring.offer(this.item);
+        }
+        synchronized (this.monitor) {
+            if (this.list.size() >= this.bufferLimit) {
+                return false;
+            }
+            return this.list.add(this.item);
+        }
+    }
+
+    @Benchmark
+    @Group("accumulate")
+    @GroupThreads(1)
+    public void consumer(final Blackhole blackhole) {
+        if ("MpscRingBuffer".equals(this.bufferType)) {
+            blackhole.consume(this.ring.drain(blackhole::consume));
+            return;
+        }
+        final List<Object> drained;
+        synchronized (this.monitor) {
+            drained = new ArrayList<>(this.list);
+            this.list.clear();
+        }
+        drained.forEach(blackhole::consume);
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+}
@@ -0,0 +1,262 @@
+package ru.gx.core.data.save;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import ru.gx.core.data.DataObject;
+import ru.gx.core.data.sqlwrapping.SqlCommandWrapper;
+import ru.gx.core.data.sqlwrapping.ThreadConnectionsWrapper;
+import ru.gx.core.data.sqlwrapping.memory.MemoryConnectionWrapper;
+import ru.gx.core.data.sqlwrapping.memory.MemoryDatabaseSimulation;
+import ru.gx.core.data.sqlwrapping.memory.MemoryThreadConnectionsWrapper;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Общие объекты benchmark-ов: тестовый объект данных, конфигурация и операторы сохранения
+ * поверх соединения-заглушки в памяти.
+ */
+@SuppressWarnings("unused")
+public final class BenchmarkSupport {
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Constants">
+    public static final String SAVE_COMMAND = "call bench_save(?)";
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Initialization">
+    private BenchmarkSupport() {
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Factories">
+
+    /**
+     * @return Соединение-заглушка, которое не запоминает выполненные команды (для длительных замеров).
+     */
+    @NotNull
+    public static MemoryThreadConnectionsWrapper createDiscardingConnections() {
+        return createDiscardingConnections(null);
+    }
+
+    /**
+     * @param simulation имитация поведения БД (null - команды выполняются мгновенно).
+     * @return Соединение-заглушка, которое не запоминает выполненные команды.
+     */
+    @NotNull
+    public static MemoryThreadConnectionsWrapper createDiscardingConnections(@Nullable final MemoryDatabaseSimulation simulation) {
+        final var connection = new MemoryConnectionWrapper(simulation);
+        connection.setRecordExecutions(false);
+        return new MemoryThreadConnectionsWrapper(connection);
+    }
+
+    @NotNull
+    public static BenchmarkConfiguration createConfiguration(@NotNull final ThreadConnectionsWrapper connections) {
+        return new BenchmarkConfiguration(connections);
+    }
+
+    /**
+     * @return Оператор сохранения для способа представления данных.
+     */
+    @NotNull
+    public static AbstractDbSavingOperator createOperator(
+            @NotNull final DbSavingSerializeMode serializeMode,
+            @NotNull final ThreadConnectionsWrapper connections
+    ) {
+        return switch (serializeMode) {
+            case Json -> new BenchmarkJsonOperator(new ObjectMapper().findAndRegisterModules(), connections);
+            case Smile -> new BenchmarkSmileOperator(connections);
+            case Cbor -> new BenchmarkCborOperator(connections);
+            default -> throw new IllegalArgumentException("Unsupported serializeMode " + serializeMode);
+        };
+    }
+
+    /**
+     * Создание инициализированного Descriptor-а сохранения объектов {@link BenchmarkObject}.
+     */
+    @NotNull
+    public static DbSavingDescriptor createDescriptor(
+            @NotNull final AbstractDbSavingConfiguration configuration,
+            @NotNull final String channelName,
+            @NotNull final DbSavingSerializeMode serializeMode,
+            @NotNull final DbSavingAccumulateMode accumulateMode,
+            final int bufferLimit,
+            final int bufferForMs
+    ) {
+        final var result = new DbSavingDescriptor(configuration, channelName, null)
+                .setDataObjectClass(BenchmarkObject.class)
+                .setSerializeMode(serializeMode)
+                .setAccumulateMode(accumulateMode)
+                .setSaveOperator(createOperator(serializeMode, configuration.getThreadConnectionsWrapper()))
+                .setSaveCommand(SAVE_COMMAND)
+                .setUseTransactionDueSave(false)
+                .setBufferLimit(bufferLimit);
+        result.setBufferForMs(bufferForMs);
+        result.setAdmissionMode(DbSavingAdmissionMode.Block);
+        return result.init();
+    }
+
+    @NotNull
+    public static List<BenchmarkObject> createObjects(final int count) {
+        final var result = new ArrayList<BenchmarkObject>(count);
+        for (var i = 0; i < count; i++) {
+            result.add(new BenchmarkObject(i));
+        }
+        return result;
+    }
+
+    @NotNull
+    private static SqlCommandWrapper prepareCallable(
+            @NotNull final ThreadConnectionsWrapper connections,
+            @NotNull final String sqlCommand
+    ) throws SQLException {
+        try {
+            return connections.getCurrentThreadConnection().getCallable(sqlCommand);
+        } catch (IOException e) {
+            throw new SQLException(e);
+        }
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Classes">
+
+    /**
+     * Объект данных, по размеру близкий к котировке.
+     */
+    public static class BenchmarkObject implements DataObject {
+        private final long id;
+
+        private final String code;
+
+        private final BigDecimal price;
+
+        private final long volume;
+
+        private final long updatedMillis;
+
+        public BenchmarkObject(final long id) {
+            this.id = id;
+            this.code = "INSTR-" + (id % 1000);
+            this.price = BigDecimal.valueOf(100_000 + id % 10_000, 2);
+            this.volume = id * 7;
+            this.updatedMillis = 1_640_995_200_000L + id * 1000;
+        }
+
+        public long getId() {
+            return this.id;
+        }
+
+        public String getCode() {
+            return this.code;
+        }
+
+        public BigDecimal getPrice() {
+            return this.price;
+        }
+
+        public long getVolume() {
+            return this.volume;
+        }
+
+        public long getUpdatedMillis() {
+            return this.updatedMillis;
+        }
+    }
+
+    public static class BenchmarkConfiguration extends AbstractDbSavingConfiguration {
+        public BenchmarkConfiguration(@NotNull final ThreadConnectionsWrapper connections) {
+            super("benchmark", event -> {
+            }, connections, new SimpleMeterRegistry());
+        }
+
+        @Override
+        public void setFlushScheduler(@Nullable final DbSavingFlushScheduler flushScheduler) {
+            super.setFlushScheduler(flushScheduler);
+        }
+    }
+
+    public static class BenchmarkJsonOperator extends AbstractJsonDbSavingOperator {
+        @NotNull
+        private final ThreadConnectionsWrapper connections;
+
+        public BenchmarkJsonOperator(@NotNull final ObjectMapper objectMapper, @NotNull final ThreadConnectionsWrapper connections) {
+            super(objectMapper);
+            this.connections = connections;
+        }
+
+        @Override
+        @NotNull
+        public SqlCommandWrapper prepareStatement(
+                @NotNull final String sqlCommand,
+                @NotNull final DbSavingAccumulateMode accumulateMode
+        ) throws SQLException {
+            return prepareCallable(this.connections, sqlCommand);
+        }
+
+        @Override
+        protected void executeStatement(@NotNull final SqlCommandWrapper statement, @NotNull final Object data) throws SQLException {
+            statement.setStringParam(1, (String) data);
+            statement.executeNoResult();
+        }
+    }
+
+    public static class BenchmarkSmileOperator extends AbstractSmileDbSavingOperator {
+        @NotNull
+        private final ThreadConnectionsWrapper connections;
+
+        public BenchmarkSmileOperator(@NotNull final ThreadConnectionsWrapper connections) {
+            super();
+            this.connections = connections;
+        }
+
+        @Override
+        @NotNull
+        public SqlCommandWrapper prepareStatement(
+                @NotNull final String sqlCommand,
+                @NotNull final DbSavingAccumulateMode accumulateMode
+        ) throws SQLException {
+            return prepareCallable(this.connections, sqlCommand);
+        }
+
+        @Override
+        protected void executeStatement(@NotNull final SqlCommandWrapper statement, @NotNull final Object data) throws SQLException {
+            statement.setBinaryParam(1, (byte[]) data);
+            statement.executeNoResult();
+        }
+    }
+
+    public static class BenchmarkCborOperator extends AbstractCborDbSavingOperator {
+        @NotNull
+        private final ThreadConnectionsWrapper connections;
+
+        public BenchmarkCborOperator(@NotNull final ThreadConnectionsWrapper connections) {
+            super();
+            this.connections = connections;
+        }
+
+        @Override
+        @NotNull
+        public SqlCommandWrapper prepareStatement(
+                @NotNull final String sqlCommand,
+                @NotNull final DbSavingAccumulateMode accumulateMode
+        ) throws SQLException {
+            return prepareCallable(this.connections, sqlCommand);
+        }
+
+        @Override
+        protected void executeStatement(@NotNull final SqlCommandWrapper statement, @NotNull final Object data) throws SQLException {
+            statement.setBinaryParam(1, (byte[]) data);
+            statement.executeNoResult();
+        }
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+}
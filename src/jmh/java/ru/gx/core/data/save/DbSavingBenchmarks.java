@@ -0,0 +1,36 @@
+package ru.gx.core.data.save;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Запуск benchmark-ов сохранения с профилировщиком GC (выделение памяти на операцию).
+ * <p>
+ * Запуск:
+ * <pre>
+ * ./gradlew jmh
+ * ./gradlew jmh --args='SaveDataBenchmark -p itemsCount=1000'
+ * mvn -Pjmh compile exec:java -Dexec.args="SaveDataBenchmark"
+ * </pre>
+ * Аргументы командной строки - те же, что у {@code org.openjdk.jmh.Main}.
+ */
+@SuppressWarnings("unused")
+public final class DbSavingBenchmarks {
+    private DbSavingBenchmarks() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        final var commandLineOptions = new CommandLineOptions(args);
+        final var options = new OptionsBuilder()
+                .parent(commandLineOptions)
+                .addProfiler(GCProfiler.class);
+        if (commandLineOptions.getIncludes().isEmpty()) {
+            options.include(DbSavingBenchmarks.class.getPackageName() + ".*Benchmark");
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,304 @@
+package ru.gx.core.data.save;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.jetbrains.annotations.NotNull;
+import ru.gx.core.data.errors.BufferIsFullException;
+import ru.gx.core.data.sqlwrapping.memory.MemoryDatabaseSimulation;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Длительная нагрузочная проверка сохранения без БД: для каждого режима накопления данных производители
+ * в течение заданного времени передают объекты в {@link DbSavingDescriptor}, который сохраняет их
+ * в соединение-заглушку с имитацией БД ({@link MemoryDatabaseSimulation}).
+ * <p>
+ * Для каждого режима выводятся: устойчивая пропускная способность (подтвержденных объектов в секунду),
+ * задержка сохранения объекта (от {@code submit} до подтверждения фиксации в БД: p50, p99, max),
+ * количество подтверждений, завершенных ошибкой (данные при этом остаются в буфере и сохраняются повторно),
+ * отказов при заполненном буфере и имитированных ошибок БД.
+ * <p>
+ * Объекты передаются в {@link DbSavingSerializeMode#Json}; в режимах RAW-объектов передаются заранее
+ * сериализованные строки Json.
+ * <p>
+ * Запуск (параметры в виде key=value, все необязательны):
+ * <pre>
+ * ./gradlew soak --args='durationSec=60 producers=8 ratePerSecond=50000 callLatencyMicros=2000 failureProbability=0.01'
+ * mvn -Pjmh compile exec:java -Djmh.mainClass=ru.gx.core.data.save.DbSavingSoakHarness -Dexec.args="modes=ListOfObjects outage=20000:5000"
+ * </pre>
+ * Параметры: durationSec, producers, ratePerSecond (0 - без ограничения), bufferLimit, bufferForMs, modes
+ * (через запятую), retryInitialDelayMs, retryMaxDelayMs, callLatencyMicros, latencyJitterMicros, rowLatencyMicros, maxCallsPerSecond, maxBytesPerSecond,
+ * failureProbability, outage (fromMs:durationMs через запятую).
+ * Режимы сообщений и пакетов (требуют messagesFactory и классов пакетов прикладного кода) не проверяются.
+ */
+@SuppressWarnings("unused")
+public final class DbSavingSoakHarness {
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Constants">
+    private static final Set<DbSavingAccumulateMode> SUPPORTED_MODES = EnumSet.of(
+            DbSavingAccumulateMode.PerObject,
+            DbSavingAccumulateMode.ListOfObjects,
+            DbSavingAccumulateMode.BatchPerObject,
+            DbSavingAccumulateMode.PerRawObject,
+            DbSavingAccumulateMode.ListOfRawObjects,
+            DbSavingAccumulateMode.BatchPerRawObject
+    );
+
+    private static final int OBJECTS_COUNT = 4096;
+
+    private static final long DRAIN_TIMEOUT_MS = 60_000;
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Fields">
+    @NotNull
+    private final Map<String, String> params;
+
+    @NotNull
+    private final List<BenchmarkSupport.BenchmarkObject> objects = BenchmarkSupport.createObjects(OBJECTS_COUNT);
+
+    @NotNull
+    private final List<String> rawObjects = new ArrayList<>(OBJECTS_COUNT);
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Initialization">
+    private DbSavingSoakHarness(@NotNull final Map<String, String> params) throws JsonProcessingException {
+        this.params = params;
+        final var objectMapper = new ObjectMapper();
+        for (final var object : this.objects) {
+            this.rawObjects.add(objectMapper.writeValueAsString(object));
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException, JsonProcessingException {
+        final var params = new HashMap<String, String>();
+        for (final var arg : args) {
+            final var pos = arg.indexOf('=');
+            if (pos <= 0) {
+                throw new IllegalArgumentException("Argument must be key=value: " + arg);
+            }
+            params.put(arg.substring(0, pos), arg.substring(pos + 1));
+        }
+        new DbSavingSoakHarness(params).run();
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Run">
+    private void run() throws InterruptedException {
+        final var modes = new ArrayList<DbSavingAccumulateMode>();
+        final var modesParam = this.params.get("modes");
+        if (modesParam == null) {
+            modes.addAll(SUPPORTED_MODES);
+        } else {
+            for (final var modeName : modesParam.split(",")) {
+                final var mode = DbSavingAccumulateMode.valueOf(modeName.trim());
+                if (!SUPPORTED_MODES.contains(mode)) {
+                    throw new IllegalArgumentException("Unsupported accumulateMode " + mode + ", supported: " + SUPPORTED_MODES);
+                }
+                modes.add(mode);
+            }
+        }
+
+        System.out.printf("Soak: %s%n", this.params);
+        System.out.printf("%-18s %12s %14s %10s %10s %10s %10s %10s %10s %10s %10s%n",
+                "accumulateMode", "acked", "acked/s", "p50 ms", "p99 ms", "max ms",
+                "ackFailed", "rejected", "submitErr", "dbErrors", "dbOutage");
+        for (final var mode : modes) {
+            final var result = runMode(mode);
+            System.out.printf("%-18s %12d %14.0f %10.2f %10.2f %10.2f %10d %10d %10d %10d %10d%n",
+                    mode, result.acked, result.ackedPerSecond, result.p50Ms, result.p99Ms, result.maxMs,
+                    result.ackFailed, result.rejected, result.submitErrors, result.dbErrors, result.dbOutageRejections);
+        }
+    }
+
+    @NotNull
+    private ModeResult runMode(@NotNull final DbSavingAccumulateMode accumulateMode) throws InterruptedException {
+        final var durationMs = TimeUnit.SECONDS.toMillis(getLong("durationSec", 30));
+        final var producersCount = (int) getLong("producers", 4);
+        final var ratePerSecond = getLong("ratePerSecond", 0);
+
+        final var simulation = createSimulation();
+        final var configuration = BenchmarkSupport.createConfiguration(BenchmarkSupport.createDiscardingConnections(simulation));
+        final var scheduler = new DbSavingFlushScheduler("soak-" + accumulateMode);
+        scheduler.start();
+        configuration.setFlushScheduler(scheduler);
+
+        final var descriptor = new DbSavingDescriptor(configuration, "soak-" + accumulateMode, null)
+                .setDataObjectClass(BenchmarkSupport.BenchmarkObject.class)
+                .setSerializeMode(DbSavingSerializeMode.Json)
+                .setAccumulateMode(accumulateMode)
+                .setSaveOperator(BenchmarkSupport.createOperator(DbSavingSerializeMode.Json, configuration.getThreadConnectionsWrapper()))
+                .setSaveCommand(BenchmarkSupport.SAVE_COMMAND)
+                .setUseTransactionDueSave(true)
+                .setBufferLimit((int) getLong("bufferLimit", 1000));
+        descriptor.setBufferForMs((int) getLong("bufferForMs", 50));
+        descriptor.setAdmissionMode(DbSavingAdmissionMode.Block);
+        descriptor.setRetryPolicy(new DbSavingRetryPolicy()
+                .setInitialDelayMs(getLong("retryInitialDelayMs", 100))
+                .setMaxDelayMs(getLong("retryMaxDelayMs", 5000)));
+        descriptor.init();
+
+        final var meterRegistry = new SimpleMeterRegistry();
+        final var latency = Timer.builder("soak.save.latency")
+                .publishPercentiles(0.5, 0.99)
+                .percentilePrecision(2)
+                // Процентили за всю проверку, а не за последнее окно
+                .distributionStatisticExpiry(Duration.ofMillis(durationMs + DRAIN_TIMEOUT_MS))
+                .distributionStatisticBufferLength(1)
+                .register(meterRegistry);
+        final var acked = new AtomicLong();
+        final var ackFailed = new AtomicLong();
+        final var rejected = new AtomicLong();
+        final var submitErrors = new AtomicLong();
+        final var pending = new AtomicLong();
+
+        final var startedNanos = System.nanoTime();
+        final var deadlineNanos = startedNanos + TimeUnit.MILLISECONDS.toNanos(durationMs);
+        final var producerIntervalNanos = ratePerSecond > 0 ? TimeUnit.SECONDS.toNanos(producersCount) / ratePerSecond : 0;
+        final var raw = switch (accumulateMode) {
+            case PerRawObject, ListOfRawObjects, BatchPerRawObject -> true;
+            default -> false;
+        };
+        final var producers = new ArrayList<Thread>(producersCount);
+        for (var i = 0; i < producersCount; i++) {
+            final var producerIndex = i;
+            final var producer = new Thread(() -> {
+                var index = producerIndex;
+                var nextNanos = System.nanoTime();
+                while (System.nanoTime() < deadlineNanos) {
+                    if (producerIntervalNanos > 0) {
+                        LockSupport.parkNanos(nextNanos - System.nanoTime());
+                        nextNanos += producerIntervalNanos;
+                    }
+                    final var objectIndex = index % OBJECTS_COUNT;
+                    index += producersCount;
+                    final var submittedNanos = System.nanoTime();
+                    try {
+                        final CompletableFuture<Void> ack = raw
+                                ? descriptor.submitRawObject(this.rawObjects.get(objectIndex))
+                                : descriptor.submitObject(this.objects.get(objectIndex));
+                        pending.incrementAndGet();
+                        ack.whenComplete((result, error) -> {
+                            if (error == null) {
+                                latency.record(System.nanoTime() - submittedNanos, TimeUnit.NANOSECONDS);
+                                acked.incrementAndGet();
+                            } else {
+                                ackFailed.incrementAndGet();
+                            }
+                            pending.decrementAndGet();
+                        });
+                    } catch (BufferIsFullException e) {
+                        rejected.incrementAndGet();
+                    } catch (Exception e) {
+                        submitErrors.incrementAndGet();
+                    }
+                }
+            }, "soak-producer-" + i);
+            producers.add(producer);
+            producer.start();
+        }
+        for (final var producer : producers) {
+            producer.join();
+        }
+
+        // Дожидаемся подтверждения всех переданных объектов
+        final var drainDeadline = System.currentTimeMillis() + DRAIN_TIMEOUT_MS;
+        while (pending.get() > 0 && System.currentTimeMillis() < drainDeadline) {
+            Thread.sleep(10);
+        }
+        final var elapsedSeconds = (System.nanoTime() - startedNanos) / 1e9;
+        scheduler.stop();
+        configuration.setFlushScheduler(null);
+        descriptor.unInit();
+
+        final var snapshot = latency.takeSnapshot();
+        final var result = new ModeResult();
+        result.acked = acked.get();
+        result.ackedPerSecond = result.acked / elapsedSeconds;
+        for (final ValueAtPercentile percentile : snapshot.percentileValues()) {
+            if (percentile.percentile() == 0.5) {
+                result.p50Ms = percentile.value(TimeUnit.MILLISECONDS);
+            } else if (percentile.percentile() == 0.99) {
+                result.p99Ms = percentile.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        result.maxMs = snapshot.max(TimeUnit.MILLISECONDS);
+        // Не подтвержденные за время ожидания считаем завершенными ошибкой
+        result.ackFailed = ackFailed.get() + pending.get();
+        result.rejected = rejected.get();
+        result.submitErrors = submitErrors.get();
+        result.dbErrors = simulation.getFailuresCount();
+        result.dbOutageRejections = simulation.getOutageRejectionsCount();
+        return result;
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Internal methods">
+    @NotNull
+    private MemoryDatabaseSimulation createSimulation() {
+        final var result = new MemoryDatabaseSimulation()
+                .setCallLatencyMicros(getLong("callLatencyMicros", 1000))
+                .setLatencyJitterMicros(getLong("latencyJitterMicros", 500))
+                .setRowLatencyMicros(getLong("rowLatencyMicros", 0))
+                .setMaxCallsPerSecond(getLong("maxCallsPerSecond", 0))
+                .setMaxBytesPerSecond(getLong("maxBytesPerSecond", 0))
+                .setFailureProbability(Double.parseDouble(this.params.getOrDefault("failureProbability", "0")));
+        final var outages = this.params.get("outage");
+        if (outages != null) {
+            for (final var outage : outages.split(",")) {
+                final var parts = outage.split(":");
+                result.addOutage(Long.parseLong(parts[0].trim()), Long.parseLong(parts[1].trim()));
+            }
+        }
+        return result;
+    }
+
+    private long getLong(@NotNull final String name, final long defaultValue) {
+        final var value = this.params.get(name);
+        return value == null ? defaultValue : Long.parseLong(value);
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Classes">
+    private static class ModeResult {
+        private long acked;
+
+        private double ackedPerSecond;
+
+        private double p50Ms;
+
+        private double p99Ms;
+
+        private double maxMs;
+
+        private long ackFailed;
+
+        private long rejected;
+
+        private long submitErrors;
+
+        private long dbErrors;
+
+        private long dbOutageRejections;
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+}
@@ -0,0 +1,69 @@
+package ru.gx.core.data.save;
+
+import org.openjdk.jmh.annotations.*;
+import ru.gx.core.data.DataObject;
+import ru.gx.core.data.sqlwrapping.SqlCommandWrapper;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сериализация и передача в команду пачки объектов операторами Json / Smile / Cbor
+ * (режим {@link DbSavingAccumulateMode#ListOfObjects}) для разных размеров пачки.
+ * Команда выполняется на соединении-заглушке, поэтому замеряется только работа оператора.
+ */
+@SuppressWarnings("unused")
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OperatorSerializationBenchmark {
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Parameters">
+    @Param({"Json", "Smile", "Cbor"})
+    public DbSavingSerializeMode serializeMode;
+
+    @Param({"10", "100", "1000", "10000"})
+    public int itemsCount;
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Fields">
+    private AbstractDbSavingOperator operator;
+
+    private SqlCommandWrapper statement;
+
+    private List<DataObject> items;
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Lifecycle">
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        final var connections = BenchmarkSupport.createDiscardingConnections();
+        this.operator = BenchmarkSupport.createOperator(this.serializeMode, connections);
+        this.statement = this.operator.prepareStatement(BenchmarkSupport.SAVE_COMMAND, DbSavingAccumulateMode.ListOfObjects);
+        this.items = new ArrayList<>(BenchmarkSupport.createObjects(this.itemsCount));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        this.statement.close();
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Benchmarks">
+    @Benchmark
+    public void saveListOfObjects() throws SQLException, IOException {
+        this.operator.saveData(this.statement, this.items, DbSavingAccumulateMode.ListOfObjects);
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+}
@@ -0,0 +1,98 @@
+package ru.gx.core.data.save;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Добавление объектов в буфер {@link DbSavingDescriptor}-а несколькими потоками-производителями одновременно.
+ * <p>
+ * Планировщик сохранений не задан, поэтому при заполнении буфера сохранение выполняет один из производителей
+ * (остальные продолжают добавлять данные в накопительный буфер). Замеряется пропускная способность
+ * производителей вместе с сохранением в соединение-заглушку.
+ */
+@SuppressWarnings("unused")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProcessObjectBenchmark {
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Parameters">
+    private static final int OBJECTS_COUNT = 4096;
+
+    @Param({"100", "1000", "10000"})
+    public int bufferLimit;
+
+    @Param({"ListOfObjects", "PerObject"})
+    public DbSavingAccumulateMode accumulateMode;
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Fields">
+    private DbSavingDescriptor descriptor;
+
+    private List<BenchmarkSupport.BenchmarkObject> objects;
+
+    private final AtomicInteger nextIndex = new AtomicInteger();
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Lifecycle">
+    @Setup(Level.Trial)
+    public void setup() {
+        final var configuration = BenchmarkSupport.createConfiguration(BenchmarkSupport.createDiscardingConnections());
+        this.descriptor = BenchmarkSupport.createDescriptor(
+                configuration,
+                "process-object",
+                DbSavingSerializeMode.Json,
+                this.accumulateMode,
+                this.bufferLimit,
+                10
+        );
+        this.objects = BenchmarkSupport.createObjects(OBJECTS_COUNT);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.descriptor.unInit();
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Benchmarks">
+    @Benchmark
+    @Threads(1)
+    public void processObjectSingleProducer() throws SQLException, IOException {
+        this.descriptor.processObject(nextObject(), null);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void processObjectFourProducers() throws SQLException, IOException {
+        this.descriptor.processObject(nextObject(), null);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void submitObjectFourProducers(final Blackhole blackhole) throws SQLException, IOException {
+        blackhole.consume(this.descriptor.submitObject(nextObject()));
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Internal methods">
+    private BenchmarkSupport.BenchmarkObject nextObject() {
+        return this.objects.get((this.nextIndex.getAndIncrement() & Integer.MAX_VALUE) % OBJECTS_COUNT);
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+}
@@ -0,0 +1,109 @@
+package ru.gx.core.data.save;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Полный цикл сохранения пачки {@link DbSavingDescriptor#internalSaveData()}: перенос из накопительного буфера,
+ * сериализация, выполнение команды на соединении-заглушке, завершение подтверждений и метрики.
+ * <p>
+ * Буфер заполняется внутри замера: {@code @Setup(Level.Invocation)} для вызовов длительностью в микросекунды
+ * искажает результат. Поэтому {@link #fillAndSave()} сравнивается с {@link #fillOnly()} (заполнение и отбрасывание
+ * буфера без сохранения): стоимость сохранения - разница между ними. Время накопления и размер буфера заданы так,
+ * чтобы сохранение не выполнялось при заполнении.
+ */
+@SuppressWarnings("unused")
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SaveDataBenchmark {
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Parameters">
+    @Param({"Json", "Smile"})
+    public DbSavingSerializeMode serializeMode;
+
+    @Param({"ListOfObjects", "PerObject"})
+    public DbSavingAccumulateMode accumulateMode;
+
+    @Param({"100", "1000"})
+    public int itemsCount;
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Fields">
+    private DbSavingDescriptor descriptor;
+
+    private List<BenchmarkSupport.BenchmarkObject> objects;
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Lifecycle">
+    @Setup(Level.Trial)
+    public void setup() {
+        final var configuration = BenchmarkSupport.createConfiguration(BenchmarkSupport.createDiscardingConnections());
+        this.descriptor = BenchmarkSupport.createDescriptor(
+                configuration,
+                "save-data",
+                this.serializeMode,
+                this.accumulateMode,
+                this.itemsCount * 2,
+                Integer.MAX_VALUE
+        );
+        this.objects = BenchmarkSupport.createObjects(this.itemsCount);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.descriptor.unInit();
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Benchmarks">
+    @Benchmark
+    public void fillAndSave() throws SQLException, IOException {
+        fillBuffer();
+        final var lock = this.descriptor.getFlushLock();
+        lock.lock();
+        try {
+            this.descriptor.internalSaveData();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Базовая линия: заполнение буфера, перенос в буфер для сохранения и очистка без сохранения.
+     */
+    @Benchmark
+    public void fillOnly() throws SQLException, IOException {
+        fillBuffer();
+        final var lock = this.descriptor.getFlushLock();
+        lock.lock();
+        try {
+            this.descriptor.internalDrainBuffer(Integer.MAX_VALUE);
+            this.descriptor.resetBuffer();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Internal methods">
+    private void fillBuffer() throws SQLException, IOException {
+        for (final var object : this.objects) {
+            this.descriptor.processObject(object, null);
+        }
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+}
@@ -2,6 +2,7 @@ package ru.gx.core.data.save;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
 import lombok.experimental.Accessors;
 import org.jetbrains.annotations.NotNull;
 import ru.gx.core.data.DataObject;
@@ -10,25 +11,101 @@ import ru.gx.core.data.sqlwrapping.SqlCommandWrapper;
 import ru.gx.core.messaging.Message;
 
 import java.sql.SQLException;
+import java.util.zip.Deflater;
 
 @SuppressWarnings("unused")
 @Accessors(chain = true)
 public abstract class AbstractBinaryDbSavingOperator
         extends AbstractDbSavingOperator {
 
+    /**
+     * Минимальный размер данных (байт), начиная с которого данные сжимаются, по умолчанию.
+     */
+    public static final int DEFAULT_COMPRESSION_THRESHOLD = 1024;
+
+    /**
+     * Способ сжатия сериализованных данных. Если задан, то данные передаются в формате {@link DbSavingPayloadCodec}
+     * (с заголовком, содержащим способ сжатия); RAW-объекты передаются без сжатия.
+     */
+    @Getter
+    @NotNull
+    private volatile DbSavingCompression compression = DbSavingCompression.None;
+
+    /**
+     * Минимальный размер сериализованных данных (байт), начиная с которого данные сжимаются.
+     */
+    @Getter
+    private volatile int compressionThreshold = DEFAULT_COMPRESSION_THRESHOLD;
+
+    /**
+     * Уровень сжатия (0-9).
+     */
+    @Getter
+    private volatile int compressionLevel = Deflater.BEST_SPEED;
+
     protected AbstractBinaryDbSavingOperator(
             @NotNull final ObjectMapper objectMapper
     ) {
         super(objectMapper);
     }
 
+    @NotNull
+    public AbstractBinaryDbSavingOperator setCompression(@NotNull final DbSavingCompression compression) {
+        this.compression = compression;
+        return this;
+    }
+
+    @NotNull
+    public AbstractBinaryDbSavingOperator setCompressionThreshold(final int compressionThreshold) {
+        if (compressionThreshold < 0) {
+            throw new IllegalArgumentException("compressionThreshold can't be negative (compressionThreshold = " + compressionThreshold + ")");
+        }
+        this.compressionThreshold = compressionThreshold;
+        return this;
+    }
+
+    @NotNull
+    public AbstractBinaryDbSavingOperator setCompressionLevel(final int compressionLevel) {
+        if (compressionLevel < Deflater.NO_COMPRESSION || compressionLevel > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("compressionLevel must be in [0, 9] (compressionLevel = " + compressionLevel + ")");
+        }
+        this.compressionLevel = compressionLevel;
+        return this;
+    }
+
+    /**
+     * Сжатие данных (если задан {@link #getCompression()}) перед выполнением команды.
+     */
+    @Override
+    protected void executeStatementWithBuffer(
+            @NotNull final SqlCommandWrapper statement,
+            @NotNull final DbSavingSerializationBuffer buffer
+    ) throws SQLException {
+        final var vCompression = getCompression();
+        if (vCompression == DbSavingCompression.None) {
+            super.executeStatementWithBuffer(statement, buffer);
+            return;
+        }
+        final var encoded = DbSavingPayloadCodec.encode(buffer, vCompression, getCompressionThreshold(), getCompressionLevel());
+        try {
+            super.executeStatementWithBuffer(statement, encoded);
+        } finally {
+            encoded.release();
+        }
+    }
+
+    @Override
+    @NotNull
+    public DbSavingSerializeMode getSerializeMode() {
+        return DbSavingSerializeMode.Binary;
+    }
+
     @Override
     protected void internalSavePreparedMessage(
             @NotNull final SqlCommandWrapper statement,
             @NotNull final Message<?> message
     ) throws SQLException, JsonProcessingException {
-        final var data = getObjectMapper().writeValueAsBytes(message);
-        executeStatement(statement, data);
+        internalSerializeAndExecute(statement, message);
     }
 
     @Override
@@ -36,8 +113,7 @@ public abstract class AbstractBinaryDbSavingOperator
             @NotNull final SqlCommandWrapper statement,
             @NotNull final Iterable<Message<?>> messages
     ) throws SQLException, JsonProcessingException {
-        final var data = getObjectMapper().writeValueAsBytes(messages);
-        executeStatement(statement, data);
+        internalSerializeAndExecute(statement, messages);
     }
 
     @Override
@@ -45,8 +121,7 @@ public abstract class AbstractBinaryDbSavingOperator
             @NotNull final SqlCommandWrapper statement,
             @NotNull final DataObject dataObject
     ) throws SQLException, JsonProcessingException {
-        final var data = getObjectMapper().writeValueAsBytes(dataObject);
-        executeStatement(statement, data);
+        internalSerializeAndExecute(statement, dataObject);
     }
 
     @Override
@@ -62,8 +137,7 @@ public abstract class AbstractBinaryDbSavingOperator
             @NotNull final SqlCommandWrapper statement,
             @NotNull Iterable<DataObject> dataObjects
     ) throws SQLException, JsonProcessingException {
-        final var data = getObjectMapper().writeValueAsBytes(dataObjects);
-        executeStatement(statement, data);
+        internalSerializeAndExecute(statement, dataObjects);
     }
 
     @Override
@@ -79,8 +153,7 @@ public abstract class AbstractBinaryDbSavingOperator
             @NotNull final SqlCommandWrapper statement,
             @NotNull DataPackage<?> dataPackage
     ) throws SQLException, JsonProcessingException {
-        final var data = getObjectMapper().writeValueAsBytes(dataPackage);
-        executeStatement(statement, data);
+        internalSerializeAndExecute(statement, dataPackage);
     }
 
     @Override
@@ -88,7 +161,6 @@ public abstract class AbstractBinaryDbSavingOperator
             @NotNull final SqlCommandWrapper statement,
             @NotNull Iterable<DataPackage<?>> dataPackages
     ) throws SQLException, JsonProcessingException {
-        final var data = getObjectMapper().writeValueAsBytes(dataPackages);
-        executeStatement(statement, data);
+        internalSerializeAndExecute(statement, dataPackages);
     }
 }
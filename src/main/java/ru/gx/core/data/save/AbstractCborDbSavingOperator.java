@@ -0,0 +1,51 @@
+package ru.gx.core.data.save;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import lombok.experimental.Accessors;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Оператор сохранения данных в формате CBOR.
+ * <p>
+ * Данные сериализуются CBOR-ObjectMapper-ом и передаются в команду в виде byte[]
+ * (см. {@link AbstractBinaryDbSavingOperator}).
+ */
+@SuppressWarnings("unused")
+@Accessors(chain = true)
+public abstract class AbstractCborDbSavingOperator
+        extends AbstractBinaryDbSavingOperator {
+
+    /**
+     * @param objectMapper ObjectMapper, построенный на {@link CBORFactory}.
+     */
+    protected AbstractCborDbSavingOperator(
+            @NotNull final ObjectMapper objectMapper
+    ) {
+        super(checkFactory(objectMapper));
+    }
+
+    /**
+     * Создание оператора с {@link CBORMapper}-ом, в котором зарегистрированы все найденные модули
+     * (в т.ч. поддержка java.time).
+     */
+    protected AbstractCborDbSavingOperator() {
+        this(CBORMapper.builder().findAndAddModules().build());
+    }
+
+    @Override
+    @NotNull
+    public DbSavingSerializeMode getSerializeMode() {
+        return DbSavingSerializeMode.Cbor;
+    }
+
+    @NotNull
+    private static ObjectMapper checkFactory(@NotNull final ObjectMapper objectMapper) {
+        if (!(objectMapper.getFactory() instanceof CBORFactory)) {
+            throw new IllegalArgumentException("ObjectMapper for CBOR saving operator must use CBORFactory (factory = "
+                    + objectMapper.getFactory().getClass().getName() + ")");
+        }
+        return objectMapper;
+    }
+}
@@ -0,0 +1,268 @@
+package ru.gx.core.data.save;
+
+import lombok.Getter;
+import lombok.experimental.Accessors;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import ru.gx.core.channels.ChannelConfigurationException;
+import ru.gx.core.data.DataObject;
+import ru.gx.core.data.DataPackage;
+import ru.gx.core.data.sqlwrapping.SqlCommandWrapper;
+
+import javax.activation.UnsupportedDataTypeException;
+import java.lang.invoke.MethodHandle;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static lombok.AccessLevel.PROTECTED;
+
+/**
+ * Оператор сохранения, передающий свойства {@link DataObject}-а в параметры команды по отдельности
+ * (без сериализации объекта в Json).
+ * <p>
+ * Свойство с индексом i из {@link #getPropertyNames()} передается в параметр команды с индексом i + 1.
+ * Значение свойства читается через getter (getXxx(), isXxx(), xxx()) или поле. Доступ к свойствам
+ * подготавливается через {@link MethodHandle} один раз для каждого класса объектов (см. {@link DbSavingPropertyAccessors}).
+ * <p>
+ * Поддерживаются режимы {@link DbSavingAccumulateMode#PerObject} и {@link DbSavingAccumulateMode#BatchPerObject}.
+ */
+@SuppressWarnings("unused")
+@Accessors(chain = true)
+public abstract class AbstractColumnsDbSavingOperator
+        implements DbSavingOperator {
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Fields">
+
+    /**
+     * Имена свойств объекта в порядке параметров команды.
+     */
+    @Getter(PROTECTED)
+    @NotNull
+    private final List<String> propertyNames;
+
+    /**
+     * Подготовленные привязки свойств к параметрам для каждого класса объектов.
+     */
+    @NotNull
+    private final Map<Class<?>, ColumnBinder[]> bindersByClass = new ConcurrentHashMap<>();
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Initialization">
+
+    /**
+     * @param propertyNames имена свойств объекта в порядке параметров команды.
+     */
+    protected AbstractColumnsDbSavingOperator(@NotNull final String... propertyNames) {
+        if (propertyNames.length == 0) {
+            throw new IllegalArgumentException("Columns saving operator requires at least one property");
+        }
+        this.propertyNames = List.of(propertyNames);
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="implements DbSavingOperator">
+
+    @Override
+    public void saveData(
+            @NotNull final SqlCommandWrapper statement,
+            @NotNull final Object data,
+            @NotNull final DbSavingAccumulateMode accumulateMode
+    ) throws SQLException, UnsupportedDataTypeException {
+        switch (accumulateMode) {
+            case PerObject -> internalSavePerObject(statement, data);
+            case BatchPerObject -> {
+                final var batch = new DbSavingBatchCommandWrapper(statement);
+                try {
+                    internalSavePerObject(batch, data);
+                    batch.executeBatch();
+                } catch (SQLException | UnsupportedDataTypeException | RuntimeException e) {
+                    try {
+                        batch.clearBatch();
+                    } catch (SQLException clearException) {
+                        e.addSuppressed(clearException);
+                    }
+                    throw e;
+                }
+            }
+            default -> throw new UnsupportedDataTypeException("Unsupported accumulateMode = " + accumulateMode
+                    + " for columns saving operator");
+        }
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Saving">
+
+    protected void internalSavePerObject(
+            @NotNull final SqlCommandWrapper statement,
+            @NotNull final Object data
+    ) throws SQLException, UnsupportedDataTypeException {
+        if (data instanceof final DataObject dataObject) {
+            internalSavePreparedDataObject(statement, dataObject);
+        } else if (data instanceof final DataPackage<?> dataPackage) {
+            for (final var object : dataPackage.getObjects()) {
+                internalSavePreparedDataObject(statement, object);
+            }
+        } else if (data instanceof final Iterable<?> items) {
+            for (final var item : items) {
+                if (item instanceof final DataObject dataObject) {
+                    internalSavePreparedDataObject(statement, dataObject);
+                } else if (item instanceof final DataPackage<?> dataPackage) {
+                    for (final var object : dataPackage.getObjects()) {
+                        internalSavePreparedDataObject(statement, object);
+                    }
+                } else {
+                    throw new UnsupportedDataTypeException("Unsupported class of element Iterable data. Class of element = " + item.getClass().getName());
+                }
+            }
+        } else {
+            throw new UnsupportedDataTypeException("Unsupported class for parameter data. Class = " + data.getClass().getName());
+        }
+    }
+
+    /**
+     * Привязка свойств объекта к параметрам и выполнение команды.
+     */
+    protected void internalSavePreparedDataObject(
+            @NotNull final SqlCommandWrapper statement,
+            @NotNull final DataObject dataObject
+    ) throws SQLException {
+        final var binders = getBinders(dataObject.getClass());
+        for (var i = 0; i < binders.length; i++) {
+            binders[i].bind(statement, i + 1, dataObject);
+        }
+        statement.executeNoResult();
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Binders">
+
+    /**
+     * @param objectClass класс объектов.
+     * @return Привязки свойств к параметрам для класса объектов (подготавливаются при первом обращении).
+     */
+    @NotNull
+    protected ColumnBinder[] getBinders(@NotNull final Class<?> objectClass) {
+        final var result = this.bindersByClass.get(objectClass);
+        if (result != null) {
+            return result;
+        }
+        return this.bindersByClass.computeIfAbsent(objectClass, this::createBinders);
+    }
+
+    @NotNull
+    protected ColumnBinder[] createBinders(@NotNull final Class<?> objectClass) {
+        final var result = new ColumnBinder[this.propertyNames.size()];
+        for (var i = 0; i < result.length; i++) {
+            final var propertyName = this.propertyNames.get(i);
+            final var accessor = findAccessor(objectClass, propertyName);
+            if (accessor == null) {
+                throw new ChannelConfigurationException("Class " + objectClass.getName()
+                        + " doesn't have readable property " + propertyName + "!");
+            }
+            result[i] = createBinder(propertyName, accessor.type().returnType(), accessor.asType(DbSavingPropertyAccessors.ACCESSOR_TYPE));
+        }
+        return result;
+    }
+
+    /**
+     * Поиск доступа к свойству (см. {@link DbSavingPropertyAccessors#findAccessor(Class, String)}).
+     *
+     * @return MethodHandle вида (objectClass)propertyType или null, если свойство не найдено.
+     */
+    @Nullable
+    protected MethodHandle findAccessor(@NotNull final Class<?> objectClass, @NotNull final String propertyName) {
+        return DbSavingPropertyAccessors.findAccessor(objectClass, propertyName);
+    }
+
+    /**
+     * Создание привязки свойства к параметру по типу свойства.
+     * Наследники могут переопределить для поддержки дополнительных типов.
+     *
+     * @param propertyName имя свойства.
+     * @param propertyType тип свойства.
+     * @param accessor     доступ к свойству вида (Object)Object.
+     * @return привязка свойства к параметру.
+     */
+    @NotNull
+    protected ColumnBinder createBinder(
+            @NotNull final String propertyName,
+            @NotNull final Class<?> propertyType,
+            @NotNull final MethodHandle accessor
+    ) {
+        if (propertyType == long.class || propertyType == Long.class) {
+            return (statement, paramIndex, object) ->
+                    statement.setLongParam(paramIndex, (Long) readProperty(accessor, propertyName, object));
+        }
+        if (propertyType == int.class || propertyType == Integer.class
+                || propertyType == short.class || propertyType == Short.class
+                || propertyType == byte.class || propertyType == Byte.class) {
+            return (statement, paramIndex, object) -> {
+                final var value = (Number) readProperty(accessor, propertyName, object);
+                statement.setIntegerParam(paramIndex, value == null ? null : value.intValue());
+            };
+        }
+        if (propertyType == BigDecimal.class) {
+            return (statement, paramIndex, object) ->
+                    statement.setNumericParam(paramIndex, (BigDecimal) readProperty(accessor, propertyName, object));
+        }
+        if (propertyType == BigInteger.class) {
+            return (statement, paramIndex, object) -> {
+                final var value = (BigInteger) readProperty(accessor, propertyName, object);
+                statement.setNumericParam(paramIndex, value == null ? null : new BigDecimal(value));
+            };
+        }
+        if (propertyType == double.class || propertyType == Double.class
+                || propertyType == float.class || propertyType == Float.class) {
+            return (statement, paramIndex, object) -> {
+                final var value = (Number) readProperty(accessor, propertyName, object);
+                statement.setNumericParam(paramIndex, value == null ? null : BigDecimal.valueOf(value.doubleValue()));
+            };
+        }
+        if (propertyType == byte[].class) {
+            return (statement, paramIndex, object) ->
+                    statement.setBinaryParam(paramIndex, (byte[]) readProperty(accessor, propertyName, object));
+        }
+        if (propertyType.isEnum()) {
+            return (statement, paramIndex, object) -> {
+                final var value = (Enum<?>) readProperty(accessor, propertyName, object);
+                statement.setStringParam(paramIndex, value == null ? null : value.name());
+            };
+        }
+        // String и все прочие типы (даты и т.п.) передаются строкой
+        return (statement, paramIndex, object) -> {
+            final var value = readProperty(accessor, propertyName, object);
+            statement.setStringParam(paramIndex, value == null ? null : value.toString());
+        };
+    }
+
+    @Nullable
+    protected static Object readProperty(
+            @NotNull final MethodHandle accessor,
+            @NotNull final String propertyName,
+            @NotNull final Object object
+    ) throws SQLException {
+        return DbSavingPropertyAccessors.readProperty(accessor, propertyName, object);
+    }
+
+    /**
+     * Привязка свойства объекта к параметру команды.
+     */
+    @FunctionalInterface
+    public interface ColumnBinder {
+        void bind(
+                @NotNull SqlCommandWrapper statement,
+                int paramIndex,
+                @NotNull Object dataObject
+        ) throws SQLException;
+    }
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+}
@@ -1,24 +1,25 @@
 package ru.gx.core.data.save;
 
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import org.jetbrains.annotations.NotNull;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
 
 import java.io.IOException;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 import static lombok.AccessLevel.PROTECTED;
 
 @SuppressWarnings("unused")
-@RequiredArgsConstructor(access = PROTECTED)
-public abstract class AbstractDbSaver {
+public abstract class AbstractDbSaver implements InitializingBean, DisposableBean {
     // -------------------------------------------------------------------------------------------------------------
     // <editor-fold desc="Constants">
 
     /**
-     * Интервалы времени, через которые (1/частота) производится проверка на необходимость сохранения данных
+     * Минимальный интервал между повторными проверками необходимости сохранения одного Descriptor-а
      * (период накопления не может быть меньше данной величины)
      */
     public static final int INTERVAL_MS_FOR_CHECK_NEED_SAVE = 10;
@@ -33,10 +34,74 @@ public abstract class AbstractDbSaver {
     @NotNull
     private final List<DbSavingConfiguration> configurations;
 
+    /**
+     * Планировщик проверок необходимости сохранения.
+     */
+    @Getter(PROTECTED)
+    @NotNull
+    private final DbSavingFlushScheduler flushScheduler;
+
+    /**
+     * Исполнитель сохранений. Если не задан, то сохранения выполняются последовательно в потоке планировщика.
+     *
+     * @see DbSavingFlushExecutors#newFlushExecutor(String, int)
+     */
+    @Getter(PROTECTED)
+    @Nullable
+    private final ExecutorService flushExecutor;
+
+    // </editor-fold>
+    // -----------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Initialization">
+    protected AbstractDbSaver(@NotNull final List<DbSavingConfiguration> configurations) {
+        this(configurations, null);
+    }
+
+    /**
+     * @param configurations конфигурации, по которым осуществляется сохранение.
+     * @param flushExecutor  исполнитель сохранений (останавливается вместе с данным объектом).
+     */
+    protected AbstractDbSaver(
+            @NotNull final List<DbSavingConfiguration> configurations,
+            @Nullable final ExecutorService flushExecutor
+    ) {
+        this.configurations = configurations;
+        this.flushExecutor = flushExecutor;
+        this.flushScheduler = new DbSavingFlushScheduler(getClass().getSimpleName() + "-flush-scheduler")
+                .setFlushExecutor(flushExecutor);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        this.flushScheduler.start();
+        for (final var config : getConfigurations()) {
+            if (config instanceof final AbstractDbSavingConfiguration savingConfiguration) {
+                savingConfiguration.setFlushScheduler(this.flushScheduler);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        for (final var config : getConfigurations()) {
+            if (config instanceof final AbstractDbSavingConfiguration savingConfiguration) {
+                savingConfiguration.setFlushScheduler(null);
+            }
+        }
+        this.flushScheduler.stop();
+        if (this.flushExecutor != null) {
+            this.flushExecutor.shutdown();
+        }
+    }
+
     // </editor-fold>
     // -----------------------------------------------------------------------------------------------------------------
     // <editor-fold desc="Реализация ">
-    @Scheduled(fixedDelay = INTERVAL_MS_FOR_CHECK_NEED_SAVE)
+
+    /**
+     * Полная проверка всех Descriptor-ов всех конфигураций. Штатно не требуется (проверки выполняются
+     * {@link DbSavingFlushScheduler}-ом по событиям), может использоваться для принудительного сохранения.
+     */
     protected void internalCheckNeedSave()
             throws SQLException, IOException {
         for (final var config : getConfigurations()) {
@@ -3,6 +3,7 @@ package ru.gx.core.data.save;
 import io.micrometer.core.instrument.MeterRegistry;
 import lombok.Getter;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.springframework.context.ApplicationEventPublisher;
 import ru.gx.core.channels.AbstractChannelDescriptorsDefaults;
 import ru.gx.core.channels.AbstractChannelsConfiguration;
@@ -10,12 +11,26 @@ import ru.gx.core.channels.ChannelDirection;
 import ru.gx.core.channels.ChannelHandlerDescriptor;
 import ru.gx.core.data.sqlwrapping.ThreadConnectionsWrapper;
 
+import java.util.concurrent.Semaphore;
+
 /**
  * Базовый класс для конфигураций сохранения потоков в БД.
  */
 public abstract class AbstractDbSavingConfiguration
         extends AbstractChannelsConfiguration
         implements DbSavingConfiguration {
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Constants">
+
+    /**
+     * Количество одновременных сохранений в БД в рамках одной конфигурации по умолчанию.
+     * Значение 1 означает, что все Descriptor-ы конфигурации сохраняют данные по очереди (используют один коннект).
+     */
+    public static final int DEFAULT_FLUSH_CONCURRENCY = 1;
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Fields">
     @Getter
     @NotNull
     private final ApplicationEventPublisher eventPublisher;
@@ -24,6 +39,43 @@ public abstract class AbstractDbSavingConfiguration
     @NotNull
     private final ThreadConnectionsWrapper threadConnectionsWrapper;
 
+    /**
+     * Метрики процесса сохранения.
+     */
+    @Getter
+    @NotNull
+    private final DbSavingMetrics savingMetrics;
+
+    /**
+     * Количество одновременных сохранений в БД (фактически - количество коннектов пула, которые могут
+     * одновременно использоваться для сохранения данных Descriptor-ов данной конфигурации).
+     */
+    @Getter
+    private int flushConcurrency = DEFAULT_FLUSH_CONCURRENCY;
+
+    /**
+     * Разрешения на сохранение. Каждое сохранение Descriptor-а захватывает одно разрешение.
+     */
+    @Getter
+    @NotNull
+    private volatile Semaphore flushPermits = new Semaphore(DEFAULT_FLUSH_CONCURRENCY);
+
+    /**
+     * Планировщик проверок необходимости сохранения. Устанавливается {@link AbstractDbSaver}-ом.
+     * Если не установлен, то проверка выполняется в потоке, добавившем данные.
+     */
+    @Getter
+    @Nullable
+    private volatile DbSavingFlushScheduler flushScheduler;
+
+    /**
+     * Приостановка сохранений всех Descriptor-ов конфигурации при недоступности БД.
+     * Если не задан, то создается по {@link DbSavingDescriptorsDefaults#getRetryPolicy()}.
+     */
+    @Nullable
+    private volatile DbSavingCircuitBreaker circuitBreaker;
+
+    // </editor-fold>
     // -------------------------------------------------------------------------------------------------------------
     // <editor-fold desc="Initialization">
     protected AbstractDbSavingConfiguration(
@@ -35,6 +87,9 @@ public abstract class AbstractDbSavingConfiguration
         super(ChannelDirection.Out, configurationName, meterRegistry);
         this.eventPublisher = eventPublisher;
         this.threadConnectionsWrapper = threadConnectionsWrapper;
+        this.savingMetrics = new DbSavingMetrics(meterRegistry, configurationName);
+        this.savingMetrics.registerFlushPermitsGauge(this);
+        this.savingMetrics.registerCircuitBreakerGauge(this);
     }
 
     @Override
@@ -42,6 +97,80 @@ public abstract class AbstractDbSavingConfiguration
         return new DbSavingDescriptorsDefaults();
     }
 
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Additional getters & setters">
+
+    /**
+     * Установка количества одновременных сохранений в БД. Должна выполняться до начала обработки данных:
+     * сохранения, уже ожидающие разрешения, продолжают работать с прежним ограничением.
+     *
+     * @param flushConcurrency количество одновременных сохранений (не менее 1).
+     * @return this.
+     */
+    @NotNull
+    public AbstractDbSavingConfiguration setFlushConcurrency(final int flushConcurrency) {
+        if (flushConcurrency < 1) {
+            throw new IllegalArgumentException("flushConcurrency must be positive (flushConcurrency = " + flushConcurrency + ")");
+        }
+        if (this.flushConcurrency == flushConcurrency) {
+            return this;
+        }
+        this.flushConcurrency = flushConcurrency;
+        this.flushPermits = new Semaphore(flushConcurrency);
+        return this;
+    }
+
+    /**
+     * @return Приостановка сохранений конфигурации; null - если не задана и в {@link DbSavingDescriptorsDefaults#getRetryPolicy()}
+     * приостановка не предусмотрена.
+     */
+    @Nullable
+    public DbSavingCircuitBreaker getCircuitBreaker() {
+        final var result = this.circuitBreaker;
+        if (result != null) {
+            return result;
+        }
+        final var retryPolicy = getDescriptorsDefaults().getRetryPolicy();
+        if (retryPolicy == null || retryPolicy.getCircuitBreakerFailureThreshold() <= 0) {
+            return null;
+        }
+        synchronized (this) {
+            if (this.circuitBreaker == null) {
+                this.circuitBreaker = new DbSavingCircuitBreaker(getConfigurationName(), retryPolicy);
+            }
+            return this.circuitBreaker;
+        }
+    }
+
+    /**
+     * Установка приостановки сохранений конфигурации (например, общей для нескольких конфигураций одной БД).
+     *
+     * @param circuitBreaker приостановка сохранений (null - создать по {@link DbSavingDescriptorsDefaults#getRetryPolicy()}).
+     * @return this.
+     */
+    @NotNull
+    public AbstractDbSavingConfiguration setCircuitBreaker(@Nullable final DbSavingCircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+        return this;
+    }
+
+    /**
+     * Подключение планировщика проверок. Признаки запланированных проверок Descriptor-ов сбрасываются
+     * (в т.ч. при повторном подключении после остановки планировщика); для Descriptor-ов,
+     * у которых уже есть данные, сразу планируется проверка.
+     *
+     * @param flushScheduler планировщик (null - отключить планировщик).
+     */
+    protected void setFlushScheduler(@Nullable final DbSavingFlushScheduler flushScheduler) {
+        this.flushScheduler = flushScheduler;
+        for (final var descriptor : getAll()) {
+            if (descriptor instanceof final DbSavingDescriptor savingDescriptor) {
+                savingDescriptor.internalOnFlushSchedulerChanged();
+            }
+        }
+    }
+
     // </editor-fold>
     // -------------------------------------------------------------------------------------------------------------
     // <editor-fold desc="Реализация OutcomeTopicsConfiguration">
@@ -1,9 +1,11 @@
 package ru.gx.core.data.save;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.Setter;
 import lombok.experimental.Accessors;
 import org.jetbrains.annotations.NotNull;
 import ru.gx.core.data.DataObject;
@@ -12,17 +14,38 @@ import ru.gx.core.data.sqlwrapping.SqlCommandWrapper;
 import ru.gx.core.messaging.Message;
 
 import javax.activation.UnsupportedDataTypeException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.List;
 
 @Accessors(chain = true)
 public abstract class AbstractDbSavingOperator
-        implements DbSavingOperator {
+        implements DbSavingSerializedDataOperator, DbSavingPipelinedOperator {
 
     @Getter(AccessLevel.PROTECTED)
     @NotNull
     private final ObjectMapper objectMapper;
 
+    /**
+     * Индекс параметра команды, в который передаются сериализованные данные
+     * (см. {@link #executeStatementWithBuffer(SqlCommandWrapper, DbSavingSerializationBuffer)}).
+     */
+    @Getter
+    @Setter
+    private int dataParamIndex = 1;
+
+    /**
+     * Передавать сериализованные данные из буфера в параметр {@link #getDataParamIndex()} без вызова
+     * {@link #executeStatement(SqlCommandWrapper, Object)} (по умолчанию - false).
+     * Включается операторами, команда которых принимает данные одним параметром и выполняется без обработки результата,
+     * а драйвер читает параметр без промежуточной копии.
+     */
+    @Getter
+    @Setter
+    private boolean directBufferBinding;
+
     protected AbstractDbSavingOperator(
             @NotNull final ObjectMapper objectMapper
     ) {
@@ -74,10 +97,40 @@ public abstract class AbstractDbSavingOperator
             case ListOfObjects -> internalSaveListOfObjects(statement, data);
             case ListOfRawObjects -> internalSaveListOfRawObjects(statement, data);
             case ListOfPackages -> internalSaveListOfPackages(statement, data);
+            case BatchPerMessage -> internalSaveBatch(statement, data, DbSavingAccumulateMode.PerMessage);
+            case BatchPerObject -> internalSaveBatch(statement, data, DbSavingAccumulateMode.PerObject);
+            case BatchPerRawObject -> internalSaveBatch(statement, data, DbSavingAccumulateMode.PerRawObject);
+            case BatchPerPackage -> internalSaveBatch(statement, data, DbSavingAccumulateMode.PerPackage);
             default -> throw new UnsupportedDataTypeException("Unsupported accumulateMode = " + accumulateMode);
         }
     }
 
+    /**
+     * Сохранение данных по одному элементу с отправкой всех команд в БД одним пакетом (JDBC batch).
+     *
+     * @param statement   Statement обращения к БД
+     * @param data        данные
+     * @param itemsMode   режим поэлементного сохранения (PerMessage, PerObject, PerRawObject, PerPackage)
+     */
+    protected void internalSaveBatch(
+            @NotNull final SqlCommandWrapper statement,
+            @NotNull final Object data,
+            @NotNull final DbSavingAccumulateMode itemsMode
+    ) throws SQLException, JsonProcessingException, UnsupportedDataTypeException {
+        final var batch = new DbSavingBatchCommandWrapper(statement);
+        try {
+            saveData(batch, data, itemsMode);
+            batch.executeBatch();
+        } catch (Exception e) {
+            try {
+                batch.clearBatch();
+            } catch (SQLException clearException) {
+                e.addSuppressed(clearException);
+            }
+            throw e;
+        }
+    }
+
     protected void internalSavePerMessage(
             @NotNull final SqlCommandWrapper statement,
             @NotNull final Object data
@@ -286,4 +339,208 @@ public abstract class AbstractDbSavingOperator
             @NotNull final SqlCommandWrapper statement,
             @NotNull final Object data
     ) throws SQLException;
+
+    /**
+     * Выполнение команды с данными, сериализованными в буфер.
+     * По умолчанию данные передаются копией в {@link #executeStatement(SqlCommandWrapper, Object)}.
+     * При {@link #isDirectBufferBinding()} фрагмент внутреннего массива буфера передается без копирования
+     * в параметр {@link #getDataParamIndex()}, после чего команда выполняется.
+     *
+     * @param statement Statement обращения к БД
+     * @param buffer    буфер с сериализованными данными (действителен только во время вызова)
+     * @throws SQLException ошибка при работе с БД
+     */
+    protected void executeStatementWithBuffer(
+            @NotNull final SqlCommandWrapper statement,
+            @NotNull final DbSavingSerializationBuffer buffer
+    ) throws SQLException {
+        if (!isDirectBufferBinding()) {
+            executeStatement(statement, buffer.toByteArray());
+            return;
+        }
+        statement.setBinaryParam(getDataParamIndex(), buffer.getBufferArray(), 0, buffer.size());
+        statement.executeNoResult();
+    }
+
+    /**
+     * Сериализация данных в буфер текущего потока и выполнение команды.
+     *
+     * @param statement Statement обращения к БД
+     * @param data      данные для сериализации
+     */
+    protected void internalSerializeAndExecute(
+            @NotNull final SqlCommandWrapper statement,
+            @NotNull final Object data
+    ) throws SQLException, JsonProcessingException {
+        final var buffer = DbSavingSerializationBuffer.acquire();
+        try {
+            internalSerialize(buffer, data);
+            executeStatementWithBuffer(statement, buffer);
+        } finally {
+            buffer.release();
+        }
+    }
+
+    /**
+     * Потоковая сериализация данных в буфер.
+     */
+    protected void internalSerialize(
+            @NotNull final DbSavingSerializationBuffer buffer,
+            @NotNull final Object data
+    ) throws JsonProcessingException {
+        try {
+            getObjectMapper().writeValue(buffer, data);
+        } catch (JsonProcessingException e) {
+            throw e;
+        } catch (IOException e) {
+            // Запись в буфер в памяти не приводит к ошибкам ввода-вывода
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Поэлементные режимы поддерживаются для любого способа представления данных.
+     * Режимы списков - только если наследник поддерживает {@link #writeSerializedList(DbSavingSerializationBuffer, List)}.
+     */
+    @Override
+    public boolean isSerializedDataSupported(@NotNull final DbSavingAccumulateMode accumulateMode) {
+        return switch (accumulateMode) {
+            case PerMessage, PerObject, BatchPerMessage, BatchPerObject -> true;
+            default -> false;
+        };
+    }
+
+    @Override
+    public void serializeItem(
+            @NotNull final DbSavingSerializationBuffer buffer,
+            @NotNull final Object item
+    ) throws JsonProcessingException {
+        internalSerialize(buffer, item);
+    }
+
+    @Override
+    public void writeSerializedList(
+            @NotNull final DbSavingSerializationBuffer buffer,
+            @NotNull final List<DbSavingPayloadArena.Slice> items
+    ) {
+        throw new UnsupportedOperationException("Operator " + getClass().getName() + " doesn't support list of serialized items");
+    }
+
+    @Override
+    public void saveSerializedData(
+            @NotNull final SqlCommandWrapper statement,
+            @NotNull final List<DbSavingPayloadArena.Slice> items,
+            @NotNull final DbSavingAccumulateMode accumulateMode
+    ) throws SQLException, UnsupportedDataTypeException {
+        switch (accumulateMode) {
+            case PerMessage, PerObject -> internalSaveSerializedPerItem(statement, items);
+            case ListOfMessages, ListOfObjects -> {
+                final var buffer = DbSavingSerializationBuffer.acquire();
+                try {
+                    writeSerializedList(buffer, items);
+                    executeStatementWithBuffer(statement, buffer);
+                } finally {
+                    buffer.release();
+                }
+            }
+            case BatchPerMessage, BatchPerObject -> {
+                final var batch = new DbSavingBatchCommandWrapper(statement);
+                try {
+                    internalSaveSerializedPerItem(batch, items);
+                    batch.executeBatch();
+                } catch (SQLException | RuntimeException e) {
+                    try {
+                        batch.clearBatch();
+                    } catch (SQLException clearException) {
+                        e.addSuppressed(clearException);
+                    }
+                    throw e;
+                }
+            }
+            default -> throw new UnsupportedDataTypeException("Unsupported accumulateMode = " + accumulateMode
+                    + " for serialized data");
+        }
+    }
+
+    protected void internalSaveSerializedPerItem(
+            @NotNull final SqlCommandWrapper statement,
+            @NotNull final List<DbSavingPayloadArena.Slice> items
+    ) throws SQLException {
+        final var buffer = DbSavingSerializationBuffer.acquire();
+        try {
+            for (final var item : items) {
+                buffer.reset();
+                item.writeTo(buffer);
+                executeStatementWithBuffer(statement, buffer);
+            }
+        } finally {
+            buffer.release();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public int serializeChunk(
+            @NotNull final DbSavingSerializationBuffer buffer,
+            @NotNull final List<?> items,
+            final int fromIndex,
+            final int maxRows,
+            final long maxBytes,
+            @NotNull final DbSavingAccumulateMode accumulateMode
+    ) throws JsonProcessingException {
+        final var toIndex = (int) Math.min(items.size(), (long) fromIndex + maxRows);
+        if (items.get(fromIndex) instanceof DbSavingPayloadArena.Slice) {
+            // Размер сериализованных элементов известен заранее
+            final var slices = (List<DbSavingPayloadArena.Slice>) items;
+            var index = fromIndex;
+            var bytes = 0L;
+            while (index < toIndex && (index == fromIndex || maxBytes <= 0 || bytes + slices.get(index).getLength() <= maxBytes)) {
+                bytes += slices.get(index).getLength();
+                index++;
+            }
+            writeSerializedList(buffer, slices.subList(fromIndex, index));
+            return index;
+        }
+
+        var index = fromIndex;
+        try (final var generator = getObjectMapper().getFactory().createGenerator(buffer)) {
+            generator.writeStartArray();
+            while (index < toIndex) {
+                internalSerializeChunkItem(generator, items.get(index), accumulateMode);
+                index++;
+                if (maxBytes > 0) {
+                    generator.flush();
+                    if (buffer.size() >= maxBytes) {
+                        break;
+                    }
+                }
+            }
+            generator.writeEndArray();
+        } catch (JsonProcessingException e) {
+            throw e;
+        } catch (IOException e) {
+            // Запись в буфер в памяти не приводит к ошибкам ввода-вывода
+            throw new UncheckedIOException(e);
+        }
+        return index;
+    }
+
+    /**
+     * Сериализация одного элемента части списка (см. {@link #serializeChunk}).
+     */
+    protected void internalSerializeChunkItem(
+            @NotNull final JsonGenerator generator,
+            @NotNull final Object item,
+            @NotNull final DbSavingAccumulateMode accumulateMode
+    ) throws IOException {
+        getObjectMapper().writeValue(generator, item);
+    }
+
+    @Override
+    public void executeChunk(
+            @NotNull final SqlCommandWrapper statement,
+            @NotNull final DbSavingSerializationBuffer buffer
+    ) throws SQLException {
+        executeStatementWithBuffer(statement, buffer);
+    }
 }
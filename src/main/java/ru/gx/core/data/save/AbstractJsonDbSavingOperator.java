@@ -1,5 +1,6 @@
 package ru.gx.core.data.save;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.experimental.Accessors;
@@ -9,7 +10,10 @@ import ru.gx.core.data.DataPackage;
 import ru.gx.core.data.sqlwrapping.SqlCommandWrapper;
 import ru.gx.core.messaging.Message;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
+import java.util.List;
 
 @SuppressWarnings("unused")
 @Accessors(chain = true)
@@ -22,13 +26,18 @@ public abstract class AbstractJsonDbSavingOperator
         super(objectMapper);
     }
 
+    @Override
+    @NotNull
+    public DbSavingSerializeMode getSerializeMode() {
+        return DbSavingSerializeMode.Json;
+    }
+
     @Override
     protected void internalSavePreparedMessage(
             @NotNull final SqlCommandWrapper statement,
             @NotNull final Message<?> message
     ) throws SQLException, JsonProcessingException {
-        final var data = getObjectMapper().writeValueAsString(message);
-        executeStatement(statement, data);
+        internalSerializeAndExecute(statement, message);
     }
 
     @Override
@@ -36,8 +45,7 @@ public abstract class AbstractJsonDbSavingOperator
             @NotNull final SqlCommandWrapper statement,
             @NotNull final Iterable<Message<?>> messages
     ) throws SQLException, JsonProcessingException {
-        final var data = getObjectMapper().writeValueAsString(messages);
-        executeStatement(statement, data);
+        internalSerializeAndExecute(statement, messages);
     }
 
     @Override
@@ -45,8 +53,7 @@ public abstract class AbstractJsonDbSavingOperator
             @NotNull final SqlCommandWrapper statement,
             @NotNull final DataObject dataObject
     ) throws SQLException, JsonProcessingException {
-        final var data = getObjectMapper().writeValueAsString(dataObject);
-        executeStatement(statement, data);
+        internalSerializeAndExecute(statement, dataObject);
     }
 
     @Override
@@ -62,8 +69,7 @@ public abstract class AbstractJsonDbSavingOperator
             @NotNull final SqlCommandWrapper statement,
             @NotNull Iterable<DataObject> dataObjects
     ) throws SQLException, JsonProcessingException {
-        final var data = getObjectMapper().writeValueAsString(dataObjects);
-        executeStatement(statement, data);
+        internalSerializeAndExecute(statement, dataObjects);
     }
 
     @Override
@@ -71,18 +77,23 @@ public abstract class AbstractJsonDbSavingOperator
             @NotNull final SqlCommandWrapper statement,
             @NotNull Iterable<Object> rawObjects
     ) throws SQLException {
-        final var data = new StringBuilder().append("[");
-        var isFirst = true;
-        for (final var item: rawObjects) {
-            if (!isFirst) {
-                data.append(',');
-            } else {
-                isFirst = false;
+        final var buffer = DbSavingSerializationBuffer.acquire();
+        try {
+            buffer.write('[');
+            var isFirst = true;
+            for (final var item: rawObjects) {
+                if (!isFirst) {
+                    buffer.write(',');
+                } else {
+                    isFirst = false;
+                }
+                buffer.writeString(String.valueOf(item));
             }
-            data.append(item);
+            buffer.write(']');
+            executeStatementWithBuffer(statement, buffer);
+        } finally {
+            buffer.release();
         }
-        data.append(']');
-        executeStatement(statement, data.toString());
     }
 
     @Override
@@ -90,8 +101,7 @@ public abstract class AbstractJsonDbSavingOperator
             @NotNull final SqlCommandWrapper statement,
             @NotNull DataPackage<?> dataPackage
     ) throws SQLException, JsonProcessingException {
-        final var data = getObjectMapper().writeValueAsString(dataPackage);
-        executeStatement(statement, data);
+        internalSerializeAndExecute(statement, dataPackage);
     }
 
     @Override
@@ -99,7 +109,68 @@ public abstract class AbstractJsonDbSavingOperator
             @NotNull final SqlCommandWrapper statement,
             @NotNull Iterable<DataPackage<?>> dataPackages
     ) throws SQLException, JsonProcessingException {
-        final var data = getObjectMapper().writeValueAsString(dataPackages);
-        executeStatement(statement, data);
+        internalSerializeAndExecute(statement, dataPackages);
+    }
+
+    /**
+     * RAW-объекты передаются в массив Json как есть (как в {@link #internalSavePreparedRawObjects}).
+     */
+    @Override
+    protected void internalSerializeChunkItem(
+            @NotNull final JsonGenerator generator,
+            @NotNull final Object item,
+            @NotNull final DbSavingAccumulateMode accumulateMode
+    ) throws IOException {
+        if (accumulateMode == DbSavingAccumulateMode.ListOfRawObjects) {
+            generator.writeRawValue(String.valueOf(item));
+        } else {
+            super.internalSerializeChunkItem(generator, item, accumulateMode);
+        }
+    }
+
+    /**
+     * Для Json дополнительно поддерживаются режимы списков: элементы объединяются в массив Json.
+     */
+    @Override
+    public boolean isSerializedDataSupported(@NotNull final DbSavingAccumulateMode accumulateMode) {
+        return accumulateMode == DbSavingAccumulateMode.ListOfMessages
+                || accumulateMode == DbSavingAccumulateMode.ListOfObjects
+                || super.isSerializedDataSupported(accumulateMode);
+    }
+
+    @Override
+    public void writeSerializedList(
+            @NotNull final DbSavingSerializationBuffer buffer,
+            @NotNull final List<DbSavingPayloadArena.Slice> items
+    ) {
+        buffer.write('[');
+        var isFirst = true;
+        for (final var item : items) {
+            if (!isFirst) {
+                buffer.write(',');
+            } else {
+                isFirst = false;
+            }
+            item.writeTo(buffer);
+        }
+        buffer.write(']');
+    }
+
+    /**
+     * Данные передаются строкой JSON в {@link #executeStatement(SqlCommandWrapper, Object)}.
+     * При {@link #isDirectBufferBinding()} данные передаются потоком символов поверх буфера (без создания строки)
+     * в параметр {@link #getDataParamIndex()}.
+     */
+    @Override
+    protected void executeStatementWithBuffer(
+            @NotNull final SqlCommandWrapper statement,
+            @NotNull final DbSavingSerializationBuffer buffer
+    ) throws SQLException {
+        if (!isDirectBufferBinding()) {
+            executeStatement(statement, buffer.toString(StandardCharsets.UTF_8));
+            return;
+        }
+        statement.setCharacterStreamParam(getDataParamIndex(), buffer.toReader());
+        statement.executeNoResult();
     }
 }
@@ -0,0 +1,325 @@
+package ru.gx.core.data.save;
+
+import lombok.Getter;
+import lombok.experimental.Accessors;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import ru.gx.core.channels.ChannelConfigurationException;
+import ru.gx.core.data.DataObject;
+import ru.gx.core.data.DataPackage;
+import ru.gx.core.data.sqlwrapping.SqlCommandWrapper;
+
+import javax.activation.UnsupportedDataTypeException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Оператор сохранения списка объектов в таблицу командами INSERT с несколькими строками VALUES.
+ * <p>
+ * В качестве saveCommand Descriptor-а указывается вставка одной строки, например:
+ * {@code INSERT INTO orders (id, amount) VALUES (?, ?) ON CONFLICT (id) DO NOTHING}.
+ * Количество параметров в строке VALUES должно совпадать с количеством свойств оператора.
+ * <p>
+ * В режиме {@link DbSavingAccumulateMode#ListOfObjects} буфер разбивается на части не более
+ * {@link #getMaxRowsPerStatement()} строк; для каждой части выполняется одна команда вида
+ * {@code INSERT ... VALUES (?, ?), (?, ?), ... [suffix]}. Размеры частей - {@link #getMaxRowsPerStatement()}
+ * и степени двойки, поэтому для одного saveCommand подготавливается ограниченное количество команд,
+ * которые кэшируются до смены соединения.
+ * <p>
+ * Остальные режимы обрабатываются как в {@link AbstractColumnsDbSavingOperator}.
+ */
+@SuppressWarnings("unused")
+@Accessors(chain = true)
+public abstract class AbstractMultiRowInsertDbSavingOperator
+        extends AbstractColumnsDbSavingOperator {
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Constants">
+
+    /**
+     * Максимальное количество строк в одной команде по умолчанию.
+     */
+    public static final int DEFAULT_MAX_ROWS_PER_STATEMENT = 128;
+
+    /**
+     * Максимальное количество параметров в одной команде по умолчанию (ограничение протокола PostgreSQL - 65535).
+     */
+    public static final int DEFAULT_MAX_PARAMETERS_PER_STATEMENT = 32767;
+
+    private static final Pattern VALUES_PATTERN = Pattern.compile("(?i)\\bVALUES\\s*\\(");
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Fields">
+
+    /**
+     * Максимальное количество строк в одной команде.
+     */
+    @Getter
+    private int maxRowsPerStatement = DEFAULT_MAX_ROWS_PER_STATEMENT;
+
+    /**
+     * Максимальное количество параметров в одной команде.
+     */
+    @Getter
+    private int maxParametersPerStatement = DEFAULT_MAX_PARAMETERS_PER_STATEMENT;
+
+    /**
+     * Завершение команды (например, ON CONFLICT ... DO UPDATE SET ...), добавляемое после строк VALUES.
+     * Если не задано, используется окончание saveCommand после строки VALUES.
+     * Применяется к командам, подготовленным после установки значения.
+     */
+    @Getter
+    @Nullable
+    private String upsertClause;
+
+    /**
+     * Подготовленные команды для каждой исходной команды (по количеству строк).
+     * Исходная команда заменяется Descriptor-ом при смене соединения - тогда кэш освобождается.
+     */
+    @NotNull
+    private final Map<SqlCommandWrapper, MultiRowStatements> statementsCache =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Initialization">
+
+    /**
+     * @param propertyNames имена свойств объекта в порядке столбцов VALUES.
+     */
+    protected AbstractMultiRowInsertDbSavingOperator(@NotNull final String... propertyNames) {
+        super(propertyNames);
+    }
+
+    @NotNull
+    public AbstractMultiRowInsertDbSavingOperator setMaxRowsPerStatement(final int maxRowsPerStatement) {
+        if (maxRowsPerStatement < 1) {
+            throw new IllegalArgumentException("maxRowsPerStatement must be positive (maxRowsPerStatement = " + maxRowsPerStatement + ")");
+        }
+        this.maxRowsPerStatement = maxRowsPerStatement;
+        return this;
+    }
+
+    @NotNull
+    public AbstractMultiRowInsertDbSavingOperator setMaxParametersPerStatement(final int maxParametersPerStatement) {
+        if (maxParametersPerStatement < getPropertyNames().size()) {
+            throw new IllegalArgumentException("maxParametersPerStatement must be not less than count of properties (maxParametersPerStatement = "
+                    + maxParametersPerStatement + ")");
+        }
+        this.maxParametersPerStatement = maxParametersPerStatement;
+        return this;
+    }
+
+    @NotNull
+    public AbstractMultiRowInsertDbSavingOperator setUpsertClause(@Nullable final String upsertClause) {
+        this.upsertClause = upsertClause;
+        return this;
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Saving">
+
+    /**
+     * Подготовка исходной команды (вставка одной строки) и разбор ее для построения команд с несколькими строками.
+     */
+    @Override
+    @NotNull
+    public SqlCommandWrapper prepareStatement(
+            @NotNull final String sqlCommand,
+            @NotNull final DbSavingAccumulateMode accumulateMode
+    ) throws SQLException {
+        final var result = internalPrepareStatement(sqlCommand, accumulateMode);
+        if (accumulateMode == DbSavingAccumulateMode.ListOfObjects) {
+            this.statementsCache.put(result, new MultiRowStatements(parseInsertCommand(sqlCommand)));
+        }
+        return result;
+    }
+
+    /**
+     * Подготовка команды на текущем соединении.
+     *
+     * @param sqlCommand     SQL сохранения данных
+     * @param accumulateMode режим накопления (объединения) данных перед сохранением
+     * @return Statement сохранения
+     */
+    @NotNull
+    protected abstract SqlCommandWrapper internalPrepareStatement(
+            @NotNull final String sqlCommand,
+            @NotNull final DbSavingAccumulateMode accumulateMode
+    ) throws SQLException;
+
+    @Override
+    public void saveData(
+            @NotNull final SqlCommandWrapper statement,
+            @NotNull final Object data,
+            @NotNull final DbSavingAccumulateMode accumulateMode
+    ) throws SQLException, UnsupportedDataTypeException {
+        if (accumulateMode == DbSavingAccumulateMode.ListOfObjects) {
+            internalSaveMultiRow(statement, internalCollectDataObjects(data));
+        } else {
+            super.saveData(statement, data, accumulateMode);
+        }
+    }
+
+    @NotNull
+    protected List<DataObject> internalCollectDataObjects(@NotNull final Object data) throws UnsupportedDataTypeException {
+        final var result = new ArrayList<DataObject>();
+        if (data instanceof final DataObject dataObject) {
+            result.add(dataObject);
+        } else if (data instanceof final DataPackage<?> dataPackage) {
+            result.addAll(dataPackage.getObjects());
+        } else if (data instanceof final Iterable<?> items) {
+            for (final var item : items) {
+                if (item instanceof final DataObject dataObject) {
+                    result.add(dataObject);
+                } else if (item instanceof final DataPackage<?> dataPackage) {
+                    result.addAll(dataPackage.getObjects());
+                } else {
+                    throw new UnsupportedDataTypeException("Unsupported class of element Iterable data. Class of element = " + item.getClass().getName());
+                }
+            }
+        } else {
+            throw new UnsupportedDataTypeException("Unsupported class for parameter data. Class = " + data.getClass().getName());
+        }
+        return result;
+    }
+
+    /**
+     * Сохранение объектов частями командами INSERT с несколькими строками.
+     *
+     * @param statement   исходная команда (вставка одной строки), подготовленная по saveCommand.
+     * @param dataObjects сохраняемые объекты.
+     */
+    protected void internalSaveMultiRow(
+            @NotNull final SqlCommandWrapper statement,
+            @NotNull final List<DataObject> dataObjects
+    ) throws SQLException {
+        // Команды кэшируются по исходной команде; Descriptor может передать ее в обертке для измерений
+        final var baseStatement = DbSavingInstrumentedCommandWrapper.unwrap(statement);
+        final var statements = getMultiRowStatements(baseStatement);
+        final var columnsCount = getPropertyNames().size();
+        final var maxRows = Math.max(1, Math.min(getMaxRowsPerStatement(), getMaxParametersPerStatement() / columnsCount));
+        var offset = 0;
+        while (offset < dataObjects.size()) {
+            final var remaining = dataObjects.size() - offset;
+            final var rows = remaining >= maxRows ? maxRows : Integer.highestOneBit(remaining);
+            final var chunkStatement = DbSavingInstrumentedCommandWrapper.rewrap(statement, statements.get(baseStatement, rows));
+            for (var row = 0; row < rows; row++) {
+                final var dataObject = dataObjects.get(offset + row);
+                final var binders = getBinders(dataObject.getClass());
+                for (var column = 0; column < columnsCount; column++) {
+                    binders[column].bind(chunkStatement, row * columnsCount + column + 1, dataObject);
+                }
+            }
+            chunkStatement.executeNoResult();
+            offset += rows;
+        }
+    }
+
+    @NotNull
+    protected MultiRowStatements getMultiRowStatements(@NotNull final SqlCommandWrapper statement) {
+        final var result = this.statementsCache.get(statement);
+        if (result == null) {
+            throw new IllegalStateException("Statement for multi-row insert was not prepared by this operator!");
+        }
+        return result;
+    }
+
+    /**
+     * Разбор команды вставки одной строки на начало (до VALUES), шаблон строки и окончание.
+     */
+    @NotNull
+    protected InsertTemplate parseInsertCommand(@NotNull final String sqlCommand) {
+        final var matcher = VALUES_PATTERN.matcher(sqlCommand);
+        if (!matcher.find()) {
+            throw new ChannelConfigurationException("Save command for multi-row insert doesn't contain VALUES (...): " + sqlCommand);
+        }
+        final var rowStart = matcher.end() - 1;
+        var depth = 0;
+        var rowEnd = -1;
+        var placeholders = 0;
+        for (var i = rowStart; i < sqlCommand.length() && rowEnd < 0; i++) {
+            final var c = sqlCommand.charAt(i);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+                if (depth == 0) {
+                    rowEnd = i + 1;
+                }
+            } else if (c == '?') {
+                placeholders++;
+            }
+        }
+        if (rowEnd < 0) {
+            throw new ChannelConfigurationException("Save command for multi-row insert has unbalanced VALUES (...): " + sqlCommand);
+        }
+        if (placeholders != getPropertyNames().size()) {
+            throw new ChannelConfigurationException("Save command for multi-row insert has " + placeholders
+                    + " parameters, but operator has " + getPropertyNames().size() + " properties: " + sqlCommand);
+        }
+        final var suffix = getUpsertClause() != null ? " " + getUpsertClause() : sqlCommand.substring(rowEnd);
+        return new InsertTemplate(sqlCommand.substring(0, matcher.start()), sqlCommand.substring(rowStart, rowEnd), suffix);
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Internal classes">
+
+    /**
+     * Части команды вставки одной строки.
+     */
+    protected record InsertTemplate(@NotNull String prefix, @NotNull String row, @NotNull String suffix) {
+        @NotNull
+        public String build(final int rows) {
+            final var result = new StringBuilder(this.prefix.length() + this.suffix.length() + (this.row.length() + 2) * rows + 8);
+            result.append(this.prefix).append("VALUES ");
+            for (var i = 0; i < rows; i++) {
+                if (i > 0) {
+                    result.append(", ");
+                }
+                result.append(this.row);
+            }
+            return result.append(this.suffix).toString();
+        }
+    }
+
+    /**
+     * Подготовленные команды одной исходной команды по количеству строк.
+     */
+    protected static class MultiRowStatements {
+        @NotNull
+        private final InsertTemplate template;
+
+        @NotNull
+        private final Map<Integer, SqlCommandWrapper> statements = new HashMap<>();
+
+        protected MultiRowStatements(@NotNull final InsertTemplate template) {
+            this.template = template;
+        }
+
+        /**
+         * @param baseStatement исходная команда (не хранится, чтобы не удерживать ключ кэша).
+         * @param rows          количество строк.
+         * @return Команда вставки rows строк на соединении исходной команды.
+         */
+        @NotNull
+        public synchronized SqlCommandWrapper get(@NotNull final SqlCommandWrapper baseStatement, final int rows) throws SQLException {
+            var result = this.statements.get(rows);
+            if (result == null) {
+                result = baseStatement.getConnection().getQuery(this.template.build(rows));
+                this.statements.put(rows, result);
+            }
+            return result;
+        }
+    }
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+}
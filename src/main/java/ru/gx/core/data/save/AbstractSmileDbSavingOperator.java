@@ -0,0 +1,51 @@
+package ru.gx.core.data.save;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import lombok.experimental.Accessors;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Оператор сохранения данных в формате Smile.
+ * <p>
+ * Данные сериализуются Smile-ObjectMapper-ом и передаются в команду в виде byte[]
+ * (см. {@link AbstractBinaryDbSavingOperator}).
+ */
+@SuppressWarnings("unused")
+@Accessors(chain = true)
+public abstract class AbstractSmileDbSavingOperator
+        extends AbstractBinaryDbSavingOperator {
+
+    /**
+     * @param objectMapper ObjectMapper, построенный на {@link SmileFactory}.
+     */
+    protected AbstractSmileDbSavingOperator(
+            @NotNull final ObjectMapper objectMapper
+    ) {
+        super(checkFactory(objectMapper));
+    }
+
+    /**
+     * Создание оператора с {@link SmileMapper}-ом, в котором зарегистрированы все найденные модули
+     * (в т.ч. поддержка java.time).
+     */
+    protected AbstractSmileDbSavingOperator() {
+        this(SmileMapper.builder().findAndAddModules().build());
+    }
+
+    @Override
+    @NotNull
+    public DbSavingSerializeMode getSerializeMode() {
+        return DbSavingSerializeMode.Smile;
+    }
+
+    @NotNull
+    private static ObjectMapper checkFactory(@NotNull final ObjectMapper objectMapper) {
+        if (!(objectMapper.getFactory() instanceof SmileFactory)) {
+            throw new IllegalArgumentException("ObjectMapper for Smile saving operator must use SmileFactory (factory = "
+                    + objectMapper.getFactory().getClass().getName() + ")");
+        }
+        return objectMapper;
+    }
+}
@@ -45,5 +45,26 @@ public enum DbSavingAccumulateMode {
     /**
      * Отправка в БД списка пакетов
      */
-    ListOfPackages
+    ListOfPackages,
+
+    /**
+     * Сохранение по одному сообщению, при этом все сообщения буфера отправляются в БД одним пакетом команд
+     * (JDBC batch, см. {@link ru.gx.core.data.sqlwrapping.SqlCommandWrapper#executeBatch()}).
+     */
+    BatchPerMessage,
+
+    /**
+     * Сохранение по одному объекту, при этом все объекты буфера отправляются в БД одним пакетом команд (JDBC batch).
+     */
+    BatchPerObject,
+
+    /**
+     * Сохранение по одному RAW-объекту, при этом все объекты буфера отправляются в БД одним пакетом команд (JDBC batch).
+     */
+    BatchPerRawObject,
+
+    /**
+     * Сохранение по одному пакету, при этом все пакеты буфера отправляются в БД одним пакетом команд (JDBC batch).
+     */
+    BatchPerPackage
 }
@@ -0,0 +1,190 @@
+package ru.gx.core.data.save;
+
+import lombok.Getter;
+import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Автоматическая настройка размера пачки и времени накопления {@link DbSavingDescriptor}-а
+ * по измеренной длительности сохранения.
+ * <p>
+ * Размер пачки настраивается по принципу AIMD:
+ * <ul>
+ *     <li>сохранение уложилось в {@link #getTargetFlushMs()} и пачка была полной - размер увеличивается на {@link #getIncreaseStep()};</li>
+ *     <li>сохранение дольше целевого или завершилось ошибкой - размер умножается на {@link #getDecreaseFactor()}.</li>
+ * </ul>
+ * Время накопления: если БД не успевает (сохранение дольше целевого), то оно увеличивается (сохранения реже),
+ * иначе - постепенно уменьшается к минимуму (меньше задержка данных).
+ * Все значения остаются в пределах заданных минимумов и максимумов.
+ * <p>
+ * Методы {@link #onFlushCompleted(int, long)} и {@link #onFlushFailed()} вызываются Descriptor-ом под блокировкой сохранения;
+ * текущие значения читаются из любых потоков.
+ */
+@Slf4j
+@SuppressWarnings("unused")
+@Accessors(chain = true)
+public class DbSavingAdaptiveController {
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Constants">
+
+    /**
+     * Множитель уменьшения размера пачки по умолчанию.
+     */
+    public static final double DEFAULT_DECREASE_FACTOR = 0.5;
+
+    /**
+     * Доля целевой длительности, ниже которой время накопления уменьшается.
+     */
+    private static final double LINGER_DECREASE_THRESHOLD = 0.5;
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Fields">
+
+    /**
+     * Целевая длительность одного сохранения (мс).
+     */
+    @Getter
+    private final long targetFlushMs;
+
+    @Getter
+    private final int minBufferLimit;
+
+    @Getter
+    private final int maxBufferLimit;
+
+    @Getter
+    private final int minBufferForMs;
+
+    @Getter
+    private final int maxBufferForMs;
+
+    /**
+     * Шаг увеличения размера пачки. По умолчанию - 1/16 диапазона, но не меньше 1.
+     */
+    @Getter
+    private int increaseStep;
+
+    /**
+     * Множитель уменьшения размера пачки (0 &lt; decreaseFactor &lt; 1).
+     */
+    @Getter
+    private double decreaseFactor = DEFAULT_DECREASE_FACTOR;
+
+    /**
+     * Текущий размер пачки.
+     */
+    @Getter
+    private volatile int bufferLimit;
+
+    /**
+     * Текущее время накопления (мс).
+     */
+    @Getter
+    private volatile int bufferForMs;
+
+    /**
+     * Длительность последнего сохранения (мс).
+     */
+    @Getter
+    private volatile long lastFlushMs;
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Initialization">
+
+    /**
+     * @param targetFlushMs  целевая длительность сохранения (мс).
+     * @param minBufferLimit минимальный размер пачки.
+     * @param maxBufferLimit максимальный размер пачки.
+     * @param minBufferForMs минимальное время накопления (мс).
+     * @param maxBufferForMs максимальное время накопления (мс).
+     */
+    public DbSavingAdaptiveController(
+            final long targetFlushMs,
+            final int minBufferLimit,
+            final int maxBufferLimit,
+            final int minBufferForMs,
+            final int maxBufferForMs
+    ) {
+        if (targetFlushMs <= 0) {
+            throw new IllegalArgumentException("targetFlushMs must be positive (targetFlushMs = " + targetFlushMs + ")");
+        }
+        if (minBufferLimit <= 0 || maxBufferLimit < minBufferLimit) {
+            throw new IllegalArgumentException("Invalid buffer limit bounds [" + minBufferLimit + ", " + maxBufferLimit + "]");
+        }
+        if (minBufferForMs <= 0 || maxBufferForMs < minBufferForMs) {
+            throw new IllegalArgumentException("Invalid bufferForMs bounds [" + minBufferForMs + ", " + maxBufferForMs + "]");
+        }
+        this.targetFlushMs = targetFlushMs;
+        this.minBufferLimit = minBufferLimit;
+        this.maxBufferLimit = maxBufferLimit;
+        this.minBufferForMs = minBufferForMs;
+        this.maxBufferForMs = maxBufferForMs;
+        this.increaseStep = Math.max(1, (maxBufferLimit - minBufferLimit) / 16);
+        // Начинаем осторожно: с минимальной пачки и минимального времени накопления
+        this.bufferLimit = minBufferLimit;
+        this.bufferForMs = minBufferForMs;
+    }
+
+    @NotNull
+    public DbSavingAdaptiveController setIncreaseStep(final int increaseStep) {
+        if (increaseStep <= 0) {
+            throw new IllegalArgumentException("increaseStep must be positive (increaseStep = " + increaseStep + ")");
+        }
+        this.increaseStep = increaseStep;
+        return this;
+    }
+
+    @NotNull
+    public DbSavingAdaptiveController setDecreaseFactor(final double decreaseFactor) {
+        if (decreaseFactor <= 0 || decreaseFactor >= 1) {
+            throw new IllegalArgumentException("decreaseFactor must be in (0, 1) (decreaseFactor = " + decreaseFactor + ")");
+        }
+        this.decreaseFactor = decreaseFactor;
+        return this;
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Feedback">
+
+    /**
+     * Учет успешного сохранения.
+     *
+     * @param itemsCount количество сохраненных элементов.
+     * @param durationMs длительность сохранения (мс).
+     */
+    public void onFlushCompleted(final int itemsCount, final long durationMs) {
+        this.lastFlushMs = durationMs;
+        final var limit = this.bufferLimit;
+        final var linger = this.bufferForMs;
+        if (durationMs > this.targetFlushMs) {
+            this.bufferLimit = Math.max(this.minBufferLimit, (int) (limit * this.decreaseFactor));
+            this.bufferForMs = Math.min(this.maxBufferForMs, Math.max(linger + 1, (int) (linger / this.decreaseFactor)));
+        } else {
+            if (itemsCount >= limit) {
+                // Пачка была ограничена размером, а запас по времени есть
+                this.bufferLimit = Math.min(this.maxBufferLimit, limit + this.increaseStep);
+            }
+            if (durationMs < this.targetFlushMs * LINGER_DECREASE_THRESHOLD) {
+                this.bufferForMs = Math.max(this.minBufferForMs, linger - Math.max(1, linger / 16));
+            }
+        }
+        if (log.isDebugEnabled() && (limit != this.bufferLimit || linger != this.bufferForMs)) {
+            log.debug("Adaptive flush: {} items in {} ms, bufferLimit {} -> {}, bufferForMs {} -> {}",
+                    itemsCount, durationMs, limit, this.bufferLimit, linger, this.bufferForMs);
+        }
+    }
+
+    /**
+     * Учет ошибки сохранения: размер пачки уменьшается.
+     */
+    public void onFlushFailed() {
+        this.bufferLimit = Math.max(this.minBufferLimit, (int) (this.bufferLimit * this.decreaseFactor));
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+}
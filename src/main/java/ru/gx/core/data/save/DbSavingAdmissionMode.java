@@ -0,0 +1,18 @@
+package ru.gx.core.data.save;
+
+/**
+ * Поведение при добавлении данных в заполненный буфер.
+ */
+@SuppressWarnings("unused")
+public enum DbSavingAdmissionMode {
+    /**
+     * Сразу выбрасывается {@link ru.gx.core.data.errors.BufferIsFullException}.
+     */
+    Reject,
+
+    /**
+     * Поток-производитель ожидает освобождения места в буфере (не дольше admissionTimeoutMs),
+     * после чего выбрасывается {@link ru.gx.core.data.errors.BufferIsFullException}.
+     */
+    Block
+}
@@ -0,0 +1,21 @@
+package ru.gx.core.data.save;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Общий интерфейс операторов сохранения данных в БД:
+ * <ul>
+ *     <li>{@link DbSavingOperator} - сохранение через команду, подготовленную оператором;</li>
+ *     <li>{@link DbSavingStreamingOperator} - загрузка потоком через соединение, без подготовки команд.</li>
+ * </ul>
+ */
+@SuppressWarnings("unused")
+public interface DbSavingBaseOperator {
+    /**
+     * @return Способ представления данных, который формирует данный оператор; null - не определен.
+     */
+    @Nullable
+    default DbSavingSerializeMode getSerializeMode() {
+        return null;
+    }
+}
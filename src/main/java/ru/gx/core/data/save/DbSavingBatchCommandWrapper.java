@@ -0,0 +1,165 @@
+package ru.gx.core.data.save;
+
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import ru.gx.core.data.sqlwrapping.ConnectionWrapper;
+import ru.gx.core.data.sqlwrapping.ResultWrapper;
+import ru.gx.core.data.sqlwrapping.SqlCommandWrapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import static lombok.AccessLevel.PROTECTED;
+
+/**
+ * Обертка команды для режимов {@link DbSavingAccumulateMode}.BatchPer*.
+ * <p>
+ * Вызов {@link #executeNoResult()} (его выполняет {@link AbstractDbSavingOperator#executeStatement(SqlCommandWrapper, Object)})
+ * не выполняет команду, а добавляет ее в пакет исходной команды. Поэтому существующие реализации операторов
+ * без изменений работают в пакетных режимах. Пакет отправляется в БД вызовом {@link #executeBatch()}.
+ * <p>
+ * Значения параметров пакета используются только при отправке пакета, а фрагменты массивов и потоки, переданные
+ * операторами, действительны лишь во время вызова (буферы сериализации используются повторно). Поэтому такие
+ * значения копируются при установке параметра.
+ */
+@SuppressWarnings("unused")
+public class DbSavingBatchCommandWrapper implements SqlCommandWrapper {
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Fields">
+
+    /**
+     * Исходная команда.
+     */
+    @Getter(PROTECTED)
+    @NotNull
+    private final SqlCommandWrapper command;
+
+    /**
+     * Количество команд, добавленных в пакет.
+     */
+    @Getter
+    private int batchSize;
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Initialization">
+    public DbSavingBatchCommandWrapper(@NotNull final SqlCommandWrapper command) {
+        this.command = command;
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="implements SqlCommandWrapper">
+    @Override
+    @NotNull
+    public Object getInternalCommand() {
+        return this.command.getInternalCommand();
+    }
+
+    @Override
+    public void setStringParam(final int paramIndex, @Nullable final String value) throws SQLException {
+        this.command.setStringParam(paramIndex, value);
+    }
+
+    @Override
+    public void setIntegerParam(final int paramIndex, @Nullable final Integer value) throws SQLException {
+        this.command.setIntegerParam(paramIndex, value);
+    }
+
+    @Override
+    public void setLongParam(final int paramIndex, @Nullable final Long value) throws SQLException {
+        this.command.setLongParam(paramIndex, value);
+    }
+
+    @Override
+    public void setNumericParam(final int paramIndex, @Nullable final BigDecimal value) throws SQLException {
+        this.command.setNumericParam(paramIndex, value);
+    }
+
+    @Override
+    public void setBinaryParam(final int paramIndex, final byte[] value) throws SQLException {
+        this.command.setBinaryParam(paramIndex, value);
+    }
+
+    @Override
+    public void setBinaryParam(final int paramIndex, final byte[] value, final int offset, final int length) throws SQLException {
+        this.command.setBinaryParam(paramIndex, Arrays.copyOfRange(value, offset, offset + length));
+    }
+
+    @Override
+    public void setBinaryStreamParam(final int paramIndex, @NotNull final InputStream value, final int length) throws SQLException {
+        try {
+            this.command.setBinaryParam(paramIndex, value.readNBytes(length));
+        } catch (IOException e) {
+            throw new SQLException("Error on reading binary stream parameter " + paramIndex, e);
+        }
+    }
+
+    @Override
+    public void setCharacterStreamParam(final int paramIndex, @NotNull final Reader value) throws SQLException {
+        try {
+            final var writer = new StringWriter();
+            value.transferTo(writer);
+            this.command.setStringParam(paramIndex, writer.toString());
+        } catch (IOException e) {
+            throw new SQLException("Error on reading character stream parameter " + paramIndex, e);
+        }
+    }
+
+    /**
+     * Добавление команды в пакет вместо выполнения.
+     */
+    @Override
+    public void executeNoResult() throws SQLException {
+        addBatch();
+    }
+
+    /**
+     * Команды с результатом не могут быть добавлены в пакет - выполняются сразу.
+     */
+    @Override
+    public ResultWrapper executeWithResult() throws SQLException {
+        return this.command.executeWithResult();
+    }
+
+    @Override
+    public void addBatch() throws SQLException {
+        this.command.addBatch();
+        this.batchSize++;
+    }
+
+    @Override
+    public int[] executeBatch() throws SQLException {
+        if (this.batchSize == 0) {
+            return new int[0];
+        }
+        this.batchSize = 0;
+        return this.command.executeBatch();
+    }
+
+    @Override
+    public void clearBatch() throws SQLException {
+        this.batchSize = 0;
+        this.command.clearBatch();
+    }
+
+    @Override
+    public ConnectionWrapper getConnection() {
+        return this.command.getConnection();
+    }
+
+    /**
+     * Исходная команда не закрывается - ею владеет Descriptor.
+     */
+    @Override
+    public void close() throws IOException {
+    }
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+}
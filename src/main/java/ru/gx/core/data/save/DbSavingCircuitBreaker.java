@@ -0,0 +1,137 @@
+package ru.gx.core.data.save;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Приостановка сохранений конфигурации при недоступности БД.
+ * <ul>
+ *     <li>{@link State#Closed} - сохранения выполняются; временные ошибки подряд подсчитываются.</li>
+ *     <li>{@link State#Open} - после {@link DbSavingRetryPolicy#getCircuitBreakerFailureThreshold()} ошибок подряд
+ *     сохранения не выполняются {@link DbSavingRetryPolicy#getCircuitBreakerOpenMs()}.</li>
+ *     <li>{@link State#HalfOpen} - разрешено одно пробное сохранение: успех закрывает, ошибка снова открывает.
+ *     Если результат пробного сохранения не сообщен за {@link DbSavingRetryPolicy#getCircuitBreakerOpenMs()},
+ *     то разрешается следующее пробное сохранение.</li>
+ * </ul>
+ * Один экземпляр используется всеми Descriptor-ами конфигурации (см. {@link AbstractDbSavingConfiguration#getCircuitBreaker()}).
+ */
+@Slf4j
+@SuppressWarnings("unused")
+public class DbSavingCircuitBreaker {
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="State">
+    public enum State {
+        Closed,
+        Open,
+        HalfOpen
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Fields">
+
+    @Getter
+    @NotNull
+    private final String name;
+
+    @Getter
+    @NotNull
+    private final DbSavingRetryPolicy retryPolicy;
+
+    @NotNull
+    private final AtomicReference<State> state = new AtomicReference<>(State.Closed);
+
+    @NotNull
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+    @NotNull
+    private final AtomicLong openedAtMillis = new AtomicLong();
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Initialization">
+    public DbSavingCircuitBreaker(@NotNull final String name, @NotNull final DbSavingRetryPolicy retryPolicy) {
+        this.name = name;
+        this.retryPolicy = retryPolicy;
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Access">
+
+    @NotNull
+    public State getState() {
+        return this.state.get();
+    }
+
+    /**
+     * Запрос разрешения на сохранение.
+     *
+     * @return true - сохранение разрешено (в состоянии {@link State#HalfOpen} - только одному вызывающему).
+     * Получивший разрешение обязан сообщить результат: {@link #onSuccess()} или {@link #onFailure()}.
+     */
+    public boolean tryAcquire() {
+        final var current = this.state.get();
+        if (current == State.Closed) {
+            return true;
+        }
+        final var now = System.currentTimeMillis();
+        final var since = this.openedAtMillis.get();
+        if (now - since < this.retryPolicy.getCircuitBreakerOpenMs()) {
+            return false;
+        }
+        if (current == State.Open) {
+            if (!this.state.compareAndSet(State.Open, State.HalfOpen)) {
+                return false;
+            }
+            this.openedAtMillis.set(now);
+            log.info("Circuit breaker {}: probing database with one flush", this.name);
+            return true;
+        }
+        // HalfOpen: пробное сохранение не сообщило результат (например, не дошло до БД) - разрешаем следующее
+        return this.openedAtMillis.compareAndSet(since, now);
+    }
+
+    /**
+     * @return Через сколько миллисекунд будет разрешено пробное сохранение (0 - сохранения разрешены).
+     */
+    public long getRemainingOpenMs() {
+        if (this.state.get() == State.Closed) {
+            return 0;
+        }
+        return Math.max(0, this.openedAtMillis.get() + this.retryPolicy.getCircuitBreakerOpenMs() - System.currentTimeMillis());
+    }
+
+    /**
+     * БД ответила (сохранение успешно или завершилось не временной ошибкой).
+     */
+    public void onSuccess() {
+        this.consecutiveFailures.set(0);
+        if (this.state.getAndSet(State.Closed) != State.Closed) {
+            log.info("Circuit breaker {} is closed", this.name);
+        }
+    }
+
+    /**
+     * Временная ошибка сохранения (БД недоступна).
+     */
+    public void onFailure() {
+        final var failures = this.consecutiveFailures.incrementAndGet();
+        final var threshold = this.retryPolicy.getCircuitBreakerFailureThreshold();
+        if (this.state.get() == State.HalfOpen || (threshold > 0 && failures >= threshold)) {
+            this.openedAtMillis.set(System.currentTimeMillis());
+            if (this.state.getAndSet(State.Open) != State.Open) {
+                log.warn("Circuit breaker {} is open for {} ms after {} failures",
+                        this.name, this.retryPolicy.getCircuitBreakerOpenMs(), failures);
+            }
+        }
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+}
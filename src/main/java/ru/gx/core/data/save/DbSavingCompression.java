@@ -0,0 +1,20 @@
+package ru.gx.core.data.save;
+
+/**
+ * Сжатие двоичных данных перед отправкой в СУБД (см. {@link AbstractBinaryDbSavingOperator#setCompression(DbSavingCompression)}).
+ * <p>
+ * Сжатые (и не сжатые из-за малого размера) данные предваряются заголовком с кодом способа сжатия,
+ * см. {@link DbSavingPayloadCodec}.
+ */
+@SuppressWarnings("unused")
+public enum DbSavingCompression {
+    /**
+     * Данные передаются без сжатия и без заголовка.
+     */
+    None,
+
+    /**
+     * Данные сжимаются алгоритмом Deflate в формате zlib (RFC 1950).
+     */
+    Deflate
+}
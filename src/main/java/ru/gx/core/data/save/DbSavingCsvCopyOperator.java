@@ -0,0 +1,235 @@
+package ru.gx.core.data.save;
+
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+import ru.gx.core.data.DataObject;
+import ru.gx.core.data.DataPackage;
+import ru.gx.core.data.sqlwrapping.ConnectionWrapper;
+
+import javax.activation.UnsupportedDataTypeException;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.invoke.MethodHandle;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static lombok.AccessLevel.PROTECTED;
+
+/**
+ * Оператор потоковой загрузки объектов в формате CSV (COPY ... FROM STDIN (FORMAT csv)).
+ * <p>
+ * В качестве saveCommand Descriptor-а указывается команда загрузки, например:
+ * {@code COPY orders (id, amount) FROM STDIN (FORMAT csv)}.
+ * Каждый объект буфера записывается одной строкой; значения свойств из {@link #getPropertyNames()} - в порядке столбцов.
+ * null записывается пустым значением без кавычек, пустая строка - "".
+ * <p>
+ * Поддерживаются режимы накопления объектов и пакетов (PerObject, ListOfObjects, BatchPerObject,
+ * PerPackage, ListOfPackages, BatchPerPackage): все объекты буфера загружаются одной командой.
+ */
+@SuppressWarnings("unused")
+public class DbSavingCsvCopyOperator implements DbSavingStreamingOperator {
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Constants">
+    private static final int WRITER_BUFFER_SIZE = 64 * 1024;
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Fields">
+
+    /**
+     * Имена свойств объекта в порядке столбцов.
+     */
+    @Getter(PROTECTED)
+    @NotNull
+    private final List<String> propertyNames;
+
+    /**
+     * Подготовленный доступ к свойствам для каждого класса объектов.
+     */
+    @NotNull
+    private final Map<Class<?>, MethodHandle[]> accessorsByClass = new ConcurrentHashMap<>();
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Initialization">
+
+    /**
+     * @param propertyNames имена свойств объекта в порядке столбцов.
+     */
+    public DbSavingCsvCopyOperator(@NotNull final String... propertyNames) {
+        if (propertyNames.length == 0) {
+            throw new IllegalArgumentException("CSV copy operator requires at least one property");
+        }
+        this.propertyNames = List.of(propertyNames);
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="implements DbSavingStreamingOperator">
+
+    @Override
+    public long saveData(
+            @NotNull final ConnectionWrapper connection,
+            @NotNull final String saveCommand,
+            @NotNull final Object data,
+            @NotNull final DbSavingAccumulateMode accumulateMode
+    ) throws SQLException, IOException {
+        switch (accumulateMode) {
+            case PerObject, ListOfObjects, BatchPerObject, PerPackage, ListOfPackages, BatchPerPackage -> {
+                return connection.copyIn(saveCommand, output -> internalWriteRows(output, data));
+            }
+            default -> throw new UnsupportedDataTypeException("Unsupported accumulateMode = " + accumulateMode
+                    + " for CSV copy operator");
+        }
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Writing">
+
+    protected long internalWriteRows(
+            @NotNull final OutputStream output,
+            @NotNull final Object data
+    ) throws IOException, SQLException {
+        final var writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), WRITER_BUFFER_SIZE);
+        var result = 0L;
+        if (data instanceof final DataObject dataObject) {
+            internalWriteRow(writer, dataObject);
+            result++;
+        } else if (data instanceof final DataPackage<?> dataPackage) {
+            result += internalWriteRows(writer, dataPackage);
+        } else if (data instanceof final Iterable<?> items) {
+            for (final var item : items) {
+                if (item instanceof final DataObject dataObject) {
+                    internalWriteRow(writer, dataObject);
+                    result++;
+                } else if (item instanceof final DataPackage<?> dataPackage) {
+                    result += internalWriteRows(writer, dataPackage);
+                } else {
+                    throw new UnsupportedDataTypeException("Unsupported class of element Iterable data. Class of element = " + item.getClass().getName());
+                }
+            }
+        } else {
+            throw new UnsupportedDataTypeException("Unsupported class for parameter data. Class = " + data.getClass().getName());
+        }
+        writer.flush();
+        return result;
+    }
+
+    private long internalWriteRows(
+            @NotNull final Writer writer,
+            @NotNull final DataPackage<?> dataPackage
+    ) throws IOException, SQLException {
+        for (final var object : dataPackage.getObjects()) {
+            internalWriteRow(writer, object);
+        }
+        return dataPackage.getObjects().size();
+    }
+
+    /**
+     * Запись одного объекта строкой CSV.
+     */
+    protected void internalWriteRow(
+            @NotNull final Writer writer,
+            @NotNull final DataObject dataObject
+    ) throws IOException, SQLException {
+        final var accessors = getAccessors(dataObject.getClass());
+        for (var i = 0; i < accessors.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            final var value = DbSavingPropertyAccessors.readProperty(accessors[i], this.propertyNames.get(i), dataObject);
+            if (value != null) {
+                writeValue(writer, formatValue(value));
+            }
+        }
+        writer.write('\n');
+    }
+
+    /**
+     * Представление значения свойства в CSV (до экранирования).
+     * Наследники могут переопределить для поддержки дополнительных типов.
+     */
+    @NotNull
+    protected String formatValue(@NotNull final Object value) {
+        if (value instanceof final BigDecimal decimal) {
+            return decimal.toPlainString();
+        }
+        if (value instanceof final Enum<?> enumValue) {
+            return enumValue.name();
+        }
+        if (value instanceof final byte[] bytes) {
+            // Текстовое представление bytea
+            final var result = new StringBuilder(2 + bytes.length * 2).append("\\x");
+            for (final var b : bytes) {
+                result.append(HEX_DIGITS[(b >> 4) & 0xF]).append(HEX_DIGITS[b & 0xF]);
+            }
+            return result.toString();
+        }
+        return value.toString();
+    }
+
+    private static void writeValue(@NotNull final Writer writer, @NotNull final String value) throws IOException {
+        if (!needQuotes(value)) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        for (var i = 0; i < value.length(); i++) {
+            final var c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    private static boolean needQuotes(@NotNull final String value) {
+        // Пустая строка в кавычках отличается от null; \. без кавычек - признак конца данных
+        if (value.isEmpty() || value.equals("\\.")) {
+            return true;
+        }
+        for (var i = 0; i < value.length(); i++) {
+            final var c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Accessors">
+
+    @NotNull
+    protected MethodHandle[] getAccessors(@NotNull final Class<?> objectClass) {
+        final var result = this.accessorsByClass.get(objectClass);
+        if (result != null) {
+            return result;
+        }
+        return this.accessorsByClass.computeIfAbsent(objectClass, this::createAccessors);
+    }
+
+    @NotNull
+    private MethodHandle[] createAccessors(@NotNull final Class<?> objectClass) {
+        final var result = new MethodHandle[this.propertyNames.size()];
+        for (var i = 0; i < result.length; i++) {
+            result[i] = DbSavingPropertyAccessors.getAccessor(objectClass, this.propertyNames.get(i))
+                    .asType(DbSavingPropertyAccessors.ACCESSOR_TYPE);
+        }
+        return result;
+    }
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+}
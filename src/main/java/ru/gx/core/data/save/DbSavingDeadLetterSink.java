@@ -0,0 +1,24 @@
+package ru.gx.core.data.save;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Получатель элементов, которые не удалось сохранить в БД (см. {@link DbSavingErrorStrategy#Bisect}).
+ * <p>
+ * Вызывается в потоке сохранения под блокировкой сохранения Descriptor-а, поэтому не должен выполнять долгих операций.
+ * Ошибка получателя записывается в лог, элемент при этом не сохраняется повторно.
+ */
+@FunctionalInterface
+public interface DbSavingDeadLetterSink {
+    /**
+     * @param descriptor Descriptor, при сохранении которого возникла ошибка.
+     * @param item       элемент буфера (сообщение, объект, пакет, RAW-объект; при сериализации при добавлении
+     *                   в буфер - byte[] с сериализованными данными).
+     * @param error      ошибка сохранения элемента.
+     */
+    void accept(
+            @NotNull final DbSavingDescriptor descriptor,
+            @NotNull final Object item,
+            @NotNull final Throwable error
+    );
+}
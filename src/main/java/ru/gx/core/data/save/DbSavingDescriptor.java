@@ -1,5 +1,6 @@
 package ru.gx.core.data.save;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import lombok.*;
 import lombok.experimental.Accessors;
 import lombok.extern.slf4j.Slf4j;
@@ -10,6 +11,7 @@ import ru.gx.core.channels.AbstractOutcomeChannelHandlerDescriptor;
 import ru.gx.core.channels.ChannelApiDescriptor;
 import ru.gx.core.channels.ChannelConfigurationException;
 import ru.gx.core.data.DataObject;
+import ru.gx.core.data.DataObjectKeyExtractor;
 import ru.gx.core.data.DataPackage;
 import ru.gx.core.data.errors.BufferIsFullException;
 import ru.gx.core.data.sqlwrapping.SqlCommandWrapper;
@@ -22,9 +24,30 @@ import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.security.InvalidParameterException;
 import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static lombok.AccessLevel.PROTECTED;
 
@@ -34,6 +57,13 @@ import static lombok.AccessLevel.PROTECTED;
 @ToString
 @Slf4j
 public class DbSavingDescriptor extends AbstractOutcomeChannelHandlerDescriptor {
+    // -----------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Constants">
+    private static final int SCHEDULED_FLUSH_IDLE = 0;
+    private static final int SCHEDULED_FLUSH_RUNNING = 1;
+    private static final int SCHEDULED_FLUSH_REPEAT = 2;
+
+    // </editor-fold>
     // -----------------------------------------------------------------------------------------------------------------
     // <editor-fold desc="Fields">
 
@@ -91,7 +121,10 @@ public class DbSavingDescriptor extends AbstractOutcomeChannelHandlerDescriptor
      * <ul>
      *     <li>{@link DbSavingSerializeMode#Json}</li>
      *     <li>{@link DbSavingSerializeMode#Binary}</li>
+     *     <li>{@link DbSavingSerializeMode#Smile}</li>
+     *     <li>{@link DbSavingSerializeMode#Cbor}</li>
      * </ul>
+     * Определяет, какой из {@link #getSaveOperators()} будет использован для сохранения.
      */
     @Getter
     @NotNull
@@ -108,6 +141,10 @@ public class DbSavingDescriptor extends AbstractOutcomeChannelHandlerDescriptor
      *      <li>{@link DbSavingAccumulateMode#ListOfObjects}</li>
      *      <li>{@link DbSavingAccumulateMode#ListOfRawObjects}</li>
      *      <li>{@link DbSavingAccumulateMode#ListOfPackages}</li>
+     *      <li>{@link DbSavingAccumulateMode#BatchPerMessage}</li>
+     *      <li>{@link DbSavingAccumulateMode#BatchPerObject}</li>
+     *      <li>{@link DbSavingAccumulateMode#BatchPerRawObject}</li>
+     *      <li>{@link DbSavingAccumulateMode#BatchPerPackage}</li>
      * </ul>
      */
     @Getter
@@ -137,12 +174,139 @@ public class DbSavingDescriptor extends AbstractOutcomeChannelHandlerDescriptor
     @Setter
     private int retryAfterErrorForMs = DbSavingDescriptorsDefaults.DEFAULTS_RETRY_AFTER_ERROR_FOR_MS;
 
+    /**
+     * Политика повтора сохранения после ошибок. Если задана, то пауза перед повтором вычисляется политикой
+     * по количеству ошибок подряд (вместо {@link #getRetryAfterErrorForMs()}).
+     */
+    @Getter
+    @Setter
+    @Nullable
+    private DbSavingRetryPolicy retryPolicy;
+
+    /**
+     * Автоматическая настройка размера пачки и времени накопления. Если задан, то вместо {@link #getBufferLimit()}
+     * и {@link #getBufferForMs()} используются значения контроллера (размер пачки - не больше {@link #getBufferLimit()}).
+     */
+    @Getter
+    @Nullable
+    private DbSavingAdaptiveController adaptiveController;
+
+    /**
+     * Извлечение ключа объекта для схлопывания буфера (режимы накопления объектов). Если задан, то в буфере
+     * для сохранения остается только последняя версия объекта с каждым ключом (на месте первой версии);
+     * подтверждения замененных версий завершаются после сохранения последней. Объекты с ключом null не схлопываются.
+     */
+    @Getter
+    @Nullable
+    private DataObjectKeyExtractor<DataObject> coalescingKeyExtractor;
+
+    /**
+     * Индексы объектов в буфере для сохранения по ключам (при {@link #getCoalescingKeyExtractor()}).
+     * Используется только под {@link #getFlushLock()}.
+     */
+    @NotNull
+    private final Map<Object, Integer> coalescingIndex = new HashMap<>();
+
+    /**
+     * Количество объектов, замененных в буфере более поздними версиями (при {@link #getCoalescingKeyExtractor()}).
+     */
+    @Getter
+    private volatile long coalescedObjectsCount;
+
+    /**
+     * Количество разделов (1 - без разделения). Если больше 1, то при инициализации создаются Descriptor-ы-разделы
+     * с настройками данного Descriptor-а, и данные распределяются между ними по хешу ключа {@link #getPartitionKeyExtractor()}.
+     * Каждый раздел накапливает и сохраняет свои данные независимо от других (одновременно - в пределах
+     * {@link AbstractDbSavingConfiguration#getFlushConcurrency()}), порядок сохранения данных с одним ключом сохраняется.
+     * Поддерживаются режимы накопления сообщений и объектов. Сообщения, данные которых - не объект, и объекты
+     * с ключом null направляются в первый раздел.
+     */
+    @Getter
+    private int partitionsCount = 1;
+
+    /**
+     * Извлечение ключа объекта для выбора раздела (при {@link #getPartitionsCount()} &gt; 1).
+     */
+    @Getter
+    @Nullable
+    private DataObjectKeyExtractor<DataObject> partitionKeyExtractor;
+
+    /**
+     * Descriptor-ы-разделы (создаются при инициализации, если {@link #getPartitionsCount()} &gt; 1).
+     */
+    @Getter
+    @NotNull
+    private List<DbSavingDescriptor> partitions = Collections.emptyList();
+
+    /**
+     * Descriptor, разделом которого является данный Descriptor (null - не раздел).
+     */
+    @Getter
+    @Nullable
+    private DbSavingDescriptor partitionOwner;
+
+    /**
+     * Метрики Descriptor-а. Регистрируются при инициализации.
+     */
+    @Getter
+    @Nullable
+    private DbSavingDescriptorMetrics descriptorMetrics;
+
+    /**
+     * Максимальное количество элементов буфера, сохраняемых одной командой (0 - без ограничения).
+     * Буфер большего размера сохраняется частями в рамках одной транзакции (если {@link #isUseTransactionDueSave()}).
+     * Без транзакции при ошибке сохранения части уже сохраненные части будут сохранены повторно.
+     */
+    @Getter
+    @Setter
+    private int flushChunkRows;
+
+    /**
+     * Размер (байт) сериализованной части, по достижении которого часть завершается (0 - без ограничения).
+     * Используется в режимах ListOf... с оператором {@link DbSavingPipelinedOperator}.
+     */
+    @Getter
+    @Setter
+    private long flushChunkBytes;
+
+    /**
+     * Исполнитель сериализации следующей части, пока выполняется текущая (null - {@link ForkJoinPool#commonPool()}).
+     */
+    @Getter
+    @Setter
+    @Nullable
+    private Executor chunkSerializationExecutor;
+
+    /**
+     * Буферы сериализации частей: одна часть выполняется в БД, следующая в это время сериализуется.
+     * Используются только под {@link #getFlushLock()}.
+     */
+    @NotNull
+    private final DbSavingSerializationBuffer[] chunkBuffers = {
+            new DbSavingSerializationBuffer(),
+            new DbSavingSerializationBuffer()
+    };
+
     /**
      * Реализация метода сохранения в БД
      */
     @Getter(PROTECTED)
     @Nullable
-    private DbSavingOperator saveOperator;
+    private DbSavingBaseOperator saveOperator;
+
+    /**
+     * Оператор сохранения задан явно ({@link #setSaveOperator(DbSavingBaseOperator)}), а не получен из умолчаний.
+     */
+    private boolean saveOperatorAssigned;
+
+    /**
+     * Реализации метода сохранения в БД для способов представления данных.
+     * При инициализации оператор, зарегистрированный для {@link #getSerializeMode()}, заменяет {@link #getSaveOperator()},
+     * если тот не задан явно.
+     */
+    @Getter(PROTECTED)
+    @NotNull
+    private final Map<DbSavingSerializeMode, DbSavingBaseOperator> saveOperators = new EnumMap<>(DbSavingSerializeMode.class);
 
     /**
      * SQL сохранения в БД
@@ -151,6 +315,52 @@ public class DbSavingDescriptor extends AbstractOutcomeChannelHandlerDescriptor
     @Nullable
     private String saveCommand;
 
+    /**
+     * Накопительный буфер: производители добавляют данные без блокировок, поток сохранения забирает их пачкой
+     * в буферы {@link #messages}, {@link #objects}, {@link #packages}, {@link #rawObjects}.
+     */
+    @Getter(PROTECTED)
+    @Nullable
+    private MpscRingBuffer<Object> ringBuffer;
+
+    /**
+     * Блокировка сохранения. Производители данных ее не ждут: если сохранение уже выполняется другим потоком,
+     * то новые данные остаются в накопительном буфере до следующего сохранения.
+     */
+    @Getter(PROTECTED)
+    @NotNull
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    /**
+     * Размер буфера для сохранения (для чтения из потоков-производителей).
+     */
+    private volatile int flushingBufferSize;
+
+    /**
+     * Подтверждения сохранения данных, находящихся в буфере для сохранения.
+     */
+    @NotNull
+    private final List<FlushingAcknowledgement> flushingAcknowledgements = new ArrayList<>();
+
+    /**
+     * Признак того, что проверка необходимости сохранения уже запланирована в {@link DbSavingFlushScheduler}.
+     */
+    @NotNull
+    private final AtomicBoolean checkScheduled = new AtomicBoolean();
+
+    /**
+     * Признак того, что срочная проверка (буфер достиг лимита) уже запланирована в {@link DbSavingFlushScheduler}.
+     */
+    @NotNull
+    private final AtomicBoolean urgentCheckScheduled = new AtomicBoolean();
+
+    /**
+     * Состояние сохранения через исполнитель {@link DbSavingFlushScheduler}-а:
+     * {@link #SCHEDULED_FLUSH_IDLE}, {@link #SCHEDULED_FLUSH_RUNNING}, {@link #SCHEDULED_FLUSH_REPEAT}.
+     */
+    @NotNull
+    private final AtomicInteger scheduledFlushState = new AtomicInteger(SCHEDULED_FLUSH_IDLE);
+
     /**
      * Буфер сообщений
      */
@@ -175,17 +385,34 @@ public class DbSavingDescriptor extends AbstractOutcomeChannelHandlerDescriptor
     @Getter(PROTECTED)
     private final List<Object> rawObjects = new ArrayList<>();
 
+    /**
+     * Буфер сериализованных данных (при {@link #isSerializeAtEnqueue()})
+     */
+    @Getter(PROTECTED)
+    private final List<DbSavingPayloadArena.Slice> serializedItems = new ArrayList<>();
+
     /**
      * Момент последнего сохранения в БД. =System.currentTimeMillis() сразу после сохранения.
      */
     @Getter(PROTECTED)
-    private long lastSavedTimeMillis;
+    private volatile long lastSavedTimeMillis;
 
     /**
      * Момент последней ошибки при сохранении в БД. =System.currentTimeMillis() сразу после сохранения с ошибкой.
      */
     @Getter(PROTECTED)
-    private Long lastErrorTimeMillis;
+    private volatile Long lastErrorTimeMillis;
+
+    /**
+     * Количество ошибок сохранения подряд. Сбрасывается после успешного сохранения.
+     */
+    @Getter(PROTECTED)
+    private volatile int consecutiveErrorsCount;
+
+    /**
+     * Пауза перед повтором, вычисленная {@link #getRetryPolicy()} после последней ошибки.
+     */
+    private volatile long currentRetryDelayMs;
 
     @Getter(PROTECTED)
     @Nullable
@@ -197,7 +424,7 @@ public class DbSavingDescriptor extends AbstractOutcomeChannelHandlerDescriptor
      */
     @Getter(PROTECTED)
     @Nullable
-    private ApplicationEvent eventAfterSave;
+    private volatile ApplicationEvent eventAfterSave;
 
     /**
      * Признак необходимости сохранять данные в транзакции. Если true, то транзакция открывается до начала сохранения,
@@ -206,6 +433,118 @@ public class DbSavingDescriptor extends AbstractOutcomeChannelHandlerDescriptor
     @Getter(PROTECTED)
     private boolean useTransactionDueSave = DbSavingDescriptorsDefaults.DEFAULT_USE_TRAN_IN_SAVE;
 
+    /**
+     * Поведение при добавлении данных в заполненный буфер
+     * <ul>
+     *     <li>{@link DbSavingAdmissionMode#Reject}</li>
+     *     <li>{@link DbSavingAdmissionMode#Block}</li>
+     * </ul>
+     */
+    @Getter
+    @Setter
+    @NotNull
+    private DbSavingAdmissionMode admissionMode = DbSavingDescriptorsDefaults.DEFAULT_ADMISSION_MODE;
+
+    /**
+     * Максимальное время (в мс) ожидания места в буфере для {@link DbSavingAdmissionMode#Block}
+     * и для {@link #whenAdmitted()}.
+     */
+    @Getter
+    @Setter
+    private int admissionTimeoutMs = DbSavingDescriptorsDefaults.DEFAULT_ADMISSION_TIMEOUT_MS;
+
+    /**
+     * Поведение при ошибке сохранения пачки
+     * <ul>
+     *     <li>{@link DbSavingErrorStrategy#Retry}</li>
+     *     <li>{@link DbSavingErrorStrategy#Bisect}</li>
+     * </ul>
+     */
+    @Getter
+    @Setter
+    @NotNull
+    private DbSavingErrorStrategy errorStrategy = DbSavingDescriptorsDefaults.DEFAULT_ERROR_STRATEGY;
+
+    /**
+     * Получатель элементов, которые не удалось сохранить при {@link DbSavingErrorStrategy#Bisect}
+     * (null - элементы записываются в лог).
+     */
+    @Getter
+    @Setter
+    @Nullable
+    private DbSavingDeadLetterSink deadLetterSink;
+
+    /**
+     * Изымать из {@link #getJournal()} записи с ошибкой в данных ({@link #isDataError(Throwable)})
+     * при {@link DbSavingErrorStrategy#Retry}. По умолчанию (false) такая запись остается в журнале и сохраняется
+     * повторно, следующие записи ожидают ее сохранения. При {@link DbSavingErrorStrategy#Bisect} записи изымаются всегда.
+     * Ошибочные элементы находятся делением записи пополам (см. {@link #isBisectSupported()}),
+     * иначе в {@link #getDeadLetterSink()} передается вся запись.
+     */
+    @Getter
+    @Setter
+    private boolean journalDataErrorsToDeadLetter;
+
+    /**
+     * Ожидание освобождения места в буфере потоками-производителями.
+     */
+    @NotNull
+    private final ReentrantLock admissionLock = new ReentrantLock();
+
+    @NotNull
+    private final Condition spaceAvailable = this.admissionLock.newCondition();
+
+    @NotNull
+    private final AtomicInteger blockedProducers = new AtomicInteger();
+
+    /**
+     * Асинхронные ожидания места в буфере (см. {@link #whenAdmitted()}).
+     */
+    @NotNull
+    private final Queue<CompletableFuture<Void>> admissionWaiters = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Признак сериализации данных при добавлении в буфер. Если true, то сообщения (объекты) сериализуются
+     * оператором сохранения в потоке-производителе и хранятся в {@link #getPayloadArena()} вне heap-а;
+     * при сохранении готовые байты только объединяются в параметр команды.
+     * Требует оператор {@link DbSavingSerializedDataOperator}; поддерживаются режимы накопления сообщений и объектов.
+     */
+    @Getter
+    private boolean serializeAtEnqueue;
+
+    /**
+     * Хранилище сериализованных данных (при {@link #isSerializeAtEnqueue()}).
+     * Если не задано, то создается при инициализации; может разделяться несколькими Descriptor-ами.
+     */
+    @Getter
+    @Nullable
+    private DbSavingPayloadArena payloadArena;
+
+    /**
+     * Журнал на диске для данных, которые не удалось сохранить в БД или которые не поместились в буфер.
+     * Если задан, то при ошибке сохранения буфер записывается в журнал и освобождается, а при следующих
+     * сохранениях сначала (в порядке записи) сохраняются данные журнала, затем - новые данные.
+     */
+    @Getter
+    @Nullable
+    private DbSavingJournal journal;
+
+    /**
+     * Подтверждения сохранения данных, записанных в журнал, по идентификаторам записей журнала
+     * (с индексами элементов в записи). Завершаются после сохранения записи в БД.
+     * Используется только под {@link #getFlushLock()}.
+     */
+    @NotNull
+    private final Map<Long, List<FlushingAcknowledgement>> journaledAcknowledgements = new HashMap<>();
+
+    /**
+     * Подтверждения, результат которых определен во время сохранения. Заполняется под {@link #getFlushLock()},
+     * а завершаются подтверждения после освобождения блокировки ({@link #internalCompleteDeferredAcknowledgements()}),
+     * чтобы обработчики подтверждений не выполнялись под блокировкой сохранения.
+     */
+    @NotNull
+    private final Queue<DeferredAcknowledgement> deferredAcknowledgements = new ConcurrentLinkedQueue<>();
+
     // </editor-fold>
     // -----------------------------------------------------------------------------------------------------------------
     // <editor-fold desc="Initialize">
@@ -229,6 +568,15 @@ public class DbSavingDescriptor extends AbstractOutcomeChannelHandlerDescriptor
         internalInitDefaults(defaults);
     }
 
+    /**
+     * Descriptor-раздел (см. {@link #internalCreatePartition(int)}).
+     */
+    private DbSavingDescriptor(@NotNull final DbSavingDescriptor partitionOwner, final int index) {
+        super(partitionOwner.getOwner(), partitionOwner.getChannelName() + "[" + index + "]", null);
+        this.messageClass = partitionOwner.messageClass;
+        this.partitionOwner = partitionOwner;
+    }
+
     private void internalInitDefaults(@Nullable final DbSavingDescriptorsDefaults defaults) {
         if (defaults != null) {
             this.processMode = defaults.getProcessMode();
@@ -237,7 +585,14 @@ public class DbSavingDescriptor extends AbstractOutcomeChannelHandlerDescriptor
             this.bufferLimit = defaults.getBufferLimit();
             this.bufferForMs = defaults.getBufferForMs();
             this.saveOperator = defaults.getSaveOperator();
+            this.saveOperators.putAll(defaults.getSaveOperators());
             this.useTransactionDueSave = defaults.isUseTransactionDueSave();
+            this.admissionMode = defaults.getAdmissionMode();
+            this.admissionTimeoutMs = defaults.getAdmissionTimeoutMs();
+            this.errorStrategy = defaults.getErrorStrategy();
+            this.deadLetterSink = defaults.getDeadLetterSink();
+            this.retryAfterErrorForMs = defaults.getRetryAfterErrorForMs();
+            this.retryPolicy = defaults.getRetryPolicy();
         }
     }
 
@@ -255,14 +610,34 @@ public class DbSavingDescriptor extends AbstractOutcomeChannelHandlerDescriptor
             throw new ChannelConfigurationException("Descriptor " + descriptorName + " doesn't have saveCommand!");
         }
 
+        final var serializeModeOperator = this.saveOperators.get(this.serializeMode);
+        if (serializeModeOperator != null && !this.saveOperatorAssigned) {
+            this.saveOperator = serializeModeOperator;
+        }
+
         if (this.saveOperator == null) {
             throw new ChannelConfigurationException("Descriptor " + descriptorName + " doesn't have operator!");
         }
+        if (!(this.saveOperator instanceof DbSavingOperator) && !(this.saveOperator instanceof DbSavingStreamingOperator)) {
+            throw new ChannelConfigurationException("Descriptor " + descriptorName + " has unsupported operator "
+                    + this.saveOperator.getClass().getName() + "!");
+        }
+
+        final var operatorSerializeMode = this.saveOperator.getSerializeMode();
+        if (operatorSerializeMode != null && operatorSerializeMode != this.serializeMode) {
+            if (this.serializeMode == DbSavingSerializeMode.Smile || this.serializeMode == DbSavingSerializeMode.Cbor) {
+                throw new ChannelConfigurationException("Descriptor " + descriptorName + " doesn't have operator for serializeMode = "
+                        + this.serializeMode + " (operator serializeMode = " + operatorSerializeMode + ")!");
+            }
+            log.warn("Descriptor {} has serializeMode = {}, but its operator uses serializeMode = {}",
+                    descriptorName, this.serializeMode, operatorSerializeMode);
+        }
 
         if (this.dataObjectClass == null
                 && (
                 getAccumulateMode() == DbSavingAccumulateMode.PerObject
-                        || getAccumulateMode() == DbSavingAccumulateMode.ListOfObjects)
+                        || getAccumulateMode() == DbSavingAccumulateMode.ListOfObjects
+                        || getAccumulateMode() == DbSavingAccumulateMode.BatchPerObject)
         ) {
             throw new ChannelConfigurationException("Descriptor " + descriptorName +
                     " doesn't have dataObjectClass (for accumulateMode = " + getAccumulateMode() + ")!");
@@ -271,7 +646,8 @@ public class DbSavingDescriptor extends AbstractOutcomeChannelHandlerDescriptor
         if (this.dataPackageClass == null
                 && (
                 getAccumulateMode() == DbSavingAccumulateMode.PerPackage
-                        || getAccumulateMode() == DbSavingAccumulateMode.ListOfPackages)
+                        || getAccumulateMode() == DbSavingAccumulateMode.ListOfPackages
+                        || getAccumulateMode() == DbSavingAccumulateMode.BatchPerPackage)
         ) {
             throw new ChannelConfigurationException("Descriptor for saving messages "
                     + descriptorName
@@ -281,23 +657,151 @@ public class DbSavingDescriptor extends AbstractOutcomeChannelHandlerDescriptor
         if ((this.messagesFactory == null || this.messageType == null || messageVersion == null)
                 && (
                 getAccumulateMode() == DbSavingAccumulateMode.PerMessage
-                        || getAccumulateMode() == DbSavingAccumulateMode.ListOfMessages)
+                        || getAccumulateMode() == DbSavingAccumulateMode.ListOfMessages
+                        || getAccumulateMode() == DbSavingAccumulateMode.BatchPerMessage)
         ) {
             throw new ChannelConfigurationException("Descriptor for saving messages "
                     + descriptorName
                     + " doesn't have messageFactory (for accumulateMode = " + getAccumulateMode() + ")!");
         }
 
+        if (this.serializeAtEnqueue) {
+            if (!(this.saveOperator instanceof final DbSavingSerializedDataOperator serializedDataOperator)
+                    || !serializedDataOperator.isSerializedDataSupported(getAccumulateMode())) {
+                throw new ChannelConfigurationException("Descriptor " + descriptorName
+                        + " doesn't support serializeAtEnqueue (accumulateMode = " + getAccumulateMode()
+                        + ", operator = " + this.saveOperator.getClass().getName() + ")!");
+            }
+            if (this.journal != null && this.saveOperator.getSerializeMode() != DbSavingSerializeMode.Json) {
+                // Записи журнала - массивы Json
+                throw new ChannelConfigurationException("Descriptor " + descriptorName
+                        + " with journal supports serializeAtEnqueue only for serializeMode = Json!");
+            }
+            if (this.payloadArena == null) {
+                this.payloadArena = new DbSavingPayloadArena();
+            }
+        }
+
+        if (this.errorStrategy == DbSavingErrorStrategy.Bisect && !isBisectSupported()) {
+            // Без транзакции часть пачки могла быть сохранена до ошибки: повтор частей привел бы к дублированию
+            throw new ChannelConfigurationException("Descriptor " + descriptorName
+                    + " supports errorStrategy = Bisect only with useTransactionDueSave or ListOf* accumulateMode"
+                    + " without flushChunkRows, flushChunkBytes and multi-row insert operator"
+                    + " (accumulateMode = " + getAccumulateMode() + ")!");
+        }
+
+        if (this.coalescingKeyExtractor != null) {
+            if (getAccumulateMode() != DbSavingAccumulateMode.PerObject
+                    && getAccumulateMode() != DbSavingAccumulateMode.ListOfObjects
+                    && getAccumulateMode() != DbSavingAccumulateMode.BatchPerObject) {
+                throw new ChannelConfigurationException("Descriptor " + descriptorName
+                        + " supports coalescingKeyExtractor only for objects (accumulateMode = " + getAccumulateMode() + ")!");
+            }
+            if (this.serializeAtEnqueue) {
+                throw new ChannelConfigurationException("Descriptor " + descriptorName
+                        + " doesn't support coalescingKeyExtractor with serializeAtEnqueue!");
+            }
+        }
+
+        if (this.partitionsCount > 1) {
+            if (this.partitionKeyExtractor == null) {
+                throw new ChannelConfigurationException("Descriptor " + descriptorName
+                        + " doesn't have partitionKeyExtractor (partitionsCount = " + this.partitionsCount + ")!");
+            }
+            switch (getAccumulateMode()) {
+                case PerMessage, ListOfMessages, BatchPerMessage, PerObject, ListOfObjects, BatchPerObject -> {
+                }
+                default -> throw new ChannelConfigurationException("Descriptor " + descriptorName
+                        + " supports partitioning only for messages and objects (accumulateMode = " + getAccumulateMode() + ")!");
+            }
+            if (this.journal != null || this.adaptiveController != null) {
+                // Журнал и контроллер имеют состояние и не могут разделяться разделами
+                throw new ChannelConfigurationException("Descriptor " + descriptorName
+                        + " doesn't support journal and adaptiveController with partitioning!");
+            }
+        }
+
+        final var ringCapacity = (getBufferLimit() + getAllowableBufferOversize()) * 2;
+        final var currentRing = this.ringBuffer;
+        if (currentRing == null || currentRing.getCapacity() < ringCapacity) {
+            final var newRing = new MpscRingBuffer<>(ringCapacity);
+            if (currentRing != null) {
+                currentRing.drain(newRing::offer);
+            }
+            this.ringBuffer = newRing;
+        }
+
+        if (this.adaptiveController != null) {
+            getOwner().getSavingMetrics().registerAdaptiveControllerGauges(descriptorName, this.adaptiveController);
+        }
+        if (this.descriptorMetrics == null) {
+            this.descriptorMetrics = getOwner().getSavingMetrics().registerDescriptorMetrics(this);
+        }
+
+        if (this.partitionsCount > 1 && this.partitions.isEmpty()) {
+            final var created = new ArrayList<DbSavingDescriptor>(this.partitionsCount);
+            for (var i = 0; i < this.partitionsCount; i++) {
+                created.add(internalCreatePartition(i).init());
+            }
+            this.partitions = Collections.unmodifiableList(created);
+        }
+
         super.init();
+
+        // Данные, оставшиеся в журнале после перезапуска, сохраняем без ожидания новых данных
+        internalScheduleCheck();
         return this;
     }
 
     @NotNull
     public DbSavingDescriptor unInit() {
+        for (final var partition : this.partitions) {
+            partition.unInit();
+        }
         super.unInit();
         return this;
     }
 
+    /**
+     * Создание Descriptor-а-раздела с настройками данного Descriptor-а.
+     * Настройки, измененные после инициализации, в разделы не переносятся.
+     *
+     * @param index номер раздела.
+     */
+    @NotNull
+    protected DbSavingDescriptor internalCreatePartition(final int index) {
+        final var result = new DbSavingDescriptor(this, index);
+        result.dataObjectClass = this.dataObjectClass;
+        result.dataPackageClass = this.dataPackageClass;
+        result.messageType = this.messageType;
+        result.messageVersion = this.messageVersion;
+        result.messagesFactory = this.messagesFactory;
+        result.processMode = this.processMode;
+        result.serializeMode = this.serializeMode;
+        result.accumulateMode = this.accumulateMode;
+        result.bufferLimit = this.bufferLimit;
+        result.allowableBufferOversize = this.allowableBufferOversize;
+        result.bufferForMs = this.bufferForMs;
+        result.retryAfterErrorForMs = this.retryAfterErrorForMs;
+        result.retryPolicy = this.retryPolicy;
+        result.coalescingKeyExtractor = this.coalescingKeyExtractor;
+        result.flushChunkRows = this.flushChunkRows;
+        result.flushChunkBytes = this.flushChunkBytes;
+        result.chunkSerializationExecutor = this.chunkSerializationExecutor;
+        result.saveOperator = this.saveOperator;
+        result.saveOperatorAssigned = this.saveOperatorAssigned;
+        result.saveOperators.putAll(this.saveOperators);
+        result.saveCommand = this.saveCommand;
+        result.useTransactionDueSave = this.useTransactionDueSave;
+        result.admissionMode = this.admissionMode;
+        result.admissionTimeoutMs = this.admissionTimeoutMs;
+        result.errorStrategy = this.errorStrategy;
+        result.deadLetterSink = this.deadLetterSink;
+        result.serializeAtEnqueue = this.serializeAtEnqueue;
+        result.payloadArena = this.payloadArena;
+        return result;
+    }
+
     // </editor-fold>
     // -----------------------------------------------------------------------------------------------------------------
     // <editor-fold desc="Additional getters & setters">
@@ -374,65 +878,180 @@ public class DbSavingDescriptor extends AbstractOutcomeChannelHandlerDescriptor
     }
 
     /**
-     * Setter свойства saveOperator
+     * Setter свойства adaptiveController
      *
-     * @param saveOperator Реализация метода сохранения в БД
+     * @param adaptiveController автоматическая настройка размера пачки и времени накопления (null - без настройки)
      * @return this
      */
     @NotNull
-    public DbSavingDescriptor setSaveOperator(@NotNull final DbSavingOperator saveOperator) {
-        if (saveOperator.equals(this.saveOperator)) {
+    public DbSavingDescriptor setAdaptiveController(@Nullable final DbSavingAdaptiveController adaptiveController) {
+        if (this.adaptiveController == adaptiveController) {
             return this;
         }
-        checkMutable("saveOperator");
-        this.saveOperator = saveOperator;
+        checkMutable("adaptiveController");
+        this.adaptiveController = adaptiveController;
         return this;
     }
 
     /**
-     * Setter свойства saveCommand
+     * Setter свойства coalescingKeyExtractor
      *
-     * @param saveCommand SQL сохранения данных
+     * @param coalescingKeyExtractor извлечение ключа объекта для схлопывания буфера (null - без схлопывания)
      * @return this
      */
+    @SuppressWarnings("unchecked")
     @NotNull
-    public DbSavingDescriptor setSaveCommand(@NotNull final String saveCommand) {
-        if (saveCommand.equals(this.saveCommand)) {
+    public DbSavingDescriptor setCoalescingKeyExtractor(
+            @Nullable final DataObjectKeyExtractor<? extends DataObject> coalescingKeyExtractor
+    ) {
+        if (this.coalescingKeyExtractor == coalescingKeyExtractor) {
             return this;
         }
-        checkMutable("saveCommand");
-        this.saveCommand = saveCommand;
+        checkMutable("coalescingKeyExtractor");
+        this.coalescingKeyExtractor = (DataObjectKeyExtractor<DataObject>) coalescingKeyExtractor;
         return this;
     }
 
     /**
-     * Setter свойства {@link DbSavingProcessMode} processMode
+     * Setter свойства partitionsCount
      *
-     * @param processMode режим обработки данных
+     * @param partitionsCount количество разделов (1 - без разделения)
      * @return this
      */
     @NotNull
-    public DbSavingDescriptor setProcessMode(@NotNull final DbSavingProcessMode processMode) {
-        if (this.processMode == processMode) {
+    public DbSavingDescriptor setPartitionsCount(final int partitionsCount) {
+        if (partitionsCount < 1) {
+            throw new IllegalArgumentException("partitionsCount must be positive (partitionsCount = " + partitionsCount + ")");
+        }
+        if (this.partitionsCount == partitionsCount) {
             return this;
         }
-        checkMutable("processMode");
-        this.processMode = processMode;
+        checkMutable("partitionsCount");
+        this.partitionsCount = partitionsCount;
         return this;
     }
 
     /**
-     * Setter свойства {@link DbSavingSerializeMode} serializeMode
+     * Setter свойства partitionKeyExtractor
      *
-     * @param serializeMode режим сериализации данных:
+     * @param partitionKeyExtractor извлечение ключа объекта для выбора раздела
      * @return this
      */
+    @SuppressWarnings("unchecked")
     @NotNull
-    public DbSavingDescriptor setSerializeMode(DbSavingSerializeMode serializeMode) {
-        if (this.serializeMode == serializeMode) {
+    public DbSavingDescriptor setPartitionKeyExtractor(
+            @Nullable final DataObjectKeyExtractor<? extends DataObject> partitionKeyExtractor
+    ) {
+        if (this.partitionKeyExtractor == partitionKeyExtractor) {
             return this;
         }
-        checkMutable("serializeMode");
+        checkMutable("partitionKeyExtractor");
+        this.partitionKeyExtractor = (DataObjectKeyExtractor<DataObject>) partitionKeyExtractor;
+        return this;
+    }
+
+    /**
+     * @return Размер пачки, по достижении которого данные сохраняются: от {@link #getAdaptiveController()}
+     * (но не больше {@link #getBufferLimit()}) или {@link #getBufferLimit()}.
+     */
+    public int getEffectiveBufferLimit() {
+        final var controller = getAdaptiveController();
+        return controller == null
+                ? getBufferLimit()
+                : Math.min(controller.getBufferLimit(), getBufferLimit());
+    }
+
+    /**
+     * @return Время накопления: от {@link #getAdaptiveController()} или {@link #getBufferForMs()}.
+     */
+    public int getEffectiveBufferForMs() {
+        final var controller = getAdaptiveController();
+        return controller == null ? getBufferForMs() : controller.getBufferForMs();
+    }
+
+    /**
+     * Setter свойства saveOperator. Явно заданный оператор не заменяется при инициализации
+     * оператором из {@link #getSaveOperators()}.
+     *
+     * @param saveOperator Реализация метода сохранения в БД
+     * @return this
+     */
+    @NotNull
+    public DbSavingDescriptor setSaveOperator(@NotNull final DbSavingBaseOperator saveOperator) {
+        if (saveOperator.equals(this.saveOperator)) {
+            this.saveOperatorAssigned = true;
+            return this;
+        }
+        checkMutable("saveOperator");
+        this.saveOperator = saveOperator;
+        this.saveOperatorAssigned = true;
+        return this;
+    }
+
+    /**
+     * Регистрация оператора сохранения для способа представления данных.
+     *
+     * @param serializeMode способ представления данных
+     * @param saveOperator  Реализация метода сохранения в БД
+     * @return this
+     */
+    @NotNull
+    public DbSavingDescriptor setSaveOperator(
+            @NotNull final DbSavingSerializeMode serializeMode,
+            @NotNull final DbSavingBaseOperator saveOperator
+    ) {
+        if (saveOperator.equals(this.saveOperators.get(serializeMode))) {
+            return this;
+        }
+        checkMutable("saveOperators");
+        this.saveOperators.put(serializeMode, saveOperator);
+        return this;
+    }
+
+    /**
+     * Setter свойства saveCommand
+     *
+     * @param saveCommand SQL сохранения данных
+     * @return this
+     */
+    @NotNull
+    public DbSavingDescriptor setSaveCommand(@NotNull final String saveCommand) {
+        if (saveCommand.equals(this.saveCommand)) {
+            return this;
+        }
+        checkMutable("saveCommand");
+        this.saveCommand = saveCommand;
+        return this;
+    }
+
+    /**
+     * Setter свойства {@link DbSavingProcessMode} processMode
+     *
+     * @param processMode режим обработки данных
+     * @return this
+     */
+    @NotNull
+    public DbSavingDescriptor setProcessMode(@NotNull final DbSavingProcessMode processMode) {
+        if (this.processMode == processMode) {
+            return this;
+        }
+        checkMutable("processMode");
+        this.processMode = processMode;
+        return this;
+    }
+
+    /**
+     * Setter свойства {@link DbSavingSerializeMode} serializeMode
+     *
+     * @param serializeMode режим сериализации данных:
+     * @return this
+     */
+    @NotNull
+    public DbSavingDescriptor setSerializeMode(DbSavingSerializeMode serializeMode) {
+        if (this.serializeMode == serializeMode) {
+            return this;
+        }
+        checkMutable("serializeMode");
         this.serializeMode = serializeMode;
         return this;
     }
@@ -453,6 +1072,54 @@ public class DbSavingDescriptor extends AbstractOutcomeChannelHandlerDescriptor
         return this;
     }
 
+    /**
+     * Setter свойства serializeAtEnqueue
+     *
+     * @param serializeAtEnqueue признак сериализации данных при добавлении в буфер
+     * @return this
+     */
+    @NotNull
+    public DbSavingDescriptor setSerializeAtEnqueue(final boolean serializeAtEnqueue) {
+        if (this.serializeAtEnqueue == serializeAtEnqueue) {
+            return this;
+        }
+        checkMutable("serializeAtEnqueue");
+        this.serializeAtEnqueue = serializeAtEnqueue;
+        return this;
+    }
+
+    /**
+     * Setter свойства payloadArena
+     *
+     * @param payloadArena хранилище сериализованных данных
+     * @return this
+     */
+    @NotNull
+    public DbSavingDescriptor setPayloadArena(@NotNull final DbSavingPayloadArena payloadArena) {
+        if (this.payloadArena == payloadArena) {
+            return this;
+        }
+        checkMutable("payloadArena");
+        this.payloadArena = payloadArena;
+        return this;
+    }
+
+    /**
+     * Setter свойства journal
+     *
+     * @param journal журнал на диске для несохраненных данных (null - без журнала)
+     * @return this
+     */
+    @NotNull
+    public DbSavingDescriptor setJournal(@Nullable final DbSavingJournal journal) {
+        if (this.journal == journal) {
+            return this;
+        }
+        checkMutable("journal");
+        this.journal = journal;
+        return this;
+    }
+
     /**
      * Setter свойства useTransactionDueSave
      *
@@ -473,18 +1140,33 @@ public class DbSavingDescriptor extends AbstractOutcomeChannelHandlerDescriptor
     // -----------------------------------------------------------------------------------------------------------------
     // <editor-fold desc="Saving realization">
     public boolean bufferIsEmpty() {
-        return getBuffer().isEmpty();
+        final var ring = getRingBuffer();
+        return this.flushingBufferSize == 0 && (ring == null || ring.isEmpty());
     }
 
+    /**
+     * @return Буфер, который будет сохранен в БД при ближайшем сохранении (уже извлеченные из накопительного буфера данные).
+     */
     protected List<?> getBuffer() {
+        if (isSerializeAtEnqueue()) {
+            return getSerializedItems();
+        }
         return switch (getAccumulateMode()) {
-            case PerMessage, ListOfMessages -> getMessages();
-            case PerObject, ListOfObjects -> getObjects();
-            case PerRawObject, ListOfRawObjects -> getRawObjects();
-            case PerPackage, ListOfPackages -> getPackages();
+            case PerMessage, ListOfMessages, BatchPerMessage -> getMessages();
+            case PerObject, ListOfObjects, BatchPerObject -> getObjects();
+            case PerRawObject, ListOfRawObjects, BatchPerRawObject -> getRawObjects();
+            case PerPackage, ListOfPackages, BatchPerPackage -> getPackages();
         };
     }
 
+    /**
+     * @return Общее количество накопленных данных: в накопительном буфере и в буфере для сохранения.
+     */
+    public int getBufferSize() {
+        final var ring = getRingBuffer();
+        return this.flushingBufferSize + (ring == null ? 0 : ring.size());
+    }
+
     /**
      * @return или накоплен буфер достаточного размера, или прошло достаточно времени накопления.
      */
@@ -493,17 +1175,23 @@ public class DbSavingDescriptor extends AbstractOutcomeChannelHandlerDescriptor
             return true;
         }
 
-        final var buffer = getBuffer();
-        if (buffer.isEmpty() || getBufferForMs() <= 0) {
+        final var bufferSize = getBufferSize();
+        final var journalPending = isJournalPending();
+        if ((bufferSize <= 0 && !journalPending) || getBufferForMs() <= 0) {
+            return false;
+        }
+        if (!journalPending && getLastSavedIntervalMs() < getEffectiveBufferForMs() && bufferSize < getEffectiveBufferLimit()) {
             return false;
         }
-        if (getLastSavedIntervalMs() < getBufferForMs() && buffer.size() < getBufferLimit()) {
+
+        final var circuitBreaker = getOwner().getCircuitBreaker();
+        if (circuitBreaker != null && circuitBreaker.getRemainingOpenMs() > 0) {
             return false;
         }
 
         final var lastErrorIntervalMs = getLastErrorIntervalMs();
         if (lastErrorIntervalMs >= 0) {
-            if (lastErrorIntervalMs < getRetryAfterErrorForMs()) {
+            if (lastErrorIntervalMs < getRetryDelayMs()) {
                 return false;
             }
             log.info("Retrying save after error!");
@@ -512,6 +1200,21 @@ public class DbSavingDescriptor extends AbstractOutcomeChannelHandlerDescriptor
         return true;
     }
 
+    /**
+     * @return Пауза перед повтором попытки сохранения после последней ошибки.
+     */
+    public long getRetryDelayMs() {
+        return getRetryPolicy() != null ? this.currentRetryDelayMs : getRetryAfterErrorForMs();
+    }
+
+    /**
+     * @return есть ли в журнале несохраненные в БД данные.
+     */
+    public boolean isJournalPending() {
+        final var vJournal = getJournal();
+        return vJournal != null && !vJournal.isEmpty();
+    }
+
     /**
      * @return Сколько миллисекунд прошло последнего сохранения в БД данных (= System.currentTimeMillis() - lastSavedTimeMillis).
      */
@@ -519,6 +1222,14 @@ public class DbSavingDescriptor extends AbstractOutcomeChannelHandlerDescriptor
         return System.currentTimeMillis() - this.lastSavedTimeMillis;
     }
 
+    /**
+     * @return Возраст (мс) самых старых несохраненных данных буфера (0 - буфер пуст). Отсчитывается от добавления
+     * первого элемента в пустой буфер или от отделения буфера предыдущего сохранения.
+     */
+    public long getOldestItemAgeMs() {
+        return bufferIsEmpty() ? 0 : getLastSavedIntervalMs();
+    }
+
     /**
      * @return Сколько миллисекунд прошло последнего сохранения в БД данных (= System.currentTimeMillis() - lastSavedTimeMillis).
      */
@@ -533,81 +1244,75 @@ public class DbSavingDescriptor extends AbstractOutcomeChannelHandlerDescriptor
      *
      * @param message Сообщение
      */
-    @SuppressWarnings("unchecked")
     public void processMessage(
             @NotNull final Message<? extends MessageBody> message,
             @Nullable final ApplicationEvent eventAfterSave
     ) throws SQLException, IOException {
+        internalProcessMessage(message, null);
+        this.eventAfterSave = eventAfterSave;
+        internalAfterEnqueue();
+    }
+
+    /**
+     * Добавить в буфер/сохранить немедленно Сообщение с подтверждением сохранения.
+     *
+     * @param message Сообщение
+     * @return CompletableFuture, который завершается после фиксации в БД пачки, содержащей данные сообщения,
+     * или завершается с ошибкой, если данные не будут сохранены (ошибка в данных при {@link DbSavingErrorStrategy#Bisect},
+     * очистка буфера {@link #resetBuffer()}). Пока данные остаются в буфере для повторного сохранения,
+     * CompletableFuture не завершается.
+     */
+    @NotNull
+    public CompletableFuture<Void> submitMessage(
+            @NotNull final Message<? extends MessageBody> message
+    ) throws SQLException, IOException {
+        final var result = new CompletableFuture<Void>();
+        internalProcessMessage(message, result);
+        internalAfterEnqueue();
+        return result;
+    }
+
+    protected void internalProcessMessage(
+            @NotNull final Message<? extends MessageBody> message,
+            @Nullable final CompletableFuture<Void> acknowledgement
+    ) throws SQLException, IOException {
+        checkBufferIsFull();
         switch (getAccumulateMode()) {
-            case PerMessage, ListOfMessages -> {
-                if (getMessages().isEmpty()) {
-                    resetBuffer();
-                } else {
-                    checkBufferIsFull();
-                }
-                getMessages().add(message);
-            }
-            case PerObject, ListOfObjects -> {
-                if (getObjects().isEmpty()) {
-                    resetBuffer();
-                } else {
-                    checkBufferIsFull();
-                }
+            case PerMessage, ListOfMessages, BatchPerMessage -> internalEnqueue(message, acknowledgement);
+            case PerObject, ListOfObjects, BatchPerObject -> {
                 final var data = internalExtractData(message);
                 if (data instanceof final DataObject dataObject) {
-                    getObjects().add(dataObject);
+                    internalEnqueue(dataObject, acknowledgement);
                 } else if (data instanceof final DataPackage<?> dataPackage) {
-                    getObjects().addAll(dataPackage.getObjects());
+                    internalEnqueueAll(dataPackage.getObjects(), acknowledgement);
                 } else {
                     throw new UnsupportedOperationException("Unsupported accumulateMode "
                             + getAccumulateMode()
                             + " for body data " + data.getClass().getName());
                 }
             }
-            case PerRawObject, ListOfRawObjects -> {
-                if (getRawObjects().isEmpty()) {
-                    resetBuffer();
-                } else {
-                    checkBufferIsFull();
-                }
+            case PerRawObject, ListOfRawObjects, BatchPerRawObject -> {
                 final var data = internalExtractData(message);
-                if (data instanceof final DataObject dataObject) {
-                    getRawObjects().add(dataObject);
-                } else if (data instanceof final DataPackage<?> dataPackage) {
-                    dataPackage.getObjects().forEach(object -> getObjects().add(object));
+                if (data instanceof final DataPackage<?> dataPackage) {
+                    internalEnqueueAll(dataPackage.getObjects(), acknowledgement);
                 } else if (data instanceof final Collection<?> collection) {
-                    getRawObjects().addAll(collection);
+                    internalEnqueueAll(collection, acknowledgement);
                 } else {
-                    getRawObjects().add(data);
+                    internalEnqueue(data, acknowledgement);
                 }
             }
-            case PerPackage, ListOfPackages -> {
-                if (getPackages().isEmpty()) {
-                    resetBuffer();
-                } else {
-                    checkBufferIsFull();
-                }
-                final var packs = getPackages();
-                final var lastPackage = packs.isEmpty()
-                        ? internalCreateAndAddDataPackage()
-                        : packs.get(packs.size() - 1);
+            case PerPackage, ListOfPackages, BatchPerPackage -> {
                 final var data = internalExtractData(message);
-                if (data instanceof final DataObject dataObject) {
-                    final var objects = (Collection<DataObject>) lastPackage.getObjects();
-                    objects.add(dataObject);
-                } else if (data instanceof final DataPackage<?> dataPackage) {
-                    getPackages().add(dataPackage);
+                if (data instanceof DataObject || data instanceof DataPackage<?>) {
+                    internalEnqueue(data, acknowledgement);
                 } else {
                     throw new UnsupportedOperationException("Unsupported accumulateMode "
                             + getAccumulateMode()
                             + " for body data " + data.getClass().getName());
                 }
-
             }
             default -> throw new UnsupportedOperationException("Unknown accumulateMode " + getAccumulateMode());
         }
-        this.eventAfterSave = eventAfterSave;
-        checkNeedToSave();
     }
 
     protected Object internalExtractData(@NotNull Message<? extends MessageBody> message) {
@@ -630,53 +1335,47 @@ public class DbSavingDescriptor extends AbstractOutcomeChannelHandlerDescriptor
      * @param dataObject     объект данных
      * @param eventAfterSave событие, которое будет вызываться через Spring Events после сохранения данных.
      */
-    @SuppressWarnings("unchecked")
     public void processObject(
             @NotNull final DataObject dataObject,
             @Nullable final ApplicationEvent eventAfterSave
     ) throws SQLException, IOException {
+        internalProcessObject(dataObject, null);
+        this.eventAfterSave = eventAfterSave;
+        internalAfterEnqueue();
+    }
+
+    /**
+     * Добавить в буфер/сохранить немедленно объект данных с подтверждением сохранения.
+     *
+     * @param dataObject объект данных
+     * @return CompletableFuture, который завершается после фиксации в БД пачки, содержащей объект,
+     * или завершается с ошибкой, если данные не будут сохранены (ошибка в данных при {@link DbSavingErrorStrategy#Bisect},
+     * очистка буфера {@link #resetBuffer()}). Пока данные остаются в буфере для повторного сохранения,
+     * CompletableFuture не завершается.
+     */
+    @NotNull
+    public CompletableFuture<Void> submitObject(
+            @NotNull final DataObject dataObject
+    ) throws SQLException, IOException {
+        final var result = new CompletableFuture<Void>();
+        internalProcessObject(dataObject, result);
+        internalAfterEnqueue();
+        return result;
+    }
+
+    protected void internalProcessObject(
+            @NotNull final DataObject dataObject,
+            @Nullable final CompletableFuture<Void> acknowledgement
+    ) throws SQLException, IOException {
+        checkBufferIsFull();
         switch (getAccumulateMode()) {
-            case PerMessage, ListOfMessages -> {
-                if (getMessages().isEmpty()) {
-                    resetBuffer();
-                } else {
-                    checkBufferIsFull();
-                }
-                internalCreateAndAddMessageByDataObject(dataObject);
-            }
-            case PerObject, ListOfObjects -> {
-                if (getObjects().isEmpty()) {
-                    resetBuffer();
-                } else {
-                    checkBufferIsFull();
-                }
-                getObjects().add(dataObject);
-            }
-            case PerRawObject, ListOfRawObjects -> {
-                if (getRawObjects().isEmpty()) {
-                    resetBuffer();
-                } else {
-                    checkBufferIsFull();
-                }
-                getRawObjects().add(dataObject);
-            }
-            case PerPackage, ListOfPackages -> {
-                if (getPackages().isEmpty()) {
-                    resetBuffer();
-                } else {
-                    checkBufferIsFull();
-                }
-                final var packs = getPackages();
-                final var lastPackage = packs.isEmpty()
-                        ? internalCreateAndAddDataPackage()
-                        : packs.get(packs.size() - 1);
-                final var objects = (Collection<DataObject>) lastPackage.getObjects();
-                objects.add(dataObject);
-            }
+            case PerMessage, ListOfMessages, BatchPerMessage -> internalCreateAndAddMessageByDataObject(dataObject, acknowledgement);
+            case PerObject, ListOfObjects, BatchPerObject,
+                    PerRawObject, ListOfRawObjects, BatchPerRawObject,
+                    PerPackage, ListOfPackages, BatchPerPackage ->
+                    internalEnqueue(dataObject, acknowledgement);
             default -> throw new UnsupportedOperationException("Unknown accumulateMode " + getAccumulateMode());
         }
-        this.eventAfterSave = eventAfterSave;
-        checkNeedToSave();
     }
 
     /**
@@ -688,20 +1387,42 @@ public class DbSavingDescriptor extends AbstractOutcomeChannelHandlerDescriptor
     public void processRawObject(
             @NotNull final Object rawObject,
             @Nullable final ApplicationEvent eventAfterSave
+    ) throws SQLException, IOException {
+        internalProcessRawObject(rawObject, null);
+        this.eventAfterSave = eventAfterSave;
+        internalAfterEnqueue();
+    }
+
+    /**
+     * Добавить в буфер/сохранить немедленно объект RAW-данных с подтверждением сохранения.
+     *
+     * @param rawObject объект RAW-данных
+     * @return CompletableFuture, который завершается после фиксации в БД пачки, содержащей объект,
+     * или завершается с ошибкой, если данные не будут сохранены (ошибка в данных при {@link DbSavingErrorStrategy#Bisect},
+     * очистка буфера {@link #resetBuffer()}). Пока данные остаются в буфере для повторного сохранения,
+     * CompletableFuture не завершается.
+     */
+    @NotNull
+    public CompletableFuture<Void> submitRawObject(
+            @NotNull final Object rawObject
+    ) throws SQLException, IOException {
+        final var result = new CompletableFuture<Void>();
+        internalProcessRawObject(rawObject, result);
+        internalAfterEnqueue();
+        return result;
+    }
+
+    protected void internalProcessRawObject(
+            @NotNull final Object rawObject,
+            @Nullable final CompletableFuture<Void> acknowledgement
     ) throws SQLException, IOException {
         switch (getAccumulateMode()) {
-            case PerRawObject, ListOfRawObjects -> {
-                if (getRawObjects().isEmpty()) {
-                    resetBuffer();
-                } else {
-                    checkBufferIsFull();
-                }
-                getRawObjects().add(rawObject);
+            case PerRawObject, ListOfRawObjects, BatchPerRawObject -> {
+                checkBufferIsFull();
+                internalEnqueue(rawObject, acknowledgement);
             }
             default -> throw new UnsupportedOperationException("Unsupported accumulateMode " + getAccumulateMode());
         }
-        this.eventAfterSave = eventAfterSave;
-        checkNeedToSave();
     }
 
     /**
@@ -713,196 +1434,1698 @@ public class DbSavingDescriptor extends AbstractOutcomeChannelHandlerDescriptor
             @NotNull final DataPackage<?> dataPackage,
             @Nullable final ApplicationEvent eventAfterSave
     ) throws SQLException, IOException {
-        switch (getAccumulateMode()) {
-            case PerMessage, ListOfMessages -> {
-                if (getMessages().isEmpty()) {
-                    resetBuffer();
-                } else {
-                    checkBufferIsFull();
-                }
-                internalCreateAndAddMessageByDataPackage(dataPackage);
-            }
-            case PerObject, ListOfObjects -> {
-                if (getObjects().isEmpty()) {
-                    resetBuffer();
-                } else {
-                    checkBufferIsFull();
-                }
-                getObjects().addAll(dataPackage.getObjects());
-            }
-            case PerRawObject, ListOfRawObjects -> {
-                if (getRawObjects().isEmpty()) {
-                    resetBuffer();
-                } else {
-                    checkBufferIsFull();
-                }
-                getRawObjects().addAll(dataPackage.getObjects());
-            }
-            case PerPackage, ListOfPackages -> {
-                if (getPackages().isEmpty()) {
-                    resetBuffer();
-                } else {
-                    checkBufferIsFull();
-                }
-                getPackages().add(dataPackage);
-            }
-            default -> throw new UnsupportedOperationException("Unknown accumulateMode " + getAccumulateMode());
-        }
+        internalProcessPackage(dataPackage, null);
         this.eventAfterSave = eventAfterSave;
-        checkNeedToSave();
+        internalAfterEnqueue();
     }
 
-    public synchronized void checkNeedToSave() throws SQLException, IOException {
-        if (isInitialized() && readyForSave()) {
-            internalSaveData();
-        }
+    /**
+     * Добавить в буфер/сохранить немедленно пакет объектов с подтверждением сохранения.
+     *
+     * @param dataPackage пакет объектов данных
+     * @return CompletableFuture, который завершается после фиксации в БД всех объектов пакета,
+     * или завершается с ошибкой, если пачка, содержащая последний объект пакета, не будет сохранена
+     * (см. {@link #submitObject(DataObject)}).
+     */
+    @NotNull
+    public CompletableFuture<Void> submitPackage(
+            @NotNull final DataPackage<?> dataPackage
+    ) throws SQLException, IOException {
+        final var result = new CompletableFuture<Void>();
+        internalProcessPackage(dataPackage, result);
+        internalAfterEnqueue();
+        return result;
     }
 
-    protected synchronized void checkBufferIsFull() {
-        final var buffer = getBuffer();
-        final var bufferSize = buffer.size();
-        if (bufferSize <= getBufferLimit()) {
-            return;
-        }
-        if (bufferSize > getBufferLimit() + getAllowableBufferOversize()) {
-            throw new BufferIsFullException(
-                    "DbSavingDescriptor (" + getChannelName()
-                            + ") Buffer is full (size = " + bufferSize + "; limit = " + getBufferLimit() + ")");
+    protected void internalProcessPackage(
+            @NotNull final DataPackage<?> dataPackage,
+            @Nullable final CompletableFuture<Void> acknowledgement
+    ) throws SQLException, IOException {
+        checkBufferIsFull();
+        switch (getAccumulateMode()) {
+            case PerMessage, ListOfMessages, BatchPerMessage -> internalCreateAndAddMessageByDataPackage(dataPackage, acknowledgement);
+            case PerObject, ListOfObjects, BatchPerObject, PerRawObject, ListOfRawObjects, BatchPerRawObject ->
+                    internalEnqueueAll(dataPackage.getObjects(), acknowledgement);
+            case PerPackage, ListOfPackages, BatchPerPackage -> internalEnqueue(dataPackage, acknowledgement);
+            default -> throw new UnsupportedOperationException("Unknown accumulateMode " + getAccumulateMode());
         }
     }
 
-    public void resetBuffer() {
-        getMessages().clear();
+    /**
+     * Проверка необходимости сохранения и сохранение накопленных данных.
+     * <p>
+     * В режиме {@link DbSavingProcessMode#UseBuffer} вызывающий поток не ждет чужого сохранения: если оно уже
+     * выполняется, то проверка пропускается (данные будут сохранены следующим сохранением).
+     * В режиме {@link DbSavingProcessMode#Immediate} сохранение выполняется в вызывающем потоке.
+     */
+    public void checkNeedToSave() throws SQLException, IOException {
+        for (final var partition : this.partitions) {
+            partition.checkNeedToSave();
+        }
+        if (!isInitialized() || !readyForSave()) {
+            return;
+        }
+        final var lock = getFlushLock();
+        if (getProcessMode() == DbSavingProcessMode.Immediate) {
+            final var waitStarted = System.nanoTime();
+            lock.lock();
+            if (getDescriptorMetrics() != null) {
+                getDescriptorMetrics().recordLockWait(System.nanoTime() - waitStarted);
+            }
+        } else if (!lock.tryLock()) {
+            return;
+        }
+        try {
+            if (readyForSave()) {
+                internalSaveData();
+            }
+        } finally {
+            lock.unlock();
+            internalCompleteDeferredAcknowledgements();
+        }
+        if (getOwner().getFlushScheduler() != null
+                && getProcessMode() == DbSavingProcessMode.UseBuffer
+                && getLastErrorIntervalMs() < 0
+                && getBufferSize() >= getEffectiveBufferLimit()) {
+            // Пачка ограничена getEffectiveBufferLimit(): накопленный остаток сохраняется следующей проверкой
+            internalRequestUrgentCheck();
+        }
+    }
+
+    /**
+     * Действия после добавления данных в буфер. Если к конфигурации подключен {@link DbSavingFlushScheduler},
+     * то сохранение выполняется им: при достижении лимита буфера - сразу, иначе - по истечении времени накопления.
+     * Без планировщика (и в режиме {@link DbSavingProcessMode#Immediate}) проверка выполняется в текущем потоке.
+     */
+    protected void internalAfterEnqueue() throws SQLException, IOException {
+        final var scheduler = getOwner().getFlushScheduler();
+        if (scheduler == null || getProcessMode() == DbSavingProcessMode.Immediate) {
+            checkNeedToSave();
+            return;
+        }
+        if (getBufferSize() >= getEffectiveBufferLimit()) {
+            internalRequestUrgentCheck();
+        } else {
+            internalScheduleCheck();
+        }
+    }
+
+    /**
+     * Планирование проверки необходимости сохранения (если буфер не пуст и проверка еще не запланирована).
+     */
+    protected void internalScheduleCheck() {
+        final var scheduler = getOwner().getFlushScheduler();
+        if (scheduler == null
+                || !isInitialized()
+                || getProcessMode() != DbSavingProcessMode.UseBuffer
+                || getBufferForMs() <= 0
+                || (bufferIsEmpty() && !isJournalPending())) {
+            return;
+        }
+        if (this.checkScheduled.compareAndSet(false, true)) {
+            scheduler.schedule(this, getNextCheckDelayMs(), false);
+        }
+    }
+
+    /**
+     * Снятие признака запланированной проверки. Вызывается {@link DbSavingFlushScheduler}-ом в момент наступления срока.
+     *
+     * @param urgent признак срочной проверки (буфер достиг лимита).
+     */
+    protected void internalOnScheduledCheckFired(final boolean urgent) {
+        if (urgent) {
+            this.urgentCheckScheduled.set(false);
+        } else {
+            this.checkScheduled.set(false);
+        }
+    }
+
+    /**
+     * Смена планировщика конфигурации: признаки запланированных проверок снимаются (проверки прежнего
+     * планировщика отменены или будут выполнены без учета признаков), и при наличии данных проверка
+     * планируется в новом планировщике.
+     */
+    protected void internalOnFlushSchedulerChanged() {
+        this.checkScheduled.set(false);
+        this.urgentCheckScheduled.set(false);
+        for (final var partition : this.partitions) {
+            partition.internalOnFlushSchedulerChanged();
+        }
+        internalScheduleCheck();
+    }
+
+    /**
+     * Выполнение запланированной проверки. Вызывается {@link DbSavingFlushScheduler}-ом.
+     */
+    protected void internalRunScheduledCheck() throws SQLException, IOException {
+        try {
+            checkNeedToSave();
+        } finally {
+            // Если данные остались (поступили во время сохранения, ошибка сохранения, сохранение выполнялось
+            // другим потоком), то планируем следующую проверку.
+            internalScheduleCheck();
+        }
+    }
+
+    /**
+     * Попытка начать сохранение через исполнитель. Если сохранение уже выполняется, то запрашивается его повтор.
+     *
+     * @return true - требуется запустить сохранение; false - сохранение уже выполняется.
+     */
+    protected boolean internalTryStartScheduledFlush() {
+        while (true) {
+            final var state = this.scheduledFlushState.get();
+            if (state == SCHEDULED_FLUSH_IDLE) {
+                if (this.scheduledFlushState.compareAndSet(SCHEDULED_FLUSH_IDLE, SCHEDULED_FLUSH_RUNNING)) {
+                    return true;
+                }
+            } else if (state == SCHEDULED_FLUSH_REPEAT
+                    || this.scheduledFlushState.compareAndSet(SCHEDULED_FLUSH_RUNNING, SCHEDULED_FLUSH_REPEAT)) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Завершение очередного прохода сохранения через исполнитель.
+     *
+     * @return true - во время сохранения был запрошен повтор.
+     */
+    protected boolean internalIsScheduledFlushRepeatRequired() {
+        if (this.scheduledFlushState.compareAndSet(SCHEDULED_FLUSH_RUNNING, SCHEDULED_FLUSH_IDLE)) {
+            return false;
+        }
+        this.scheduledFlushState.set(SCHEDULED_FLUSH_RUNNING);
+        return true;
+    }
+
+    protected void internalFinishScheduledFlush() {
+        this.scheduledFlushState.set(SCHEDULED_FLUSH_IDLE);
+    }
+
+    /**
+     * @return Через сколько миллисекунд требуется следующая проверка необходимости сохранения.
+     */
+    protected long getNextCheckDelayMs() {
+        final var lastErrorIntervalMs = getLastErrorIntervalMs();
+        var result = getEffectiveBufferForMs() - getLastSavedIntervalMs();
+        if (lastErrorIntervalMs >= 0) {
+            result = Math.max(result, getRetryDelayMs() - lastErrorIntervalMs);
+        }
+        final var circuitBreaker = getOwner().getCircuitBreaker();
+        if (circuitBreaker != null) {
+            result = Math.max(result, circuitBreaker.getRemainingOpenMs());
+        }
+        return Math.max(result, AbstractDbSaver.INTERVAL_MS_FOR_CHECK_NEED_SAVE);
+    }
+
+    /**
+     * @return выполняется ли в данный момент сохранение данных.
+     */
+    public boolean isFlushing() {
+        return getFlushLock().isLocked();
+    }
+
+    /**
+     * @return превышен ли допустимый размер буфера (с учетом {@link #getAllowableBufferOversize()}).
+     */
+    public boolean isBufferFull() {
+        return getBufferSize() > getBufferLimit() + getAllowableBufferOversize();
+    }
+
+    /**
+     * Проверка наличия места в буфере перед добавлением данных.
+     * Если задан {@link #getJournal()}, то накопленные данные переносятся в журнал.
+     * В режиме {@link DbSavingAdmissionMode#Block} поток ожидает освобождения места.
+     *
+     * @throws BufferIsFullException буфер заполнен (и место не освободилось за {@link #getAdmissionTimeoutMs()}).
+     */
+    protected void checkBufferIsFull() throws SQLException, IOException {
+        if (!isBufferFull()) {
+            return;
+        }
+        if (getJournal() != null && internalTrySpillToJournal() && !isBufferFull()) {
+            return;
+        }
+        if (getAdmissionMode() == DbSavingAdmissionMode.Block && internalAwaitSpace(getAdmissionTimeoutMs())) {
+            return;
+        }
+        final var bufferSize = getBufferSize();
+        internalRecordRejection();
+        throw new BufferIsFullException(
+                "DbSavingDescriptor (" + getChannelName()
+                        + ") Buffer is full (size = " + bufferSize + "; limit = " + getBufferLimit() + ")");
+    }
+
+    /**
+     * Асинхронное ожидание места в буфере. Позволяет не блокировать поток-производитель:
+     * <pre>
+     * descriptor.whenAdmitted().thenRun(() -> descriptor.processObject(...))
+     * </pre>
+     * Допуск "мягкий": место не резервируется, превышение лимита ограничено {@link #getAllowableBufferOversize()}.
+     *
+     * @return CompletionStage, который завершается, когда в буфере есть место, или завершается с ошибкой
+     * {@link java.util.concurrent.TimeoutException} через {@link #getAdmissionTimeoutMs()}.
+     */
+    @NotNull
+    public CompletionStage<Void> whenAdmitted() {
+        if (!isBufferFull()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        final var result = new CompletableFuture<Void>();
+        this.admissionWaiters.add(result);
+        try {
+            internalRequestUrgentCheck();
+        } catch (SQLException | IOException e) {
+            this.admissionWaiters.remove(result);
+            result.completeExceptionally(e);
+            return result;
+        }
+        // Место могло освободиться до регистрации ожидания
+        internalCompleteAdmissionWaiters();
+        return result.orTimeout(getAdmissionTimeoutMs(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Ожидание освобождения места в буфере.
+     *
+     * @param timeoutMs максимальное время ожидания.
+     * @return true - место освободилось, false - истекло время ожидания.
+     */
+    protected boolean internalAwaitSpace(final long timeoutMs) throws SQLException, IOException {
+        final var deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        this.blockedProducers.incrementAndGet();
+        try {
+            while (isBufferFull()) {
+                internalRequestUrgentCheck();
+                final var remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                this.admissionLock.lock();
+                try {
+                    if (isBufferFull()) {
+                        // Ограничиваем ожидание, чтобы без планировщика снова попытаться сохранить данные самостоятельно
+                        this.spaceAvailable.awaitNanos(
+                                Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(AbstractDbSaver.INTERVAL_MS_FOR_CHECK_NEED_SAVE))
+                        );
+                    }
+                } finally {
+                    this.admissionLock.unlock();
+                }
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            this.blockedProducers.decrementAndGet();
+        }
+    }
+
+    /**
+     * Запрос немедленного сохранения (буфер заполнен): через планировщик или в текущем потоке.
+     */
+    protected void internalRequestUrgentCheck() throws SQLException, IOException {
+        final var scheduler = getOwner().getFlushScheduler();
+        if (scheduler == null || getProcessMode() == DbSavingProcessMode.Immediate) {
+            checkNeedToSave();
+        } else if (isInitialized() && this.urgentCheckScheduled.compareAndSet(false, true)) {
+            scheduler.schedule(this, 0, true);
+        }
+    }
+
+    /**
+     * Оповещение ожидающих производителей об освобождении места в буфере. Вызывается после сохранения.
+     */
+    protected void internalSignalSpaceAvailable() {
+        if (this.blockedProducers.get() > 0) {
+            this.admissionLock.lock();
+            try {
+                this.spaceAvailable.signalAll();
+            } finally {
+                this.admissionLock.unlock();
+            }
+        }
+        internalCompleteAdmissionWaiters();
+    }
+
+    private void internalCompleteAdmissionWaiters() {
+        if (this.admissionWaiters.isEmpty()) {
+            return;
+        }
+        var free = getBufferLimit() + getAllowableBufferOversize() - getBufferSize();
+        while (free > 0) {
+            final var waiter = this.admissionWaiters.poll();
+            if (waiter == null) {
+                break;
+            }
+            if (waiter.complete(null)) {
+                free--;
+            }
+        }
+    }
+
+    /**
+     * Добавление данных в накопительный буфер. Монитор не захватывается.
+     *
+     * @param item сообщение, объект, пакет или RAW-объект (в зависимости от {@link #getAccumulateMode()}).
+     */
+    protected void internalEnqueue(@NotNull final Object item) {
+        internalEnqueue(item, null);
+    }
+
+    /**
+     * Добавление данных в накопительный буфер с подтверждением сохранения.
+     *
+     * @param item            сообщение, объект, пакет или RAW-объект (в зависимости от {@link #getAccumulateMode()}).
+     * @param acknowledgement завершается после сохранения пачки, содержащей item (null - подтверждение не требуется).
+     */
+    protected void internalEnqueue(@NotNull final Object item, @Nullable final CompletableFuture<Void> acknowledgement) {
+        if (!this.partitions.isEmpty()) {
+            internalEnqueueToPartition(item, getPartitionIndex(item), acknowledgement);
+            return;
+        }
+        final var ring = getRingBuffer();
+        if (ring == null) {
+            throw new ChannelConfigurationException("Descriptor " + getChannelName() + " is not initialized!");
+        }
+        if (bufferIsEmpty()) {
+            // Отсчет времени накопления начинается с первого элемента в пустом буфере
+            this.lastSavedTimeMillis = System.currentTimeMillis();
+        }
+        final var ringItem = isSerializeAtEnqueue() ? internalSerializeItem(item) : item;
+        if (!ring.offer(acknowledgement == null ? ringItem : new AcknowledgedItem(ringItem, acknowledgement))) {
+            if (ringItem instanceof final DbSavingPayloadArena.Slice slice) {
+                slice.release();
+            }
+            internalRecordRejection();
+            throw new BufferIsFullException(
+                    "DbSavingDescriptor (" + getChannelName()
+                            + ") Buffer is full (size = " + getBufferSize() + "; limit = " + getBufferLimit() + ")");
+        }
+    }
+
+    private void internalRecordRejection() {
+        final var metrics = getDescriptorMetrics();
+        if (metrics != null) {
+            metrics.recordRejection();
+        }
+    }
+
+    /**
+     * Сериализация элемента оператором сохранения в буфер текущего потока и размещение в {@link #getPayloadArena()}.
+     */
+    @SneakyThrows(JsonProcessingException.class)
+    @SuppressWarnings("ConstantConditions")
+    @NotNull
+    protected DbSavingPayloadArena.Slice internalSerializeItem(@NotNull final Object item) {
+        final var buffer = DbSavingSerializationBuffer.acquire();
+        try {
+            ((DbSavingSerializedDataOperator) getSaveOperator()).serializeItem(buffer, item);
+            return getPayloadArena().allocate(buffer);
+        } finally {
+            buffer.release();
+        }
+    }
+
+    protected void internalEnqueueAll(@NotNull final Iterable<?> items) {
+        internalEnqueueAll(items, null);
+    }
+
+    /**
+     * Добавление набора данных в накопительный буфер. Набор добавляется целиком (место резервируется
+     * под все элементы сразу) либо не добавляется совсем - тогда выбрасывается {@link BufferIsFullException}.
+     * Подтверждение привязывается к последнему элементу: пачки сохраняются в порядке добавления,
+     * поэтому его сохранение означает сохранение всего набора.
+     */
+    protected void internalEnqueueAll(
+            @NotNull final Iterable<?> items,
+            @Nullable final CompletableFuture<Void> acknowledgement
+    ) {
+        final var iterator = items.iterator();
+        if (!iterator.hasNext()) {
+            if (acknowledgement != null) {
+                acknowledgement.complete(null);
+            }
+            return;
+        }
+        if (!this.partitions.isEmpty()) {
+            if (acknowledgement != null) {
+                internalEnqueueAllToPartitions(items, acknowledgement);
+            } else {
+                items.forEach(this::internalEnqueue);
+            }
+            return;
+        }
+        final var ring = getRingBuffer();
+        if (ring == null) {
+            throw new ChannelConfigurationException("Descriptor " + getChannelName() + " is not initialized!");
+        }
+        final var ringItems = new ArrayList<>();
+        try {
+            while (iterator.hasNext()) {
+                final var item = iterator.next();
+                final var ringItem = isSerializeAtEnqueue() ? internalSerializeItem(item) : item;
+                ringItems.add(!iterator.hasNext() && acknowledgement != null
+                        ? new AcknowledgedItem(ringItem, acknowledgement)
+                        : ringItem);
+            }
+        } catch (RuntimeException e) {
+            internalReleaseRingItems(ringItems);
+            throw e;
+        }
+        if (bufferIsEmpty()) {
+            this.lastSavedTimeMillis = System.currentTimeMillis();
+        }
+        if (!ring.offerAll(ringItems)) {
+            internalReleaseRingItems(ringItems);
+            internalRecordRejection();
+            throw new BufferIsFullException(
+                    "DbSavingDescriptor (" + getChannelName()
+                            + ") Buffer is full (size = " + getBufferSize() + "; limit = " + getBufferLimit()
+                            + "; package size = " + ringItems.size() + ")");
+        }
+    }
+
+    /**
+     * Освобождение сериализованных данных элементов, которые не были добавлены в буфер.
+     */
+    private static void internalReleaseRingItems(@NotNull final List<Object> ringItems) {
+        for (final var ringItem : ringItems) {
+            final var item = ringItem instanceof final AcknowledgedItem acknowledgedItem ? acknowledgedItem.getItem() : ringItem;
+            if (item instanceof final DbSavingPayloadArena.Slice slice) {
+                slice.release();
+            }
+        }
+    }
+
+    /**
+     * @return Номер раздела для элемента (по хешу ключа объекта).
+     */
+    protected int getPartitionIndex(@NotNull final Object item) {
+        var data = item;
+        if (item instanceof final Message<?> message && message.getBody() instanceof final MessageSimpleBody simpleBody) {
+            data = simpleBody.getData();
+        }
+        final var keyExtractor = getPartitionKeyExtractor();
+        if (keyExtractor == null || !(data instanceof final DataObject dataObject)) {
+            return 0;
+        }
+        final var key = keyExtractor.extractKey(dataObject);
+        if (key == null) {
+            return 0;
+        }
+        final var hash = key.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), this.partitions.size());
+    }
+
+    /**
+     * Добавление элемента в накопительный буфер раздела (с проверкой наличия места в буфере раздела)
+     * и проверка необходимости сохранения раздела.
+     */
+    @SneakyThrows({SQLException.class, IOException.class})
+    private void internalEnqueueToPartition(
+            @NotNull final Object item,
+            final int partitionIndex,
+            @Nullable final CompletableFuture<Void> acknowledgement
+    ) {
+        final var partition = this.partitions.get(partitionIndex);
+        partition.checkBufferIsFull();
+        partition.internalEnqueue(item, acknowledgement);
+        partition.internalAfterEnqueue();
+    }
+
+    /**
+     * Добавление набора данных в разделы. Разделы сохраняются независимо, поэтому подтверждение набора
+     * завершается после подтверждений последних элементов набора во всех затронутых разделах.
+     * Элементы добавляются по одному: если буфер одного из разделов заполнен, то подтверждение набора
+     * завершается ошибкой, а исключение пробрасывается.
+     */
+    private void internalEnqueueAllToPartitions(
+            @NotNull final Iterable<?> items,
+            @NotNull final CompletableFuture<Void> acknowledgement
+    ) {
+        final var list = new ArrayList<>();
+        items.forEach(list::add);
+        final var partitionIndexes = new int[list.size()];
+        final var lastPositions = new int[this.partitions.size()];
+        for (var i = 0; i < list.size(); i++) {
+            partitionIndexes[i] = getPartitionIndex(list.get(i));
+            lastPositions[partitionIndexes[i]] = i;
+        }
+        final var partitionAcknowledgements = new ArrayList<CompletableFuture<Void>>();
+        try {
+            for (var i = 0; i < list.size(); i++) {
+                CompletableFuture<Void> partitionAcknowledgement = null;
+                if (lastPositions[partitionIndexes[i]] == i) {
+                    partitionAcknowledgement = new CompletableFuture<>();
+                    partitionAcknowledgements.add(partitionAcknowledgement);
+                }
+                internalEnqueueToPartition(list.get(i), partitionIndexes[i], partitionAcknowledgement);
+            }
+        } catch (Exception e) {
+            // Буфер раздела заполнен: часть набора уже добавлена в другие разделы и будет сохранена,
+            // но набор целиком не принят - подтверждение набора завершается ошибкой
+            acknowledgement.completeExceptionally(e);
+            throw e;
+        }
+        CompletableFuture.allOf(partitionAcknowledgements.toArray(CompletableFuture[]::new))
+                .whenComplete((result, error) -> {
+                    if (error == null) {
+                        acknowledgement.complete(null);
+                    } else {
+                        acknowledgement.completeExceptionally(
+                                error instanceof CompletionException && error.getCause() != null ? error.getCause() : error
+                        );
+                    }
+                });
+    }
+
+    /**
+     * Перенос данных из накопительного буфера в буфер для сохранения. Вызывается только под {@link #getFlushLock()}.
+     * Если предыдущее сохранение завершилось ошибкой, то новые данные дописываются в конец несохраненного буфера,
+     * т.е. порядок данных сохраняется.
+     * При заданном {@link #getAdaptiveController()} переносится не больше {@link #getEffectiveBufferLimit()} элементов:
+     * размер сохраняемой пачки, а не только момент сохранения, определяется контроллером.
+     */
+    protected void internalDrainBuffer() {
+        internalDrainBuffer(getAdaptiveController() == null
+                ? Integer.MAX_VALUE
+                : Math.max(0, getEffectiveBufferLimit() - getBuffer().size()));
+    }
+
+    /**
+     * Перенос данных из накопительного буфера в буфер для сохранения. Вызывается только под {@link #getFlushLock()}.
+     *
+     * @param limit максимальное количество переносимых элементов накопительного буфера.
+     */
+    protected void internalDrainBuffer(final int limit) {
+        final var ring = getRingBuffer();
+        if (ring == null) {
+            return;
+        }
+        try {
+            internalDrainBuffer(ring, limit);
+        } finally {
+            this.flushingBufferSize = getBuffer().size();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void internalDrainBuffer(@NotNull final MpscRingBuffer<Object> ring, final int limit) {
+        if (isSerializeAtEnqueue()) {
+            ring.drain(item -> getSerializedItems().add((DbSavingPayloadArena.Slice) internalUnwrapDrained(item)), limit);
+            return;
+        }
+        switch (getAccumulateMode()) {
+            case PerMessage, ListOfMessages, BatchPerMessage ->
+                    ring.drain(item -> getMessages().add((Message<? extends MessageBody>) internalUnwrapDrained(item)), limit);
+            case PerObject, ListOfObjects, BatchPerObject -> {
+                if (getCoalescingKeyExtractor() != null) {
+                    ring.drain(this::internalCoalesceDrained, limit);
+                } else {
+                    ring.drain(item -> getObjects().add((DataObject) internalUnwrapDrained(item)), limit);
+                }
+            }
+            case PerRawObject, ListOfRawObjects, BatchPerRawObject -> ring.drain(item -> getRawObjects().add(internalUnwrapDrained(item)), limit);
+            case PerPackage, ListOfPackages, BatchPerPackage -> ring.drain(ringItem -> {
+                final var packs = getPackages();
+                final var isLooseObject = !((ringItem instanceof final AcknowledgedItem acknowledgedItem
+                        ? acknowledgedItem.getItem()
+                        : ringItem) instanceof DataPackage<?>);
+                final var item = internalUnwrapDrained(ringItem,
+                        isLooseObject && !packs.isEmpty() ? packs.size() - 1 : packs.size());
+                if (item instanceof final DataPackage<?> dataPackage) {
+                    getPackages().add(dataPackage);
+                } else {
+                    // Отдельные объекты дописываются в последний пакет
+                    final var lastPackage = packs.isEmpty()
+                            ? internalCreateAndAddDataPackage()
+                            : packs.get(packs.size() - 1);
+                    ((Collection<DataObject>) lastPackage.getObjects()).add((DataObject) item);
+                }
+            }, limit);
+            default -> throw new UnsupportedOperationException("Unknown accumulateMode " + getAccumulateMode());
+        }
+    }
+
+    @NotNull
+    private Object internalUnwrapDrained(@NotNull final Object item) {
+        return internalUnwrapDrained(item, getBuffer().size());
+    }
+
+    /**
+     * Добавление объекта в буфер для сохранения со схлопыванием по ключу: более поздняя версия заменяет
+     * объект с тем же ключом, подтверждение переходит на ту же позицию буфера.
+     */
+    @SuppressWarnings("ConstantConditions")
+    private void internalCoalesceDrained(@NotNull final Object ringItem) {
+        final var objs = getObjects();
+        final var dataObject = (DataObject) (ringItem instanceof final AcknowledgedItem acknowledgedItem
+                ? acknowledgedItem.getItem()
+                : ringItem);
+        final var key = getCoalescingKeyExtractor().extractKey(dataObject);
+        final var existingIndex = key == null ? null : this.coalescingIndex.putIfAbsent(key, objs.size());
+        if (existingIndex == null) {
+            objs.add((DataObject) internalUnwrapDrained(ringItem, objs.size()));
+        } else {
+            objs.set(existingIndex, (DataObject) internalUnwrapDrained(ringItem, existingIndex));
+            this.coalescedObjectsCount++;
+        }
+    }
+
+    /**
+     * @param index индекс, который элемент получит в буфере для сохранения.
+     */
+    @NotNull
+    private Object internalUnwrapDrained(@NotNull final Object item, final int index) {
+        if (item instanceof final AcknowledgedItem acknowledgedItem) {
+            this.flushingAcknowledgements.add(new FlushingAcknowledgement(acknowledgedItem.getAcknowledgement(), index));
+            return acknowledgedItem.getItem();
+        }
+        return item;
+    }
+
+    /**
+     * Извлечение подтверждений сохраняемой пачки. Вызывается только под {@link #getFlushLock()}.
+     */
+    @NotNull
+    protected List<CompletableFuture<Void>> internalTakeFlushingAcknowledgements() {
+        if (this.flushingAcknowledgements.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final var result = new ArrayList<CompletableFuture<Void>>(this.flushingAcknowledgements.size());
+        this.flushingAcknowledgements.forEach(acknowledgement -> result.add(acknowledgement.acknowledgement()));
+        this.flushingAcknowledgements.clear();
+        return result;
+    }
+
+    /**
+     * Очистка буфера для сохранения (данные, уже сохраненные в БД). Накопительный буфер не затрагивается.
+     * Подтверждения несохраненных данных буфера завершаются с ошибкой {@link CancellationException}.
+     */
+    public void resetBuffer() {
+        if (!this.flushingAcknowledgements.isEmpty()) {
+            internalFailAcknowledgements(new CancellationException("DbSavingDescriptor (" + getChannelName()
+                    + ") Buffer has been reset before saving"));
+        }
+        internalClearBuffer();
+        this.lastSavedTimeMillis = System.currentTimeMillis();
+        if (!getFlushLock().isHeldByCurrentThread()) {
+            internalCompleteDeferredAcknowledgements();
+        }
+    }
+
+    private void internalClearBuffer() {
+        final var serialized = getSerializedItems();
+        if (!serialized.isEmpty()) {
+            serialized.forEach(DbSavingPayloadArena.Slice::release);
+            serialized.clear();
+        }
+        getMessages().clear();
         getObjects().clear();
+        this.coalescingIndex.clear();
         getRawObjects().clear();
         getPackages().clear();
-        this.lastSavedTimeMillis = System.currentTimeMillis();
+        this.flushingBufferSize = 0;
+    }
+
+    protected void internalCreateAndAddMessageByDataObject(@NotNull final DataObject dataObject) {
+        internalCreateAndAddMessageByDataObject(dataObject, null);
+    }
+
+    @SneakyThrows({InvocationTargetException.class, InstantiationException.class, IllegalAccessException.class})
+    protected void internalCreateAndAddMessageByDataObject(
+            @NotNull final DataObject dataObject,
+            @Nullable final CompletableFuture<Void> acknowledgement
+    ) {
+        final var descriptorName = getChannelName();
+        if (!isInitialized()
+                || getMessagesFactory() == null || getMessageType() == null || getMessageVersion() == null) {
+            throw new ChannelConfigurationException("Descriptor " + descriptorName + " is not initialized!");
+        }
+
+        final var result = getMessagesFactory()
+                .createByDataObject(
+                        null,   // parentId
+                        getMessageType(),
+                        getMessageVersion(),
+                        dataObject,
+                        null);
+        internalEnqueue(result, acknowledgement);
+    }
+
+    protected void internalCreateAndAddMessageByDataPackage(
+            @NotNull final DataPackage<? extends DataObject> dataPackage
+    ) {
+        internalCreateAndAddMessageByDataPackage(dataPackage, null);
+    }
+
+    @SneakyThrows({InvocationTargetException.class, InstantiationException.class, IllegalAccessException.class})
+    protected void internalCreateAndAddMessageByDataPackage(
+            @NotNull final DataPackage<? extends DataObject> dataPackage,
+            @Nullable final CompletableFuture<Void> acknowledgement
+    ) {
+        final var descriptorName = getChannelName();
+        if (!isInitialized()
+                || getMessagesFactory() == null || getMessageType() == null || getMessageVersion() == null) {
+            throw new ChannelConfigurationException("Descriptor " + descriptorName + " is not initialized!");
+        }
+
+        final var result = getMessagesFactory()
+                .createByDataPackage(
+                        null,   // parentId
+                        getMessageType(),
+                        getMessageVersion(),
+                        dataPackage,
+                        null);
+        internalEnqueue(result, acknowledgement);
+    }
+
+    @SuppressWarnings("unchecked")
+    @SneakyThrows
+    @NotNull
+    protected DataPackage<DataObject> internalCreateAndAddDataPackage() {
+        final var descriptorName = getChannelName();
+        if (!isInitialized() || getDataPackageClass() == null) {
+            throw new ChannelConfigurationException("Descriptor for saving of "
+                    + descriptorName
+                    + " is not initialized!");
+        }
+        final var constructor = getDataPackageClass().getConstructor();
+        final var result = (DataPackage<DataObject>) constructor.newInstance();
+        getPackages().add(result);
+        return result;
+    }
+    /**
+     * Сохранение данных. Вызывается только под {@link #getFlushLock()}.
+     * Во время сохранения производители продолжают добавлять данные в накопительный буфер.
+     * Если задан {@link #getJournal()}, то сначала сохраняются данные журнала, а при ошибке сохранения
+     * буфер переносится в журнал.
+     * Подтверждения не завершаются под блокировкой: они завершаются вызовом
+     * {@link #internalCompleteDeferredAcknowledgements()} после освобождения {@link #getFlushLock()}.
+     */
+    protected void internalSaveData()
+            throws SQLException, IOException {
+        final var descriptorName = getChannelName();
+        if (!isInitialized()) {
+            throw new ChannelConfigurationException("Descriptor " + descriptorName + " is not initialized!");
+        }
+        if (getSaveCommand() == null) {
+            throw new ChannelConfigurationException("Descriptor " + descriptorName + " is not configured (does not defined saveCommand)!");
+        }
+        if (getSaveOperator() == null) {
+            throw new ChannelConfigurationException("Descriptor " + descriptorName + " is not configured (does not defined saveOperator)!");
+        }
+
+        // Забираем накопленные данные. Если предыдущее сохранение было с ошибкой, то новые данные
+        // дописываются в конец несохраненного буфера.
+        final var drainedTimeMillis = System.currentTimeMillis();
+        internalDrainBuffer();
+        if (getBuffer().isEmpty() && !isJournalPending()) {
+            return;
+        }
+
+        // При недоступности БД сохранения конфигурации приостановлены; данные остаются в буфере (журнале)
+        final var circuitBreaker = getOwner().getCircuitBreaker();
+        if (circuitBreaker != null && !circuitBreaker.tryAcquire()) {
+            return;
+        }
+
+        // Количество одновременных сохранений в рамках конфигурации ограничено (см.
+        // AbstractDbSavingConfiguration#setFlushConcurrency), чтобы не занимать больше коннектов пула, чем допустимо.
+        final var flushPermits = getOwner().getFlushPermits();
+        final var waitStarted = System.nanoTime();
+        flushPermits.acquireUninterruptibly();
+        final var waitNanos = System.nanoTime() - waitStarted;
+        getOwner().getSavingMetrics().recordFlushPermitWait(waitNanos);
+        if (getDescriptorMetrics() != null) {
+            getDescriptorMetrics().recordLockWait(waitNanos);
+        }
+        final var savedAcknowledgements = new ArrayList<CompletableFuture<Void>>();
+        try {
+            if (isJournalPending() && !internalReplayJournal(savedAcknowledgements)) {
+                // БД по-прежнему недоступна: новые данные также переносим в журнал, чтобы сохранить порядок
+                internalSpillToJournal();
+            } else if (!getBuffer().isEmpty()) {
+                boolean saved;
+                try {
+                    saved = internalSaveToDb(getBuffer());
+                } catch (Exception e) {
+                    final var failure = getErrorStrategy() == DbSavingErrorStrategy.Bisect && isDataError(e)
+                            ? internalBisectBuffer(e, savedAcknowledgements)
+                            : e;
+                    saved = failure == null;
+                    if (!saved) {
+                        if (getJournal() == null) {
+                            throw internalAsSaveException(failure);
+                        }
+                        internalSpillToJournal();
+                    }
+                }
+                if (saved) {
+                    savedAcknowledgements.addAll(internalTakeFlushingAcknowledgements());
+                    resetBuffer();
+                    // Отсчет времени накопления для данных, поступивших во время сохранения, ведем с момента
+                    // их отделения от сохраняемого буфера.
+                    this.lastSavedTimeMillis = drainedTimeMillis;
+                    internalSignalSpaceAvailable();
+                }
+            }
+        } finally {
+            flushPermits.release();
+            // При ошибке несохраненные данные остаются в буфере (журнале), их подтверждения завершаются
+            // после повторного сохранения; подтверждения уже сохраненных частей завершаются сразу
+            for (final var acknowledgement : savedAcknowledgements) {
+                internalDeferAcknowledgement(acknowledgement, null);
+            }
+        }
+    }
+
+    /**
+     * Сохранение списка данных в БД одной командой (в транзакции, если установлено {@link #isUseTransactionDueSave()}).
+     * Вызывается только под {@link #getFlushLock()}.
+     *
+     * @param data данные для сохранения.
+     * @return true - данные сохранены; false - ошибка сохранения без транзакции (данные и их подтверждения остаются
+     * в буфере для повторного сохранения).
+     * При ошибке в транзакции, при заданном {@link #getJournal()} или при {@link DbSavingErrorStrategy#Bisect}
+     * ошибка пробрасывается.
+     */
+    protected boolean internalSaveToDb(@NotNull final List<?> data) throws SQLException, IOException {
+        return internalSaveToDb(data, false);
+    }
+
+    /**
+     * Сохранение списка данных в БД одной командой.
+     *
+     * @param data  данные для сохранения.
+     * @param probe сохранение части данных при поиске ошибочных элементов делением пополам: событие после сохранения,
+     *              метрики, {@link #getAdaptiveController()} и учет ошибок не затрагиваются, ошибка всегда пробрасывается
+     *              (результат поиска учитывается один раз в {@link #internalOnBisectCompleted(int, long)}).
+     * @see #internalSaveToDb(List)
+     */
+    @SuppressWarnings("ConstantConditions")
+    protected boolean internalSaveToDb(@NotNull final List<?> data, final boolean probe) throws SQLException, IOException {
+        final var vSaveOperator = getSaveOperator();
+        final var accumulateMode = getAccumulateMode();
+        final var started = System.currentTimeMillis();
+        final var metrics = probe ? null : getDescriptorMetrics();
+        var failureHandled = false;
+        if (metrics != null && getConsecutiveErrorsCount() > 0) {
+            metrics.recordRetry();
+        }
+
+        try (final var connect = getOwner().getThreadConnectionsWrapper().getCurrentThreadConnection()) {
+            final var streamingOperator = vSaveOperator instanceof final DbSavingStreamingOperator streaming ? streaming : null;
+            if (streamingOperator == null
+                    && (getSaveStatement() == null || !getSaveStatement().getConnection().isEqual(connect))) {
+                if (getSaveStatement() != null) {
+                    final var connection = getSaveStatement().getConnection();
+                    if (connection != null) {
+                        connection.close();
+                    }
+                }
+                this.saveStatement = ((DbSavingOperator) vSaveOperator).prepareStatement(getSaveCommand(), accumulateMode);
+            }
+
+            if (isUseTransactionDueSave()) {
+                connect.openTransaction();
+            }
+            try {
+                final var operatorStarted = System.nanoTime();
+                final var statement = metrics != null && streamingOperator == null
+                        ? new DbSavingInstrumentedCommandWrapper(getSaveStatement())
+                        : getSaveStatement();
+                if (streamingOperator != null) {
+                    // Потоковая загрузка - без подготовленной команды
+                    streamingOperator.saveData(connect, getSaveCommand(), data, accumulateMode);
+                } else if (isChunkedFlush(data)) {
+                    internalSaveChunks(statement, data);
+                } else {
+                    internalSaveChunk(statement, data);
+                }
+                final var operatorNanos = System.nanoTime() - operatorStarted;
+
+                if (!probe) {
+                    internalPublishEventAfterSave();
+                }
+                final var commitStarted = System.nanoTime();
+                if (isUseTransactionDueSave()) {
+                    connect.commitTransaction();
+                }
+                if (probe) {
+                    return true;
+                }
+                if (metrics != null) {
+                    final var instrumented = statement instanceof final DbSavingInstrumentedCommandWrapper wrapper ? wrapper : null;
+                    metrics.recordFlush(
+                            data.size(),
+                            operatorNanos,
+                            instrumented != null ? instrumented.getExecutionNanos() : -1,
+                            isUseTransactionDueSave() ? System.nanoTime() - commitStarted : 0,
+                            instrumented != null ? instrumented.getPayloadBytes() : -1
+                    );
+                }
+
+                final var duration = System.currentTimeMillis() - started;
+                recordMessagesExecuted(
+                        getOwner().getConfigurationName(),
+                        duration,
+                        data.size()
+                );
+                final var controller = getAdaptiveController();
+                if (controller != null) {
+                    controller.onFlushCompleted(data.size(), duration);
+                }
+                internalOnSaveSucceeded();
+                return true;
+            } catch (Exception e) {
+                failureHandled = true;
+                if (!probe) {
+                    final var controller = getAdaptiveController();
+                    if (controller != null) {
+                        controller.onFlushFailed();
+                    }
+                    internalOnSaveFailed(e);
+                }
+                if (isUseTransactionDueSave()) {
+                    connect.rollbackTransaction();
+                    throw e;
+                }
+                if (probe || getJournal() != null || getErrorStrategy() == DbSavingErrorStrategy.Bisect) {
+                    throw e;
+                }
+                return false;
+            }
+        } catch (SQLException | IOException | RuntimeException e) {
+            // Ошибки получения коннекта и подготовки команды
+            if (!failureHandled && !probe) {
+                internalOnSaveFailed(e);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Публикация события после сохранения (события конфигурации-владельца при сохранении секции).
+     */
+    protected void internalPublishEventAfterSave() {
+        final var event = getPartitionOwner() != null
+                ? getPartitionOwner().getEventAfterSave()
+                : getEventAfterSave();
+        if (event != null) {
+            getOwner().getEventPublisher().publishEvent(event);
+        }
+    }
+
+    /**
+     * Учет завершенного поиска ошибочных элементов делением пополам как одного сохранения: ошибочные элементы изъяты,
+     * повтор после паузы не требуется; при сохранении части элементов публикуется событие после сохранения
+     * и учитываются метрики.
+     *
+     * @param savedCount    количество сохраненных элементов.
+     * @param startedMillis время начала поиска.
+     */
+    protected void internalOnBisectCompleted(final int savedCount, final long startedMillis) {
+        internalOnSaveSucceeded();
+        if (savedCount <= 0) {
+            return;
+        }
+        internalPublishEventAfterSave();
+        final var duration = System.currentTimeMillis() - startedMillis;
+        final var metrics = getDescriptorMetrics();
+        if (metrics != null) {
+            metrics.recordFlush(savedCount, TimeUnit.MILLISECONDS.toNanos(duration), -1, 0, -1);
+        }
+        recordMessagesExecuted(getOwner().getConfigurationName(), duration, savedCount);
     }
 
-    @SneakyThrows({InvocationTargetException.class, InstantiationException.class, IllegalAccessException.class})
-    protected void internalCreateAndAddMessageByDataObject(@NotNull final DataObject dataObject) {
-        final var descriptorName = getChannelName();
-        if (!isInitialized()
-                || getMessagesFactory() == null || getMessageType() == null || getMessageVersion() == null) {
-            throw new ChannelConfigurationException("Descriptor " + descriptorName + " is not initialized!");
+    /**
+     * Учет успешного обращения к БД: пауза после ошибок и счетчик ошибок подряд сбрасываются.
+     */
+    protected void internalOnSaveSucceeded() {
+        this.lastErrorTimeMillis = null;
+        this.consecutiveErrorsCount = 0;
+        final var circuitBreaker = getOwner().getCircuitBreaker();
+        if (circuitBreaker != null) {
+            circuitBreaker.onSuccess();
         }
+    }
 
-        final var result = getMessagesFactory()
-                .createByDataObject(
-                        null,   // parentId
-                        getMessageType(),
-                        getMessageVersion(),
-                        dataObject,
-                        null);
-        getMessages().add(result);
+    /**
+     * Учет ошибки сохранения: вычисляется пауза перед повтором; временные ошибки (БД недоступна)
+     * учитываются {@link AbstractDbSavingConfiguration#getCircuitBreaker()}, остальные означают, что БД отвечает.
+     */
+    protected void internalOnSaveFailed(@NotNull final Exception error) {
+        final var metrics = getDescriptorMetrics();
+        if (metrics != null) {
+            metrics.recordFailure();
+        }
+        final var errorsCount = ++this.consecutiveErrorsCount;
+        final var vRetryPolicy = getRetryPolicy();
+        if (vRetryPolicy != null) {
+            this.currentRetryDelayMs = vRetryPolicy.computeDelayMs(errorsCount);
+        }
+        this.lastErrorTimeMillis = System.currentTimeMillis();
+        log.info(String.format("Error has been caught! Set lastErrorTimeMillis = %d, retry after %d ms (errors in a row: %d)",
+                this.lastErrorTimeMillis, getRetryDelayMs(), errorsCount));
+        log.error("", error);
+        final var circuitBreaker = getOwner().getCircuitBreaker();
+        if (circuitBreaker != null) {
+            if (isTransientError(error)) {
+                circuitBreaker.onFailure();
+            } else {
+                circuitBreaker.onSuccess();
+            }
+        }
     }
 
-    @SneakyThrows({InvocationTargetException.class, InstantiationException.class, IllegalAccessException.class})
-    protected void internalCreateAndAddMessageByDataPackage(
-            @NotNull final DataPackage<? extends DataObject> dataPackage
+    /**
+     * @return требуется ли сохранять данные частями (см. {@link #getFlushChunkRows()}, {@link #getFlushChunkBytes()}).
+     */
+    protected boolean isChunkedFlush(@NotNull final List<?> data) {
+        if (data.isEmpty()) {
+            return false;
+        }
+        if (getFlushChunkRows() > 0 && data.size() > getFlushChunkRows()) {
+            return true;
+        }
+        return getFlushChunkBytes() > 0 && isListAccumulateMode() && getSaveOperator() instanceof DbSavingPipelinedOperator;
+    }
+
+    protected boolean isListAccumulateMode() {
+        return switch (getAccumulateMode()) {
+            case ListOfMessages, ListOfObjects, ListOfRawObjects, ListOfPackages -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * Сохранение одной части данных (или всех данных) одной командой оператора.
+     */
+    @SuppressWarnings({"ConstantConditions", "unchecked"})
+    protected void internalSaveChunk(
+            @NotNull final SqlCommandWrapper statement,
+            @NotNull final List<?> data
+    ) throws SQLException, IOException {
+        final var vSaveOperator = getSaveOperator();
+        if (isSerializeAtEnqueue() && !data.isEmpty() && data.get(0) instanceof DbSavingPayloadArena.Slice) {
+            // Данные сериализованы при добавлении в буфер (данные журнала передаются объектами)
+            ((DbSavingSerializedDataOperator) vSaveOperator)
+                    .saveSerializedData(statement, (List<DbSavingPayloadArena.Slice>) data, getAccumulateMode());
+        } else {
+            ((DbSavingOperator) vSaveOperator).saveData(statement, data, getAccumulateMode());
+        }
+    }
+
+    /**
+     * Сохранение данных частями. В режимах ListOf... с оператором {@link DbSavingPipelinedOperator} следующая часть
+     * сериализуется в {@link #getChunkSerializationExecutor()}, пока текущая выполняется в БД; в остальных режимах
+     * части по {@link #getFlushChunkRows()} элементов передаются оператору по очереди.
+     */
+    protected void internalSaveChunks(
+            @NotNull final SqlCommandWrapper statement,
+            @NotNull final List<?> data
+    ) throws SQLException, IOException {
+        final var maxRows = getFlushChunkRows() > 0 ? getFlushChunkRows() : Integer.MAX_VALUE;
+        if (!isListAccumulateMode() || !(getSaveOperator() instanceof final DbSavingPipelinedOperator operator)) {
+            for (var from = 0; from < data.size(); from += maxRows) {
+                internalSaveChunk(statement, data.subList(from, Math.min(data.size(), from + maxRows)));
+            }
+            return;
+        }
+
+        final var maxBytes = getFlushChunkBytes();
+        final var accumulateMode = getAccumulateMode();
+        final var executor = getChunkSerializationExecutor() != null
+                ? getChunkSerializationExecutor()
+                : ForkJoinPool.commonPool();
+        var current = this.chunkBuffers[0];
+        var spare = this.chunkBuffers[1];
+        try {
+            current.reset();
+            var nextIndex = operator.serializeChunk(current, data, 0, maxRows, maxBytes, accumulateMode);
+            while (true) {
+                CompletableFuture<Integer> nextChunk = null;
+                if (nextIndex < data.size()) {
+                    final var fromIndex = nextIndex;
+                    final var target = spare;
+                    target.reset();
+                    nextChunk = CompletableFuture.supplyAsync(() -> {
+                        try {
+                            return operator.serializeChunk(target, data, fromIndex, maxRows, maxBytes, accumulateMode);
+                        } catch (JsonProcessingException e) {
+                            throw new CompletionException(e);
+                        }
+                    }, executor);
+                }
+                try {
+                    operator.executeChunk(statement, current);
+                } catch (SQLException | RuntimeException e) {
+                    if (nextChunk != null) {
+                        // Буфер следующей части освобождаем только после завершения ее сериализации
+                        nextChunk.handle((index, error) -> index).join();
+                    }
+                    throw e;
+                }
+                if (nextChunk == null) {
+                    break;
+                }
+                nextIndex = internalJoinChunk(nextChunk);
+                final var executed = current;
+                current = spare;
+                spare = executed;
+            }
+        } finally {
+            this.chunkBuffers[0].release();
+            this.chunkBuffers[1].release();
+        }
+    }
+
+    private static int internalJoinChunk(@NotNull final CompletableFuture<Integer> chunk) throws IOException {
+        try {
+            return chunk.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof final IOException ioException) {
+                throw ioException;
+            }
+            if (e.getCause() instanceof final RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Поиск делением пополам элементов буфера для сохранения, сохранение которых завершается ошибкой
+     * ({@link DbSavingErrorStrategy#Bisect}). Остальные элементы сохраняются, ошибочные передаются в {@link #getDeadLetterSink()};
+     * и те, и другие удаляются из буфера. Вызывается только под {@link #getFlushLock()}.
+     *
+     * @param error                 ошибка сохранения всего буфера.
+     * @param savedAcknowledgements список, в который добавляются подтверждения сохраненных элементов.
+     * @return null - буфер обработан полностью; иначе - ошибка, прервавшая поиск: не ошибка в данных
+     * ({@link #isDataError(Throwable)}) или ошибка сохранения обеих половин буфера
+     * (необработанные элементы остаются в буфере и сохраняются повторно как при {@link DbSavingErrorStrategy#Retry}).
+     */
+    @Nullable
+    protected Exception internalBisectBuffer(
+            @NotNull final Exception error,
+            @NotNull final List<CompletableFuture<Void>> savedAcknowledgements
     ) {
-        final var descriptorName = getChannelName();
-        if (!isInitialized()
-                || getMessagesFactory() == null || getMessageType() == null || getMessageVersion() == null) {
-            throw new ChannelConfigurationException("Descriptor " + descriptorName + " is not initialized!");
+        final var buffer = getBuffer();
+        final var started = System.currentTimeMillis();
+        final var processed = new BitSet(buffer.size());
+        final var poisonErrors = new TreeMap<Integer, Throwable>();
+        Exception result;
+        try {
+            result = internalBisectData(buffer, error, processed, poisonErrors);
+        } catch (SQLException | IOException | RuntimeException e) {
+            result = e;
+        }
+        poisonErrors.forEach((index, poisonError) -> internalSendToDeadLetter(buffer.get(index), poisonError));
+        final var savedCount = processed.cardinality() - poisonErrors.size();
+        internalRemoveProcessedItems(processed, poisonErrors, savedAcknowledgements);
+        if (result == null) {
+            internalOnBisectCompleted(savedCount, started);
+            log.warn("DbSavingDescriptor ({}) {} of {} items have been sent to dead letters",
+                    getChannelName(), poisonErrors.size(), processed.cardinality());
         }
+        internalSignalSpaceAvailable();
+        return result;
+    }
 
-        final var result = getMessagesFactory()
-                .createByDataPackage(
-                        null,   // parentId
-                        getMessageType(),
-                        getMessageVersion(),
-                        dataPackage,
-                        null);
-        getMessages().add(result);
+    /**
+     * Поиск делением пополам ошибочных элементов данных, сохранение которых целиком завершилось ошибкой error.
+     * Если завершается ошибкой сохранение обеих половин, ошибка не в отдельных элементах, а во всех данных
+     * (или в команде): поиск не поможет и останавливается.
+     *
+     * @param processed    отмечаются индексы сохраненных и ошибочных элементов.
+     * @param poisonErrors индексы ошибочных элементов и их ошибки.
+     * @return null - данные обработаны полностью; иначе - ошибка сохранения второй половины данных
+     * (поиск остановлен, данные сохраняются повторно как при {@link DbSavingErrorStrategy#Retry}).
+     * @throws SQLException ошибка, не являющаяся ошибкой в данных ({@link #isDataError(Throwable)}); поиск прерывается.
+     */
+    @Nullable
+    protected Exception internalBisectData(
+            @NotNull final List<?> data,
+            @NotNull final Throwable error,
+            @NotNull final BitSet processed,
+            @NotNull final Map<Integer, Throwable> poisonErrors
+    ) throws SQLException, IOException {
+        if (data.size() == 1) {
+            internalBisect(data, 0, 1, error, processed, poisonErrors);
+            return null;
+        }
+        final var middle = data.size() >>> 1;
+        final var firstError = internalTrySaveRange(data, 0, middle, processed);
+        final var secondError = internalTrySaveRange(data, middle, data.size(), processed);
+        if (firstError != null && secondError != null) {
+            log.warn("DbSavingDescriptor ({}) Both halves of {} items failed, bisect is stopped", getChannelName(), data.size());
+            return secondError;
+        } else if (firstError != null) {
+            internalBisect(data, 0, middle, firstError, processed, poisonErrors);
+        } else if (secondError != null) {
+            internalBisect(data, middle, data.size(), secondError, processed, poisonErrors);
+        }
+        return null;
+    }
+
+    /**
+     * Сохранение частей диапазона [from, to) данных, сохранение которого завершилось ошибкой error.
+     *
+     * @param processed    отмечаются индексы сохраненных и ошибочных элементов.
+     * @param poisonErrors индексы ошибочных элементов и их ошибки.
+     * @throws SQLException ошибка, не являющаяся ошибкой в данных ({@link #isDataError(Throwable)}); поиск прерывается.
+     */
+    protected void internalBisect(
+            @NotNull final List<?> data,
+            final int from,
+            final int to,
+            @NotNull final Throwable error,
+            @NotNull final BitSet processed,
+            @NotNull final Map<Integer, Throwable> poisonErrors
+    ) throws SQLException, IOException {
+        if (to - from == 1) {
+            processed.set(from);
+            poisonErrors.put(from, error);
+            return;
+        }
+        final var middle = (from + to) >>> 1;
+        internalSaveOrBisect(data, from, middle, processed, poisonErrors);
+        internalSaveOrBisect(data, middle, to, processed, poisonErrors);
+    }
+
+    private void internalSaveOrBisect(
+            @NotNull final List<?> data,
+            final int from,
+            final int to,
+            @NotNull final BitSet processed,
+            @NotNull final Map<Integer, Throwable> poisonErrors
+    ) throws SQLException, IOException {
+        final var error = internalTrySaveRange(data, from, to, processed);
+        if (error != null) {
+            internalBisect(data, from, to, error, processed, poisonErrors);
+        }
+    }
+
+    /**
+     * Сохранение диапазона [from, to) данных; при успехе диапазон отмечается в processed.
+     *
+     * @return ошибка в данных диапазона или null - диапазон сохранен.
+     * @throws SQLException ошибка, не являющаяся ошибкой в данных ({@link #isDataError(Throwable)}); поиск прерывается.
+     */
+    @Nullable
+    private Exception internalTrySaveRange(
+            @NotNull final List<?> data,
+            final int from,
+            final int to,
+            @NotNull final BitSet processed
+    ) throws SQLException, IOException {
+        try {
+            internalSaveToDb(data.subList(from, to), true);
+            processed.set(from, to);
+            return null;
+        } catch (SQLException | IOException | RuntimeException e) {
+            if (!isDataError(e)) {
+                throw e;
+            }
+            return e;
+        }
     }
 
+    /**
+     * Удаление из буфера для сохранения обработанных элементов. Подтверждения сохраненных элементов добавляются
+     * в savedAcknowledgements, подтверждения ошибочных - завершаются с ошибкой.
+     */
     @SuppressWarnings("unchecked")
-    @SneakyThrows
-    @NotNull
-    protected DataPackage<DataObject> internalCreateAndAddDataPackage() {
-        final var descriptorName = getChannelName();
-        if (!isInitialized() || getDataPackageClass() == null) {
-            throw new ChannelConfigurationException("Descriptor for saving of "
-                    + descriptorName
-                    + " is not initialized!");
+    private void internalRemoveProcessedItems(
+            @NotNull final BitSet processed,
+            @NotNull final Map<Integer, Throwable> poisonErrors,
+            @NotNull final List<CompletableFuture<Void>> savedAcknowledgements
+    ) {
+        final var remainingAcknowledgements = new ArrayList<FlushingAcknowledgement>();
+        for (final var acknowledgement : this.flushingAcknowledgements) {
+            final var index = acknowledgement.index();
+            if (!processed.get(index)) {
+                remainingAcknowledgements.add(new FlushingAcknowledgement(
+                        acknowledgement.acknowledgement(),
+                        index - processed.get(0, index).cardinality()
+                ));
+            } else if (poisonErrors.containsKey(index)) {
+                internalDeferAcknowledgement(acknowledgement.acknowledgement(), poisonErrors.get(index));
+            } else {
+                savedAcknowledgements.add(acknowledgement.acknowledgement());
+            }
         }
-        final var constructor = getDataPackageClass().getConstructor();
-        final var result = (DataPackage<DataObject>) constructor.newInstance();
-        getPackages().add(result);
-        return result;
+        this.flushingAcknowledgements.clear();
+        this.flushingAcknowledgements.addAll(remainingAcknowledgements);
+
+        final var buffer = (List<Object>) getBuffer();
+        var writeIndex = 0;
+        for (var readIndex = 0; readIndex < buffer.size(); readIndex++) {
+            final var item = buffer.get(readIndex);
+            if (!processed.get(readIndex)) {
+                buffer.set(writeIndex++, item);
+            } else if (item instanceof final DbSavingPayloadArena.Slice slice) {
+                slice.release();
+            }
+        }
+        buffer.subList(writeIndex, buffer.size()).clear();
+        this.flushingBufferSize = buffer.size();
+        internalRebuildCoalescingIndex();
     }
 
-    protected synchronized void internalSaveData()
-            throws SQLException, IOException {
-        final var descriptorName = getChannelName();
-        if (!isInitialized()) {
-            throw new ChannelConfigurationException("Descriptor " + descriptorName + " is not initialized!");
+    /**
+     * Перестроение индекса схлопывания после изменения позиций объектов в буфере для сохранения.
+     */
+    private void internalRebuildCoalescingIndex() {
+        final var keyExtractor = getCoalescingKeyExtractor();
+        if (keyExtractor == null) {
+            return;
         }
-        if (getSaveCommand() == null) {
-            throw new ChannelConfigurationException("Descriptor " + descriptorName + " is not configured (does not defined saveCommand)!");
+        this.coalescingIndex.clear();
+        final var objs = getObjects();
+        for (var i = 0; i < objs.size(); i++) {
+            final var key = keyExtractor.extractKey(objs.get(i));
+            if (key != null) {
+                this.coalescingIndex.put(key, i);
+            }
         }
-        if (getSaveOperator() == null) {
-            throw new ChannelConfigurationException("Descriptor " + descriptorName + " is not configured (does not defined saveOperator)!");
+    }
+
+    /**
+     * Передача элемента, который не удалось сохранить, в {@link #getDeadLetterSink()}.
+     */
+    protected void internalSendToDeadLetter(@NotNull final Object item, @NotNull final Throwable error) {
+        final var deadLetterItem = item instanceof final DbSavingPayloadArena.Slice slice ? slice.toByteArray() : item;
+        final var sink = getDeadLetterSink();
+        if (sink == null) {
+            log.error("DbSavingDescriptor (" + getChannelName() + ") Item can't be saved: " + deadLetterItem, error);
+            return;
         }
+        try {
+            sink.accept(this, deadLetterItem, error);
+        } catch (RuntimeException e) {
+            e.addSuppressed(error);
+            log.error("DbSavingDescriptor (" + getChannelName() + ") Dead letter sink failed, item is lost: " + deadLetterItem, e);
+        }
+    }
 
-        // Если пришли сюда процедуру из таймеров разных Descriptor-ов, то
-        // физическое само сохранение выполняем через блокировку одного общего ресурса,
-        // чтобы не использовать несколько коннектов пула.
-        synchronized (getOwner()) {
-            final var vSaveOperator = getSaveOperator();
-            final var accumulateMode = getAccumulateMode();
-            final var started = System.currentTimeMillis();
-
-            try (final var connect = getOwner().getThreadConnectionsWrapper().getCurrentThreadConnection()) {
-                if (getSaveStatement() == null || !getSaveStatement().getConnection().isEqual(connect)) {
-                    if (getSaveStatement() != null) {
-                        final var connection = getSaveStatement().getConnection();
-                        if (connection != null) {
-                            connection.close();
-                        }
-                    }
-                    this.saveStatement = vSaveOperator.prepareStatement(getSaveCommand(), accumulateMode);
+    /**
+     * @return является ли ошибка ошибкой в сохраняемых данных: SQLState классов 22 (ошибка значения)
+     * и 23 (нарушение ограничения целостности). Остальные ошибки (в т.ч. без SQLState) не означают,
+     * что данные не могут быть сохранены.
+     */
+    protected boolean isDataError(@NotNull final Throwable error) {
+        for (Throwable e = error; e != null; e = e.getCause()) {
+            if (e instanceof final SQLException sqlException && sqlException.getSQLState() != null) {
+                final var sqlState = sqlException.getSQLState();
+                if (sqlState.startsWith("22") || sqlState.startsWith("23")) {
+                    return true;
                 }
+            }
+            if (e.getCause() == e) {
+                break;
+            }
+        }
+        return false;
+    }
 
-                if (isUseTransactionDueSave()) {
-                    connect.openTransaction();
+    /**
+     * @return Может ли пачка с ошибкой сохраняться по частям без дублирования: при сохранении в транзакции
+     * или в режимах ListOf*, если пачка сохраняется одной командой (без {@link #getFlushChunkRows()},
+     * {@link #getFlushChunkBytes()} и без {@link AbstractMultiRowInsertDbSavingOperator}).
+     */
+    protected boolean isBisectSupported() {
+        if (isUseTransactionDueSave()) {
+            return true;
+        }
+        return isListAccumulateMode()
+                && getFlushChunkRows() <= 0
+                && getFlushChunkBytes() <= 0
+                && !(getSaveOperator() instanceof AbstractMultiRowInsertDbSavingOperator);
+    }
+
+    /**
+     * @return является ли ошибка временной (повтор сохранения тех же данных может быть успешным):
+     * {@link SQLTransientException}, {@link SQLRecoverableException}, SQLState классов
+     * 08 (соединение), 40 (откат транзакции), 53 (нехватка ресурсов), 57 (вмешательство оператора).
+     */
+    protected boolean isTransientError(@NotNull final Throwable error) {
+        for (Throwable e = error; e != null; e = e.getCause()) {
+            if (e instanceof SQLTransientException || e instanceof SQLRecoverableException) {
+                return true;
+            }
+            if (e instanceof final SQLException sqlException && sqlException.getSQLState() != null) {
+                final var sqlState = sqlException.getSQLState();
+                if (sqlState.startsWith("08") || sqlState.startsWith("40")
+                        || sqlState.startsWith("53") || sqlState.startsWith("57")) {
+                    return true;
                 }
-                try {
-                    switch (accumulateMode) {
-                        case PerMessage, ListOfMessages -> vSaveOperator.saveData(getSaveStatement(), getMessages(), accumulateMode);
-                        case PerObject, ListOfObjects -> vSaveOperator.saveData(getSaveStatement(), getObjects(), accumulateMode);
-                        case PerRawObject, ListOfRawObjects -> vSaveOperator.saveData(getSaveStatement(), getRawObjects(), accumulateMode);
-                        case PerPackage, ListOfPackages -> vSaveOperator.saveData(getSaveStatement(), getPackages(), accumulateMode);
-                        default -> throw new IllegalStateException("Unexpected value: " + accumulateMode);
-                    }
+            }
+            if (e.getCause() == e) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    @NotNull
+    private static SQLException internalAsSaveException(@NotNull final Exception error) throws IOException {
+        if (error instanceof final SQLException sqlException) {
+            return sqlException;
+        }
+        if (error instanceof final IOException ioException) {
+            throw ioException;
+        }
+        if (error instanceof final RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        return new SQLException(error);
+    }
 
-                    final var event = getEventAfterSave();
-                    if (event != null) {
-                        getOwner().getEventPublisher().publishEvent(event);
+    /**
+     * Сохранение в БД данных журнала в порядке записи. Вызывается только под {@link #getFlushLock()}.
+     *
+     * @param savedAcknowledgements список, в который добавляются подтверждения сохраненных записей.
+     * @return true - журнал сохранен полностью; false - ошибка сохранения (оставшиеся записи остаются в журнале).
+     */
+    @SuppressWarnings("ConstantConditions")
+    protected boolean internalReplayJournal(
+            @NotNull final List<CompletableFuture<Void>> savedAcknowledgements
+    ) throws IOException {
+        final var vJournal = getJournal();
+        final var itemsType = vJournal.getObjectMapper().getTypeFactory()
+                .constructCollectionType(ArrayList.class, getJournalItemClass());
+        DbSavingJournal.Record record;
+        while ((record = vJournal.peek()) != null) {
+            final List<?> data;
+            try {
+                data = vJournal.readValue(record, itemsType);
+            } catch (IOException e) {
+                // Запись не может быть прочитана (изменились классы данных) - повтор не поможет
+                log.error("DbSavingDescriptor (" + getChannelName() + ") Journal record " + record.id()
+                        + " can't be deserialized and is skipped", e);
+                vJournal.commit(record);
+                final var acknowledgements = this.journaledAcknowledgements.remove(record.id());
+                if (acknowledgements != null) {
+                    acknowledgements.forEach(acknowledgement -> internalDeferAcknowledgement(acknowledgement.acknowledgement(), e));
+                }
+                continue;
+            }
+            final var poisonErrors = new TreeMap<Integer, Throwable>();
+            try {
+                internalSaveToDb(data);
+            } catch (SQLException | IOException | RuntimeException e) {
+                if (!isDataError(e)
+                        || (getErrorStrategy() != DbSavingErrorStrategy.Bisect && !isJournalDataErrorsToDeadLetter())) {
+                    // Запись остается в журнале и сохраняется повторно
+                    return false;
+                }
+                // Повтор записи с ошибкой в данных не поможет, а следующие записи журнала сохраняются только после нее
+                final var processed = new BitSet(data.size());
+                final var started = System.currentTimeMillis();
+                if (isBisectSupported()) {
+                    // Запись сохраняется по частям; при временной ошибке или ошибке сохранения обеих половин записи
+                    // она будет сохранена повторно целиком
+                    try {
+                        if (internalBisectData(data, e, processed, poisonErrors) != null) {
+                            return false;
+                        }
+                    } catch (SQLException | IOException | RuntimeException transientError) {
+                        return false;
                     }
-                    if (isUseTransactionDueSave()) {
-                        connect.commitTransaction();
+                    internalOnBisectCompleted(data.size() - poisonErrors.size(), started);
+                } else {
+                    // Части записи могли быть сохранены до ошибки, повтор частей привел бы к дублированию
+                    log.error("DbSavingDescriptor (" + getChannelName() + ") Journal record " + record.id()
+                            + " can't be saved and is sent to dead letters", e);
+                    for (var index = 0; index < data.size(); index++) {
+                        poisonErrors.put(index, e);
                     }
-
-                    recordMessagesExecuted(
-                            getOwner().getConfigurationName(),
-                            System.currentTimeMillis() - started,
-                            getBuffer().size()
-                    );
-                    resetBuffer();
-                } catch (Exception e) {
-                    this.lastErrorTimeMillis = System.currentTimeMillis();
-                    log.info(String.format("Error has been caught! Set lastErrorTimeMillis = %d", this.lastErrorTimeMillis));
-                    log.error("", e);
-                    if (isUseTransactionDueSave()) {
-                        connect.rollbackTransaction();
-                        throw e;
+                }
+                poisonErrors.forEach((index, error) -> internalSendToDeadLetter(data.get(index), error));
+            }
+            vJournal.commit(record);
+            final var acknowledgements = this.journaledAcknowledgements.remove(record.id());
+            if (acknowledgements != null) {
+                // Подтверждения элементов, сохраненных при делении записи, завершаются успешно
+                for (final var acknowledgement : acknowledgements) {
+                    final var error = poisonErrors.get(acknowledgement.index());
+                    if (error == null) {
+                        savedAcknowledgements.add(acknowledgement.acknowledgement());
+                    } else {
+                        internalDeferAcknowledgement(acknowledgement.acknowledgement(), error);
                     }
                 }
             }
         }
+        return true;
+    }
+
+    /**
+     * Перенос буфера для сохранения в журнал одной записью. Вызывается только под {@link #getFlushLock()}.
+     * Подтверждения буфера завершаются после сохранения записи в БД.
+     */
+    @SuppressWarnings("ConstantConditions")
+    protected void internalSpillToJournal() throws IOException {
+        final var buffer = getBuffer();
+        if (buffer.isEmpty()) {
+            return;
+        }
+        final var count = buffer.size();
+        final long recordId;
+        if (isSerializeAtEnqueue()) {
+            // Элементы уже сериализованы в Json - запись журнала формируется без повторной сериализации
+            final var serializationBuffer = DbSavingSerializationBuffer.acquire();
+            try {
+                ((DbSavingSerializedDataOperator) getSaveOperator()).writeSerializedList(serializationBuffer, getSerializedItems());
+                recordId = getJournal().append(serializationBuffer.toByteArray());
+            } finally {
+                serializationBuffer.release();
+            }
+        } else {
+            recordId = getJournal().appendValue(buffer);
+        }
+        if (!this.flushingAcknowledgements.isEmpty()) {
+            // Индексы элементов буфера совпадают с индексами элементов записи журнала
+            this.journaledAcknowledgements.put(recordId, new ArrayList<>(this.flushingAcknowledgements));
+            this.flushingAcknowledgements.clear();
+        }
+        internalClearBuffer();
+        internalSignalSpaceAvailable();
+        log.warn("DbSavingDescriptor ({}) {} items have been spilled to journal (records in journal = {})",
+                getChannelName(), count, getJournal().getRecordsCount());
+    }
+
+    /**
+     * Перенос накопленных данных в журнал из потока-производителя (буфер заполнен).
+     *
+     * @return false - выполняется сохранение, перенос не выполнен.
+     */
+    protected boolean internalTrySpillToJournal() throws IOException {
+        final var lock = getFlushLock();
+        if (!lock.tryLock()) {
+            return false;
+        }
+        try {
+            // В журнал переносится весь накопительный буфер, чтобы освободить место производителям
+            internalDrainBuffer(Integer.MAX_VALUE);
+            internalSpillToJournal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Класс элементов буфера для чтения записей журнала.
+     * RAW-данные восстанавливаются как универсальные типы Jackson (Map, List, String, Number и т.п.).
+     */
+    @NotNull
+    protected Class<?> getJournalItemClass() {
+        final Class<?> result = switch (getAccumulateMode()) {
+            case PerMessage, ListOfMessages, BatchPerMessage -> getMessageClass();
+            case PerObject, ListOfObjects, BatchPerObject -> getDataObjectClass();
+            case PerPackage, ListOfPackages, BatchPerPackage -> getDataPackageClass();
+            case PerRawObject, ListOfRawObjects, BatchPerRawObject -> Object.class;
+        };
+        return result == null ? Object.class : result;
+    }
+
+    /**
+     * Завершение с ошибкой подтверждений сохраняемой пачки (данные пачки не будут сохранены).
+     */
+    protected void internalFailAcknowledgements(@NotNull final Throwable error) {
+        for (final var acknowledgement : internalTakeFlushingAcknowledgements()) {
+            internalDeferAcknowledgement(acknowledgement, error);
+        }
+    }
+
+    /**
+     * Отложенное завершение подтверждения. Вызывается только под {@link #getFlushLock()}.
+     *
+     * @param acknowledgement подтверждение.
+     * @param error           ошибка сохранения; null - данные сохранены.
+     */
+    protected void internalDeferAcknowledgement(
+            @NotNull final CompletableFuture<Void> acknowledgement,
+            @Nullable final Throwable error
+    ) {
+        this.deferredAcknowledgements.add(new DeferredAcknowledgement(acknowledgement, error));
+    }
+
+    /**
+     * Завершение отложенных подтверждений. Вызывается после освобождения {@link #getFlushLock()}:
+     * обработчики подтверждений выполняются в текущем потоке и могут снова добавлять данные и сохранять их.
+     */
+    protected void internalCompleteDeferredAcknowledgements() {
+        DeferredAcknowledgement deferred;
+        while ((deferred = this.deferredAcknowledgements.poll()) != null) {
+            if (deferred.error() == null) {
+                deferred.acknowledgement().complete(null);
+            } else {
+                deferred.acknowledgement().completeExceptionally(deferred.error());
+            }
+        }
+    }
+    // </editor-fold>
+    // -----------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="AcknowledgedItem">
+
+    /**
+     * Подтверждение сохранения элемента буфера для сохранения.
+     *
+     * @param acknowledgement подтверждение.
+     * @param index           индекс элемента в буфере для сохранения.
+     */
+    private record FlushingAcknowledgement(@NotNull CompletableFuture<Void> acknowledgement, int index) {
+    }
+
+    /**
+     * Подтверждение, завершение которого отложено до освобождения {@link #getFlushLock()}.
+     *
+     * @param acknowledgement подтверждение.
+     * @param error           ошибка сохранения; null - данные сохранены.
+     */
+    private record DeferredAcknowledgement(@NotNull CompletableFuture<Void> acknowledgement, @Nullable Throwable error) {
+    }
+
+    /**
+     * Элемент накопительного буфера, сохранение которого требуется подтвердить.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    private static final class AcknowledgedItem {
+        @NotNull
+        private final Object item;
+
+        @NotNull
+        private final CompletableFuture<Void> acknowledgement;
     }
+
     // </editor-fold>
     // -----------------------------------------------------------------------------------------------------------------
 }
@@ -0,0 +1,265 @@
+package ru.gx.core.data.save;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Метрики одного {@link DbSavingDescriptor}-а. Все метрики помечены тегами конфигурации, канала и режима накопления.
+ * <p>
+ * Длительность сохранения раскладывается на сериализацию (работа оператора без учета выполнения команд),
+ * выполнение команд в БД и фиксацию транзакции. Для операторов, обращающихся к БД не через команду Descriptor-а
+ * ({@link DbSavingStreamingOperator}), все время работы оператора учитывается как выполнение.
+ */
+@SuppressWarnings("unused")
+public class DbSavingDescriptorMetrics {
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Constants">
+
+    /**
+     * Количество элементов в буфере Descriptor-а (накопительном и для сохранения).
+     */
+    public static final String METRIC_BUFFER_DEPTH = "db.saving.buffer.depth";
+
+    /**
+     * Возраст (мс) самых старых несохраненных данных буфера.
+     */
+    public static final String METRIC_BUFFER_OLDEST_AGE = "db.saving.buffer.oldest.age";
+
+    /**
+     * Длительность сохранения пачки целиком.
+     */
+    public static final String METRIC_FLUSH = "db.saving.flush";
+
+    /**
+     * Количество элементов в сохраненной пачке.
+     */
+    public static final String METRIC_FLUSH_ITEMS = "db.saving.flush.items";
+
+    /**
+     * Время сериализации данных пачки.
+     */
+    public static final String METRIC_FLUSH_SERIALIZATION = "db.saving.flush.serialization";
+
+    /**
+     * Время выполнения команд сохранения в БД.
+     */
+    public static final String METRIC_FLUSH_EXECUTION = "db.saving.flush.execution";
+
+    /**
+     * Время фиксации транзакции сохранения.
+     */
+    public static final String METRIC_FLUSH_COMMIT = "db.saving.flush.commit";
+
+    /**
+     * Размер данных (байт), переданных в параметрах команд сохранения.
+     */
+    public static final String METRIC_PAYLOAD_BYTES = "db.saving.payload.bytes";
+
+    /**
+     * Количество попыток сохранения после ошибки.
+     */
+    public static final String METRIC_RETRIES = "db.saving.retries";
+
+    /**
+     * Количество сохранений, завершившихся ошибкой.
+     */
+    public static final String METRIC_FAILURES = "db.saving.failures";
+
+    /**
+     * Количество отказов в добавлении данных в заполненный буфер.
+     */
+    public static final String METRIC_REJECTIONS = "db.saving.rejections";
+
+    /**
+     * Время ожидания блокировки сохранения Descriptor-а и разрешения на сохранение конфигурации.
+     */
+    public static final String METRIC_LOCK_WAIT = "db.saving.lock.wait";
+
+    /**
+     * Количество объектов, замененных в буфере более поздними версиями.
+     */
+    public static final String METRIC_COALESCED = "db.saving.coalesced";
+
+    public static final String TAG_ACCUMULATE_MODE = "accumulate.mode";
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Fields">
+
+    @Getter
+    @NotNull
+    private final Tags tags;
+
+    @NotNull
+    private final Timer flushTimer;
+
+    @NotNull
+    private final DistributionSummary flushItemsSummary;
+
+    @NotNull
+    private final Timer serializationTimer;
+
+    @NotNull
+    private final Timer executionTimer;
+
+    @NotNull
+    private final Timer commitTimer;
+
+    @NotNull
+    private final DistributionSummary payloadBytesSummary;
+
+    @NotNull
+    private final Counter retriesCounter;
+
+    @NotNull
+    private final Counter failuresCounter;
+
+    @NotNull
+    private final Counter rejectionsCounter;
+
+    @NotNull
+    private final Timer lockWaitTimer;
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Initialization">
+    public DbSavingDescriptorMetrics(
+            @NotNull final MeterRegistry meterRegistry,
+            @NotNull final String configurationName,
+            @NotNull final DbSavingDescriptor descriptor
+    ) {
+        this.tags = Tags.of(
+                DbSavingMetrics.TAG_CONFIGURATION, configurationName,
+                DbSavingMetrics.TAG_CHANNEL, descriptor.getChannelName(),
+                TAG_ACCUMULATE_MODE, descriptor.getAccumulateMode().name()
+        );
+        Gauge.builder(METRIC_BUFFER_DEPTH, descriptor, DbSavingDescriptor::getBufferSize)
+                .description("Count of items in the buffer of the saving descriptor")
+                .tags(this.tags)
+                .register(meterRegistry);
+        Gauge.builder(METRIC_BUFFER_OLDEST_AGE, descriptor, DbSavingDescriptor::getOldestItemAgeMs)
+                .description("Age (ms) of the oldest unsaved data in the buffer of the saving descriptor")
+                .baseUnit("milliseconds")
+                .tags(this.tags)
+                .register(meterRegistry);
+        FunctionCounter.builder(METRIC_COALESCED, descriptor, DbSavingDescriptor::getCoalescedObjectsCount)
+                .description("Count of buffered objects replaced by later versions with the same key")
+                .tags(this.tags)
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder(METRIC_FLUSH)
+                .description("Duration of saving one batch of the descriptor")
+                .tags(this.tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.flushItemsSummary = DistributionSummary.builder(METRIC_FLUSH_ITEMS)
+                .description("Count of items in saved batches of the descriptor")
+                .tags(this.tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.serializationTimer = Timer.builder(METRIC_FLUSH_SERIALIZATION)
+                .description("Time spent by the saving operator outside of database commands (serialization)")
+                .tags(this.tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.executionTimer = Timer.builder(METRIC_FLUSH_EXECUTION)
+                .description("Time spent executing saving commands in the database")
+                .tags(this.tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.commitTimer = Timer.builder(METRIC_FLUSH_COMMIT)
+                .description("Time spent committing saving transactions")
+                .tags(this.tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.payloadBytesSummary = DistributionSummary.builder(METRIC_PAYLOAD_BYTES)
+                .description("Size of parameters passed to saving commands per batch")
+                .baseUnit("bytes")
+                .tags(this.tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.retriesCounter = Counter.builder(METRIC_RETRIES)
+                .description("Count of saving attempts after an error")
+                .tags(this.tags)
+                .register(meterRegistry);
+        this.failuresCounter = Counter.builder(METRIC_FAILURES)
+                .description("Count of failed saving attempts")
+                .tags(this.tags)
+                .register(meterRegistry);
+        this.rejectionsCounter = Counter.builder(METRIC_REJECTIONS)
+                .description("Count of items rejected because the buffer is full")
+                .tags(this.tags)
+                .register(meterRegistry);
+        this.lockWaitTimer = Timer.builder(METRIC_LOCK_WAIT)
+                .description("Time spent waiting for the flush lock of the descriptor and a flush permit of the configuration")
+                .tags(this.tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Recording">
+
+    /**
+     * Учет успешного сохранения пачки.
+     *
+     * @param itemsCount      количество элементов пачки.
+     * @param operatorNanos   время работы оператора сохранения (нс).
+     * @param executionNanos  время выполнения команд в БД (нс); отрицательное - не измерено.
+     * @param commitNanos     время фиксации транзакции (нс).
+     * @param payloadBytes    размер параметров команд (байт); отрицательный - не измерен.
+     */
+    public void recordFlush(
+            final int itemsCount,
+            final long operatorNanos,
+            final long executionNanos,
+            final long commitNanos,
+            final long payloadBytes
+    ) {
+        this.flushTimer.record(operatorNanos + commitNanos, TimeUnit.NANOSECONDS);
+        this.flushItemsSummary.record(itemsCount);
+        if (executionNanos < 0) {
+            this.executionTimer.record(operatorNanos, TimeUnit.NANOSECONDS);
+        } else {
+            this.executionTimer.record(executionNanos, TimeUnit.NANOSECONDS);
+            this.serializationTimer.record(Math.max(0, operatorNanos - executionNanos), TimeUnit.NANOSECONDS);
+        }
+        if (commitNanos > 0) {
+            this.commitTimer.record(commitNanos, TimeUnit.NANOSECONDS);
+        }
+        if (payloadBytes >= 0) {
+            this.payloadBytesSummary.record(payloadBytes);
+        }
+    }
+
+    public void recordRetry() {
+        this.retriesCounter.increment();
+    }
+
+    public void recordFailure() {
+        this.failuresCounter.increment();
+    }
+
+    public void recordRejection() {
+        this.rejectionsCounter.increment();
+    }
+
+    /**
+     * @param waitNanos время ожидания блокировки или разрешения на сохранение (нс).
+     */
+    public void recordLockWait(final long waitNanos) {
+        this.lockWaitTimer.record(waitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+}
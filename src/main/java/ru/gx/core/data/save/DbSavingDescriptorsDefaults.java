@@ -9,6 +9,9 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import ru.gx.core.channels.OutcomeChannelDescriptorsDefaults;
 
+import java.util.EnumMap;
+import java.util.Map;
+
 @SuppressWarnings("unused")
 @Getter
 @Setter
@@ -50,6 +53,21 @@ public class DbSavingDescriptorsDefaults extends OutcomeChannelDescriptorsDefaul
     public static final DbSavingAccumulateMode DEFAULT_ACCUMULATE_MODE = DbSavingAccumulateMode.ListOfObjects;
 
     public static final boolean DEFAULT_USE_TRAN_IN_SAVE = true;
+
+    /**
+     * Поведение при добавлении данных в заполненный буфер по умолчанию.
+     */
+    public static final DbSavingAdmissionMode DEFAULT_ADMISSION_MODE = DbSavingAdmissionMode.Reject;
+
+    /**
+     * Максимальное время ожидания места в буфере (для {@link DbSavingAdmissionMode#Block}) по умолчанию.
+     */
+    public static final int DEFAULT_ADMISSION_TIMEOUT_MS = 30000;
+
+    /**
+     * Поведение при ошибке сохранения пачки по умолчанию.
+     */
+    public static final DbSavingErrorStrategy DEFAULT_ERROR_STRATEGY = DbSavingErrorStrategy.Retry;
     // </editor-fold>
     // -------------------------------------------------------------------------------------------------------------
     // <editor-fold desc="Fields">
@@ -87,13 +105,69 @@ public class DbSavingDescriptorsDefaults extends OutcomeChannelDescriptorsDefaul
      */
     private int retryAfterErrorForMs = DEFAULTS_RETRY_AFTER_ERROR_FOR_MS;
 
+    /**
+     * Политика повтора сохранения после ошибок (null - фиксированная пауза {@link #getRetryAfterErrorForMs()}
+     * без приостановки сохранений конфигурации).
+     */
+    @Nullable
+    private DbSavingRetryPolicy retryPolicy;
+
     /**
      * Реализация метода сохранения в БД
      */
     @Nullable
-    private DbSavingOperator saveOperator;
+    private DbSavingBaseOperator saveOperator;
+
+    /**
+     * Реализации метода сохранения в БД для способов представления данных.
+     * Descriptor использует оператор, соответствующий его {@link DbSavingDescriptor#getSerializeMode()}.
+     */
+    @NotNull
+    private Map<DbSavingSerializeMode, DbSavingBaseOperator> saveOperators = new EnumMap<>(DbSavingSerializeMode.class);
 
     private boolean useTransactionDueSave;
+
+    /**
+     * Поведение при добавлении данных в заполненный буфер.
+     */
+    @NotNull
+    private DbSavingAdmissionMode admissionMode = DEFAULT_ADMISSION_MODE;
+
+    /**
+     * Максимальное время ожидания места в буфере (для {@link DbSavingAdmissionMode#Block}).
+     */
+    private int admissionTimeoutMs = DEFAULT_ADMISSION_TIMEOUT_MS;
+
+    /**
+     * Поведение при ошибке сохранения пачки.
+     */
+    @NotNull
+    private DbSavingErrorStrategy errorStrategy = DEFAULT_ERROR_STRATEGY;
+
+    /**
+     * Получатель элементов, которые не удалось сохранить (null - элементы записываются в лог).
+     */
+    @Nullable
+    private DbSavingDeadLetterSink deadLetterSink;
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Additional setters">
+
+    /**
+     * Регистрация оператора сохранения для способа представления данных.
+     *
+     * @param serializeMode способ представления данных.
+     * @param saveOperator  реализация метода сохранения в БД.
+     * @return this.
+     */
+    @NotNull
+    public DbSavingDescriptorsDefaults putSaveOperator(
+            @NotNull final DbSavingSerializeMode serializeMode,
+            @NotNull final DbSavingBaseOperator saveOperator
+    ) {
+        this.saveOperators.put(serializeMode, saveOperator);
+        return this;
+    }
     // </editor-fold>
     // -------------------------------------------------------------------------------------------------------------
 }
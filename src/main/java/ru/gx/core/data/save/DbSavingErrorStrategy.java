@@ -0,0 +1,26 @@
+package ru.gx.core.data.save;
+
+/**
+ * Поведение при ошибке сохранения пачки данных.
+ */
+@SuppressWarnings("unused")
+public enum DbSavingErrorStrategy {
+    /**
+     * Пачка целиком остается в буфере и сохраняется повторно через retryAfterErrorForMs;
+     * подтверждения сохранения данных пачки завершаются после ее сохранения.
+     * Записи журнала с ошибкой в данных обрабатываются как в {@link #Bisect}, только если это включено
+     * (DbSavingDescriptor#setJournalDataErrorsToDeadLetter).
+     */
+    Retry,
+
+    /**
+     * Пачка делится пополам, пока не будут найдены элементы, сохранение которых завершается ошибкой
+     * (O(log n) дополнительных обращений к БД на каждый такой элемент). Остальные элементы сохраняются,
+     * ошибочные передаются в {@link DbSavingDeadLetterSink}.
+     * Делится только пачка с ошибкой в данных (SQLState классов 22, 23); остальные ошибки
+     * и ошибка сохранения обеих половин пачки обрабатываются как в {@link #Retry}.
+     * Допустима только при useTransactionDueSave или в режимах ListOf* без flushChunkRows, flushChunkBytes
+     * и без AbstractMultiRowInsertDbSavingOperator (иначе части пачки сохранялись бы повторно).
+     */
+    Bisect
+}
@@ -0,0 +1,76 @@
+package ru.gx.core.data.save;
+
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Фабрика исполнителей сохранений для {@link AbstractDbSaver}.
+ */
+@Slf4j
+@SuppressWarnings("unused")
+public final class DbSavingFlushExecutors {
+    /**
+     * Время жизни простаивающего потока пула.
+     */
+    public static final long IDLE_THREAD_KEEP_ALIVE_MS = 60000;
+
+    private DbSavingFlushExecutors() {
+    }
+
+    /**
+     * Создание исполнителя сохранений: на JDK с поддержкой виртуальных потоков каждое сохранение выполняется
+     * в отдельном виртуальном потоке, иначе - в ограниченном пуле обычных потоков.
+     * Буферы сериализации и компрессоры не закрепляются за потоками (см. {@link DbSavingSerializationBuffer#acquire()}),
+     * поэтому поток на каждое сохранение не приводит к их повторному созданию.
+     *
+     * @param name               префикс имен потоков.
+     * @param maxPlatformThreads максимальное количество обычных потоков (если виртуальные потоки недоступны).
+     * @return исполнитель сохранений.
+     */
+    @NotNull
+    public static ExecutorService newFlushExecutor(@NotNull final String name, final int maxPlatformThreads) {
+        try {
+            final var factoryMethod = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factoryMethod.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            log.info("Virtual threads are not available, flushes of {} will use up to {} platform threads", name, maxPlatformThreads);
+            return newPlatformFlushExecutor(name, maxPlatformThreads);
+        }
+    }
+
+    /**
+     * Создание ограниченного пула обычных потоков для выполнения сохранений.
+     *
+     * @param name       префикс имен потоков.
+     * @param maxThreads максимальное количество потоков.
+     * @return исполнитель сохранений.
+     */
+    @NotNull
+    public static ExecutorService newPlatformFlushExecutor(@NotNull final String name, final int maxThreads) {
+        if (maxThreads < 1) {
+            throw new IllegalArgumentException("maxThreads must be positive (maxThreads = " + maxThreads + ")");
+        }
+        final var threadNumber = new AtomicInteger();
+        final var result = new ThreadPoolExecutor(
+                maxThreads,
+                maxThreads,
+                IDLE_THREAD_KEEP_ALIVE_MS,
+                TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    final var thread = new Thread(runnable, name + "-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+        );
+        result.allowCoreThreadTimeOut(true);
+        return result;
+    }
+}
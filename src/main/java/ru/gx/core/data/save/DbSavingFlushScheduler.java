@@ -0,0 +1,202 @@
+package ru.gx.core.data.save;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Планировщик проверок необходимости сохранения Descriptor-ов.
+ * <p>
+ * Вместо периодического опроса всех Descriptor-ов проверка планируется по событиям:
+ * <ul>
+ *     <li>буфер Descriptor-а перестал быть пустым - проверка через {@link DbSavingDescriptor#getBufferForMs()};</li>
+ *     <li>буфер Descriptor-а достиг {@link DbSavingDescriptor#getBufferLimit()} - немедленная проверка;</li>
+ *     <li>после проверки в буфере остались данные (в т.ч. после ошибки сохранения) - проверка к следующему сроку.</li>
+ * </ul>
+ * Descriptor-ы с пустыми буферами не проверяются совсем.
+ * <p>
+ * Если задан {@link #getFlushExecutor()}, то поток планировщика только отсчитывает сроки, а сами сохранения
+ * выполняются исполнителем (не более одного одновременного сохранения на Descriptor). Иначе сохранения
+ * выполняются в потоке планировщика по очереди.
+ */
+@Slf4j
+public class DbSavingFlushScheduler {
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Fields">
+
+    @NotNull
+    private final DelayQueue<ScheduledCheck> queue = new DelayQueue<>();
+
+    @Getter
+    @NotNull
+    private final String name;
+
+    @Nullable
+    private volatile Thread thread;
+
+    /**
+     * Исполнитель сохранений (null - сохранения выполняются в потоке планировщика).
+     */
+    @Getter
+    @Nullable
+    private volatile Executor flushExecutor;
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Initialization">
+    public DbSavingFlushScheduler(@NotNull final String name) {
+        this.name = name;
+    }
+
+    public synchronized void start() {
+        if (this.thread != null) {
+            return;
+        }
+        final var newThread = new Thread(this::run, this.name);
+        newThread.setDaemon(true);
+        this.thread = newThread;
+        newThread.start();
+    }
+
+    public synchronized void stop() {
+        final var currentThread = this.thread;
+        if (currentThread == null) {
+            return;
+        }
+        this.thread = null;
+        currentThread.interrupt();
+        // Отмененные проверки снимают признаки планирования, иначе Descriptor-ы не будут проверяться
+        // после повторного запуска
+        for (final var check : new ArrayList<>(this.queue)) {
+            if (this.queue.remove(check)) {
+                check.getDescriptor().internalOnScheduledCheckFired(check.isUrgent());
+            }
+        }
+    }
+
+    public boolean isRunning() {
+        return this.thread != null;
+    }
+
+    /**
+     * @param flushExecutor исполнитель сохранений (null - сохранения выполняются в потоке планировщика).
+     * @return this.
+     */
+    @NotNull
+    public DbSavingFlushScheduler setFlushExecutor(@Nullable final Executor flushExecutor) {
+        this.flushExecutor = flushExecutor;
+        return this;
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Scheduling">
+
+    /**
+     * Запланировать проверку Descriptor-а.
+     *
+     * @param descriptor Descriptor, который требуется проверить.
+     * @param delayMs    через сколько миллисекунд выполнить проверку.
+     * @param urgent     признак срочной проверки (буфер достиг лимита).
+     */
+    public void schedule(@NotNull final DbSavingDescriptor descriptor, final long delayMs, final boolean urgent) {
+        this.queue.offer(new ScheduledCheck(descriptor, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMs), urgent));
+    }
+
+    /**
+     * @return количество запланированных проверок.
+     */
+    public int getScheduledCount() {
+        return this.queue.size();
+    }
+
+    protected void run() {
+        while (this.thread == Thread.currentThread()) {
+            final ScheduledCheck check;
+            try {
+                check = this.queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            executeCheck(check.getDescriptor(), check.isUrgent());
+        }
+    }
+
+    /**
+     * Выполнение проверки Descriptor-а.
+     */
+    protected void executeCheck(@NotNull final DbSavingDescriptor descriptor, final boolean urgent) {
+        descriptor.internalOnScheduledCheckFired(urgent);
+        final var executor = getFlushExecutor();
+        if (executor == null) {
+            runCheck(descriptor);
+            return;
+        }
+        if (!descriptor.internalTryStartScheduledFlush()) {
+            // Сохранение этого Descriptor-а уже выполняется - оно повторит проверку по завершении
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                do {
+                    runCheck(descriptor);
+                } while (descriptor.internalIsScheduledFlushRepeatRequired());
+            });
+        } catch (RejectedExecutionException e) {
+            descriptor.internalFinishScheduledFlush();
+            log.error("Flush executor rejected saving of descriptor " + descriptor.getChannelName(), e);
+            descriptor.internalScheduleCheck();
+        }
+    }
+
+    protected void runCheck(@NotNull final DbSavingDescriptor descriptor) {
+        try {
+            descriptor.internalRunScheduledCheck();
+        } catch (Exception e) {
+            log.error("Error on scheduled saving check of descriptor " + descriptor.getChannelName(), e);
+        }
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="ScheduledCheck">
+    @Getter
+    private static class ScheduledCheck implements Delayed {
+        @NotNull
+        private final DbSavingDescriptor descriptor;
+
+        private final long deadlineNanos;
+
+        private final boolean urgent;
+
+        private ScheduledCheck(@NotNull final DbSavingDescriptor descriptor, final long deadlineNanos, final boolean urgent) {
+            this.descriptor = descriptor;
+            this.deadlineNanos = deadlineNanos;
+            this.urgent = urgent;
+        }
+
+        @Override
+        public long getDelay(@NotNull final TimeUnit unit) {
+            return unit.convert(this.deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(@NotNull final Delayed other) {
+            if (other instanceof final ScheduledCheck otherCheck) {
+                return Long.compare(this.deadlineNanos, otherCheck.deadlineNanos);
+            }
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+}
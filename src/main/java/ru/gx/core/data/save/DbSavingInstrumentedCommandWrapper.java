@@ -0,0 +1,225 @@
+package ru.gx.core.data.save;
+
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import ru.gx.core.data.sqlwrapping.ConnectionWrapper;
+import ru.gx.core.data.sqlwrapping.ResultWrapper;
+import ru.gx.core.data.sqlwrapping.SqlCommandWrapper;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+
+import static lombok.AccessLevel.PROTECTED;
+
+/**
+ * Обертка команды сохранения, измеряющая время выполнения команд в БД и размер переданных параметров.
+ * <p>
+ * Используется {@link DbSavingDescriptor}-ом на время одного сохранения: разница между длительностью сохранения
+ * оператором и {@link #getExecutionNanos()} - время сериализации данных.
+ * Размер символьных параметров учитывается в символах.
+ * <p>
+ * Операторы, которые находят свои данные по исходной команде (например, {@link AbstractMultiRowInsertDbSavingOperator}),
+ * получают ее методом {@link #unwrap(SqlCommandWrapper)}, а производные команды оборачивают
+ * методом {@link #rewrap(SqlCommandWrapper, SqlCommandWrapper)} - измерения учитываются в исходной обертке.
+ */
+@SuppressWarnings("unused")
+public class DbSavingInstrumentedCommandWrapper implements SqlCommandWrapper {
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Fields">
+
+    /**
+     * Исходная команда.
+     */
+    @Getter(PROTECTED)
+    @NotNull
+    private final SqlCommandWrapper command;
+
+    /**
+     * Обертка, в которой учитываются измерения (для производных команд - обертка исходной команды).
+     */
+    @NotNull
+    private final DbSavingInstrumentedCommandWrapper root;
+
+    /**
+     * Суммарное время выполнения команд в БД (нс).
+     */
+    @Getter
+    private long executionNanos;
+
+    /**
+     * Суммарный размер двоичных и строковых параметров.
+     */
+    @Getter
+    private long payloadBytes;
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Initialization">
+    public DbSavingInstrumentedCommandWrapper(@NotNull final SqlCommandWrapper command) {
+        this.command = command;
+        this.root = this;
+    }
+
+    private DbSavingInstrumentedCommandWrapper(
+            @NotNull final SqlCommandWrapper command,
+            @NotNull final DbSavingInstrumentedCommandWrapper root
+    ) {
+        this.command = command;
+        this.root = root;
+    }
+
+    /**
+     * @return Исходная команда, если statement - обертка, иначе statement.
+     */
+    @NotNull
+    public static SqlCommandWrapper unwrap(@NotNull final SqlCommandWrapper statement) {
+        return statement instanceof final DbSavingInstrumentedCommandWrapper wrapper ? wrapper.command : statement;
+    }
+
+    /**
+     * @param statement команда, переданная оператору.
+     * @param derived   команда, выполняемая оператором вместо statement.
+     * @return derived, измерения которой учитываются в statement, если statement - обертка, иначе derived.
+     */
+    @NotNull
+    public static SqlCommandWrapper rewrap(@NotNull final SqlCommandWrapper statement, @NotNull final SqlCommandWrapper derived) {
+        return statement instanceof final DbSavingInstrumentedCommandWrapper wrapper
+                ? new DbSavingInstrumentedCommandWrapper(derived, wrapper.root)
+                : derived;
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="implements SqlCommandWrapper">
+    @Override
+    @NotNull
+    public Object getInternalCommand() {
+        return this.command.getInternalCommand();
+    }
+
+    @Override
+    public void setStringParam(final int paramIndex, @Nullable final String value) throws SQLException {
+        if (value != null) {
+            this.root.payloadBytes += value.length();
+        }
+        this.command.setStringParam(paramIndex, value);
+    }
+
+    @Override
+    public void setIntegerParam(final int paramIndex, @Nullable final Integer value) throws SQLException {
+        this.command.setIntegerParam(paramIndex, value);
+    }
+
+    @Override
+    public void setLongParam(final int paramIndex, @Nullable final Long value) throws SQLException {
+        this.command.setLongParam(paramIndex, value);
+    }
+
+    @Override
+    public void setNumericParam(final int paramIndex, @Nullable final BigDecimal value) throws SQLException {
+        this.command.setNumericParam(paramIndex, value);
+    }
+
+    @Override
+    public void setBinaryParam(final int paramIndex, final byte[] value) throws SQLException {
+        if (value != null) {
+            this.root.payloadBytes += value.length;
+        }
+        this.command.setBinaryParam(paramIndex, value);
+    }
+
+    @Override
+    public void setBinaryParam(final int paramIndex, final byte[] value, final int offset, final int length) throws SQLException {
+        this.root.payloadBytes += length;
+        this.command.setBinaryParam(paramIndex, value, offset, length);
+    }
+
+    @Override
+    public void setBinaryStreamParam(final int paramIndex, @NotNull final InputStream value, final int length) throws SQLException {
+        this.root.payloadBytes += length;
+        this.command.setBinaryStreamParam(paramIndex, value, length);
+    }
+
+    @Override
+    public void setCharacterStreamParam(final int paramIndex, @NotNull final Reader value) throws SQLException {
+        // Длина потока заранее не известна - считаем прочитанные драйвером символы
+        this.command.setCharacterStreamParam(paramIndex, new FilterReader(value) {
+            @Override
+            public int read() throws IOException {
+                final var result = super.read();
+                if (result >= 0) {
+                    root.payloadBytes++;
+                }
+                return result;
+            }
+
+            @Override
+            public int read(final char[] buffer, final int offset, final int length) throws IOException {
+                final var result = super.read(buffer, offset, length);
+                if (result > 0) {
+                    root.payloadBytes += result;
+                }
+                return result;
+            }
+        });
+    }
+
+    @Override
+    public void executeNoResult() throws SQLException {
+        final var started = System.nanoTime();
+        try {
+            this.command.executeNoResult();
+        } finally {
+            this.root.executionNanos += System.nanoTime() - started;
+        }
+    }
+
+    @Override
+    public ResultWrapper executeWithResult() throws SQLException {
+        final var started = System.nanoTime();
+        try {
+            return this.command.executeWithResult();
+        } finally {
+            this.root.executionNanos += System.nanoTime() - started;
+        }
+    }
+
+    @Override
+    public void addBatch() throws SQLException {
+        this.command.addBatch();
+    }
+
+    @Override
+    public int[] executeBatch() throws SQLException {
+        final var started = System.nanoTime();
+        try {
+            return this.command.executeBatch();
+        } finally {
+            this.root.executionNanos += System.nanoTime() - started;
+        }
+    }
+
+    @Override
+    public void clearBatch() throws SQLException {
+        this.command.clearBatch();
+    }
+
+    @Override
+    public ConnectionWrapper getConnection() {
+        return this.command.getConnection();
+    }
+
+    /**
+     * Исходная команда не закрывается - ею владеет Descriptor.
+     */
+    @Override
+    public void close() throws IOException {
+    }
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+}
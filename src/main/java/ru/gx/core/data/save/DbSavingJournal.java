@@ -0,0 +1,508 @@
+package ru.gx.core.data.save;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.zip.CRC32;
+
+/**
+ * Журнал на диске для данных, которые не удалось сохранить в БД (или которые не помещаются в буфер).
+ * <p>
+ * Журнал состоит из сегментов - файлов фиксированного размера, отображенных в память. Записи только добавляются
+ * в конец последнего сегмента. Формат записи: [длина: int][CRC32: int][данные]; за последней записью всегда
+ * следует int 0. Запись с неверной CRC (например, недописанная при аварийном завершении) считается концом сегмента.
+ * <p>
+ * Позиция чтения (сегмент и смещение) хранится в отдельном файле и обновляется после успешного сохранения
+ * каждой записи ({@link #commit(Record)}), поэтому после перезапуска чтение продолжается с первой несохраненной записи.
+ * Полностью прочитанные сегменты удаляются.
+ * <p>
+ * Один журнал используется одним {@link DbSavingDescriptor}-ом; каталог журнала не должен разделяться
+ * между Descriptor-ами и процессами.
+ */
+@Slf4j
+@SuppressWarnings("unused")
+@Accessors(chain = true)
+public class DbSavingJournal implements Closeable {
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Constants">
+
+    /**
+     * Размер сегмента по умолчанию.
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * Размер заголовка записи: длина и CRC32.
+     */
+    public static final int RECORD_HEADER_SIZE = 8;
+
+    private static final int TERMINATOR_SIZE = 4;
+
+    private static final String SEGMENT_FILE_PREFIX = "segment-";
+
+    private static final String SEGMENT_FILE_SUFFIX = ".journal";
+
+    private static final String POSITION_FILE_NAME = "position";
+
+    private static final int POSITION_SIZE = 12;
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Fields">
+
+    /**
+     * Каталог журнала.
+     */
+    @Getter
+    @NotNull
+    private final Path directory;
+
+    /**
+     * Размер нового сегмента (сегмент для записи большего размера создается по ее размеру).
+     */
+    @Getter
+    private final int segmentSize;
+
+    /**
+     * ObjectMapper для сериализации данных в записи журнала.
+     */
+    @Getter
+    @NotNull
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Сбрасывать ли данные на диск после каждой записи и каждого изменения позиции чтения.
+     */
+    @Getter
+    @Setter
+    private volatile boolean syncOnWrite = true;
+
+    @NotNull
+    private final Deque<Segment> segments = new ArrayDeque<>();
+
+    @NotNull
+    private final FileChannel positionChannel;
+
+    private long readSegmentId;
+
+    private int readOffset;
+
+    /**
+     * Количество непрочитанных записей.
+     */
+    private int recordsCount;
+
+    /**
+     * Объем непрочитанных записей (байт).
+     */
+    private long pendingBytes;
+
+    private boolean closed;
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Initialization">
+
+    public DbSavingJournal(@NotNull final Path directory, @NotNull final ObjectMapper objectMapper) throws IOException {
+        this(directory, objectMapper, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Открытие журнала. Существующие сегменты проверяются, недописанные записи отбрасываются.
+     *
+     * @param directory    каталог журнала (создается при необходимости).
+     * @param objectMapper ObjectMapper для сериализации данных.
+     * @param segmentSize  размер сегмента.
+     */
+    public DbSavingJournal(
+            @NotNull final Path directory,
+            @NotNull final ObjectMapper objectMapper,
+            final int segmentSize
+    ) throws IOException {
+        if (segmentSize < RECORD_HEADER_SIZE + TERMINATOR_SIZE + 1) {
+            throw new IllegalArgumentException("Journal segment size is too small (segmentSize = " + segmentSize + ")");
+        }
+        this.directory = directory;
+        this.objectMapper = objectMapper;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+        this.positionChannel = FileChannel.open(
+                directory.resolve(POSITION_FILE_NAME),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE
+        );
+        try {
+            internalOpen();
+        } catch (IOException | RuntimeException e) {
+            this.positionChannel.close();
+            closeSegments();
+            throw e;
+        }
+    }
+
+    private void internalOpen() throws IOException {
+        final var position = ByteBuffer.allocate(POSITION_SIZE);
+        if (this.positionChannel.read(position, 0) == POSITION_SIZE) {
+            position.flip();
+            this.readSegmentId = position.getLong();
+            this.readOffset = position.getInt();
+        }
+
+        final var segmentIds = new ArrayList<Long>();
+        try (final var files = Files.list(this.directory)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_FILE_PREFIX) && name.endsWith(SEGMENT_FILE_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(SEGMENT_FILE_PREFIX.length(), name.length() - SEGMENT_FILE_SUFFIX.length())))
+                    .sorted()
+                    .forEach(segmentIds::add);
+        }
+
+        for (final var segmentId : segmentIds) {
+            if (segmentId < this.readSegmentId) {
+                // Сегмент прочитан полностью, но не был удален
+                Files.deleteIfExists(segmentPath(segmentId));
+                continue;
+            }
+            final var segment = Segment.open(segmentPath(segmentId), segmentId, 0);
+            this.segments.addLast(segment);
+        }
+
+        if (this.segments.isEmpty() || this.segments.getFirst().id != this.readSegmentId) {
+            this.readSegmentId = this.segments.isEmpty() ? this.readSegmentId : this.segments.getFirst().id;
+            this.readOffset = 0;
+        }
+
+        // Поиск конца записанных данных и подсчет непрочитанных записей
+        for (final var segment : this.segments) {
+            var offset = 0;
+            if (segment.id == this.readSegmentId) {
+                // Записи до позиции чтения уже сохранены - проверяем только структуру
+                while (offset < this.readOffset) {
+                    final var length = segment.validRecordLength(offset);
+                    if (length < 0) {
+                        break;
+                    }
+                    offset += RECORD_HEADER_SIZE + length;
+                }
+                if (offset != this.readOffset) {
+                    log.warn("Journal {}: read position {} of segment {} doesn't match records, journal tail is discarded",
+                            this.directory, this.readOffset, segment.id);
+                    this.readOffset = offset;
+                }
+            }
+            while (true) {
+                final var length = segment.validRecordLength(offset);
+                if (length < 0) {
+                    break;
+                }
+                this.recordsCount++;
+                this.pendingBytes += length;
+                offset += RECORD_HEADER_SIZE + length;
+            }
+            segment.writePosition = offset;
+            segment.terminate();
+        }
+        internalPersistPosition();
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Writing">
+
+    /**
+     * Добавление записи в конец журнала.
+     *
+     * @param payload данные записи.
+     * @return идентификатор записи (см. {@link Record#id()}).
+     */
+    public synchronized long append(final byte[] payload) throws IOException {
+        checkNotClosed();
+        if (payload.length == 0) {
+            throw new IllegalArgumentException("Journal record can't be empty");
+        }
+        final var required = RECORD_HEADER_SIZE + payload.length + TERMINATOR_SIZE;
+        var segment = this.segments.peekLast();
+        if (segment == null || segment.writePosition + required > segment.capacity) {
+            final var segmentId = segment == null ? this.readSegmentId : segment.id + 1;
+            segment = Segment.open(segmentPath(segmentId), segmentId, Math.max(this.segmentSize, required));
+            segment.terminate();
+            if (this.segments.isEmpty()) {
+                this.readSegmentId = segmentId;
+                this.readOffset = 0;
+            }
+            this.segments.addLast(segment);
+        }
+        final var offset = segment.writePosition;
+        segment.write(offset, payload);
+        if (isSyncOnWrite()) {
+            // Сбрасывается только область новой записи (с признаком конца данных после нее)
+            segment.buffer.force(offset, Math.min(required, segment.capacity - offset));
+        }
+        this.recordsCount++;
+        this.pendingBytes += payload.length;
+        return recordId(segment.id, offset);
+    }
+
+    /**
+     * Сериализация значения {@link #getObjectMapper()}-ом и добавление записи в конец журнала.
+     *
+     * @return идентификатор записи.
+     */
+    public long appendValue(@NotNull final Object value) throws IOException {
+        return append(this.objectMapper.writeValueAsBytes(value));
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Reading">
+
+    /**
+     * @return первая непрочитанная запись или null, если журнал пуст.
+     */
+    @Nullable
+    public synchronized Record peek() throws IOException {
+        checkNotClosed();
+        while (true) {
+            final var segment = this.segments.peekFirst();
+            if (segment == null) {
+                return null;
+            }
+            final var length = segment.validRecordLength(this.readOffset);
+            if (length >= 0) {
+                final var payload = new byte[length];
+                segment.buffer.get(this.readOffset + RECORD_HEADER_SIZE, payload);
+                return new Record(recordId(segment.id, this.readOffset), payload);
+            }
+            if (segment == this.segments.peekLast()) {
+                return null;
+            }
+            // Сегмент прочитан полностью - переходим к следующему
+            this.segments.removeFirst();
+            this.readSegmentId = this.segments.getFirst().id;
+            this.readOffset = 0;
+            internalPersistPosition();
+            segment.delete();
+        }
+    }
+
+    /**
+     * Подтверждение обработки (сохранения в БД) записи, полученной {@link #peek()}.
+     */
+    public synchronized void commit(@NotNull final Record record) throws IOException {
+        checkNotClosed();
+        if (record.id() != recordId(this.readSegmentId, this.readOffset)) {
+            throw new IllegalStateException("Journal record " + record.id() + " is not the first unread record");
+        }
+        this.readOffset += RECORD_HEADER_SIZE + record.payload().length;
+        this.recordsCount--;
+        this.pendingBytes -= record.payload().length;
+        final var segment = this.segments.getFirst();
+        if (this.recordsCount == 0 && segment == this.segments.peekLast()) {
+            // Журнал пуст - сегмент используется повторно с начала
+            segment.writePosition = 0;
+            segment.terminate();
+            this.readOffset = 0;
+        }
+        internalPersistPosition();
+    }
+
+    /**
+     * Чтение данных записи {@link #getObjectMapper()}-ом.
+     */
+    @NotNull
+    public <T> T readValue(@NotNull final Record record, @NotNull final JavaType valueType) throws IOException {
+        return this.objectMapper.readValue(record.payload(), valueType);
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="State">
+
+    public synchronized boolean isEmpty() {
+        return this.recordsCount == 0;
+    }
+
+    /**
+     * @return Количество непрочитанных записей.
+     */
+    public synchronized int getRecordsCount() {
+        return this.recordsCount;
+    }
+
+    /**
+     * @return Объем данных непрочитанных записей (байт).
+     */
+    public synchronized long getPendingBytes() {
+        return this.pendingBytes;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        try {
+            for (final var segment : this.segments) {
+                segment.buffer.force();
+            }
+        } finally {
+            closeSegments();
+            this.positionChannel.close();
+        }
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Internal">
+
+    private void checkNotClosed() {
+        if (this.closed) {
+            throw new IllegalStateException("Journal " + this.directory + " is closed");
+        }
+    }
+
+    private void closeSegments() {
+        for (final var segment : this.segments) {
+            try {
+                segment.channel.close();
+            } catch (IOException e) {
+                log.warn("Error on closing journal segment " + segment.path, e);
+            }
+        }
+    }
+
+    private void internalPersistPosition() throws IOException {
+        final var position = ByteBuffer.allocate(POSITION_SIZE);
+        position.putLong(this.readSegmentId).putInt(this.readOffset).flip();
+        this.positionChannel.write(position, 0);
+        if (isSyncOnWrite()) {
+            this.positionChannel.force(false);
+        }
+    }
+
+    @NotNull
+    private Path segmentPath(final long segmentId) {
+        return this.directory.resolve(String.format("%s%020d%s", SEGMENT_FILE_PREFIX, segmentId, SEGMENT_FILE_SUFFIX));
+    }
+
+    private static long recordId(final long segmentId, final int offset) {
+        return (segmentId << 32) | (offset & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Запись журнала.
+     *
+     * @param id      идентификатор записи (сегмент и смещение), уникален в пределах журнала.
+     * @param payload данные записи.
+     */
+    public record Record(long id, byte @NotNull [] payload) {
+    }
+
+    private static class Segment {
+        private final long id;
+
+        @NotNull
+        private final Path path;
+
+        @NotNull
+        private final FileChannel channel;
+
+        @NotNull
+        private final MappedByteBuffer buffer;
+
+        private final int capacity;
+
+        private int writePosition;
+
+        private Segment(final long id, @NotNull final Path path, @NotNull final FileChannel channel, final int capacity) throws IOException {
+            this.id = id;
+            this.path = path;
+            this.channel = channel;
+            this.capacity = capacity;
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        }
+
+        /**
+         * Открытие сегмента (существующего - с его размером, нового - размером minCapacity).
+         */
+        @NotNull
+        private static Segment open(@NotNull final Path path, final long id, final int minCapacity) throws IOException {
+            final var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                final var capacity = (int) Math.max(channel.size(), minCapacity);
+                return new Segment(id, path, channel, capacity);
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        /**
+         * @return Длина данных корректной записи по смещению или -1, если записи нет (конец данных или запись повреждена).
+         */
+        private int validRecordLength(final int offset) {
+            if (offset + RECORD_HEADER_SIZE > this.capacity) {
+                return -1;
+            }
+            final var length = this.buffer.getInt(offset);
+            if (length <= 0 || (long) offset + RECORD_HEADER_SIZE + length > this.capacity) {
+                return -1;
+            }
+            final var crc = new CRC32();
+            crc.update(this.buffer.slice(offset + RECORD_HEADER_SIZE, length));
+            if ((int) crc.getValue() != this.buffer.getInt(offset + 4)) {
+                return -1;
+            }
+            return length;
+        }
+
+        private void write(final int offset, final byte[] payload) {
+            final var crc = new CRC32();
+            crc.update(payload);
+            // Сначала признак конца данных после записи, затем данные, затем длина - запись становится
+            // видимой для чтения только целиком
+            final var end = offset + RECORD_HEADER_SIZE + payload.length;
+            if (end + TERMINATOR_SIZE <= this.capacity) {
+                this.buffer.putInt(end, 0);
+            }
+            this.buffer.put(offset + RECORD_HEADER_SIZE, payload);
+            this.buffer.putInt(offset + 4, (int) crc.getValue());
+            this.buffer.putInt(offset, payload.length);
+            this.writePosition = end;
+        }
+
+        private void terminate() {
+            if (this.writePosition + TERMINATOR_SIZE <= this.capacity) {
+                this.buffer.putInt(this.writePosition, 0);
+            }
+        }
+
+        private void delete() {
+            try {
+                this.channel.close();
+                Files.deleteIfExists(this.path);
+            } catch (IOException e) {
+                log.warn("Error on deleting journal segment " + this.path, e);
+            }
+        }
+    }
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+}
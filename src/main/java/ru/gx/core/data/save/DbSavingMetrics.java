@@ -0,0 +1,154 @@
+package ru.gx.core.data.save;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+
+import static lombok.AccessLevel.PROTECTED;
+
+/**
+ * Метрики процесса сохранения данных в БД в рамках одной конфигурации {@link AbstractDbSavingConfiguration}.
+ */
+@SuppressWarnings("unused")
+public class DbSavingMetrics {
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Constants">
+
+    /**
+     * Время ожидания разрешения на сохранение (ограничение количества одновременных сохранений в конфигурации).
+     */
+    public static final String METRIC_FLUSH_PERMIT_WAIT = "db.saving.flush.permit.wait";
+
+    /**
+     * Количество свободных разрешений на сохранение в конфигурации.
+     */
+    public static final String METRIC_FLUSH_PERMITS_AVAILABLE = "db.saving.flush.permits.available";
+
+    /**
+     * Текущий размер пачки, выбранный {@link DbSavingAdaptiveController}.
+     */
+    public static final String METRIC_ADAPTIVE_BUFFER_LIMIT = "db.saving.adaptive.buffer.limit";
+
+    /**
+     * Текущее время накопления (мс), выбранное {@link DbSavingAdaptiveController}.
+     */
+    public static final String METRIC_ADAPTIVE_BUFFER_FOR_MS = "db.saving.adaptive.buffer.for.ms";
+
+    /**
+     * Длительность последнего сохранения (мс), измеренная {@link DbSavingAdaptiveController}.
+     */
+    public static final String METRIC_ADAPTIVE_LAST_FLUSH_MS = "db.saving.adaptive.last.flush.ms";
+
+    /**
+     * Состояние {@link DbSavingCircuitBreaker}-а конфигурации: 0 - Closed, 1 - Open, 2 - HalfOpen.
+     */
+    public static final String METRIC_CIRCUIT_BREAKER_STATE = "db.saving.circuit.breaker.state";
+
+    public static final String TAG_CONFIGURATION = "configuration";
+
+    public static final String TAG_CHANNEL = "channel";
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Fields">
+
+    @Getter(PROTECTED)
+    @NotNull
+    private final MeterRegistry meterRegistry;
+
+    @Getter
+    @NotNull
+    private final String configurationName;
+
+    @NotNull
+    private final Timer flushPermitWaitTimer;
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Initialization">
+    public DbSavingMetrics(
+            @NotNull final MeterRegistry meterRegistry,
+            @NotNull final String configurationName
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.configurationName = configurationName;
+        this.flushPermitWaitTimer = Timer.builder(METRIC_FLUSH_PERMIT_WAIT)
+                .description("Time spent by flushes waiting for a permit of the saving configuration")
+                .tag(TAG_CONFIGURATION, configurationName)
+                .register(meterRegistry);
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Registration">
+
+    public void registerFlushPermitsGauge(@NotNull final AbstractDbSavingConfiguration configuration) {
+        Gauge.builder(METRIC_FLUSH_PERMITS_AVAILABLE, configuration, c -> c.getFlushPermits().availablePermits())
+                .description("Count of free flush permits of the saving configuration")
+                .tag(TAG_CONFIGURATION, getConfigurationName())
+                .register(getMeterRegistry());
+    }
+
+    /**
+     * Регистрация метрики состояния {@link DbSavingCircuitBreaker}-а конфигурации.
+     */
+    public void registerCircuitBreakerGauge(@NotNull final AbstractDbSavingConfiguration configuration) {
+        Gauge.builder(METRIC_CIRCUIT_BREAKER_STATE, configuration, c -> {
+                    final var circuitBreaker = c.getCircuitBreaker();
+                    return circuitBreaker == null ? 0 : circuitBreaker.getState().ordinal();
+                })
+                .description("State of the circuit breaker of the saving configuration (0 - closed, 1 - open, 2 - half-open)")
+                .tag(TAG_CONFIGURATION, getConfigurationName())
+                .register(getMeterRegistry());
+    }
+
+    /**
+     * Регистрация метрик текущих решений {@link DbSavingAdaptiveController}-а Descriptor-а.
+     */
+    public void registerAdaptiveControllerGauges(
+            @NotNull final String channelName,
+            @NotNull final DbSavingAdaptiveController controller
+    ) {
+        Gauge.builder(METRIC_ADAPTIVE_BUFFER_LIMIT, controller, DbSavingAdaptiveController::getBufferLimit)
+                .description("Buffer limit chosen by the adaptive controller")
+                .tag(TAG_CONFIGURATION, getConfigurationName())
+                .tag(TAG_CHANNEL, channelName)
+                .register(getMeterRegistry());
+        Gauge.builder(METRIC_ADAPTIVE_BUFFER_FOR_MS, controller, DbSavingAdaptiveController::getBufferForMs)
+                .description("Buffering time (ms) chosen by the adaptive controller")
+                .tag(TAG_CONFIGURATION, getConfigurationName())
+                .tag(TAG_CHANNEL, channelName)
+                .register(getMeterRegistry());
+        Gauge.builder(METRIC_ADAPTIVE_LAST_FLUSH_MS, controller, DbSavingAdaptiveController::getLastFlushMs)
+                .description("Duration (ms) of the last flush measured by the adaptive controller")
+                .tag(TAG_CONFIGURATION, getConfigurationName())
+                .tag(TAG_CHANNEL, channelName)
+                .register(getMeterRegistry());
+    }
+
+    /**
+     * Регистрация метрик Descriptor-а (см. {@link DbSavingDescriptorMetrics}).
+     */
+    @NotNull
+    public DbSavingDescriptorMetrics registerDescriptorMetrics(@NotNull final DbSavingDescriptor descriptor) {
+        return new DbSavingDescriptorMetrics(getMeterRegistry(), getConfigurationName(), descriptor);
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Recording">
+
+    /**
+     * @param waitNanos время ожидания разрешения на сохранение в наносекундах.
+     */
+    public void recordFlushPermitWait(final long waitNanos) {
+        this.flushPermitWaitTimer.record(waitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+}
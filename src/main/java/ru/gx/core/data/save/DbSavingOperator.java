@@ -10,10 +10,10 @@ import javax.activation.UnsupportedDataTypeException;
 import java.sql.SQLException;
 
 /**
- * Интерфейс оператора сохранения данных в БД.
+ * Интерфейс оператора сохранения данных в БД через подготовленную команду.
  */
 @SuppressWarnings("unused")
-public interface DbSavingOperator {
+public interface DbSavingOperator extends DbSavingBaseOperator {
     /**
      * Подготовка оператора к работе
      *
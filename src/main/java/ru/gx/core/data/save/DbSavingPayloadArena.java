@@ -0,0 +1,248 @@
+package ru.gx.core.data.save;
+
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Хранилище сериализованных данных вне heap-а (direct memory).
+ * <p>
+ * Память выделяется блоками ({@link #getChunkSize()}); данные размещаются в текущем блоке последовательно.
+ * Каждый размещенный фрагмент ({@link Slice}) освобождается методом {@link Slice#release()} после сохранения;
+ * блок, все фрагменты которого освобождены, возвращается в пул (не более {@link #getMaxPooledChunks()} блоков)
+ * и используется повторно.
+ * <p>
+ * Размещение выполняется из потоков-производителей, чтение и освобождение - потоком сохранения;
+ * размещение и освобождение синхронизированы.
+ */
+@SuppressWarnings("unused")
+public class DbSavingPayloadArena {
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Constants">
+
+    /**
+     * Размер блока по умолчанию.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1024 * 1024;
+
+    /**
+     * Количество свободных блоков, сохраняемых для повторного использования, по умолчанию.
+     */
+    public static final int DEFAULT_MAX_POOLED_CHUNKS = 8;
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Fields">
+
+    /**
+     * Размер блока. Фрагмент большего размера размещается в отдельном блоке, который не возвращается в пул.
+     */
+    @Getter
+    private final int chunkSize;
+
+    /**
+     * Максимальное количество свободных блоков в пуле.
+     */
+    @Getter
+    private final int maxPooledChunks;
+
+    @NotNull
+    private final Deque<ByteBuffer> pool = new ArrayDeque<>();
+
+    @Nullable
+    private Chunk currentChunk;
+
+    @NotNull
+    private final AtomicLong allocatedBytes = new AtomicLong();
+
+    @NotNull
+    private final AtomicLong usedBytes = new AtomicLong();
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Initialization">
+
+    public DbSavingPayloadArena() {
+        this(DEFAULT_CHUNK_SIZE, DEFAULT_MAX_POOLED_CHUNKS);
+    }
+
+    public DbSavingPayloadArena(final int chunkSize, final int maxPooledChunks) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Arena chunk size must be positive (chunkSize = " + chunkSize + ")");
+        }
+        this.chunkSize = chunkSize;
+        this.maxPooledChunks = Math.max(0, maxPooledChunks);
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Allocation">
+
+    /**
+     * Размещение содержимого буфера сериализации.
+     */
+    @NotNull
+    public Slice allocate(@NotNull final DbSavingSerializationBuffer buffer) {
+        return allocate(buffer.getBufferArray(), 0, buffer.size());
+    }
+
+    /**
+     * Размещение фрагмента массива.
+     *
+     * @return размещенный фрагмент; после использования освобождается {@link Slice#release()}.
+     */
+    @NotNull
+    public synchronized Slice allocate(final byte[] source, final int offset, final int length) {
+        var chunk = this.currentChunk;
+        if (chunk == null || chunk.position + length > chunk.memory.capacity()) {
+            final var filled = chunk;
+            chunk = new Chunk(internalTakeMemory(Math.max(length, this.chunkSize)));
+            // Заполненный блок перестает быть текущим до проверки ссылок, иначе он не вернется в пул
+            this.currentChunk = chunk;
+            if (filled != null && filled.references == 0) {
+                internalRecycle(filled);
+            }
+        }
+        final var sliceOffset = chunk.position;
+        chunk.memory.put(sliceOffset, source, offset, length);
+        chunk.position += length;
+        chunk.references++;
+        this.usedBytes.addAndGet(length);
+        return new Slice(chunk, sliceOffset, length);
+    }
+
+    @NotNull
+    private ByteBuffer internalTakeMemory(final int capacity) {
+        if (capacity == this.chunkSize) {
+            final var pooled = this.pool.pollFirst();
+            if (pooled != null) {
+                return pooled;
+            }
+        }
+        this.allocatedBytes.addAndGet(capacity);
+        return ByteBuffer.allocateDirect(capacity);
+    }
+
+    private synchronized void internalRelease(@NotNull final Chunk chunk) {
+        // Ссылки изменяются только под блокировкой размещения: иначе текущий блок мог бы быть
+        // использован с начала, пока производитель размещает в нем новый фрагмент
+        if (--chunk.references > 0) {
+            return;
+        }
+        if (chunk == this.currentChunk) {
+            // Все фрагменты текущего блока освобождены - блок используется с начала
+            chunk.position = 0;
+            return;
+        }
+        internalRecycle(chunk);
+    }
+
+    private void internalRecycle(@NotNull final Chunk chunk) {
+        if (chunk.memory.capacity() == this.chunkSize && this.pool.size() < this.maxPooledChunks) {
+            this.pool.addLast(chunk.memory);
+        } else {
+            // Память освобождается сборщиком мусора
+            this.allocatedBytes.addAndGet(-chunk.memory.capacity());
+        }
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="State">
+
+    /**
+     * @return Объем выделенной direct memory (байт), включая свободные блоки пула.
+     */
+    public long getAllocatedBytes() {
+        return this.allocatedBytes.get();
+    }
+
+    /**
+     * @return Объем размещенных и еще не освобожденных данных (байт).
+     */
+    public long getUsedBytes() {
+        return this.usedBytes.get();
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Chunk & Slice">
+
+    private final class Chunk {
+        @NotNull
+        private final ByteBuffer memory;
+
+        /**
+         * Количество неосвобожденных фрагментов блока. Изменяется под блокировкой arena.
+         */
+        private int references;
+
+        private int position;
+
+        private Chunk(@NotNull final ByteBuffer memory) {
+            this.memory = memory;
+        }
+    }
+
+    /**
+     * Фрагмент сериализованных данных, размещенный в {@link DbSavingPayloadArena}.
+     */
+    public final class Slice {
+        @NotNull
+        private final Chunk chunk;
+
+        private final int offset;
+
+        /**
+         * Размер данных (байт).
+         */
+        @Getter
+        private final int length;
+
+        @NotNull
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Slice(@NotNull final Chunk chunk, final int offset, final int length) {
+            this.chunk = chunk;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        /**
+         * Копирование данных фрагмента в конец буфера сериализации.
+         */
+        public void writeTo(@NotNull final DbSavingSerializationBuffer buffer) {
+            if (this.released.get()) {
+                throw new IllegalStateException("Arena slice is already released");
+            }
+            buffer.write(this.chunk.memory, this.offset, this.length);
+        }
+
+        /**
+         * @return Копия данных фрагмента.
+         */
+        public byte[] toByteArray() {
+            final var result = new byte[this.length];
+            this.chunk.memory.get(this.offset, result, 0, this.length);
+            return result;
+        }
+
+        /**
+         * Освобождение фрагмента. Повторный вызов игнорируется.
+         */
+        public void release() {
+            if (this.released.compareAndSet(false, true)) {
+                usedBytes.addAndGet(-this.length);
+                internalRelease(this.chunk);
+            }
+        }
+    }
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+}
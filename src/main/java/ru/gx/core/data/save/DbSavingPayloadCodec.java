@@ -0,0 +1,150 @@
+package ru.gx.core.data.save;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Кодирование сжатых данных.
+ * <p>
+ * Формат: [{@link #MAGIC}][код способа сжатия][данные]. Коды: 0 - данные не сжаты (размер меньше порога),
+ * 1 - {@link DbSavingCompression#Deflate}. Для чтения данных из БД используется {@link #decode(byte[])}.
+ * <p>
+ * Компрессоры (Deflater) и буферы результата берутся из ограниченных пулов и используются повторно;
+ * компрессоры, не поместившиеся в пул, освобождаются ({@link Deflater#end()}) сразу.
+ */
+@SuppressWarnings("unused")
+public final class DbSavingPayloadCodec {
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Constants">
+
+    /**
+     * Первый байт заголовка.
+     */
+    public static final byte MAGIC = (byte) 0xC7;
+
+    /**
+     * Размер заголовка.
+     */
+    public static final int HEADER_SIZE = 2;
+
+    public static final byte CODEC_NONE = 0;
+
+    public static final byte CODEC_DEFLATE = 1;
+
+    private static final int STREAM_BUFFER_SIZE = 8 * 1024;
+
+    /**
+     * Максимальное количество свободных компрессоров в пуле.
+     */
+    public static final int MAX_POOLED_DEFLATERS = Math.max(4, Runtime.getRuntime().availableProcessors());
+
+    private static final Queue<Deflater> DEFLATERS_POOL = new ArrayBlockingQueue<>(MAX_POOLED_DEFLATERS);
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Initialization">
+    private DbSavingPayloadCodec() {
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Encoding">
+
+    /**
+     * Кодирование содержимого буфера в буфер из пула {@link DbSavingSerializationBuffer#acquire()}.
+     *
+     * @param source      сериализованные данные.
+     * @param compression способ сжатия (не {@link DbSavingCompression#None}).
+     * @param threshold   минимальный размер данных (байт), начиная с которого данные сжимаются.
+     * @param level       уровень сжатия Deflate (0-9).
+     * @return буфер с закодированными данными; после использования возвращается {@link DbSavingSerializationBuffer#release()}.
+     */
+    @NotNull
+    public static DbSavingSerializationBuffer encode(
+            @NotNull final DbSavingSerializationBuffer source,
+            @NotNull final DbSavingCompression compression,
+            final int threshold,
+            final int level
+    ) {
+        final var result = DbSavingSerializationBuffer.acquire();
+        result.write(MAGIC);
+        if (compression == DbSavingCompression.None || source.size() < threshold) {
+            result.write(CODEC_NONE);
+            result.write(source.getBufferArray(), 0, source.size());
+            return result;
+        }
+        result.write(CODEC_DEFLATE);
+        var deflater = DEFLATERS_POOL.poll();
+        if (deflater == null) {
+            deflater = new Deflater(Deflater.BEST_SPEED);
+        }
+        try {
+            deflater.setLevel(level);
+            // Deflater передан явно - close() не освобождает его
+            final var output = new DeflaterOutputStream(result, deflater, STREAM_BUFFER_SIZE);
+            output.write(source.getBufferArray(), 0, source.size());
+            output.finish();
+        } catch (IOException e) {
+            result.release();
+            // Запись в буфер в памяти не приводит к ошибкам ввода-вывода
+            throw new UncheckedIOException(e);
+        } finally {
+            deflater.reset();
+            if (!DEFLATERS_POOL.offer(deflater)) {
+                deflater.end();
+            }
+        }
+        return result;
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Decoding">
+
+    /**
+     * @return true - данные начинаются с заголовка {@link DbSavingPayloadCodec}.
+     */
+    public static boolean isEncoded(final byte[] payload) {
+        return payload.length >= HEADER_SIZE
+                && payload[0] == MAGIC
+                && (payload[1] == CODEC_NONE || payload[1] == CODEC_DEFLATE);
+    }
+
+    /**
+     * Декодирование данных, сформированных {@link #encode}. Данные без заголовка возвращаются как есть.
+     *
+     * @return сериализованные данные.
+     */
+    public static byte[] decode(final byte[] payload) throws IOException {
+        if (!isEncoded(payload)) {
+            return payload;
+        }
+        if (payload[1] == CODEC_NONE) {
+            return Arrays.copyOfRange(payload, HEADER_SIZE, payload.length);
+        }
+        final var inflater = new Inflater();
+        try (final var input = new InflaterInputStream(
+                new ByteArrayInputStream(payload, HEADER_SIZE, payload.length - HEADER_SIZE), inflater, STREAM_BUFFER_SIZE)
+        ) {
+            final var result = new ByteArrayOutputStream(Math.max(STREAM_BUFFER_SIZE, payload.length * 4));
+            input.transferTo(result);
+            return result.toByteArray();
+        } finally {
+            inflater.end();
+        }
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+}
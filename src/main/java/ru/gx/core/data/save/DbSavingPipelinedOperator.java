@@ -0,0 +1,48 @@
+package ru.gx.core.data.save;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.jetbrains.annotations.NotNull;
+import ru.gx.core.data.sqlwrapping.SqlCommandWrapper;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Оператор сохранения, поддерживающий сохранение списка (режимы ListOf...) частями с разделением
+ * сериализации и выполнения команды.
+ * <p>
+ * {@link DbSavingDescriptor} с заданными {@link DbSavingDescriptor#getFlushChunkRows()} /
+ * {@link DbSavingDescriptor#getFlushChunkBytes()} сериализует следующую часть, пока в БД выполняется текущая.
+ */
+@SuppressWarnings("unused")
+public interface DbSavingPipelinedOperator extends DbSavingOperator {
+    /**
+     * Сериализация части списка в буфер (в том же представлении, что и весь список).
+     * Метод может вызываться не из потока сохранения.
+     *
+     * @param buffer         пустой буфер.
+     * @param items          элементы буфера Descriptor-а.
+     * @param fromIndex      индекс первого элемента части.
+     * @param maxRows        максимальное количество элементов в части.
+     * @param maxBytes       размер (байт), по достижении которого часть завершается (0 - без ограничения).
+     *                       В часть всегда входит хотя бы один элемент.
+     * @param accumulateMode режим накопления данных.
+     * @return индекс первого элемента, не вошедшего в часть.
+     */
+    int serializeChunk(
+            @NotNull final DbSavingSerializationBuffer buffer,
+            @NotNull final List<?> items,
+            final int fromIndex,
+            final int maxRows,
+            final long maxBytes,
+            @NotNull final DbSavingAccumulateMode accumulateMode
+    ) throws JsonProcessingException;
+
+    /**
+     * Выполнение команды с частью, сериализованной {@link #serializeChunk}.
+     */
+    void executeChunk(
+            @NotNull final SqlCommandWrapper statement,
+            @NotNull final DbSavingSerializationBuffer buffer
+    ) throws SQLException;
+}
@@ -0,0 +1,124 @@
+package ru.gx.core.data.save;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import ru.gx.core.channels.ChannelConfigurationException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.SQLException;
+
+/**
+ * Доступ к свойствам объектов для операторов, сохраняющих свойства по отдельности
+ * ({@link AbstractColumnsDbSavingOperator}, {@link DbSavingCsvCopyOperator}).
+ * <p>
+ * Доступ подготавливается через {@link MethodHandle} один раз, без рефлексии при каждом чтении.
+ */
+@SuppressWarnings("unused")
+public final class DbSavingPropertyAccessors {
+    /**
+     * Тип подготовленного доступа к свойству: (Object)Object.
+     */
+    public static final MethodType ACCESSOR_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private DbSavingPropertyAccessors() {
+    }
+
+    /**
+     * Поиск доступа к свойству: getter (getXxx(), isXxx(), xxx()) или поле.
+     *
+     * @return MethodHandle вида (objectClass)propertyType или null, если свойство не найдено.
+     */
+    @Nullable
+    public static MethodHandle findAccessor(@NotNull final Class<?> objectClass, @NotNull final String propertyName) {
+        final var capitalized = Character.toUpperCase(propertyName.charAt(0)) + propertyName.substring(1);
+        final var lookup = MethodHandles.lookup();
+        try {
+            for (final var methodName : new String[]{"get" + capitalized, "is" + capitalized, propertyName}) {
+                final var method = findGetter(objectClass, methodName);
+                if (method != null) {
+                    return lookup.unreflect(method);
+                }
+            }
+            final var field = findField(objectClass, propertyName);
+            if (field != null) {
+                return lookup.unreflectGetter(field);
+            }
+        } catch (IllegalAccessException e) {
+            throw new ChannelConfigurationException("Property " + propertyName + " of class " + objectClass.getName()
+                    + " is not accessible: " + e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Поиск доступа к свойству с проверкой наличия.
+     *
+     * @return MethodHandle вида (objectClass)propertyType.
+     */
+    @NotNull
+    public static MethodHandle getAccessor(@NotNull final Class<?> objectClass, @NotNull final String propertyName) {
+        final var result = findAccessor(objectClass, propertyName);
+        if (result == null) {
+            throw new ChannelConfigurationException("Class " + objectClass.getName()
+                    + " doesn't have readable property " + propertyName + "!");
+        }
+        return result;
+    }
+
+    /**
+     * Чтение свойства через доступ вида {@link #ACCESSOR_TYPE}.
+     */
+    @Nullable
+    public static Object readProperty(
+            @NotNull final MethodHandle accessor,
+            @NotNull final String propertyName,
+            @NotNull final Object object
+    ) throws SQLException {
+        try {
+            return accessor.invokeExact(object);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new SQLException("Error on reading property " + propertyName + " of " + object.getClass().getName(), e);
+        }
+    }
+
+    @Nullable
+    private static Method findGetter(@NotNull final Class<?> objectClass, @NotNull final String methodName) {
+        for (var current = objectClass; current != null && current != Object.class; current = current.getSuperclass()) {
+            try {
+                final var method = current.getDeclaredMethod(methodName);
+                if (Modifier.isStatic(method.getModifiers()) || method.getReturnType() == void.class) {
+                    return null;
+                }
+                method.trySetAccessible();
+                return method;
+            } catch (NoSuchMethodException e) {
+                // Ищем в родительском классе
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    private static Field findField(@NotNull final Class<?> objectClass, @NotNull final String fieldName) {
+        for (var current = objectClass; current != null && current != Object.class; current = current.getSuperclass()) {
+            try {
+                final var field = current.getDeclaredField(fieldName);
+                if (Modifier.isStatic(field.getModifiers())) {
+                    return null;
+                }
+                field.trySetAccessible();
+                return field;
+            } catch (NoSuchFieldException e) {
+                // Ищем в родительском классе
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,153 @@
+package ru.gx.core.data.save;
+
+import lombok.Getter;
+import lombok.experimental.Accessors;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Политика повтора сохранения после ошибок.
+ * <ul>
+ *     <li>Пауза перед повтором растет экспоненциально: {@link #getInitialDelayMs()} * {@link #getMultiplier()}^(n-1),
+ *     но не больше {@link #getMaxDelayMs()}, где n - количество ошибок подряд у Descriptor-а.</li>
+ *     <li>Пауза случайно отклоняется на ±{@link #getJitter()}, чтобы Descriptor-ы не обращались к БД одновременно.</li>
+ *     <li>После {@link #getCircuitBreakerFailureThreshold()} временных ошибок подряд в рамках конфигурации
+ *     сохранения всех Descriptor-ов конфигурации приостанавливаются на {@link #getCircuitBreakerOpenMs()},
+ *     после чего выполняется одно пробное сохранение (см. {@link DbSavingCircuitBreaker}).</li>
+ * </ul>
+ * Задается в {@link DbSavingDescriptorsDefaults#setRetryPolicy(DbSavingRetryPolicy)}; без политики используется
+ * фиксированная пауза retryAfterErrorForMs.
+ */
+@SuppressWarnings("unused")
+@Getter
+@Accessors(chain = true)
+public class DbSavingRetryPolicy {
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Constants">
+    public static final long DEFAULT_INITIAL_DELAY_MS = 500;
+
+    public static final long DEFAULT_MAX_DELAY_MS = 60000;
+
+    public static final double DEFAULT_MULTIPLIER = 2.0;
+
+    public static final double DEFAULT_JITTER = 0.2;
+
+    public static final int DEFAULT_CIRCUIT_BREAKER_FAILURE_THRESHOLD = 5;
+
+    public static final long DEFAULT_CIRCUIT_BREAKER_OPEN_MS = 30000;
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Fields">
+
+    /**
+     * Пауза после первой ошибки (мс).
+     */
+    private long initialDelayMs = DEFAULT_INITIAL_DELAY_MS;
+
+    /**
+     * Максимальная пауза (мс).
+     */
+    private long maxDelayMs = DEFAULT_MAX_DELAY_MS;
+
+    /**
+     * Множитель паузы после каждой следующей ошибки.
+     */
+    private double multiplier = DEFAULT_MULTIPLIER;
+
+    /**
+     * Доля случайного отклонения паузы (0 - без отклонения).
+     */
+    private double jitter = DEFAULT_JITTER;
+
+    /**
+     * Количество временных ошибок подряд в конфигурации, после которого сохранения приостанавливаются (0 - не приостанавливаются).
+     */
+    private int circuitBreakerFailureThreshold = DEFAULT_CIRCUIT_BREAKER_FAILURE_THRESHOLD;
+
+    /**
+     * Время (мс), на которое приостанавливаются сохранения конфигурации.
+     */
+    private long circuitBreakerOpenMs = DEFAULT_CIRCUIT_BREAKER_OPEN_MS;
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Setters">
+
+    @NotNull
+    public DbSavingRetryPolicy setInitialDelayMs(final long initialDelayMs) {
+        if (initialDelayMs <= 0) {
+            throw new IllegalArgumentException("initialDelayMs must be positive (initialDelayMs = " + initialDelayMs + ")");
+        }
+        this.initialDelayMs = initialDelayMs;
+        return this;
+    }
+
+    @NotNull
+    public DbSavingRetryPolicy setMaxDelayMs(final long maxDelayMs) {
+        if (maxDelayMs <= 0) {
+            throw new IllegalArgumentException("maxDelayMs must be positive (maxDelayMs = " + maxDelayMs + ")");
+        }
+        this.maxDelayMs = maxDelayMs;
+        return this;
+    }
+
+    @NotNull
+    public DbSavingRetryPolicy setMultiplier(final double multiplier) {
+        if (multiplier < 1) {
+            throw new IllegalArgumentException("multiplier can't be less than 1 (multiplier = " + multiplier + ")");
+        }
+        this.multiplier = multiplier;
+        return this;
+    }
+
+    @NotNull
+    public DbSavingRetryPolicy setJitter(final double jitter) {
+        if (jitter < 0 || jitter >= 1) {
+            throw new IllegalArgumentException("jitter must be in [0, 1) (jitter = " + jitter + ")");
+        }
+        this.jitter = jitter;
+        return this;
+    }
+
+    @NotNull
+    public DbSavingRetryPolicy setCircuitBreakerFailureThreshold(final int circuitBreakerFailureThreshold) {
+        if (circuitBreakerFailureThreshold < 0) {
+            throw new IllegalArgumentException("circuitBreakerFailureThreshold can't be negative (circuitBreakerFailureThreshold = "
+                    + circuitBreakerFailureThreshold + ")");
+        }
+        this.circuitBreakerFailureThreshold = circuitBreakerFailureThreshold;
+        return this;
+    }
+
+    @NotNull
+    public DbSavingRetryPolicy setCircuitBreakerOpenMs(final long circuitBreakerOpenMs) {
+        if (circuitBreakerOpenMs <= 0) {
+            throw new IllegalArgumentException("circuitBreakerOpenMs must be positive (circuitBreakerOpenMs = " + circuitBreakerOpenMs + ")");
+        }
+        this.circuitBreakerOpenMs = circuitBreakerOpenMs;
+        return this;
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Delays">
+
+    /**
+     * @param consecutiveErrors количество ошибок подряд (не менее 1).
+     * @return Пауза (мс) перед следующей попыткой сохранения.
+     */
+    public long computeDelayMs(final int consecutiveErrors) {
+        final var exponent = Math.max(0, consecutiveErrors - 1);
+        final var delay = Math.min((double) this.maxDelayMs, this.initialDelayMs * Math.pow(this.multiplier, exponent));
+        if (this.jitter <= 0) {
+            return (long) delay;
+        }
+        final var factor = 1 - this.jitter + 2 * this.jitter * ThreadLocalRandom.current().nextDouble();
+        return Math.max(1, (long) (delay * factor));
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+}
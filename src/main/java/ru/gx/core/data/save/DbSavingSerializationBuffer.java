@@ -0,0 +1,147 @@
+package ru.gx.core.data.save;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Растущий буфер сериализации, переиспользуемый сохранениями.
+ * <p>
+ * Операторы сериализуют данные потоково прямо в данный буфер и передают в {@link ru.gx.core.data.sqlwrapping.SqlCommandWrapper}
+ * фрагмент его внутреннего массива (или поток поверх него) - без промежуточных String и byte[].
+ * После выполнения команды буфер возвращается методом {@link #release()}.
+ * <p>
+ * Буферы выдаются из общего ограниченного пула ({@link #acquire()}), а не закрепляются за потоками:
+ * сохранения могут выполняться в виртуальных потоках (по потоку на сохранение), и буфер потока
+ * создавался бы заново для каждого сохранения.
+ */
+@SuppressWarnings("unused")
+public class DbSavingSerializationBuffer extends ByteArrayOutputStream {
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Constants">
+    /**
+     * Начальный размер буфера.
+     */
+    public static final int INITIAL_CAPACITY = 8 * 1024;
+
+    /**
+     * Максимальный размер буфера, который сохраняется после использования.
+     * Буферы большего размера после использования сбрасываются до начального размера.
+     */
+    public static final int MAX_RETAINED_CAPACITY = 4 * 1024 * 1024;
+
+    /**
+     * Максимальное количество свободных буферов в пуле. Буферы, возвращенные сверх этого количества,
+     * освобождаются.
+     */
+    public static final int MAX_POOLED_BUFFERS = Math.max(16, 4 * Runtime.getRuntime().availableProcessors());
+
+    private static final Queue<DbSavingSerializationBuffer> POOL = new ArrayBlockingQueue<>(MAX_POOLED_BUFFERS);
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Fields">
+
+    /**
+     * Буфер выдан из пула методом {@link #acquire()} и еще не возвращен.
+     */
+    private final AtomicBoolean borrowed = new AtomicBoolean();
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Initialization">
+    public DbSavingSerializationBuffer() {
+        super(INITIAL_CAPACITY);
+    }
+
+    /**
+     * @return Пустой буфер из пула (или новый, если свободных буферов нет).
+     * После использования возвращается методом {@link #release()}.
+     */
+    @NotNull
+    public static DbSavingSerializationBuffer acquire() {
+        var result = POOL.poll();
+        if (result == null) {
+            result = new DbSavingSerializationBuffer();
+        }
+        result.reset();
+        result.borrowed.set(true);
+        return result;
+    }
+
+    /**
+     * Возврат буфера после использования. Слишком большой внутренний массив освобождается.
+     * Буфер, полученный методом {@link #acquire()}, возвращается в пул; повторный вызов ничего не делает.
+     */
+    public void release() {
+        reset();
+        if (this.buf.length > MAX_RETAINED_CAPACITY) {
+            this.buf = new byte[INITIAL_CAPACITY];
+        }
+        if (this.borrowed.compareAndSet(true, false)) {
+            POOL.offer(this);
+        }
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Access">
+
+    /**
+     * @return Внутренний массив буфера. Данные занимают первые {@link #size()} байт.
+     */
+    public byte[] getBufferArray() {
+        return this.buf;
+    }
+
+    /**
+     * Запись строки в кодировке UTF-8.
+     */
+    public void writeString(@NotNull final String value) {
+        writeBytes(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Запись фрагмента ByteBuffer-а (в т.ч. direct) без промежуточного массива.
+     *
+     * @param source ByteBuffer, позиция которого не изменяется.
+     * @param offset смещение фрагмента в source.
+     * @param length размер фрагмента.
+     */
+    public void write(@NotNull final ByteBuffer source, final int offset, final int length) {
+        if (this.count + length > this.buf.length) {
+            this.buf = Arrays.copyOf(this.buf, Math.max(this.buf.length << 1, this.count + length));
+        }
+        source.get(offset, this.buf, this.count, length);
+        this.count += length;
+    }
+
+    /**
+     * @return Поток чтения содержимого буфера (без копирования).
+     */
+    @NotNull
+    public InputStream toInputStream() {
+        return new ByteArrayInputStream(this.buf, 0, this.count);
+    }
+
+    /**
+     * @return Поток символов содержимого буфера в кодировке UTF-8 (без копирования).
+     */
+    @NotNull
+    public Reader toReader() {
+        return new InputStreamReader(toInputStream(), StandardCharsets.UTF_8);
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+}
@@ -13,5 +13,15 @@ public enum DbSavingSerializeMode {
     /**
      * Данные будут отправлены в СУБД в бинарном виде
      */
-    Binary
+    Binary,
+
+    /**
+     * Данные будут отправлены в СУБД в бинарном формате Smile (компактное двоичное представление Json).
+     */
+    Smile,
+
+    /**
+     * Данные будут отправлены в СУБД в бинарном формате CBOR (RFC 8949).
+     */
+    Cbor
 }
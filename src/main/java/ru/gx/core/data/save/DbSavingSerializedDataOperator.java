@@ -0,0 +1,57 @@
+package ru.gx.core.data.save;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.jetbrains.annotations.NotNull;
+import ru.gx.core.data.sqlwrapping.SqlCommandWrapper;
+
+import javax.activation.UnsupportedDataTypeException;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Оператор сохранения, поддерживающий сериализацию данных при добавлении в буфер
+ * (см. {@link DbSavingDescriptor#setSerializeAtEnqueue(boolean)}).
+ * <p>
+ * Каждый элемент сериализуется {@link #serializeItem(DbSavingSerializationBuffer, Object)} в потоке-производителе
+ * и хранится в {@link DbSavingPayloadArena}; при сохранении оператор только объединяет готовые байты
+ * в параметр команды.
+ */
+@SuppressWarnings("unused")
+public interface DbSavingSerializedDataOperator extends DbSavingOperator {
+    /**
+     * @param accumulateMode режим накопления данных.
+     * @return поддерживается ли сохранение сериализованных элементов в данном режиме.
+     */
+    boolean isSerializedDataSupported(@NotNull final DbSavingAccumulateMode accumulateMode);
+
+    /**
+     * Сериализация одного элемента (сообщения или объекта) в буфер.
+     */
+    void serializeItem(
+            @NotNull final DbSavingSerializationBuffer buffer,
+            @NotNull final Object item
+    ) throws JsonProcessingException;
+
+    /**
+     * Запись списка сериализованных элементов в буфер так, как сериализуется список элементов (например, массив Json).
+     *
+     * @throws UnsupportedOperationException оператор не поддерживает объединение элементов в список.
+     */
+    void writeSerializedList(
+            @NotNull final DbSavingSerializationBuffer buffer,
+            @NotNull final List<DbSavingPayloadArena.Slice> items
+    );
+
+    /**
+     * Сохранение сериализованных элементов в БД.
+     *
+     * @param statement      Statement обращения к БД
+     * @param items          сериализованные элементы в порядке добавления.
+     * @param accumulateMode режим накопления данных.
+     */
+    void saveSerializedData(
+            @NotNull final SqlCommandWrapper statement,
+            @NotNull final List<DbSavingPayloadArena.Slice> items,
+            @NotNull final DbSavingAccumulateMode accumulateMode
+    ) throws SQLException, UnsupportedDataTypeException;
+}
@@ -0,0 +1,33 @@
+package ru.gx.core.data.save;
+
+import org.jetbrains.annotations.NotNull;
+import ru.gx.core.data.sqlwrapping.ConnectionWrapper;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+/**
+ * Оператор сохранения, передающий данные в БД потоком через соединение (например, COPY ... FROM STDIN),
+ * без подготовки команд.
+ * <p>
+ * Команду такой оператор не подготавливает: {@link DbSavingDescriptor} передает
+ * в {@link #saveData(ConnectionWrapper, String, Object, DbSavingAccumulateMode)} соединение и saveCommand.
+ */
+@SuppressWarnings("unused")
+public interface DbSavingStreamingOperator extends DbSavingBaseOperator {
+    /**
+     * Сохранение данных в БД потоком.
+     *
+     * @param connection     соединение с БД (транзакцией управляет Descriptor).
+     * @param saveCommand    команда загрузки (saveCommand Descriptor-а).
+     * @param data           данные (содержимое буфера Descriptor-а).
+     * @param accumulateMode режим накопления данных.
+     * @return количество сохраненных строк.
+     */
+    long saveData(
+            @NotNull final ConnectionWrapper connection,
+            @NotNull final String saveCommand,
+            @NotNull final Object data,
+            @NotNull final DbSavingAccumulateMode accumulateMode
+    ) throws SQLException, IOException;
+}
@@ -0,0 +1,229 @@
+package ru.gx.core.data.save;
+
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Ограниченный неблокирующий кольцевой буфер: много производителей, один потребитель (MPSC).
+ * <p>
+ * Добавление элемента ({@link #offer(Object)}) не захватывает мониторов - только CAS по индексу записи.
+ * Извлечение ({@link #poll()}, {@link #drain(Consumer, int)}) допускается только из одного потока в каждый момент
+ * времени (потребитель - поток, выполняющий сохранение в БД).
+ * <p>
+ * Каждая ячейка хранит порядковый номер (sequence), по которому производитель и потребитель определяют,
+ * свободна ли ячейка для записи или уже содержит опубликованный элемент.
+ */
+@SuppressWarnings("unused")
+public class MpscRingBuffer<E> {
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Fields">
+
+    /**
+     * Емкость буфера (всегда степень двойки).
+     */
+    @Getter
+    private final int capacity;
+
+    private final int mask;
+
+    @NotNull
+    private final AtomicReferenceArray<E> elements;
+
+    @NotNull
+    private final AtomicLongArray sequences;
+
+    /**
+     * Индекс следующей записи (изменяется производителями через CAS).
+     */
+    @NotNull
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Индекс следующего чтения (изменяется только потребителем).
+     */
+    @NotNull
+    private final AtomicLong head = new AtomicLong();
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Initialization">
+
+    /**
+     * @param minCapacity минимальная емкость буфера; фактическая емкость округляется вверх до степени двойки.
+     */
+    public MpscRingBuffer(final int minCapacity) {
+        if (minCapacity <= 0) {
+            throw new IllegalArgumentException("Capacity of ring buffer must be positive (minCapacity = " + minCapacity + ")");
+        }
+        this.capacity = minCapacity == 1 ? 1 : Integer.highestOneBit(minCapacity - 1) << 1;
+        if (this.capacity <= 0) {
+            throw new IllegalArgumentException("Capacity of ring buffer is too large (minCapacity = " + minCapacity + ")");
+        }
+        this.mask = this.capacity - 1;
+        this.elements = new AtomicReferenceArray<>(this.capacity);
+        this.sequences = new AtomicLongArray(this.capacity);
+        for (var i = 0; i < this.capacity; i++) {
+            this.sequences.set(i, i);
+        }
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Producers">
+
+    /**
+     * Добавление элемента в буфер. Может вызываться из любого количества потоков одновременно.
+     *
+     * @param element добавляемый элемент.
+     * @return true - элемент добавлен; false - буфер заполнен.
+     */
+    public boolean offer(@NotNull final E element) {
+        while (true) {
+            final var pos = this.tail.get();
+            final var index = (int) (pos & this.mask);
+            final var diff = this.sequences.get(index) - pos;
+            if (diff == 0) {
+                if (this.tail.compareAndSet(pos, pos + 1)) {
+                    this.elements.lazySet(index, element);
+                    // Публикация элемента для потребителя
+                    this.sequences.set(index, pos + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+                // Ячейка еще не освобождена потребителем - буфер заполнен
+                return false;
+            }
+            // Иначе другой производитель уже занял эту ячейку - повторяем с новым индексом
+        }
+    }
+
+    /**
+     * Добавление набора элементов: либо добавляются все элементы подряд (без элементов других производителей
+     * между ними), либо ни одного. Может вызываться из любого количества потоков одновременно.
+     *
+     * @param elements добавляемые элементы.
+     * @return true - элементы добавлены; false - в буфере нет места для всех элементов.
+     */
+    public boolean offerAll(@NotNull final List<? extends E> elements) {
+        final var count = elements.size();
+        if (count == 0) {
+            return true;
+        }
+        if (count > this.capacity) {
+            return false;
+        }
+        while (true) {
+            final var pos = this.tail.get();
+            // Потребитель освобождает ячейки по порядку: если свободна последняя из требуемых, то свободны все
+            final var lastPos = pos + count - 1;
+            final var diff = this.sequences.get((int) (lastPos & this.mask)) - lastPos;
+            if (diff == 0 && this.sequences.get((int) (pos & this.mask)) == pos) {
+                if (this.tail.compareAndSet(pos, pos + count)) {
+                    for (var i = 0; i < count; i++) {
+                        final var index = (int) ((pos + i) & this.mask);
+                        this.elements.lazySet(index, elements.get(i));
+                        this.sequences.set(index, pos + i + 1);
+                    }
+                    return true;
+                }
+            } else if (diff < 0 && this.tail.get() == pos) {
+                return false;
+            }
+        }
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Consumer">
+
+    /**
+     * Извлечение одного элемента. Вызывается только потребителем.
+     *
+     * @return элемент или null, если опубликованных элементов нет.
+     */
+    @Nullable
+    public E poll() {
+        final var pos = this.head.get();
+        final var index = (int) (pos & this.mask);
+        if (this.sequences.get(index) != pos + 1) {
+            return null;
+        }
+        final var result = this.elements.get(index);
+        this.elements.lazySet(index, null);
+        // Освобождение ячейки для следующего круга записи
+        this.sequences.set(index, pos + this.capacity);
+        this.head.lazySet(pos + 1);
+        return result;
+    }
+
+    /**
+     * Извлечение элементов пачкой. Вызывается только потребителем.
+     *
+     * @param consumer получатель извлеченных элементов (в порядке добавления).
+     * @param limit    максимальное количество извлекаемых элементов.
+     * @return количество извлеченных элементов.
+     */
+    public int drain(@NotNull final Consumer<? super E> consumer, final int limit) {
+        var result = 0;
+        while (result < limit) {
+            final var element = poll();
+            if (element == null) {
+                break;
+            }
+            consumer.accept(element);
+            result++;
+        }
+        return result;
+    }
+
+    /**
+     * Извлечение всех опубликованных элементов. Вызывается только потребителем.
+     *
+     * @param consumer получатель извлеченных элементов (в порядке добавления).
+     * @return количество извлеченных элементов.
+     */
+    public int drain(@NotNull final Consumer<? super E> consumer) {
+        return drain(consumer, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Удаление всех опубликованных элементов. Вызывается только потребителем.
+     */
+    public void clear() {
+        //noinspection StatementWithEmptyBody
+        while (poll() != null) {
+        }
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="State">
+
+    /**
+     * @return Количество элементов в буфере (включая те, запись которых еще не завершена производителем).
+     * Значение приблизительное при конкурентном доступе.
+     */
+    public int size() {
+        final var currentHead = this.head.get();
+        final var currentTail = this.tail.get();
+        final var result = currentTail - currentHead;
+        if (result <= 0) {
+            return 0;
+        }
+        return (int) Math.min(result, this.capacity);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+}
@@ -4,7 +4,9 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.Closeable;
+import java.io.IOException;
 import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
 
 @SuppressWarnings("unused")
 public interface ConnectionWrapper extends Closeable {
@@ -24,4 +26,15 @@ public interface ConnectionWrapper extends Closeable {
     void rollbackTransaction() throws SQLException;
 
     boolean isEqual(@Nullable final ConnectionWrapper connectionWrapper);
+
+    /**
+     * Потоковая загрузка данных командой вида COPY ... FROM STDIN.
+     *
+     * @param copyCommand команда загрузки.
+     * @param writer      источник данных.
+     * @return количество загруженных строк.
+     */
+    default long copyIn(@NotNull String copyCommand, @NotNull CopyInWriter writer) throws SQLException, IOException {
+        throw new SQLFeatureNotSupportedException("Connection " + getClass().getName() + " doesn't support copyIn");
+    }
 }
@@ -0,0 +1,21 @@
+package ru.gx.core.data.sqlwrapping;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.SQLException;
+
+/**
+ * Источник данных для потоковой загрузки (COPY ... FROM STDIN), см. {@link ConnectionWrapper#copyIn(String, CopyInWriter)}.
+ */
+@FunctionalInterface
+public interface CopyInWriter {
+    /**
+     * Запись данных в поток загрузки. Поток закрывать не требуется.
+     *
+     * @param output поток загрузки.
+     * @return количество записанных строк.
+     */
+    long write(@NotNull OutputStream output) throws IOException, SQLException;
+}
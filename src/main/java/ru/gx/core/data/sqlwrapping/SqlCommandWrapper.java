@@ -4,8 +4,13 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringWriter;
 import java.math.BigDecimal;
 import java.sql.SQLException;
+import java.util.Arrays;
 
 @SuppressWarnings("unused")
 public interface SqlCommandWrapper extends Closeable {
@@ -18,8 +23,78 @@ public interface SqlCommandWrapper extends Closeable {
     void setNumericParam(int paramIndex, @Nullable BigDecimal value) throws SQLException;
     void setBinaryParam(int paramIndex, byte[] value) throws SQLException;
 
+    /**
+     * Установка двоичного параметра из фрагмента массива (без копирования, если реализация это поддерживает).
+     *
+     * @param paramIndex индекс параметра.
+     * @param value      массив с данными.
+     * @param offset     смещение начала данных в массиве.
+     * @param length     длина данных.
+     */
+    default void setBinaryParam(int paramIndex, byte[] value, int offset, int length) throws SQLException {
+        if (offset == 0 && length == value.length) {
+            setBinaryParam(paramIndex, value);
+        } else {
+            setBinaryParam(paramIndex, Arrays.copyOfRange(value, offset, offset + length));
+        }
+    }
+
+    /**
+     * Установка двоичного параметра из потока.
+     *
+     * @param paramIndex индекс параметра.
+     * @param value      поток с данными.
+     * @param length     количество байт, которые требуется прочитать из потока.
+     */
+    default void setBinaryStreamParam(int paramIndex, @NotNull InputStream value, int length) throws SQLException {
+        try {
+            setBinaryParam(paramIndex, value.readNBytes(length));
+        } catch (IOException e) {
+            throw new SQLException("Error on reading binary stream parameter " + paramIndex, e);
+        }
+    }
+
+    /**
+     * Установка строкового параметра из потока символов.
+     *
+     * @param paramIndex индекс параметра.
+     * @param value      поток символов (читается до конца).
+     */
+    default void setCharacterStreamParam(int paramIndex, @NotNull Reader value) throws SQLException {
+        try {
+            final var writer = new StringWriter();
+            value.transferTo(writer);
+            setStringParam(paramIndex, writer.toString());
+        } catch (IOException e) {
+            throw new SQLException("Error on reading character stream parameter " + paramIndex, e);
+        }
+    }
+
     void executeNoResult() throws SQLException;
 
+    /**
+     * Добавление команды с текущими значениями параметров в пакет (JDBC batch).
+     * Реализация по умолчанию не поддерживает пакеты и выполняет команду сразу.
+     */
+    default void addBatch() throws SQLException {
+        executeNoResult();
+    }
+
+    /**
+     * Выполнение всех команд, добавленных в пакет методом {@link #addBatch()}.
+     *
+     * @return количество измененных строк по каждой команде пакета (или {@link java.sql.Statement#SUCCESS_NO_INFO}).
+     */
+    default int[] executeBatch() throws SQLException {
+        return new int[0];
+    }
+
+    /**
+     * Очистка пакета команд без выполнения.
+     */
+    default void clearBatch() throws SQLException {
+    }
+
     ResultWrapper executeWithResult() throws SQLException;
 
     ConnectionWrapper getConnection();
@@ -0,0 +1,210 @@
+package ru.gx.core.data.sqlwrapping.memory;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import ru.gx.core.data.sqlwrapping.ConnectionWrapper;
+import ru.gx.core.data.sqlwrapping.CopyInWriter;
+import ru.gx.core.data.sqlwrapping.SqlCommandWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Соединение-заглушка в памяти: вместо обращения к БД запоминает выполненные команды и загруженные данные.
+ * <p>
+ * Предназначено для проверки операторов и Descriptor-ов без реальной БД. Команды, выполненные в транзакции,
+ * попадают в {@link #getExecutions()} только после {@link #commitTransaction()}. Одновременно может быть открыта
+ * только одна транзакция (для параллельных сохранений требуется flushConcurrency = 1).
+ * Закрытие соединения ничего не делает, поэтому один экземпляр может многократно выдаваться
+ * {@link MemoryThreadConnectionsWrapper}-ом.
+ * <p>
+ * Для нагрузочных проверок задается {@link #getSimulation()} (задержки, ограничения пропускной способности, ошибки)
+ * и отключается запоминание команд ({@link #isRecordExecutions()}).
+ */
+@SuppressWarnings("unused")
+public class MemoryConnectionWrapper implements ConnectionWrapper {
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Fields">
+
+    @NotNull
+    private final List<MemoryExecution> executions = new ArrayList<>();
+
+    @NotNull
+    private final List<MemoryExecution> transactionExecutions = new ArrayList<>();
+
+    private boolean inTransaction;
+
+    /**
+     * Количество подтвержденных транзакций.
+     */
+    @Getter
+    private int commitsCount;
+
+    /**
+     * Количество отмененных транзакций.
+     */
+    @Getter
+    private int rollbacksCount;
+
+    /**
+     * Имитация поведения БД (null - команды выполняются мгновенно и без ошибок).
+     */
+    @Getter
+    @Setter
+    @Nullable
+    private volatile MemoryDatabaseSimulation simulation;
+
+    /**
+     * Запоминать ли выполненные команды в {@link #getExecutions()}.
+     * Для длительных нагрузочных проверок запоминание отключается, чтобы не накапливать данные в памяти.
+     */
+    @Getter
+    @Setter
+    private volatile boolean recordExecutions = true;
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Initialization">
+    public MemoryConnectionWrapper() {
+        this(null);
+    }
+
+    public MemoryConnectionWrapper(@Nullable final MemoryDatabaseSimulation simulation) {
+        this.simulation = simulation;
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="implements ConnectionWrapper">
+    @Override
+    @NotNull
+    public Object getInternalConnection() {
+        return this;
+    }
+
+    @Override
+    @NotNull
+    public SqlCommandWrapper getQuery(@NotNull final String sqlCommand) throws SQLException {
+        return new MemorySqlCommandWrapper(this, sqlCommand);
+    }
+
+    @Override
+    @NotNull
+    public SqlCommandWrapper getCallable(@NotNull final String sqlCommand) throws SQLException {
+        return new MemorySqlCommandWrapper(this, sqlCommand);
+    }
+
+    @Override
+    public synchronized void openTransaction() throws SQLException {
+        if (this.inTransaction) {
+            throw new SQLException("Transaction is already opened");
+        }
+        this.inTransaction = true;
+    }
+
+    /**
+     * При ошибке имитации ({@link #getSimulation()}) транзакция остается открытой.
+     */
+    @Override
+    public void commitTransaction() throws SQLException {
+        synchronized (this) {
+            if (!this.inTransaction) {
+                throw new SQLException("Transaction is not opened");
+            }
+        }
+        internalSimulateCall(0, 0);
+        synchronized (this) {
+            this.executions.addAll(this.transactionExecutions);
+            this.transactionExecutions.clear();
+            this.inTransaction = false;
+            this.commitsCount++;
+        }
+    }
+
+    /**
+     * Транзакция отменяется и при ошибке имитации ({@link #getSimulation()}).
+     */
+    @Override
+    public void rollbackTransaction() throws SQLException {
+        synchronized (this) {
+            if (!this.inTransaction) {
+                throw new SQLException("Transaction is not opened");
+            }
+            this.transactionExecutions.clear();
+            this.inTransaction = false;
+            this.rollbacksCount++;
+        }
+        internalSimulateCall(0, 0);
+    }
+
+    @Override
+    public boolean isEqual(@Nullable final ConnectionWrapper connectionWrapper) {
+        return connectionWrapper == this;
+    }
+
+    @Override
+    public long copyIn(@NotNull final String copyCommand, @NotNull final CopyInWriter writer) throws SQLException, IOException {
+        final var output = new ByteArrayOutputStream();
+        final var rows = writer.write(output);
+        internalSimulateCall(rows, output.size());
+        internalRegisterExecution(new MemoryExecution(copyCommand, Collections.emptyList(), output.toByteArray(), rows));
+        return rows;
+    }
+
+    @Override
+    public void close() throws IOException {
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Executions">
+
+    /**
+     * @return Подтвержденные (выполненные вне транзакции или в подтвержденной транзакции) команды.
+     */
+    @NotNull
+    public synchronized List<MemoryExecution> getExecutions() {
+        return new ArrayList<>(this.executions);
+    }
+
+    public synchronized boolean isInTransaction() {
+        return this.inTransaction;
+    }
+
+    /**
+     * Очистка списка выполненных команд.
+     */
+    public synchronized void clearExecutions() {
+        this.executions.clear();
+    }
+
+    /**
+     * Имитация обращения к БД (см. {@link MemoryDatabaseSimulation#simulateCall(long, long)}).
+     * Вызывается вне блокировки соединения.
+     */
+    protected void internalSimulateCall(final long rows, final long bytes) throws SQLException {
+        final var currentSimulation = this.simulation;
+        if (currentSimulation != null) {
+            currentSimulation.simulateCall(rows, bytes);
+        }
+    }
+
+    protected synchronized void internalRegisterExecution(@NotNull final MemoryExecution execution) throws SQLException {
+        if (!this.recordExecutions) {
+            return;
+        }
+        if (this.inTransaction) {
+            this.transactionExecutions.add(execution);
+        } else {
+            this.executions.add(execution);
+        }
+    }
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+}
@@ -0,0 +1,349 @@
+package ru.gx.core.data.sqlwrapping.memory;
+
+import lombok.Getter;
+import lombok.experimental.Accessors;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTransientConnectionException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Поведение БД, имитируемое соединением-заглушкой {@link MemoryConnectionWrapper} для нагрузочных проверок:
+ * <ul>
+ *     <li>задержка каждого обращения: {@link #getCallLatencyMicros()} + случайная добавка до {@link #getLatencyJitterMicros()}
+ *     + {@link #getRowLatencyMicros()} на каждую строку пакета / потоковой загрузки;</li>
+ *     <li>ограничение пропускной способности: {@link #getMaxCallsPerSecond()} и {@link #getMaxBytesPerSecond()}
+ *     (обращения, превышающие ограничение, ждут своей очереди, как на перегруженном сервере);</li>
+ *     <li>временные ошибки с вероятностью {@link #getFailureProbability()}
+ *     ({@link SQLTransientConnectionException}, SQLState 08006);</li>
+ *     <li>периоды недоступности БД ({@link #addOutage(long, long)}), в течение которых все обращения сразу завершаются
+ *     {@link SQLNonTransientConnectionException} с SQLState 08001.</li>
+ * </ul>
+ * Время периодов недоступности отсчитывается от создания объекта или от {@link #restart()}.
+ * Задержки выполняются в вызывающем потоке вне блокировок соединения, поэтому параллельные сохранения
+ * ожидают одновременно. Настройки можно менять во время работы.
+ */
+@SuppressWarnings("unused")
+@Accessors(chain = true)
+public class MemoryDatabaseSimulation {
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Constants">
+    public static final String TRANSIENT_FAILURE_SQL_STATE = "08006";
+
+    public static final String OUTAGE_SQL_STATE = "08001";
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Fields">
+
+    /**
+     * Задержка каждого обращения к БД (мкс), в т.ч. подтверждения и отмены транзакции.
+     */
+    @Getter
+    private volatile long callLatencyMicros;
+
+    /**
+     * Максимальная случайная добавка к задержке обращения (мкс).
+     */
+    @Getter
+    private volatile long latencyJitterMicros;
+
+    /**
+     * Задержка на каждую строку пакета ({@code executeBatch}) или потоковой загрузки (мкс).
+     * Обращение {@code executeNoResult} считается одной строкой.
+     */
+    @Getter
+    private volatile long rowLatencyMicros;
+
+    /**
+     * Максимальное количество обращений в секунду (0 - без ограничения).
+     */
+    @Getter
+    private volatile long maxCallsPerSecond;
+
+    /**
+     * Максимальный объем передаваемых данных (байт) в секунду (0 - без ограничения).
+     */
+    @Getter
+    private volatile long maxBytesPerSecond;
+
+    /**
+     * Вероятность временной ошибки обращения [0, 1].
+     */
+    @Getter
+    private volatile double failureProbability;
+
+    @NotNull
+    private final List<Outage> outages = new CopyOnWriteArrayList<>();
+
+    @Getter
+    private volatile long startedAtMillis = System.currentTimeMillis();
+
+    /**
+     * Момент (System.nanoTime()), с которого свободна "очередь" обращений.
+     */
+    @NotNull
+    private final AtomicLong callsFreeAtNanos = new AtomicLong();
+
+    /**
+     * Момент (System.nanoTime()), с которого свободен "канал" передачи данных.
+     */
+    @NotNull
+    private final AtomicLong bytesFreeAtNanos = new AtomicLong();
+
+    @NotNull
+    private final AtomicLong callsCount = new AtomicLong();
+
+    @NotNull
+    private final AtomicLong rowsCount = new AtomicLong();
+
+    @NotNull
+    private final AtomicLong bytesCount = new AtomicLong();
+
+    @NotNull
+    private final AtomicLong failuresCount = new AtomicLong();
+
+    @NotNull
+    private final AtomicLong outageRejectionsCount = new AtomicLong();
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Initialization">
+
+    @NotNull
+    public MemoryDatabaseSimulation setCallLatencyMicros(final long callLatencyMicros) {
+        checkNotNegative("callLatencyMicros", callLatencyMicros);
+        this.callLatencyMicros = callLatencyMicros;
+        return this;
+    }
+
+    @NotNull
+    public MemoryDatabaseSimulation setLatencyJitterMicros(final long latencyJitterMicros) {
+        checkNotNegative("latencyJitterMicros", latencyJitterMicros);
+        this.latencyJitterMicros = latencyJitterMicros;
+        return this;
+    }
+
+    @NotNull
+    public MemoryDatabaseSimulation setRowLatencyMicros(final long rowLatencyMicros) {
+        checkNotNegative("rowLatencyMicros", rowLatencyMicros);
+        this.rowLatencyMicros = rowLatencyMicros;
+        return this;
+    }
+
+    @NotNull
+    public MemoryDatabaseSimulation setMaxCallsPerSecond(final long maxCallsPerSecond) {
+        checkNotNegative("maxCallsPerSecond", maxCallsPerSecond);
+        this.maxCallsPerSecond = maxCallsPerSecond;
+        return this;
+    }
+
+    @NotNull
+    public MemoryDatabaseSimulation setMaxBytesPerSecond(final long maxBytesPerSecond) {
+        checkNotNegative("maxBytesPerSecond", maxBytesPerSecond);
+        this.maxBytesPerSecond = maxBytesPerSecond;
+        return this;
+    }
+
+    @NotNull
+    public MemoryDatabaseSimulation setFailureProbability(final double failureProbability) {
+        if (failureProbability < 0 || failureProbability > 1) {
+            throw new IllegalArgumentException("failureProbability must be in [0, 1] (failureProbability = " + failureProbability + ")");
+        }
+        this.failureProbability = failureProbability;
+        return this;
+    }
+
+    /**
+     * Добавление периода недоступности БД.
+     *
+     * @param fromMs     начало периода (мс от {@link #getStartedAtMillis()}).
+     * @param durationMs длительность периода (мс).
+     * @return this.
+     */
+    @NotNull
+    public MemoryDatabaseSimulation addOutage(final long fromMs, final long durationMs) {
+        checkNotNegative("fromMs", fromMs);
+        if (durationMs <= 0) {
+            throw new IllegalArgumentException("durationMs must be positive (durationMs = " + durationMs + ")");
+        }
+        this.outages.add(new Outage(fromMs, fromMs + durationMs));
+        return this;
+    }
+
+    @NotNull
+    public MemoryDatabaseSimulation clearOutages() {
+        this.outages.clear();
+        return this;
+    }
+
+    /**
+     * Начать отсчет времени периодов недоступности заново и сбросить счетчики.
+     *
+     * @return this.
+     */
+    @NotNull
+    public MemoryDatabaseSimulation restart() {
+        this.startedAtMillis = System.currentTimeMillis();
+        this.callsFreeAtNanos.set(0);
+        this.bytesFreeAtNanos.set(0);
+        this.callsCount.set(0);
+        this.rowsCount.set(0);
+        this.bytesCount.set(0);
+        this.failuresCount.set(0);
+        this.outageRejectionsCount.set(0);
+        return this;
+    }
+
+    private static void checkNotNegative(@NotNull final String name, final long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException(name + " must not be negative (" + name + " = " + value + ")");
+        }
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Statistics">
+
+    @NotNull
+    public List<Outage> getOutages() {
+        return List.copyOf(this.outages);
+    }
+
+    /**
+     * @return Количество обращений, дошедших до "БД" (включая завершившиеся временной ошибкой).
+     */
+    public long getCallsCount() {
+        return this.callsCount.get();
+    }
+
+    public long getRowsCount() {
+        return this.rowsCount.get();
+    }
+
+    public long getBytesCount() {
+        return this.bytesCount.get();
+    }
+
+    /**
+     * @return Количество временных ошибок.
+     */
+    public long getFailuresCount() {
+        return this.failuresCount.get();
+    }
+
+    /**
+     * @return Количество обращений, отклоненных в периоды недоступности.
+     */
+    public long getOutageRejectionsCount() {
+        return this.outageRejectionsCount.get();
+    }
+
+    /**
+     * @return Недоступна ли "БД" в данный момент.
+     */
+    public boolean isOutage() {
+        final var elapsedMs = System.currentTimeMillis() - this.startedAtMillis;
+        for (final var outage : this.outages) {
+            if (outage.contains(elapsedMs)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Simulation">
+
+    /**
+     * Имитация обращения к БД: ожидание в соответствии с задержками и ограничениями пропускной способности,
+     * ошибка в период недоступности или случайная временная ошибка.
+     *
+     * @param rows  количество строк обращения.
+     * @param bytes объем передаваемых данных (байт).
+     * @throws SQLException имитированная ошибка.
+     */
+    public void simulateCall(final long rows, final long bytes) throws SQLException {
+        if (isOutage()) {
+            this.outageRejectionsCount.incrementAndGet();
+            throw new SQLNonTransientConnectionException("Simulated database outage", OUTAGE_SQL_STATE);
+        }
+        final var now = System.nanoTime();
+        var latencyMicros = this.callLatencyMicros + rows * this.rowLatencyMicros;
+        final var jitter = this.latencyJitterMicros;
+        if (jitter > 0) {
+            latencyMicros += ThreadLocalRandom.current().nextLong(jitter + 1);
+        }
+        var deadline = now + TimeUnit.MICROSECONDS.toNanos(latencyMicros);
+        deadline = Math.max(deadline, reserve(this.callsFreeAtNanos, now, 1, this.maxCallsPerSecond));
+        deadline = Math.max(deadline, reserve(this.bytesFreeAtNanos, now, bytes, this.maxBytesPerSecond));
+        parkUntil(deadline);
+
+        this.callsCount.incrementAndGet();
+        this.rowsCount.addAndGet(rows);
+        this.bytesCount.addAndGet(bytes);
+        final var probability = this.failureProbability;
+        if (probability > 0 && ThreadLocalRandom.current().nextDouble() < probability) {
+            this.failuresCount.incrementAndGet();
+            throw new SQLTransientConnectionException("Simulated transient failure", TRANSIENT_FAILURE_SQL_STATE);
+        }
+    }
+
+    /**
+     * Резервирование времени ресурса, обрабатывающего {@code perSecond} единиц в секунду.
+     *
+     * @return момент (System.nanoTime()), когда будут обработаны {@code units} единиц.
+     */
+    private static long reserve(@NotNull final AtomicLong freeAtNanos, final long now, final long units, final long perSecond) {
+        if (perSecond <= 0 || units <= 0) {
+            return now;
+        }
+        final var costNanos = TimeUnit.SECONDS.toNanos(units) / perSecond;
+        while (true) {
+            final var freeAt = freeAtNanos.get();
+            final var finishAt = Math.max(now, freeAt) + costNanos;
+            if (freeAtNanos.compareAndSet(freeAt, finishAt)) {
+                return finishAt;
+            }
+        }
+    }
+
+    private static void parkUntil(final long deadlineNanos) {
+        var remaining = deadlineNanos - System.nanoTime();
+        while (remaining > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.interrupted()) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            remaining = deadlineNanos - System.nanoTime();
+        }
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Classes">
+
+    /**
+     * Период недоступности БД.
+     *
+     * @param fromMs начало (мс от {@link #getStartedAtMillis()}).
+     * @param toMs   окончание (мс от {@link #getStartedAtMillis()}, не включая).
+     */
+    public record Outage(long fromMs, long toMs) {
+        public boolean contains(final long elapsedMs) {
+            return elapsedMs >= this.fromMs && elapsedMs < this.toMs;
+        }
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+}
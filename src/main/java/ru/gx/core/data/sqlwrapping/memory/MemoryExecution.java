@@ -0,0 +1,31 @@
+package ru.gx.core.data.sqlwrapping.memory;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Выполненная на {@link MemoryConnectionWrapper} команда.
+ *
+ * @param sqlCommand SQL команды.
+ * @param params     значения параметров (индекс параметра - 1).
+ * @param copyData   данные потоковой загрузки (только для {@link MemoryConnectionWrapper#copyIn}).
+ * @param rows       количество строк потоковой загрузки.
+ */
+@SuppressWarnings("unused")
+public record MemoryExecution(
+        @NotNull String sqlCommand,
+        @NotNull List<Object> params,
+        @Nullable byte[] copyData,
+        long rows
+) {
+    /**
+     * @return Данные потоковой загрузки в виде текста UTF-8.
+     */
+    @Nullable
+    public String copyDataAsString() {
+        return this.copyData == null ? null : new String(this.copyData, StandardCharsets.UTF_8);
+    }
+}
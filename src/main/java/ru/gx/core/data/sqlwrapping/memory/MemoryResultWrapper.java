@@ -0,0 +1,59 @@
+package ru.gx.core.data.sqlwrapping.memory;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import ru.gx.core.data.sqlwrapping.ResultWrapper;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+
+/**
+ * Пустой результат команды соединения-заглушки {@link MemoryConnectionWrapper}.
+ */
+@SuppressWarnings("unused")
+public class MemoryResultWrapper implements ResultWrapper {
+    @Override
+    @NotNull
+    public Object getInternalData() {
+        return this;
+    }
+
+    @Override
+    public boolean next() {
+        return false;
+    }
+
+    @Override
+    public boolean first() {
+        return false;
+    }
+
+    @Override
+    public boolean last() {
+        return false;
+    }
+
+    @Override
+    @Nullable
+    public String getString(final int columnIndex) throws SQLException {
+        throw new SQLException("Result is empty");
+    }
+
+    @Override
+    @Nullable
+    public Integer getInteger(final int columnIndex) throws SQLException {
+        throw new SQLException("Result is empty");
+    }
+
+    @Override
+    @Nullable
+    public Long getLong(final int columnIndex) throws SQLException {
+        throw new SQLException("Result is empty");
+    }
+
+    @Override
+    @Nullable
+    public BigDecimal getNumeric(final int columnIndex) throws SQLException {
+        throw new SQLException("Result is empty");
+    }
+}
@@ -0,0 +1,163 @@
+package ru.gx.core.data.sqlwrapping.memory;
+
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import ru.gx.core.data.sqlwrapping.ConnectionWrapper;
+import ru.gx.core.data.sqlwrapping.ResultWrapper;
+import ru.gx.core.data.sqlwrapping.SqlCommandWrapper;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Команда соединения-заглушки {@link MemoryConnectionWrapper}. При выполнении регистрирует в соединении SQL
+ * и текущие значения параметров. Если у соединения задана {@link MemoryConnectionWrapper#getSimulation()},
+ * то выполнение имитирует обращение к БД с объемом данных, равным размеру строковых и двоичных параметров.
+ */
+@SuppressWarnings("unused")
+public class MemorySqlCommandWrapper implements SqlCommandWrapper {
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Fields">
+
+    @NotNull
+    private final MemoryConnectionWrapper connection;
+
+    @Getter
+    @NotNull
+    private final String sqlCommand;
+
+    @NotNull
+    private final List<Object> params = new ArrayList<>();
+
+    @NotNull
+    private final List<List<Object>> batch = new ArrayList<>();
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Initialization">
+    public MemorySqlCommandWrapper(@NotNull final MemoryConnectionWrapper connection, @NotNull final String sqlCommand) {
+        this.connection = connection;
+        this.sqlCommand = sqlCommand;
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="implements SqlCommandWrapper">
+    @Override
+    @NotNull
+    public Object getInternalCommand() {
+        return this.sqlCommand;
+    }
+
+    @Override
+    public void setStringParam(final int paramIndex, @Nullable final String value) throws SQLException {
+        internalSetParam(paramIndex, value);
+    }
+
+    @Override
+    public void setIntegerParam(final int paramIndex, @Nullable final Integer value) throws SQLException {
+        internalSetParam(paramIndex, value);
+    }
+
+    @Override
+    public void setLongParam(final int paramIndex, @Nullable final Long value) throws SQLException {
+        internalSetParam(paramIndex, value);
+    }
+
+    @Override
+    public void setNumericParam(final int paramIndex, @Nullable final BigDecimal value) throws SQLException {
+        internalSetParam(paramIndex, value);
+    }
+
+    @Override
+    public void setBinaryParam(final int paramIndex, final byte[] value) throws SQLException {
+        internalSetParam(paramIndex, value == null ? null : value.clone());
+    }
+
+    @Override
+    public void setBinaryParam(final int paramIndex, final byte[] value, final int offset, final int length) throws SQLException {
+        internalSetParam(paramIndex, Arrays.copyOfRange(value, offset, offset + length));
+    }
+
+    @Override
+    public void executeNoResult() throws SQLException {
+        this.connection.internalSimulateCall(1, paramsBytes(this.params));
+        this.connection.internalRegisterExecution(new MemoryExecution(this.sqlCommand, new ArrayList<>(this.params), null, 0));
+    }
+
+    @Override
+    public ResultWrapper executeWithResult() throws SQLException {
+        executeNoResult();
+        return new MemoryResultWrapper();
+    }
+
+    @Override
+    public void addBatch() throws SQLException {
+        this.batch.add(new ArrayList<>(this.params));
+    }
+
+    @Override
+    public int[] executeBatch() throws SQLException {
+        var bytes = 0L;
+        for (final var batchParams : this.batch) {
+            bytes += paramsBytes(batchParams);
+        }
+        this.connection.internalSimulateCall(this.batch.size(), bytes);
+        final var result = new int[this.batch.size()];
+        for (var i = 0; i < result.length; i++) {
+            this.connection.internalRegisterExecution(new MemoryExecution(this.sqlCommand, this.batch.get(i), null, 0));
+            result[i] = 1;
+        }
+        this.batch.clear();
+        return result;
+    }
+
+    @Override
+    public void clearBatch() throws SQLException {
+        this.batch.clear();
+    }
+
+    @Override
+    public ConnectionWrapper getConnection() {
+        return this.connection;
+    }
+
+    @Override
+    public void close() throws IOException {
+    }
+
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+    // <editor-fold desc="Internal">
+    protected void internalSetParam(final int paramIndex, @Nullable final Object value) throws SQLException {
+        if (paramIndex < 1) {
+            throw new SQLException("Invalid parameter index " + paramIndex);
+        }
+        while (this.params.size() < paramIndex) {
+            this.params.add(null);
+        }
+        this.params.set(paramIndex - 1, value);
+    }
+
+    /**
+     * @return Размер строковых (символов) и двоичных (байт) параметров.
+     */
+    protected static long paramsBytes(@NotNull final List<Object> params) {
+        var result = 0L;
+        for (final var param : params) {
+            if (param instanceof final String stringParam) {
+                result += stringParam.length();
+            } else if (param instanceof final byte[] binaryParam) {
+                result += binaryParam.length;
+            }
+        }
+        return result;
+    }
+    // </editor-fold>
+    // -------------------------------------------------------------------------------------------------------------
+}
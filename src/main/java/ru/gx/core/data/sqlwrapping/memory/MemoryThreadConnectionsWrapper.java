@@ -0,0 +1,30 @@
+package ru.gx.core.data.sqlwrapping.memory;
+
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+import ru.gx.core.data.sqlwrapping.ConnectionWrapper;
+import ru.gx.core.data.sqlwrapping.ThreadConnectionsWrapper;
+
+/**
+ * Выдает всем потокам одно соединение-заглушку {@link MemoryConnectionWrapper}.
+ */
+@SuppressWarnings("unused")
+public class MemoryThreadConnectionsWrapper implements ThreadConnectionsWrapper {
+    @Getter
+    @NotNull
+    private final MemoryConnectionWrapper connection;
+
+    public MemoryThreadConnectionsWrapper() {
+        this(new MemoryConnectionWrapper());
+    }
+
+    public MemoryThreadConnectionsWrapper(@NotNull final MemoryConnectionWrapper connection) {
+        this.connection = connection;
+    }
+
+    @Override
+    @NotNull
+    public ConnectionWrapper getCurrentThreadConnection() {
+        return this.connection;
+    }
+}
@@ -0,0 +1,95 @@
+package ru.gx.core.data.save;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import ru.gx.core.data.sqlwrapping.SqlCommandWrapper;
+import ru.gx.core.data.sqlwrapping.memory.MemoryThreadConnectionsWrapper;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AbstractDbSavingOperatorTest {
+    /**
+     * Оператор, который не поддерживает передачу данных строкой: сериализованные данные должны передаваться
+     * из буфера в параметр команды без вызова executeStatement.
+     */
+    private static class BufferOnlyJsonOperator extends DbSavingTestSupport.TestJsonOperator {
+        BufferOnlyJsonOperator(@NotNull final MemoryThreadConnectionsWrapper connections) {
+            super(connections);
+            setDirectBufferBinding(true);
+        }
+
+        @Override
+        protected void executeStatement(@NotNull final SqlCommandWrapper statement, @NotNull final Object data) {
+            fail("executeStatement must not be called for serialized data");
+        }
+    }
+
+    @Test
+    void serializedDataIsPassedToExecuteStatementByDefault() throws Exception {
+        final var connections = new MemoryThreadConnectionsWrapper();
+        final var configuration = DbSavingTestSupport.createConfiguration(connections);
+        final var statementData = new ArrayList<Object>();
+        final var descriptor = DbSavingTestSupport.createDescriptor(configuration, "default", DbSavingAccumulateMode.ListOfObjects)
+                .setSaveOperator(new DbSavingTestSupport.TestJsonOperator(connections) {
+                    @Override
+                    protected void executeStatement(@NotNull final SqlCommandWrapper statement, @NotNull final Object data)
+                            throws SQLException {
+                        statementData.add(data);
+                        super.executeStatement(statement, data);
+                    }
+                })
+                .setProcessMode(DbSavingProcessMode.Immediate)
+                .init();
+
+        descriptor.processObject(new DbSavingTestSupport.TestObject(1, "first"), null);
+
+        // Наследники, реализующие executeStatement, получают данные как и раньше - строкой JSON
+        assertEquals(List.of("[{\"id\":1,\"name\":\"first\"}]"), statementData);
+        assertEquals(1, connections.getConnection().getExecutions().size());
+    }
+
+    @Test
+    void jsonBufferIsBoundAsCharacterStream() throws Exception {
+        final var connections = new MemoryThreadConnectionsWrapper();
+        final var configuration = DbSavingTestSupport.createConfiguration(connections);
+        final var descriptor = DbSavingTestSupport.createDescriptor(configuration, "list", DbSavingAccumulateMode.ListOfObjects)
+                .setSaveOperator(new BufferOnlyJsonOperator(connections))
+                .setProcessMode(DbSavingProcessMode.Immediate)
+                .init();
+
+        descriptor.processObject(new DbSavingTestSupport.TestObject(1, "first"), null);
+
+        final var executions = connections.getConnection().getExecutions();
+        assertEquals(1, executions.size());
+        assertEquals(List.of("[{\"id\":1,\"name\":\"first\"}]"), executions.get(0).params());
+    }
+
+    @Test
+    void batchParametersAreCopiedBeforeBufferIsReused() throws Exception {
+        final var connections = new MemoryThreadConnectionsWrapper();
+        final var configuration = DbSavingTestSupport.createConfiguration(connections);
+        final var operator = new BufferOnlyJsonOperator(connections);
+        operator.setDataParamIndex(2);
+        final var descriptor = DbSavingTestSupport.createDescriptor(configuration, "batch", DbSavingAccumulateMode.BatchPerObject)
+                .setSaveOperator(operator)
+                .setBufferLimit(3);
+        descriptor.setBufferForMs(60_000);
+        descriptor.init();
+
+        final var expected = new ArrayList<List<Object>>();
+        for (var i = 0; i < 3; i++) {
+            descriptor.processObject(new DbSavingTestSupport.TestObject(i, "item-" + i), null);
+            final var params = new ArrayList<>();
+            params.add(null);
+            params.add("{\"id\":" + i + ",\"name\":\"item-" + i + "\"}");
+            expected.add(params);
+        }
+
+        final var executions = connections.getConnection().getExecutions();
+        assertEquals(expected, executions.stream().map(execution -> execution.params()).toList());
+    }
+}
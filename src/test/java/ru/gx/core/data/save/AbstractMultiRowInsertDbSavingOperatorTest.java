@@ -0,0 +1,90 @@
+package ru.gx.core.data.save;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import ru.gx.core.channels.ChannelConfigurationException;
+import ru.gx.core.data.sqlwrapping.SqlCommandWrapper;
+import ru.gx.core.data.sqlwrapping.ThreadConnectionsWrapper;
+import ru.gx.core.data.sqlwrapping.memory.MemoryThreadConnectionsWrapper;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AbstractMultiRowInsertDbSavingOperatorTest {
+    private static final String INSERT_COMMAND = "INSERT INTO test_objects (id, name) VALUES (?, ?)";
+
+    private static class TestMultiRowOperator extends AbstractMultiRowInsertDbSavingOperator {
+        @NotNull
+        private final ThreadConnectionsWrapper connections;
+
+        TestMultiRowOperator(@NotNull final ThreadConnectionsWrapper connections) {
+            super("id", "name");
+            this.connections = connections;
+        }
+
+        @Override
+        @NotNull
+        protected SqlCommandWrapper internalPrepareStatement(
+                @NotNull final String sqlCommand,
+                @NotNull final DbSavingAccumulateMode accumulateMode
+        ) throws SQLException {
+            try {
+                return this.connections.getCurrentThreadConnection().getQuery(sqlCommand);
+            } catch (IOException e) {
+                throw new SQLException(e);
+            }
+        }
+    }
+
+    @Test
+    void bisectIsRejectedWithoutTransaction() {
+        final var connections = new MemoryThreadConnectionsWrapper();
+        final var configuration = DbSavingTestSupport.createConfiguration(connections);
+        final var descriptor = DbSavingTestSupport.createDescriptor(configuration, "multiRow", DbSavingAccumulateMode.ListOfObjects)
+                .setSaveOperator(new TestMultiRowOperator(connections))
+                .setSaveCommand(INSERT_COMMAND);
+        // Пачка сохраняется несколькими командами
+        descriptor.setErrorStrategy(DbSavingErrorStrategy.Bisect);
+        assertThrows(ChannelConfigurationException.class, descriptor::init);
+    }
+
+    @Test
+    void savesThroughDescriptorWithMetrics() throws Exception {
+        final var connections = new MemoryThreadConnectionsWrapper();
+        final var configuration = DbSavingTestSupport.createConfiguration(connections);
+        final var descriptor = DbSavingTestSupport.createDescriptor(configuration, "multiRow", DbSavingAccumulateMode.ListOfObjects)
+                .setSaveOperator(new TestMultiRowOperator(connections).setMaxRowsPerStatement(4))
+                .setSaveCommand(INSERT_COMMAND);
+        descriptor.init();
+        // Descriptor передает оператору команду в обертке для измерений
+        assertNotNull(descriptor.getDescriptorMetrics());
+
+        final var lock = descriptor.getFlushLock();
+        lock.lock();
+        try {
+            for (var i = 0; i < 5; i++) {
+                descriptor.internalProcessObject(new DbSavingTestSupport.TestObject(i, "object-" + i), null);
+            }
+            descriptor.internalSaveData();
+        } finally {
+            lock.unlock();
+        }
+
+        final var executions = connections.getConnection().getExecutions();
+        assertEquals(2, executions.size());
+        assertEquals("INSERT INTO test_objects (id, name) VALUES (?, ?), (?, ?), (?, ?), (?, ?)", executions.get(0).sqlCommand());
+        assertEquals(List.of(0L, "object-0", 1L, "object-1", 2L, "object-2", 3L, "object-3"), executions.get(0).params());
+        assertEquals(INSERT_COMMAND, executions.get(1).sqlCommand());
+        assertEquals(List.of(4L, "object-4"), executions.get(1).params());
+        assertEquals(0, descriptor.getBufferSize());
+
+        // Выполнение производных команд учитывается в измерениях сохранения
+        final var registry = configuration.getSavingMetrics().getMeterRegistry();
+        assertEquals(1, registry.get(DbSavingDescriptorMetrics.METRIC_FLUSH_SERIALIZATION).timer().count());
+        assertEquals(1, registry.get(DbSavingDescriptorMetrics.METRIC_PAYLOAD_BYTES).summary().count());
+        assertTrue(registry.get(DbSavingDescriptorMetrics.METRIC_PAYLOAD_BYTES).summary().totalAmount() > 0);
+    }
+}
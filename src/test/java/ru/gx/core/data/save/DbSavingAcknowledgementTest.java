@@ -0,0 +1,125 @@
+package ru.gx.core.data.save;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import ru.gx.core.data.sqlwrapping.SqlCommandWrapper;
+import ru.gx.core.data.sqlwrapping.memory.MemoryThreadConnectionsWrapper;
+
+import java.sql.SQLException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DbSavingAcknowledgementTest {
+    @Test
+    void acknowledgementsCompleteOutsideFlushLock() throws Exception {
+        final var connections = new MemoryThreadConnectionsWrapper();
+        final var configuration = DbSavingTestSupport.createConfiguration(connections);
+        final var descriptor = DbSavingTestSupport.createDescriptor(configuration, "ack", DbSavingAccumulateMode.PerObject)
+                .setBufferLimit(2);
+        descriptor.setBufferForMs(60_000);
+        descriptor.init();
+
+        final var lockHeldInCallback = new AtomicBoolean(true);
+        final var acknowledgement = descriptor.submitObject(new DbSavingTestSupport.TestObject(1, "first"));
+        assertFalse(acknowledgement.isDone());
+        // Обработчик подтверждения выполняется в потоке сохранения и снова добавляет данные
+        final var chained = acknowledgement.thenRun(() -> {
+            lockHeldInCallback.set(descriptor.getFlushLock().isHeldByCurrentThread());
+            try {
+                descriptor.processObject(new DbSavingTestSupport.TestObject(3, "third"), null);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        // Второй объект заполняет буфер - сохранение выполняется в текущем потоке
+        descriptor.submitObject(new DbSavingTestSupport.TestObject(2, "second"));
+        assertTrue(chained.isDone());
+        chained.get();
+        assertFalse(lockHeldInCallback.get());
+        assertEquals(2, connections.getConnection().getExecutions().size());
+        assertEquals(1, descriptor.getBufferSize());
+    }
+
+    @Test
+    void acknowledgementStaysPendingUntilRetrySucceeds() throws Exception {
+        final var connections = new MemoryThreadConnectionsWrapper();
+        final var failing = new AtomicBoolean(true);
+        final var descriptor = createFailingDescriptor(connections, failing);
+
+        final var acknowledgement = new CompletableFuture<Void>();
+        descriptor.getFlushLock().lock();
+        try {
+            descriptor.internalProcessObject(new DbSavingTestSupport.TestObject(1, "first"), acknowledgement);
+        } finally {
+            descriptor.getFlushLock().unlock();
+        }
+        // Без транзакции ошибка сохранения не пробрасывается: данные остаются в буфере, подтверждение не завершается
+        descriptor.checkNeedToSave();
+        assertFalse(acknowledgement.isDone());
+        assertEquals(1, descriptor.getBufferSize());
+
+        failing.set(false);
+        descriptor.getFlushLock().lock();
+        try {
+            descriptor.internalSaveData();
+        } finally {
+            descriptor.getFlushLock().unlock();
+            descriptor.internalCompleteDeferredAcknowledgements();
+        }
+        assertTrue(acknowledgement.isDone());
+        assertFalse(acknowledgement.isCompletedExceptionally());
+    }
+
+    @Test
+    void resetBufferFailsAcknowledgementsOutsideFlushLock() throws Exception {
+        final var connections = new MemoryThreadConnectionsWrapper();
+        final var descriptor = createFailingDescriptor(connections, new AtomicBoolean(true));
+
+        final var lockHeldInCallback = new AtomicBoolean(true);
+        final var acknowledgement = new CompletableFuture<Void>();
+        acknowledgement.whenComplete((result, error) ->
+                lockHeldInCallback.set(descriptor.getFlushLock().isHeldByCurrentThread()));
+        descriptor.getFlushLock().lock();
+        try {
+            descriptor.internalProcessObject(new DbSavingTestSupport.TestObject(1, "first"), acknowledgement);
+        } finally {
+            descriptor.getFlushLock().unlock();
+        }
+        descriptor.checkNeedToSave();
+        assertFalse(acknowledgement.isDone());
+
+        // Несохраненные данные удаляются из буфера - подтверждение завершается с ошибкой
+        descriptor.resetBuffer();
+        assertTrue(acknowledgement.isCompletedExceptionally());
+        assertThrows(CancellationException.class, acknowledgement::join);
+        assertFalse(lockHeldInCallback.get());
+    }
+
+    @NotNull
+    private static DbSavingDescriptor createFailingDescriptor(
+            @NotNull final MemoryThreadConnectionsWrapper connections,
+            @NotNull final AtomicBoolean failing
+    ) {
+        final var configuration = DbSavingTestSupport.createConfiguration(connections);
+        final var descriptor = DbSavingTestSupport.createDescriptor(configuration, "fail", DbSavingAccumulateMode.PerObject)
+                .setSaveOperator(new DbSavingTestSupport.TestJsonOperator(connections) {
+                    @Override
+                    protected void executeStatementWithBuffer(
+                            @NotNull final SqlCommandWrapper statement,
+                            @NotNull final DbSavingSerializationBuffer buffer
+                    ) throws SQLException {
+                        if (failing.get()) {
+                            throw new SQLException("Test failure", "23505");
+                        }
+                        super.executeStatementWithBuffer(statement, buffer);
+                    }
+                })
+                .setProcessMode(DbSavingProcessMode.Immediate);
+        descriptor.init();
+        return descriptor;
+    }
+}
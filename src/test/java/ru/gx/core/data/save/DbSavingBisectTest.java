@@ -0,0 +1,213 @@
+package ru.gx.core.data.save;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.PayloadApplicationEvent;
+import ru.gx.core.channels.ChannelConfigurationException;
+import ru.gx.core.data.sqlwrapping.SqlCommandWrapper;
+import ru.gx.core.data.sqlwrapping.memory.MemoryThreadConnectionsWrapper;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DbSavingBisectTest {
+    /**
+     * Оператор, завершающий ошибкой с заданным SQLState сохранение данных, содержащих заданную подстроку.
+     */
+    private static class FailingOperator extends DbSavingTestSupport.TestJsonOperator {
+        private final String failingText;
+
+        private final String sqlState;
+
+        private final AtomicInteger calls = new AtomicInteger();
+
+        FailingOperator(
+                @NotNull final MemoryThreadConnectionsWrapper connections,
+                @NotNull final String failingText,
+                @NotNull final String sqlState
+        ) {
+            super(connections);
+            this.failingText = failingText;
+            this.sqlState = sqlState;
+        }
+
+        @Override
+        protected void executeStatementWithBuffer(
+                @NotNull final SqlCommandWrapper statement,
+                @NotNull final DbSavingSerializationBuffer buffer
+        ) throws SQLException {
+            this.calls.incrementAndGet();
+            if (buffer.toString(StandardCharsets.UTF_8).contains(this.failingText)) {
+                throw new SQLException("Test failure", this.sqlState);
+            }
+            super.executeStatementWithBuffer(statement, buffer);
+        }
+    }
+
+    @Test
+    void bisectIsRejectedWhenPartsCanBeSavedTwice() {
+        final var connections = new MemoryThreadConnectionsWrapper();
+        final var configuration = DbSavingTestSupport.createConfiguration(connections);
+        final var descriptor = DbSavingTestSupport.createDescriptor(configuration, "perObject", DbSavingAccumulateMode.PerObject);
+        descriptor.setErrorStrategy(DbSavingErrorStrategy.Bisect);
+        assertThrows(ChannelConfigurationException.class, descriptor::init);
+
+        final var transactional = DbSavingTestSupport.createDescriptor(configuration, "transactional", DbSavingAccumulateMode.PerObject)
+                .setUseTransactionDueSave(true);
+        transactional.setErrorStrategy(DbSavingErrorStrategy.Bisect);
+        assertDoesNotThrow(transactional::init);
+    }
+
+    @Test
+    void bisectIsRejectedWithChunkedFlush() {
+        final var connections = new MemoryThreadConnectionsWrapper();
+        final var configuration = DbSavingTestSupport.createConfiguration(connections);
+        final var byRows = DbSavingTestSupport.createDescriptor(configuration, "byRows", DbSavingAccumulateMode.ListOfObjects)
+                .setFlushChunkRows(100);
+        byRows.setErrorStrategy(DbSavingErrorStrategy.Bisect);
+        assertThrows(ChannelConfigurationException.class, byRows::init);
+
+        final var byBytes = DbSavingTestSupport.createDescriptor(configuration, "byBytes", DbSavingAccumulateMode.ListOfObjects)
+                .setFlushChunkBytes(1024);
+        byBytes.setErrorStrategy(DbSavingErrorStrategy.Bisect);
+        assertThrows(ChannelConfigurationException.class, byBytes::init);
+
+        // В транзакции сохраненные части откатываются
+        final var transactional = DbSavingTestSupport.createDescriptor(configuration, "transactional", DbSavingAccumulateMode.ListOfObjects)
+                .setFlushChunkRows(100)
+                .setUseTransactionDueSave(true);
+        transactional.setErrorStrategy(DbSavingErrorStrategy.Bisect);
+        assertDoesNotThrow(transactional::init);
+    }
+
+    @Test
+    void poisonItemIsSentToDeadLetters() throws Exception {
+        final var connections = new MemoryThreadConnectionsWrapper();
+        final var operator = new FailingOperator(connections, "\"bad\"", "23514");
+        final var deadLetters = new ArrayList<Object>();
+        final var descriptor = createDescriptor(connections, operator);
+        descriptor.setDeadLetterSink((source, item, error) -> deadLetters.add(item));
+
+        final var acknowledgements = enqueue(descriptor, "good-0", "bad", "good-2", "good-3");
+        flush(descriptor);
+
+        assertEquals(1, deadLetters.size());
+        assertEquals(0, descriptor.getBufferSize());
+        assertTrue(descriptor.getLastErrorIntervalMs() < 0);
+        assertFalse(acknowledgements.get(0).isCompletedExceptionally());
+        assertTrue(acknowledgements.get(1).isCompletedExceptionally());
+        assertFalse(acknowledgements.get(2).isCompletedExceptionally());
+        assertTrue(acknowledgements.get(3).isDone());
+    }
+
+    @Test
+    void bisectStopsWhenBothHalvesFail() throws Exception {
+        final var connections = new MemoryThreadConnectionsWrapper();
+        final var operator = new FailingOperator(connections, "bad", "23514");
+        final var deadLetters = new ArrayList<Object>();
+        final var descriptor = createDescriptor(connections, operator);
+        descriptor.setDeadLetterSink((source, item, error) -> deadLetters.add(item));
+
+        enqueue(descriptor, "bad-0", "bad-1", "bad-2", "bad-3");
+        assertThrows(SQLException.class, () -> flush(descriptor));
+
+        // Пачка целиком и одна попытка на каждую половину; данные остаются для повтора
+        assertEquals(3, operator.calls.get());
+        assertTrue(deadLetters.isEmpty());
+        assertEquals(4, descriptor.getBufferSize());
+        assertTrue(descriptor.getLastErrorIntervalMs() >= 0);
+        // Ошибки сохранения половин не учитываются как отдельные ошибки
+        assertEquals(1, descriptor.getConsecutiveErrorsCount());
+    }
+
+    @Test
+    void bisectIsAccountedAsOneFlush() throws Exception {
+        final var connections = new MemoryThreadConnectionsWrapper();
+        final var operator = new FailingOperator(connections, "\"bad\"", "23514");
+        final var events = new ArrayList<Object>();
+        final var descriptor = createDescriptor(DbSavingTestSupport.createConfiguration(connections, events::add), operator);
+        descriptor.setDeadLetterSink((source, item, error) -> {
+        });
+
+        enqueue(descriptor, "good-0", "bad", "good-2", "good-3", "good-4", "good-5", "good-6", "good-7");
+        descriptor.processObject(new DbSavingTestSupport.TestObject(8, "good-8"), new PayloadApplicationEvent<>(this, "saved"));
+        flush(descriptor);
+
+        assertTrue(operator.calls.get() > 2);
+        assertEquals(1, events.size());
+        assertEquals(0, descriptor.getConsecutiveErrorsCount());
+        assertTrue(descriptor.getLastErrorIntervalMs() < 0);
+    }
+
+    @Test
+    void commandErrorIsNotBisected() throws Exception {
+        final var connections = new MemoryThreadConnectionsWrapper();
+        final var operator = new FailingOperator(connections, "good", "42601");
+        final var descriptor = createDescriptor(connections, operator);
+        descriptor.setDeadLetterSink((source, item, error) -> fail("Command error must not send items to dead letters"));
+
+        enqueue(descriptor, "good-0", "good-1", "good-2");
+        assertThrows(SQLException.class, () -> flush(descriptor));
+
+        assertEquals(1, operator.calls.get());
+        assertEquals(3, descriptor.getBufferSize());
+        assertTrue(descriptor.getLastErrorIntervalMs() >= 0);
+    }
+
+    @NotNull
+    private static DbSavingDescriptor createDescriptor(
+            @NotNull final MemoryThreadConnectionsWrapper connections,
+            @NotNull final FailingOperator operator
+    ) {
+        return createDescriptor(DbSavingTestSupport.createConfiguration(connections), operator);
+    }
+
+    @NotNull
+    private static DbSavingDescriptor createDescriptor(
+            @NotNull final AbstractDbSavingConfiguration configuration,
+            @NotNull final FailingOperator operator
+    ) {
+        final var result = DbSavingTestSupport.createDescriptor(configuration, "bisect", DbSavingAccumulateMode.ListOfObjects)
+                .setSaveOperator(operator);
+        result.setBufferForMs(60_000);
+        result.setErrorStrategy(DbSavingErrorStrategy.Bisect);
+        return result.init();
+    }
+
+    @NotNull
+    private static List<CompletableFuture<Void>> enqueue(
+            @NotNull final DbSavingDescriptor descriptor,
+            @NotNull final String... names
+    ) throws Exception {
+        final var result = new ArrayList<CompletableFuture<Void>>();
+        final var lock = descriptor.getFlushLock();
+        lock.lock();
+        try {
+            for (var i = 0; i < names.length; i++) {
+                final var acknowledgement = new CompletableFuture<Void>();
+                descriptor.internalProcessObject(new DbSavingTestSupport.TestObject(i, names[i]), acknowledgement);
+                result.add(acknowledgement);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return result;
+    }
+
+    private static void flush(@NotNull final DbSavingDescriptor descriptor) throws Exception {
+        final var lock = descriptor.getFlushLock();
+        lock.lock();
+        try {
+            descriptor.internalSaveData();
+        } finally {
+            lock.unlock();
+            descriptor.internalCompleteDeferredAcknowledgements();
+        }
+    }
+}
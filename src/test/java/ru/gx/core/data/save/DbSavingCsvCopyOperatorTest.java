@@ -0,0 +1,52 @@
+package ru.gx.core.data.save;
+
+import org.junit.jupiter.api.Test;
+import ru.gx.core.data.sqlwrapping.memory.MemoryThreadConnectionsWrapper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DbSavingCsvCopyOperatorTest {
+    private static final String COPY_COMMAND = "COPY test (id, name) FROM STDIN (FORMAT csv)";
+
+    @Test
+    void descriptorCopiesBufferAsCsvInTransaction() throws Exception {
+        final var connections = new MemoryThreadConnectionsWrapper();
+        final var configuration = DbSavingTestSupport.createConfiguration(connections);
+        final var descriptor = DbSavingTestSupport.createDescriptor(configuration, "csv", DbSavingAccumulateMode.ListOfObjects)
+                .setSaveOperator(new DbSavingCsvCopyOperator("id", "name"))
+                .setSaveCommand(COPY_COMMAND)
+                .setUseTransactionDueSave(true)
+                .setBufferLimit(4);
+        descriptor.setBufferForMs(60_000);
+        descriptor.init();
+
+        descriptor.processObject(new DbSavingTestSupport.TestObject(1, "plain"), null);
+        descriptor.processObject(new DbSavingTestSupport.TestObject(2, "with,comma"), null);
+        descriptor.processObject(new DbSavingTestSupport.TestObject(3, "say \"hi\""), null);
+        final var acknowledgement = descriptor.submitObject(new DbSavingTestSupport.TestObject(4, null));
+
+        assertTrue(acknowledgement.isDone());
+        assertFalse(acknowledgement.isCompletedExceptionally());
+        final var connection = connections.getConnection();
+        assertFalse(connection.isInTransaction());
+        final var executions = connection.getExecutions();
+        assertEquals(1, executions.size());
+        final var execution = executions.get(0);
+        assertEquals(COPY_COMMAND, execution.sqlCommand());
+        assertEquals(4, execution.rows());
+        assertEquals("1,plain\n2,\"with,comma\"\n3,\"say \"\"hi\"\"\"\n4,\n", execution.copyDataAsString());
+    }
+
+    @Test
+    void unsupportedAccumulateModeFailsSave() {
+        final var connections = new MemoryThreadConnectionsWrapper();
+        final var operator = new DbSavingCsvCopyOperator("id", "name");
+        assertThrows(Exception.class, () -> operator.saveData(
+                connections.getConnection(),
+                COPY_COMMAND,
+                "raw",
+                DbSavingAccumulateMode.PerRawObject
+        ));
+        assertTrue(connections.getConnection().getExecutions().isEmpty());
+    }
+}
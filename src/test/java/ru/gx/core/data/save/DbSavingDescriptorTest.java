@@ -0,0 +1,56 @@
+package ru.gx.core.data.save;
+
+import org.junit.jupiter.api.Test;
+import ru.gx.core.data.sqlwrapping.memory.MemoryThreadConnectionsWrapper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DbSavingDescriptorTest {
+    @Test
+    void explicitSaveOperatorIsNotReplacedByDefaults() {
+        final var connections = new MemoryThreadConnectionsWrapper();
+        final var configuration = DbSavingTestSupport.createConfiguration(connections);
+        final var defaultOperator = new DbSavingTestSupport.TestJsonOperator(connections);
+        final var explicitOperator = new DbSavingTestSupport.TestJsonOperator(connections);
+        final var defaults = new DbSavingDescriptorsDefaults()
+                .putSaveOperator(DbSavingSerializeMode.Json, defaultOperator);
+
+        final var explicit = new DbSavingDescriptor(configuration, "explicit", defaults)
+                .setDataObjectClass(DbSavingTestSupport.TestObject.class)
+                .setAccumulateMode(DbSavingAccumulateMode.PerObject)
+                .setSaveCommand(DbSavingTestSupport.SAVE_COMMAND)
+                .setSaveOperator(explicitOperator)
+                .init();
+        assertSame(explicitOperator, explicit.getSaveOperator());
+
+        final var byDefaults = new DbSavingDescriptor(configuration, "defaults", defaults)
+                .setDataObjectClass(DbSavingTestSupport.TestObject.class)
+                .setAccumulateMode(DbSavingAccumulateMode.PerObject)
+                .setSaveCommand(DbSavingTestSupport.SAVE_COMMAND)
+                .init();
+        assertSame(defaultOperator, byDefaults.getSaveOperator());
+    }
+
+    @Test
+    void adaptiveControllerLimitsDrainedBatch() throws Exception {
+        final var connections = new MemoryThreadConnectionsWrapper();
+        final var configuration = DbSavingTestSupport.createConfiguration(connections);
+        final var descriptor = DbSavingTestSupport.createDescriptor(configuration, "adaptive", DbSavingAccumulateMode.ListOfObjects)
+                .setAdaptiveController(new DbSavingAdaptiveController(1000, 2, 100, 10, 1000));
+        descriptor.init();
+
+        final var lock = descriptor.getFlushLock();
+        lock.lock();
+        try {
+            for (var i = 0; i < 5; i++) {
+                descriptor.internalProcessObject(new DbSavingTestSupport.TestObject(i, "object-" + i), null);
+            }
+            descriptor.internalSaveData();
+        } finally {
+            lock.unlock();
+        }
+        // Сохранена пачка размером с лимит контроллера, остальное осталось в накопительном буфере
+        assertEquals(1, connections.getConnection().getExecutions().size());
+        assertEquals(3, descriptor.getBufferSize());
+    }
+}
@@ -0,0 +1,260 @@
+package ru.gx.core.data.save;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.gx.core.data.sqlwrapping.SqlCommandWrapper;
+import ru.gx.core.data.sqlwrapping.memory.MemoryThreadConnectionsWrapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DbSavingJournalReplayTest {
+    @TempDir
+    Path directory;
+
+    /**
+     * Оператор, имитирующий недоступность БД и ошибку в данных объектов с именем "bad".
+     */
+    private static class FailingOperator extends DbSavingTestSupport.TestJsonOperator {
+        private volatile boolean outage;
+
+        private volatile boolean driverFailure;
+
+        FailingOperator(@NotNull final MemoryThreadConnectionsWrapper connections) {
+            super(connections);
+        }
+
+        @Override
+        protected void executeStatementWithBuffer(
+                @NotNull final SqlCommandWrapper statement,
+                @NotNull final DbSavingSerializationBuffer buffer
+        ) throws SQLException {
+            if (this.outage) {
+                throw new SQLTransientConnectionException("Outage", "08006");
+            }
+            if (this.driverFailure) {
+                throw new SQLException("Driver failure");
+            }
+            if (buffer.toString(StandardCharsets.UTF_8).contains("\"bad\"")) {
+                throw new SQLException("Check constraint violated", "23514");
+            }
+            super.executeStatementWithBuffer(statement, buffer);
+        }
+    }
+
+    @Test
+    void poisonRecordStaysInJournalWithRetryStrategy() throws Exception {
+        final var connections = new MemoryThreadConnectionsWrapper();
+        final var operator = new FailingOperator(connections);
+        final var deadLetters = new ArrayList<Object>();
+        try (final var journal = new DbSavingJournal(this.directory, new ObjectMapper())) {
+            final var descriptor = createDescriptor(connections, operator, journal, DbSavingAccumulateMode.ListOfObjects);
+            descriptor.setDeadLetterSink((source, item, error) -> deadLetters.add(item));
+
+            operator.outage = true;
+            final var acknowledgements = submit(descriptor, "good-1", "bad", "good-3");
+            flush(descriptor);
+
+            operator.outage = false;
+            flush(descriptor);
+
+            // Без явного разрешения записи журнала не изымаются
+            assertEquals(1, journal.getRecordsCount());
+            assertTrue(deadLetters.isEmpty());
+            assertTrue(savedNames(connections).isEmpty());
+            assertFalse(acknowledgements.get(0).isDone());
+        }
+    }
+
+    @Test
+    void poisonRecordIsBisectedWhenEnabled() throws Exception {
+        final var connections = new MemoryThreadConnectionsWrapper();
+        final var operator = new FailingOperator(connections);
+        final var deadLetters = new ArrayList<Object>();
+        try (final var journal = new DbSavingJournal(this.directory, new ObjectMapper())) {
+            final var descriptor = createDescriptor(connections, operator, journal, DbSavingAccumulateMode.ListOfObjects);
+            descriptor.setDeadLetterSink((source, item, error) -> deadLetters.add(item));
+            descriptor.setJournalDataErrorsToDeadLetter(true);
+
+            operator.outage = true;
+            final var acknowledgements = submit(descriptor, "good-1", "bad", "good-3");
+            flush(descriptor);
+            assertEquals(1, journal.getRecordsCount());
+            assertTrue(connections.getConnection().getExecutions().isEmpty());
+
+            operator.outage = false;
+            final var next = submit(descriptor, "good-4");
+            flush(descriptor);
+
+            assertTrue(journal.isEmpty());
+            assertEquals(List.of("bad"), deadLetters.stream().map(item -> ((DbSavingTestSupport.TestObject) item).getName()).toList());
+            assertEquals(List.of("good-1", "good-3", "good-4"), savedNames(connections));
+            // Подтверждения элементов, сохраненных при делении записи, завершаются успешно
+            assertTrue(acknowledgements.get(0).isDone());
+            assertFalse(acknowledgements.get(0).isCompletedExceptionally());
+            assertTrue(acknowledgements.get(1).isCompletedExceptionally());
+            assertFalse(acknowledgements.get(2).isCompletedExceptionally());
+            assertFalse(next.get(0).isCompletedExceptionally());
+            assertTrue(next.get(0).isDone());
+        }
+    }
+
+    @Test
+    void poisonRecordWithoutBisectIsSentToDeadLettersWhole() throws Exception {
+        final var connections = new MemoryThreadConnectionsWrapper();
+        final var operator = new FailingOperator(connections);
+        final var deadLetters = new ArrayList<Object>();
+        try (final var journal = new DbSavingJournal(this.directory, new ObjectMapper())) {
+            final var descriptor = createDescriptor(connections, operator, journal, DbSavingAccumulateMode.PerObject);
+            descriptor.setDeadLetterSink((source, item, error) -> deadLetters.add(item));
+            descriptor.setJournalDataErrorsToDeadLetter(true);
+
+            operator.outage = true;
+            submit(descriptor, "good-1", "bad");
+            flush(descriptor);
+            assertEquals(1, journal.getRecordsCount());
+
+            operator.outage = false;
+            flush(descriptor);
+
+            // Журнал не блокируется записью с ошибкой в данных
+            assertTrue(journal.isEmpty());
+            assertEquals(2, deadLetters.size());
+        }
+    }
+
+    @Test
+    void recordStaysInJournalOnTransientError() throws Exception {
+        final var connections = new MemoryThreadConnectionsWrapper();
+        final var operator = new FailingOperator(connections);
+        try (final var journal = new DbSavingJournal(this.directory, new ObjectMapper())) {
+            final var descriptor = createDescriptor(connections, operator, journal, DbSavingAccumulateMode.ListOfObjects);
+
+            operator.outage = true;
+            submit(descriptor, "good-1");
+            flush(descriptor);
+            flush(descriptor);
+            assertEquals(1, journal.getRecordsCount());
+
+            operator.outage = false;
+            flush(descriptor);
+            assertTrue(journal.isEmpty());
+            assertEquals(List.of("good-1"), savedNames(connections));
+        }
+    }
+
+    @Test
+    void recordStaysInJournalWhenBothHalvesFail() throws Exception {
+        final var connections = new MemoryThreadConnectionsWrapper();
+        final var operator = new FailingOperator(connections);
+        final var deadLetters = new ArrayList<Object>();
+        try (final var journal = new DbSavingJournal(this.directory, new ObjectMapper())) {
+            final var descriptor = createDescriptor(connections, operator, journal, DbSavingAccumulateMode.ListOfObjects);
+            descriptor.setDeadLetterSink((source, item, error) -> deadLetters.add(item));
+            descriptor.setJournalDataErrorsToDeadLetter(true);
+
+            operator.outage = true;
+            final var acknowledgements = submit(descriptor, "bad", "bad", "bad", "bad");
+            flush(descriptor);
+
+            operator.outage = false;
+            flush(descriptor);
+            // Ошибка во всех данных записи: поиск останавливается, запись сохраняется повторно
+            assertEquals(1, journal.getRecordsCount());
+            assertTrue(deadLetters.isEmpty());
+            assertFalse(acknowledgements.get(0).isDone());
+        }
+    }
+
+    @Test
+    void recordStaysInJournalOnErrorWithoutDataSqlState() throws Exception {
+        final var connections = new MemoryThreadConnectionsWrapper();
+        final var operator = new FailingOperator(connections);
+        final var deadLetters = new ArrayList<Object>();
+        try (final var journal = new DbSavingJournal(this.directory, new ObjectMapper())) {
+            final var descriptor = createDescriptor(connections, operator, journal, DbSavingAccumulateMode.ListOfObjects);
+            descriptor.setDeadLetterSink((source, item, error) -> deadLetters.add(item));
+            descriptor.setJournalDataErrorsToDeadLetter(true);
+
+            operator.outage = true;
+            submit(descriptor, "good-1", "good-2");
+            flush(descriptor);
+
+            operator.outage = false;
+            operator.driverFailure = true;
+            flush(descriptor);
+            // Ошибка без SQLState не считается ошибкой в данных
+            assertEquals(1, journal.getRecordsCount());
+            assertTrue(deadLetters.isEmpty());
+
+            operator.driverFailure = false;
+            flush(descriptor);
+            assertTrue(journal.isEmpty());
+            assertEquals(List.of("good-1", "good-2"), savedNames(connections));
+        }
+    }
+
+    @NotNull
+    private static DbSavingDescriptor createDescriptor(
+            @NotNull final MemoryThreadConnectionsWrapper connections,
+            @NotNull final FailingOperator operator,
+            @NotNull final DbSavingJournal journal,
+            @NotNull final DbSavingAccumulateMode accumulateMode
+    ) {
+        final var configuration = DbSavingTestSupport.createConfiguration(connections);
+        final var result = DbSavingTestSupport.createDescriptor(configuration, "replay", accumulateMode)
+                .setSaveOperator(operator)
+                .setJournal(journal);
+        result.setBufferForMs(60_000);
+        result.setErrorStrategy(DbSavingErrorStrategy.Retry);
+        return result.init();
+    }
+
+    @NotNull
+    private static List<CompletableFuture<Void>> submit(
+            @NotNull final DbSavingDescriptor descriptor,
+            @NotNull final String... names
+    ) throws SQLException, IOException {
+        final var result = new ArrayList<CompletableFuture<Void>>();
+        for (var i = 0; i < names.length; i++) {
+            result.add(descriptor.submitObject(new DbSavingTestSupport.TestObject(i, names[i])));
+        }
+        return result;
+    }
+
+    private static void flush(@NotNull final DbSavingDescriptor descriptor) throws SQLException, IOException {
+        final var lock = descriptor.getFlushLock();
+        lock.lock();
+        try {
+            descriptor.internalSaveData();
+        } finally {
+            lock.unlock();
+            descriptor.internalCompleteDeferredAcknowledgements();
+        }
+    }
+
+    @NotNull
+    private static List<String> savedNames(@NotNull final MemoryThreadConnectionsWrapper connections) throws IOException {
+        final var result = new ArrayList<String>();
+        final var objectMapper = new ObjectMapper();
+        for (final var execution : connections.getConnection().getExecutions()) {
+            final var json = objectMapper.readTree((String) execution.params().get(0));
+            if (json.isArray()) {
+                json.forEach(item -> result.add(item.get("name").asText()));
+            } else {
+                result.add(json.get("name").asText());
+            }
+        }
+        return result;
+    }
+}
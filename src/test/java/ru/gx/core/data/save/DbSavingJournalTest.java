@@ -0,0 +1,145 @@
+package ru.gx.core.data.save;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DbSavingJournalTest {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recordsAreReadInOrderAndReadPositionSurvivesReopen() throws IOException {
+        try (final var journal = new DbSavingJournal(this.directory, OBJECT_MAPPER, 1024)) {
+            journal.append(bytes("first"));
+            journal.append(bytes("second"));
+            journal.append(bytes("third"));
+            assertEquals(3, journal.getRecordsCount());
+
+            final var first = journal.peek();
+            assertNotNull(first);
+            assertEquals("first", string(first.payload()));
+            // Без подтверждения запись читается повторно
+            assertEquals(first.id(), journal.peek().id());
+            journal.commit(first);
+        }
+
+        try (final var journal = new DbSavingJournal(this.directory, OBJECT_MAPPER, 1024)) {
+            assertEquals(2, journal.getRecordsCount());
+            assertEquals(bytes("second").length + bytes("third").length, journal.getPendingBytes());
+            final var second = journal.peek();
+            assertEquals("second", string(second.payload()));
+            assertThrows(IllegalStateException.class, () -> journal.commit(new DbSavingJournal.Record(second.id() + 1, second.payload())));
+            journal.commit(second);
+            journal.commit(journal.peek());
+            assertTrue(journal.isEmpty());
+            assertNull(journal.peek());
+        }
+    }
+
+    @Test
+    void recordWithWrongCrcAndTornTailAreDiscardedOnOpen() throws IOException {
+        try (final var journal = new DbSavingJournal(this.directory, OBJECT_MAPPER, 1024)) {
+            journal.append(bytes("valid"));
+            journal.append(bytes("corrupted"));
+        }
+        // Повреждение данных второй записи: CRC не совпадает
+        final var segment = singleSegment();
+        final var secondPayloadOffset = DbSavingJournal.RECORD_HEADER_SIZE + bytes("valid").length + DbSavingJournal.RECORD_HEADER_SIZE;
+        try (final var channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{'X'}), secondPayloadOffset);
+        }
+
+        try (final var journal = new DbSavingJournal(this.directory, OBJECT_MAPPER, 1024)) {
+            assertEquals(1, journal.getRecordsCount());
+            // Новая запись пишется на место отброшенной
+            journal.append(bytes("next"));
+        }
+
+        // Недописанная запись: длина записана, данных нет
+        try (final var channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final var tailOffset = 2L * DbSavingJournal.RECORD_HEADER_SIZE + bytes("valid").length + bytes("next").length;
+            channel.write(ByteBuffer.allocate(4).putInt(0, 100), tailOffset);
+        }
+
+        try (final var journal = new DbSavingJournal(this.directory, OBJECT_MAPPER, 1024)) {
+            assertEquals(2, journal.getRecordsCount());
+            final var valid = journal.peek();
+            assertEquals("valid", string(valid.payload()));
+            journal.commit(valid);
+            final var next = journal.peek();
+            assertEquals("next", string(next.payload()));
+            journal.commit(next);
+            assertNull(journal.peek());
+        }
+    }
+
+    @Test
+    void readSegmentsAreDeleted() throws IOException {
+        final var payload = new byte[40];
+        try (final var journal = new DbSavingJournal(this.directory, OBJECT_MAPPER, 64)) {
+            // В сегмент помещается одна запись
+            for (var i = 0; i < 3; i++) {
+                payload[0] = (byte) i;
+                journal.append(payload);
+            }
+            assertEquals(3, segments().size());
+
+            for (var i = 0; i < 3; i++) {
+                final var record = journal.peek();
+                assertEquals(i, record.payload()[0]);
+                journal.commit(record);
+            }
+            assertNull(journal.peek());
+            assertEquals(1, segments().size());
+        }
+        try (final var journal = new DbSavingJournal(this.directory, OBJECT_MAPPER, 64)) {
+            assertTrue(journal.isEmpty());
+        }
+    }
+
+    @Test
+    void recordLargerThanSegmentGetsOwnSegment() throws IOException {
+        try (final var journal = new DbSavingJournal(this.directory, OBJECT_MAPPER, 64)) {
+            final var large = new byte[1000];
+            large[999] = 7;
+            journal.append(large);
+            final var record = journal.peek();
+            assertArrayEquals(large, record.payload());
+        }
+    }
+
+    private static byte[] bytes(final String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(final byte[] value) {
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (final var files = Files.list(this.directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".journal")).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private Path singleSegment() throws IOException {
+        final var result = segments();
+        assertEquals(1, result.size());
+        return result.get(0);
+    }
+}
@@ -0,0 +1,90 @@
+package ru.gx.core.data.save;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import ru.gx.core.data.DataObjectKeyExtractor;
+import ru.gx.core.data.errors.BufferIsFullException;
+import ru.gx.core.data.sqlwrapping.SqlCommandWrapper;
+import ru.gx.core.data.sqlwrapping.memory.MemoryThreadConnectionsWrapper;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DbSavingPartitionsTest {
+    @Test
+    void setAcknowledgementFailsWhenPartitionIsFull() {
+        final var connections = new MemoryThreadConnectionsWrapper();
+        final var configuration = DbSavingTestSupport.createConfiguration(connections);
+        final DataObjectKeyExtractor<DbSavingTestSupport.TestObject> keyExtractor = DbSavingTestSupport.TestObject::getId;
+        final var descriptor = DbSavingTestSupport.createDescriptor(configuration, "partitioned", DbSavingAccumulateMode.ListOfObjects)
+                // Сохранения не выполняются: данные остаются в буферах разделов
+                .setSaveOperator(new DbSavingTestSupport.TestJsonOperator(connections) {
+                    @Override
+                    protected void executeStatementWithBuffer(
+                            @NotNull final SqlCommandWrapper statement,
+                            @NotNull final DbSavingSerializationBuffer buffer
+                    ) throws SQLException {
+                        throw new SQLException("Test failure", "23505");
+                    }
+                })
+                .setPartitionsCount(2)
+                .setPartitionKeyExtractor(keyExtractor)
+                .setBufferLimit(10);
+        descriptor.setBufferForMs(60_000);
+        descriptor.init();
+        final var fullPartition = descriptor.getPartitions().get(partitionOf(descriptor, 0));
+        final var otherPartition = descriptor.getPartitions().get(partitionOf(descriptor, 1));
+        assertNotSame(fullPartition, otherPartition);
+
+        // Заполнение раздела объектами с четными ключами
+        final var filling = new ArrayList<DbSavingTestSupport.TestObject>();
+        for (var i = 0; filling.size() <= fullPartition.getBufferLimit() + fullPartition.getAllowableBufferOversize(); i++) {
+            final var object = new DbSavingTestSupport.TestObject(i, "object-" + i);
+            if (partitionOf(descriptor, i) == partitionOf(descriptor, 0)) {
+                filling.add(object);
+            }
+        }
+        descriptor.internalEnqueueAll(filling);
+        assertTrue(fullPartition.isBufferFull());
+
+        final var acknowledgement = new CompletableFuture<Void>();
+        final var set = List.of(
+                new DbSavingTestSupport.TestObject(1, "other"),
+                new DbSavingTestSupport.TestObject(0, "full")
+        );
+        assertThrows(BufferIsFullException.class, () -> descriptor.internalEnqueueAll(set, acknowledgement));
+
+        // Первый элемент набора уже добавлен в другой раздел, но набор целиком не принят
+        assertEquals(1, otherPartition.getBufferSize());
+        assertTrue(acknowledgement.isCompletedExceptionally());
+        final var error = assertThrows(ExecutionException.class, acknowledgement::get);
+        assertInstanceOf(BufferIsFullException.class, error.getCause());
+    }
+
+    @Test
+    void partitionsKeepOwnerSettings() {
+        final var connections = new MemoryThreadConnectionsWrapper();
+        final var configuration = DbSavingTestSupport.createConfiguration(connections);
+        final DataObjectKeyExtractor<DbSavingTestSupport.TestObject> keyExtractor = DbSavingTestSupport.TestObject::getId;
+        final var descriptor = DbSavingTestSupport.createDescriptor(configuration, "partitioned", DbSavingAccumulateMode.PerObject)
+                .setPartitionsCount(2)
+                .setPartitionKeyExtractor(keyExtractor);
+        descriptor.init();
+
+        for (final var partition : descriptor.getPartitions()) {
+            assertSame(descriptor, partition.getPartitionOwner());
+            assertEquals(descriptor.getMessageClass(), partition.getMessageClass());
+            assertSame(descriptor.getSaveOperator(), partition.getSaveOperator());
+            assertEquals(descriptor.getAccumulateMode(), partition.getAccumulateMode());
+        }
+    }
+
+    private static int partitionOf(@NotNull final DbSavingDescriptor descriptor, final long id) {
+        return descriptor.getPartitionIndex(new DbSavingTestSupport.TestObject(id, null));
+    }
+}
@@ -0,0 +1,96 @@
+package ru.gx.core.data.save;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DbSavingPayloadArenaTest {
+    @Test
+    void releasedCurrentChunkIsUsedFromStart() {
+        final var arena = new DbSavingPayloadArena(64, 2);
+        final var data = new byte[40];
+        for (var i = 0; i < 100; i++) {
+            // Фрагменты не помещаются в блок вдвоем, но каждый освобождается до размещения следующего
+            arena.allocate(data, 0, data.length).release();
+        }
+        assertEquals(0, arena.getUsedBytes());
+        assertEquals(64, arena.getAllocatedBytes());
+    }
+
+    @Test
+    void filledChunkIsPooledAfterItsSlicesAreReleased() {
+        final var arena = new DbSavingPayloadArena(64, 2);
+        final var data = new byte[40];
+        final var first = arena.allocate(data, 0, data.length);
+        final var second = arena.allocate(data, 0, data.length);
+        assertEquals(128, arena.getAllocatedBytes());
+        first.release();
+        second.release();
+        // Первый блок возвращен в пул и используется вместо нового
+        arena.allocate(data, 0, data.length);
+        assertEquals(128, arena.getAllocatedBytes());
+    }
+
+    @Test
+    void oversizedSliceIsNotPooled() {
+        final var arena = new DbSavingPayloadArena(64, 2);
+        final var oversized = arena.allocate(new byte[100], 0, 100);
+        arena.allocate(new byte[40], 0, 40);
+        assertEquals(164, arena.getAllocatedBytes());
+        oversized.release();
+        assertEquals(64, arena.getAllocatedBytes());
+    }
+
+    @Test
+    void concurrentAllocateAndReleaseKeepSlicesIntact() throws InterruptedException {
+        final var producersCount = 4;
+        final var perProducer = 20_000;
+        final var arena = new DbSavingPayloadArena(256, 4);
+        final BlockingQueue<Object[]> queue = new ArrayBlockingQueue<>(64);
+        final var start = new CountDownLatch(1);
+        final var producers = new ArrayList<Thread>();
+        for (var p = 0; p < producersCount; p++) {
+            final var producerIndex = p;
+            final var producer = new Thread(() -> {
+                try {
+                    start.await();
+                    for (var i = 0; i < perProducer; i++) {
+                        final var data = new byte[1 + (i + producerIndex) % 48];
+                        Arrays.fill(data, (byte) (producerIndex * 31 + i));
+                        queue.put(new Object[]{arena.allocate(data, 0, data.length), data});
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            producers.add(producer);
+            producer.start();
+        }
+
+        final var corrupted = new AtomicBoolean();
+        start.countDown();
+        for (var received = 0; received < producersCount * perProducer; received++) {
+            final var element = queue.take();
+            final var slice = (DbSavingPayloadArena.Slice) element[0];
+            // Блок не должен использоваться повторно, пока в нем есть неосвобожденный фрагмент
+            if (!Arrays.equals((byte[]) element[1], slice.toByteArray())) {
+                corrupted.set(true);
+            }
+            slice.release();
+        }
+        for (final var producer : producers) {
+            producer.join();
+        }
+        assertFalse(corrupted.get(), "Slice data was overwritten before release");
+        assertEquals(0, arena.getUsedBytes());
+        // Блоки возвращаются в пул: новые блоки выделяются только при исчерпании пула
+        assertTrue(arena.getAllocatedBytes() <= 256L * 64, "Chunks are not recycled: " + arena.getAllocatedBytes());
+    }
+}
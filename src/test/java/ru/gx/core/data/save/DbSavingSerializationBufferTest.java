@@ -0,0 +1,82 @@
+package ru.gx.core.data.save;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DbSavingSerializationBufferTest {
+    @Test
+    void releasedBufferIsReusedAndNotSharedWhileBorrowed() {
+        final var first = DbSavingSerializationBuffer.acquire();
+        final var second = DbSavingSerializationBuffer.acquire();
+        assertNotSame(first, second);
+        first.writeString("data");
+        first.release();
+        // Повторный возврат не должен добавить буфер в пул второй раз
+        first.release();
+
+        final var reused = DbSavingSerializationBuffer.acquire();
+        final var other = DbSavingSerializationBuffer.acquire();
+        assertNotSame(reused, other);
+        assertEquals(0, reused.size());
+        reused.release();
+        other.release();
+        second.release();
+    }
+
+    @Test
+    void ownedBufferIsNotReturnedToPool() {
+        final var owned = new DbSavingSerializationBuffer();
+        owned.release();
+        for (var i = 0; i < DbSavingSerializationBuffer.MAX_POOLED_BUFFERS + 1; i++) {
+            assertNotSame(owned, DbSavingSerializationBuffer.acquire());
+        }
+    }
+
+    @Test
+    void codecRoundTripFromManyThreads() throws InterruptedException {
+        final var payload = new StringBuilder();
+        for (var i = 0; i < 2000; i++) {
+            payload.append("{\"id\":").append(i).append(",\"name\":\"item\"}");
+        }
+        final var expected = payload.toString().getBytes(StandardCharsets.UTF_8);
+        final var failure = new AtomicReference<Throwable>();
+        final var start = new CountDownLatch(1);
+        final var threads = new ArrayList<Thread>();
+        for (var t = 0; t < 8; t++) {
+            final var thread = new Thread(() -> {
+                try {
+                    start.await();
+                    for (var i = 0; i < 200; i++) {
+                        final var source = DbSavingSerializationBuffer.acquire();
+                        source.write(expected, 0, expected.length);
+                        final var encoded = DbSavingPayloadCodec.encode(source, DbSavingCompression.Deflate, 128, 1);
+                        try {
+                            assertNotSame(source, encoded);
+                            final var decoded = DbSavingPayloadCodec.decode(Arrays.copyOf(encoded.getBufferArray(), encoded.size()));
+                            assertArrayEquals(expected, decoded);
+                        } finally {
+                            encoded.release();
+                            source.release();
+                        }
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (final var thread : threads) {
+            thread.join();
+        }
+        assertNull(failure.get());
+    }
+}
@@ -0,0 +1,131 @@
+package ru.gx.core.data.save;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.context.ApplicationEventPublisher;
+import ru.gx.core.data.DataObject;
+import ru.gx.core.data.sqlwrapping.SqlCommandWrapper;
+import ru.gx.core.data.sqlwrapping.ThreadConnectionsWrapper;
+import ru.gx.core.data.sqlwrapping.memory.MemoryThreadConnectionsWrapper;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+/**
+ * Общие объекты тестов сохранения: объект данных, конфигурация и оператор сохранения Json
+ * поверх соединения-заглушки в памяти.
+ */
+final class DbSavingTestSupport {
+    static final String SAVE_COMMAND = "call test_save(?)";
+
+    private DbSavingTestSupport() {
+    }
+
+    @NotNull
+    static TestConfiguration createConfiguration(@NotNull final MemoryThreadConnectionsWrapper connections) {
+        return new TestConfiguration(connections, event -> {
+        });
+    }
+
+    @NotNull
+    static TestConfiguration createConfiguration(
+            @NotNull final MemoryThreadConnectionsWrapper connections,
+            @NotNull final ApplicationEventPublisher eventPublisher
+    ) {
+        return new TestConfiguration(connections, eventPublisher);
+    }
+
+    /**
+     * @return Неинициализированный Descriptor сохранения объектов {@link TestObject} в режиме Json.
+     */
+    @NotNull
+    static DbSavingDescriptor createDescriptor(
+            @NotNull final AbstractDbSavingConfiguration configuration,
+            @NotNull final String channelName,
+            @NotNull final DbSavingAccumulateMode accumulateMode
+    ) {
+        return new DbSavingDescriptor(configuration, channelName, null)
+                .setDataObjectClass(TestObject.class)
+                .setSerializeMode(DbSavingSerializeMode.Json)
+                .setAccumulateMode(accumulateMode)
+                .setSaveOperator(new TestJsonOperator(configuration.getThreadConnectionsWrapper()))
+                .setSaveCommand(SAVE_COMMAND)
+                .setUseTransactionDueSave(false)
+                .setBufferLimit(1000);
+    }
+
+    @NotNull
+    static SqlCommandWrapper prepareCallable(
+            @NotNull final ThreadConnectionsWrapper connections,
+            @NotNull final String sqlCommand
+    ) throws SQLException {
+        try {
+            return connections.getCurrentThreadConnection().getCallable(sqlCommand);
+        } catch (IOException e) {
+            throw new SQLException(e);
+        }
+    }
+
+    static class TestObject implements DataObject {
+        private final long id;
+
+        private final String name;
+
+        @JsonCreator
+        TestObject(@JsonProperty("id") final long id, @JsonProperty("name") @Nullable final String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        public long getId() {
+            return this.id;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+    }
+
+    static class TestConfiguration extends AbstractDbSavingConfiguration {
+        TestConfiguration(
+                @NotNull final ThreadConnectionsWrapper connections,
+                @NotNull final ApplicationEventPublisher eventPublisher
+        ) {
+            super("test", eventPublisher, connections, new SimpleMeterRegistry());
+        }
+
+        @Override
+        public void setFlushScheduler(@Nullable final DbSavingFlushScheduler flushScheduler) {
+            super.setFlushScheduler(flushScheduler);
+        }
+    }
+
+    static class TestJsonOperator extends AbstractJsonDbSavingOperator {
+        @NotNull
+        private final ThreadConnectionsWrapper connections;
+
+        TestJsonOperator(@NotNull final ThreadConnectionsWrapper connections) {
+            super(new ObjectMapper());
+            this.connections = connections;
+        }
+
+        @Override
+        @NotNull
+        public SqlCommandWrapper prepareStatement(
+                @NotNull final String sqlCommand,
+                @NotNull final DbSavingAccumulateMode accumulateMode
+        ) throws SQLException {
+            return prepareCallable(this.connections, sqlCommand);
+        }
+
+        @Override
+        protected void executeStatement(@NotNull final SqlCommandWrapper statement, @NotNull final Object data) throws SQLException {
+            statement.setStringParam(1, (String) data);
+            statement.executeNoResult();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package ru.gx.core.data.save;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MpscRingBufferTest {
+    @Test
+    void capacityIsRoundedUpToPowerOfTwo() {
+        assertEquals(1, new MpscRingBuffer<>(1).getCapacity());
+        assertEquals(8, new MpscRingBuffer<>(5).getCapacity());
+        assertEquals(8, new MpscRingBuffer<>(8).getCapacity());
+        assertThrows(IllegalArgumentException.class, () -> new MpscRingBuffer<>(0));
+    }
+
+    @Test
+    void offerFailsWhenFullAndSucceedsAfterPoll() {
+        final var ring = new MpscRingBuffer<Integer>(4);
+        for (var i = 0; i < 4; i++) {
+            assertTrue(ring.offer(i));
+        }
+        assertFalse(ring.offer(4));
+        assertEquals(4, ring.size());
+        assertEquals(0, ring.poll());
+        assertTrue(ring.offer(4));
+        assertFalse(ring.offer(5));
+    }
+
+    @Test
+    void keepsOrderAcrossManyWrapArounds() {
+        final var ring = new MpscRingBuffer<Integer>(4);
+        var next = 0;
+        var expected = 0;
+        for (var lap = 0; lap < 1000; lap++) {
+            // Разное количество элементов на круге, чтобы граница круга смещалась
+            final var count = 1 + lap % 4;
+            for (var i = 0; i < count; i++) {
+                assertTrue(ring.offer(next++));
+            }
+            final var drained = new ArrayList<Integer>();
+            assertEquals(count, ring.drain(drained::add));
+            for (final var value : drained) {
+                assertEquals(expected++, value);
+            }
+            assertTrue(ring.isEmpty());
+        }
+        assertNull(ring.poll());
+    }
+
+    @Test
+    void drainRespectsLimit() {
+        final var ring = new MpscRingBuffer<Integer>(8);
+        for (var i = 0; i < 6; i++) {
+            ring.offer(i);
+        }
+        final var drained = new ArrayList<Integer>();
+        assertEquals(4, ring.drain(drained::add, 4));
+        assertEquals(List.of(0, 1, 2, 3), drained);
+        assertEquals(2, ring.size());
+    }
+
+    @Test
+    void offerAllIsAllOrNothing() {
+        final var ring = new MpscRingBuffer<Integer>(8);
+        assertTrue(ring.offerAll(List.of(1, 2, 3, 4, 5)));
+        assertFalse(ring.offerAll(List.of(6, 7, 8, 9)));
+        assertEquals(5, ring.size());
+        assertTrue(ring.offerAll(List.of(6, 7, 8)));
+        assertFalse(ring.offer(9));
+        assertFalse(ring.offerAll(List.of(1, 2, 3, 4, 5, 6, 7, 8, 9)));
+
+        final var drained = new ArrayList<Integer>();
+        ring.drain(drained::add);
+        assertEquals(List.of(1, 2, 3, 4, 5, 6, 7, 8), drained);
+
+        // Набор, который пересекает границу круга
+        assertTrue(ring.offerAll(List.of(10, 11, 12, 13, 14, 15)));
+        drained.clear();
+        ring.drain(drained::add);
+        assertEquals(List.of(10, 11, 12, 13, 14, 15), drained);
+    }
+
+    @Test
+    void concurrentProducersLoseNothingAndKeepPerProducerOrder() throws InterruptedException {
+        final var producersCount = 4;
+        final var perProducer = 50_000;
+        final var ring = new MpscRingBuffer<long[]>(1024);
+        final var start = new CountDownLatch(1);
+        final var producers = new ArrayList<Thread>();
+        for (var p = 0; p < producersCount; p++) {
+            final var producerIndex = p;
+            final var producer = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (var i = 0; i < perProducer; i++) {
+                    final var element = new long[]{producerIndex, i};
+                    if (i % 10 == 0) {
+                        while (!ring.offerAll(List.of(element))) {
+                            Thread.onSpinWait();
+                        }
+                    } else {
+                        while (!ring.offer(element)) {
+                            Thread.onSpinWait();
+                        }
+                    }
+                }
+            });
+            producers.add(producer);
+            producer.start();
+        }
+
+        final var lastSeen = new long[producersCount];
+        Arrays.fill(lastSeen, -1);
+        final var failed = new AtomicBoolean();
+        var received = 0L;
+        start.countDown();
+        while (received < (long) producersCount * perProducer) {
+            final var element = ring.poll();
+            if (element == null) {
+                Thread.onSpinWait();
+                continue;
+            }
+            final var producerIndex = (int) element[0];
+            if (element[1] != lastSeen[producerIndex] + 1) {
+                failed.set(true);
+            }
+            lastSeen[producerIndex] = element[1];
+            received++;
+        }
+        for (final var producer : producers) {
+            producer.join();
+        }
+        assertFalse(failed.get(), "Elements of a producer were reordered");
+        assertTrue(ring.isEmpty());
+    }
+}